@@ -0,0 +1,170 @@
+package com.flowable.demo.benchmarks;
+
+import com.flowable.demo.InsuranceClaimApplication;
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.InsurancePolicy;
+import com.flowable.demo.domain.model.User;
+import com.flowable.demo.domain.repository.InsurancePolicyRepository;
+import com.flowable.demo.domain.repository.UserRepository;
+import com.flowable.demo.service.CaseService;
+import com.flowable.demo.service.ClaimStatisticsService;
+import com.flowable.demo.web.rest.CaseResource;
+import com.flowable.demo.web.rest.TaskResource;
+import com.flowable.demo.web.rest.dto.ClaimCaseDTO;
+import org.flowable.cmmn.api.CmmnManagementService;
+import org.flowable.cmmn.api.CmmnTaskService;
+import org.flowable.common.engine.api.FlowableObjectNotFoundException;
+import org.flowable.job.api.Job;
+import org.flowable.task.api.Task;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基准共享状态：每个 fork 启动一次完整的 Spring 上下文（内存 H2），
+ * 用 JDBC 批量填充 datasetSize 个理赔案件，再通过 CaseService 创建 liveCases 个带有运行中 CMMN 实例的案件
+ */
+@State(Scope.Benchmark)
+public class ClaimBenchmarkState {
+
+    public static final String REVIEW_TASK = "taskReviewClaim";
+    public static final String FINAL_APPROVAL_TASK = "taskFinalApproval";
+
+    private static final String BENCHMARK_USER = "admin";
+    private static final String BENCHMARK_POLICY_TYPE = "车险";
+    private static final long TASK_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+
+    @Param({ "1000", "100000", "1000000" })
+    public int datasetSize;
+
+    @Param({ "200" })
+    public int liveCases;
+
+    public ConfigurableApplicationContext context;
+    public CaseService caseService;
+    public CaseResource caseResource;
+    public TaskResource taskResource;
+    public CmmnTaskService cmmnTaskService;
+    public CmmnManagementService cmmnManagementService;
+
+    public User user;
+    public InsurancePolicy policy;
+    public List<String> liveCaseInstanceIds;
+    public int claimCount;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // 以命令行参数传入，优先级高于 application.yml
+        context = new SpringApplicationBuilder(InsuranceClaimApplication.class).run(
+                // 不激活 dev profile：避免 DEBUG 日志和 SQL 打印计入耗时
+                "--spring.profiles.active=benchmark",
+                "--spring.datasource.url=jdbc:h2:mem:claims-benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                "--logging.level.root=WARN",
+                "--server.port=0",
+                // 异步作业由 awaitTask 在调用线程上执行，结果可复现
+                "--flowable.async-executor-activate=false",
+                "--flowable.cmmn.async-executor-activate=false");
+        caseService = context.getBean(CaseService.class);
+        caseResource = context.getBean(CaseResource.class);
+        taskResource = context.getBean(TaskResource.class);
+        cmmnTaskService = context.getBean(CmmnTaskService.class);
+        cmmnManagementService = context.getBean(CmmnManagementService.class);
+
+        user = context.getBean(UserRepository.class).findByUsername(BENCHMARK_USER)
+                .orElseThrow(() -> new IllegalStateException("User not found: " + BENCHMARK_USER));
+        List<InsurancePolicy> policies = context.getBean(InsurancePolicyRepository.class).findAll();
+        policy = policies.stream()
+                .filter(candidate -> BENCHMARK_POLICY_TYPE.equals(candidate.getPolicyType()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No " + BENCHMARK_POLICY_TYPE + " policy"));
+
+        new ClaimDatasetSeeder(context.getBean(JdbcTemplate.class))
+                .seed(datasetSize, policies.stream().map(InsurancePolicy::getId).toList(), user.getId());
+        context.getBean(ClaimStatisticsService.class).reconcile();
+
+        liveCaseInstanceIds = new ArrayList<>(liveCases);
+        for (int i = 0; i < liveCases; i++) {
+            ClaimCase claimCase = createClaim();
+            awaitTask(claimCase.getCaseInstanceId(), REVIEW_TASK);
+            liveCaseInstanceIds.add(claimCase.getCaseInstanceId());
+        }
+        claimCount = datasetSize + liveCases;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    /**
+     * 通过 CaseService 创建一个小额车险案件（理赔分级结果为直接进入终审）
+     */
+    public ClaimCase createClaim() {
+        return caseService.createClaimCase(newClaimDto());
+    }
+
+    public ClaimCaseDTO newClaimDto() {
+        ClaimCaseDTO dto = new ClaimCaseDTO();
+        dto.setPolicyId(policy.getId().toString());
+        dto.setClaimantName("Benchmark Claimant");
+        dto.setClaimantPhone("13800000000");
+        dto.setIncidentDate(LocalDate.now().minusDays(1).toString());
+        dto.setIncidentLocation("Benchmark");
+        dto.setIncidentDescription("Benchmark claim");
+        dto.setClaimedAmount(500.0);
+        dto.setClaimType("交通事故");
+        dto.setSeverity("LOW");
+        dto.setCreatedById(user.getId().toString());
+        return dto;
+    }
+
+    /**
+     * 等待案件的指定任务出现；期间在当前线程执行该案件的到期作业（如异步的 Triage 阶段）
+     */
+    public Task awaitTask(String caseInstanceId, String taskDefinitionKey) {
+        long deadline = System.currentTimeMillis() + TASK_TIMEOUT_MS;
+        while (true) {
+            Task task = cmmnTaskService.createTaskQuery()
+                    .caseInstanceId(caseInstanceId)
+                    .taskDefinitionKey(taskDefinitionKey)
+                    .singleResult();
+            if (task != null) {
+                return task;
+            }
+            for (Job job : cmmnManagementService.createJobQuery().caseInstanceId(caseInstanceId).list()) {
+                try {
+                    cmmnManagementService.executeJob(job.getId());
+                } catch (FlowableObjectNotFoundException e) {
+                    // 作业已被执行
+                }
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Task " + taskDefinitionKey + " did not appear for case instance "
+                        + caseInstanceId);
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.flowable.demo.benchmarks;
+
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.web.rest.dto.ApproveRequestDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 理赔生命周期写路径基准：立案、完成审核、批准
+ * 每次调用耗时在毫秒级，被测案件在 Level.Invocation 的准备阶段推进到目标任务，准备耗时不计入结果
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx4g" })
+public class ClaimLifecycleBenchmark {
+
+    /**
+     * 审核任务已激活的案件
+     */
+    @State(Scope.Thread)
+    public static class ReviewReadyClaim {
+        UUID claimId;
+
+        @Setup(Level.Invocation)
+        public void prepare(ClaimBenchmarkState state) {
+            ClaimCase claimCase = state.createClaim();
+            state.awaitTask(claimCase.getCaseInstanceId(), ClaimBenchmarkState.REVIEW_TASK);
+            claimId = claimCase.getId();
+        }
+    }
+
+    /**
+     * 已完成审核、终审任务已激活的案件
+     */
+    @State(Scope.Thread)
+    public static class ApprovalReadyClaim {
+        UUID claimId;
+
+        @Setup(Level.Invocation)
+        public void prepare(ClaimBenchmarkState state) {
+            ClaimCase claimCase = state.createClaim();
+            state.awaitTask(claimCase.getCaseInstanceId(), ClaimBenchmarkState.REVIEW_TASK);
+            state.caseService.completeReviewTask(claimCase.getId(), state.user.getUsername(), "ok", null);
+            state.awaitTask(claimCase.getCaseInstanceId(), ClaimBenchmarkState.FINAL_APPROVAL_TASK);
+            claimId = claimCase.getId();
+        }
+    }
+
+    @Benchmark
+    public ClaimCase createClaimCase(ClaimBenchmarkState state) {
+        return state.caseService.createClaimCase(state.newClaimDto());
+    }
+
+    @Benchmark
+    public ClaimCase completeReviewTask(ClaimBenchmarkState state, ReviewReadyClaim claim) {
+        return state.caseService.completeReviewTask(claim.claimId, state.user.getUsername(), "ok", null);
+    }
+
+    @Benchmark
+    public ClaimCase approveClaimCase(ClaimBenchmarkState state, ApprovalReadyClaim claim) {
+        return state.caseService.approveClaimCase(claim.claimId, state.user.getId().toString(),
+                new ApproveRequestDTO(new BigDecimal("500"), "ok"));
+    }
+}
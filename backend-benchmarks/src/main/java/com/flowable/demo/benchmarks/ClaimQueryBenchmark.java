@@ -0,0 +1,77 @@
+package com.flowable.demo.benchmarks;
+
+import com.flowable.demo.web.rest.dto.ClaimCaseDTO;
+import com.flowable.demo.web.rest.dto.TaskDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 读路径基准：案件列表分页及 DTO 转换、统计、待办/可认领任务、按案件查询任务
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx4g" })
+public class ClaimQueryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    /**
+     * 列表首页（最常见的访问）
+     */
+    @Benchmark
+    public ResponseEntity<Page<ClaimCaseDTO>> claimPageFirst(ClaimBenchmarkState state) {
+        return state.caseResource.getAllClaimCases(PageRequest.of(0, PAGE_SIZE, NEWEST_FIRST));
+    }
+
+    /**
+     * 列表末页：OFFSET 分页的最坏情况
+     */
+    @Benchmark
+    public ResponseEntity<Page<ClaimCaseDTO>> claimPageLast(ClaimBenchmarkState state) {
+        int lastPage = (state.claimCount - 1) / PAGE_SIZE;
+        return state.caseResource.getAllClaimCases(PageRequest.of(lastPage, PAGE_SIZE, NEWEST_FIRST));
+    }
+
+    @Benchmark
+    public Map<String, Object> claimCaseStatistics(ClaimBenchmarkState state) {
+        return state.caseService.getClaimCaseStatistics();
+    }
+
+    @Benchmark
+    public ResponseEntity<Page<TaskDTO>> myTasks(ClaimBenchmarkState state) {
+        return state.taskResource.getMyTasks(state.user.getUsername(), firstTaskPage());
+    }
+
+    @Benchmark
+    public ResponseEntity<Page<TaskDTO>> claimableTasks(ClaimBenchmarkState state) {
+        return state.taskResource.getClaimableTasks(state.user.getUsername(), firstTaskPage());
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> tasksByCase(ClaimBenchmarkState state) {
+        String caseInstanceId = state.liveCaseInstanceIds.get(
+                ThreadLocalRandom.current().nextInt(state.liveCaseInstanceIds.size()));
+        return state.taskResource.getTasksByCase(caseInstanceId, state.user.getUsername());
+    }
+
+    private static Pageable firstTaskPage() {
+        return PageRequest.of(0, PAGE_SIZE);
+    }
+}
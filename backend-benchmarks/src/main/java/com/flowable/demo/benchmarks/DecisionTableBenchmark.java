@@ -0,0 +1,114 @@
+package com.flowable.demo.benchmarks;
+
+import com.flowable.demo.service.CompiledDecisionTable;
+import com.flowable.demo.service.DecisionEvaluationService;
+import org.flowable.dmn.api.DmnDecision;
+import org.flowable.dmn.api.DmnDecisionService;
+import org.flowable.dmn.api.DmnRepositoryService;
+import org.flowable.dmn.engine.DmnEngine;
+import org.flowable.dmn.engine.impl.cfg.StandaloneInMemDmnEngineConfiguration;
+import org.flowable.dmn.model.DecisionTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 理赔分诊决策：预编译决策表与 Flowable DMN 引擎对同一份 ClaimDecisionTable.dmn 的单次求值耗时
+ * 不启动 Spring 上下文，DMN 引擎使用独立的内存 H2；两者结果一致性由 CompiledDecisionTableTest 保证
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecisionTableBenchmark {
+
+    private static final int INPUT_COUNT = 5000;
+
+    private DmnEngine dmnEngine;
+    private DmnDecisionService dmnDecisionService;
+    private CompiledDecisionTable compiledTable;
+    private List<Map<String, Object>> inputs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StandaloneInMemDmnEngineConfiguration configuration = new StandaloneInMemDmnEngineConfiguration();
+        configuration.setJdbcUrl("jdbc:h2:mem:decision-table-benchmark;DB_CLOSE_DELAY=1000");
+        configuration.setDatabaseSchemaUpdate(StandaloneInMemDmnEngineConfiguration.DB_SCHEMA_UPDATE_CREATE_DROP);
+        dmnEngine = configuration.buildDmnEngine();
+        DmnRepositoryService repositoryService = dmnEngine.getDmnRepositoryService();
+        repositoryService.createDeployment()
+                .addClasspathResource("dmn/ClaimDecisionTable.dmn")
+                .deploy();
+        DmnDecision decision = repositoryService.createDecisionQuery()
+                .decisionKey(DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY)
+                .singleResult();
+        DecisionTable table = (DecisionTable) repositoryService.getDmnDefinition(decision.getId())
+                .getDecisionById(decision.getKey())
+                .getExpression();
+        dmnDecisionService = dmnEngine.getDmnDecisionService();
+        compiledTable = CompiledDecisionTable.compile(table);
+
+        inputs = new ArrayList<>(INPUT_COUNT);
+        Random random = new Random(7);
+        for (int i = 0; i < INPUT_COUNT; i++) {
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("policyType", i % 2 == 0 ? "车险" : "财产险");
+            variables.put("claimedAmount", BigDecimal.valueOf(random.nextInt(200_000)));
+            variables.put("coverageAmount", BigDecimal.valueOf(100000));
+            variables.put("claimType", "交通事故");
+            variables.put("severity", i % 3 == 0 ? "HIGH" : "LOW");
+            inputs.add(variables);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dmnEngine.close();
+    }
+
+    /**
+     * 每次调用依次取下一组输入，避免对单一输入的结果做常量折叠
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        Map<String, Object> next(List<Map<String, Object>> inputs) {
+            Map<String, Object> variables = inputs.get(next);
+            next = (next + 1) % inputs.size();
+            return variables;
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> compiledTable(Cursor cursor) {
+        return compiledTable.evaluate(cursor.next(inputs));
+    }
+
+    @Benchmark
+    public Map<String, Object> dmnEngine(Cursor cursor) {
+        return dmnDecisionService.createExecuteDecisionBuilder()
+                .decisionKey(DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY)
+                .variables(cursor.next(inputs))
+                .executeWithSingleResult();
+    }
+}
@@ -1,9 +1,13 @@
 package com.flowable.demo;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.TypeExcludeFilter;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 保险理赔系统主应用类
@@ -12,7 +16,11 @@ import org.springframework.scheduling.annotation.EnableAsync;
  */
 @SpringBootApplication
 @EnableAsync
-@ComponentScan(basePackages = "com.flowable.demo")
+@EnableScheduling
+// 保留 @SpringBootApplication 默认的排除规则，测试类中的嵌套配置不会被完整应用扫描到
+@ComponentScan(basePackages = "com.flowable.demo", excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class) })
 public class InsuranceClaimApplication {
 
     public static void main(String[] args) {
@@ -1,5 +1,6 @@
 package com.flowable.demo.admin.adapter;
 
+import com.flowable.demo.admin.service.DefinitionMetadataCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.cmmn.api.CmmnRepositoryService;
@@ -36,6 +37,7 @@ public class FlowableRepositoryAdapter {
     private final RepositoryService repositoryService;
     private final CmmnRepositoryService cmmnRepositoryService;
     private final DmnRepositoryService dmnRepositoryService;
+    private final DefinitionMetadataCache definitionMetadataCache;
 
     // ==================== CMMN 相关 ====================
 
@@ -96,10 +98,39 @@ public class FlowableRepositoryAdapter {
 
         CmmnDeployment deployment = builder.deploy();
         log.info("CMMN deployment successful: {}", deployment.getId());
+        definitionMetadataCache.invalidate();
 
         return deployment;
     }
 
+    /**
+     * 统计 CMMN Case 定义的 Key 数量（每个 Key 只计最新版本）
+     */
+    public long countCaseDefinitionKeys() {
+        return cmmnRepositoryService.createCaseDefinitionQuery()
+                .latestVersion()
+                .count();
+    }
+
+    /**
+     * 统计 CMMN 部署数量
+     */
+    public long countCmmnDeployments() {
+        return cmmnRepositoryService.createDeploymentQuery().count();
+    }
+
+    /**
+     * 获取最近一次 CMMN 部署时间，没有部署时返回 null
+     */
+    public Date getLatestCmmnDeploymentTime() {
+        return cmmnRepositoryService.createDeploymentQuery()
+                .orderByDeploymentTime().desc()
+                .listPage(0, 1).stream()
+                .findFirst()
+                .map(CmmnDeployment::getDeploymentTime)
+                .orElse(null);
+    }
+
     /**
      * 获取 CMMN 部署列表
      */
@@ -202,10 +233,39 @@ public class FlowableRepositoryAdapter {
 
         Deployment deployment = builder.deploy();
         log.info("BPMN deployment successful: {}", deployment.getId());
+        definitionMetadataCache.invalidate();
 
         return deployment;
     }
 
+    /**
+     * 统计 BPMN Process 定义的 Key 数量（每个 Key 只计最新版本）
+     */
+    public long countProcessDefinitionKeys() {
+        return repositoryService.createProcessDefinitionQuery()
+                .latestVersion()
+                .count();
+    }
+
+    /**
+     * 统计 BPMN 部署数量
+     */
+    public long countBpmnDeployments() {
+        return repositoryService.createDeploymentQuery().count();
+    }
+
+    /**
+     * 获取最近一次 BPMN 部署时间，没有部署时返回 null
+     */
+    public Date getLatestBpmnDeploymentTime() {
+        return repositoryService.createDeploymentQuery()
+                .orderByDeploymentTime().desc()
+                .listPage(0, 1).stream()
+                .findFirst()
+                .map(Deployment::getDeploymentTime)
+                .orElse(null);
+    }
+
     /**
      * 获取 BPMN 部署列表
      */
@@ -293,6 +353,7 @@ public class FlowableRepositoryAdapter {
 
         DmnDeployment deployment = builder.deploy();
         log.info("DMN deployment successful: {}", deployment.getId());
+        definitionMetadataCache.invalidate();
 
         return deployment;
     }
@@ -313,6 +374,37 @@ public class FlowableRepositoryAdapter {
         }
     }
 
+    /**
+     * 统计 DMN 决策的 Key 数量（每个 Key 只计最新版本）
+     */
+    public long countDmnDecisionKeys() {
+        try {
+            return dmnRepositoryService.createDecisionQuery()
+                    .latestVersion()
+                    .count();
+        } catch (Exception e) {
+            log.error("Error counting DMN decisions", e);
+            return 0L;
+        }
+    }
+
+    /**
+     * 获取最近一次 DMN 部署时间，没有部署时返回 null
+     */
+    public Date getLatestDmnDeploymentTime() {
+        try {
+            return dmnRepositoryService.createDeploymentQuery()
+                    .orderByDeploymentTime().desc()
+                    .listPage(0, 1).stream()
+                    .findFirst()
+                    .map(DmnDeployment::getDeploymentTime)
+                    .orElse(null);
+        } catch (Exception e) {
+            log.error("Error getting latest DMN deployment time", e);
+            return null;
+        }
+    }
+
     /**
      * 获取 DMN 决策表
      */
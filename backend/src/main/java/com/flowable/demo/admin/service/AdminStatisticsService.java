@@ -4,160 +4,147 @@ import com.flowable.demo.admin.adapter.FlowableBpmnAdapter;
 import com.flowable.demo.admin.adapter.FlowableCmmnAdapter;
 import com.flowable.demo.admin.adapter.FlowableRepositoryAdapter;
 import com.flowable.demo.admin.web.dto.AdminStatisticsDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.flowable.cmmn.api.repository.CaseDefinition;
-import org.flowable.cmmn.api.repository.CmmnDeployment;
-import org.flowable.dmn.api.DmnDecision;
-import org.flowable.dmn.api.DmnDeployment;
-import org.flowable.engine.repository.Deployment;
-import org.flowable.engine.repository.ProcessDefinition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
 import java.util.Date;
-import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Admin 统计服务
+ * 模型和部署统计只用 count / 最新一条查询，结果缓存在 DefinitionMetadataCache 中并在部署时失效；
+ * 各引擎相互独立的统计查询在有界线程池上并行执行
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class AdminStatisticsService {
 
     private final FlowableRepositoryAdapter repositoryAdapter;
     private final FlowableCmmnAdapter cmmnAdapter;
     private final FlowableBpmnAdapter bpmnAdapter;
+    private final DefinitionMetadataCache metadataCache;
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    @Value("${app.admin-statistics.threads:4}")
+    private int threads = 4;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        // 队列满时由调用线程执行，统计请求突增时退化为串行而不是失败
+        executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 8), runnable -> {
+                    Thread thread = new Thread(runnable, "admin-statistics-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
     /**
      * 获取系统统计信息
      */
     public AdminStatisticsDTO getStatistics() {
-        // 模型统计
-        AdminStatisticsDTO.ModelStatistics modelStats = getModelStatistics();
+        // Case / Process 实例统计每次实时查询
+        CompletableFuture<Map<String, Long>> caseStats = submit(cmmnAdapter::countCaseInstancesByState);
+        CompletableFuture<Map<String, Long>> processStats = submit(bpmnAdapter::countProcessInstances);
 
-        // 部署统计
-        AdminStatisticsDTO.DeploymentStatistics deploymentStats = getDeploymentStatistics();
-
-        // Case 统计
-        Map<String, Long> caseStats = cmmnAdapter.countCaseInstancesByState();
-
-        // Process 统计
-        Map<String, Long> processStats = bpmnAdapter.countProcessInstances();
+        // 模型和部署统计走缓存
+        DefinitionMetadataCache.Metadata metadata = metadataCache.get(this::loadMetadata);
 
         return AdminStatisticsDTO.builder()
-                .models(modelStats)
-                .deployments(deploymentStats)
-                .cases(caseStats)
-                .processes(processStats)
+                .models(metadata.getModels())
+                .deployments(metadata.getDeployments())
+                .cases(join(caseStats))
+                .processes(join(processStats))
                 .build();
     }
 
     /**
-     * 获取模型统计
+     * 并行加载模型统计和部署统计
      */
-    private AdminStatisticsDTO.ModelStatistics getModelStatistics() {
-        List<CaseDefinition> caseDefinitions = repositoryAdapter.getAllCaseDefinitions();
-        List<ProcessDefinition> processDefinitions = repositoryAdapter.getAllProcessDefinitions();
-        List<DmnDecision> dmnDecisions = repositoryAdapter.getAllDmnDecisionTables();
-
-        // 按 Key 去重统计
-        long cmmnCount = caseDefinitions.stream()
-                .map(CaseDefinition::getKey)
-                .distinct()
-                .count();
-
-        long bpmnCount = processDefinitions.stream()
-                .map(ProcessDefinition::getKey)
-                .distinct()
-                .count();
-
-        long dmnCount = dmnDecisions.stream()
-                .map(DmnDecision::getKey)
-                .distinct()
-                .count();
-
-        log.info("Model statistics - CMMN: {}, BPMN: {}, DMN: {}", cmmnCount, bpmnCount, dmnCount);
-
-        return AdminStatisticsDTO.ModelStatistics.builder()
-                .total(cmmnCount + bpmnCount + dmnCount)
-                .cmmn(cmmnCount)
-                .bpmn(bpmnCount)
-                .dmn(dmnCount)
+    private DefinitionMetadataCache.Metadata loadMetadata() {
+        CompletableFuture<Long> cmmnCount = submit(repositoryAdapter::countCaseDefinitionKeys);
+        CompletableFuture<Long> bpmnCount = submit(repositoryAdapter::countProcessDefinitionKeys);
+        CompletableFuture<Long> dmnCount = submit(repositoryAdapter::countDmnDecisionKeys);
+        CompletableFuture<Long> cmmnDeployments = submit(repositoryAdapter::countCmmnDeployments);
+        CompletableFuture<Long> bpmnDeployments = submit(repositoryAdapter::countBpmnDeployments);
+        CompletableFuture<Long> dmnDeployments = submit(repositoryAdapter::getDmnDeploymentCount);
+        CompletableFuture<Date> lastCmmnDeployment = submit(repositoryAdapter::getLatestCmmnDeploymentTime);
+        CompletableFuture<Date> lastBpmnDeployment = submit(repositoryAdapter::getLatestBpmnDeploymentTime);
+        CompletableFuture<Date> lastDmnDeployment = submit(repositoryAdapter::getLatestDmnDeploymentTime);
+
+        long cmmn = join(cmmnCount);
+        long bpmn = join(bpmnCount);
+        long dmn = join(dmnCount);
+        log.info("Model statistics - CMMN: {}, BPMN: {}, DMN: {}", cmmn, bpmn, dmn);
+
+        AdminStatisticsDTO.ModelStatistics modelStats = AdminStatisticsDTO.ModelStatistics.builder()
+                .total(cmmn + bpmn + dmn)
+                .cmmn(cmmn)
+                .bpmn(bpmn)
+                .dmn(dmn)
                 .build();
-    }
-
-    /**
-     * 获取部署统计
-     */
-    private AdminStatisticsDTO.DeploymentStatistics getDeploymentStatistics() {
-        List<CmmnDeployment> cmmnDeployments = repositoryAdapter.getCmmnDeployments();
-        List<Deployment> bpmnDeployments = repositoryAdapter.getBpmnDeployments();
-        List<DmnDeployment> dmnDeployments = repositoryAdapter.getDmnDeployments();
-
-        long total = cmmnDeployments.size() + bpmnDeployments.size() + dmnDeployments.size();
 
         // 查找最新部署时间
-        LocalDateTime lastCmmnDeployment = cmmnDeployments.stream()
-                .map(CmmnDeployment::getDeploymentTime)
+        String lastDeploymentTime = Stream.of(join(lastCmmnDeployment), join(lastBpmnDeployment),
+                        join(lastDmnDeployment))
+                .filter(Objects::nonNull)
                 .max(Comparator.naturalOrder())
                 .map(this::toLocalDateTime)
+                .map(time -> time.format(FORMATTER))
                 .orElse(null);
 
-        LocalDateTime lastBpmnDeployment = bpmnDeployments.stream()
-                .map(Deployment::getDeploymentTime)
-                .max(Comparator.naturalOrder())
-                .map(this::toLocalDateTime)
-                .orElse(null);
-
-        LocalDateTime lastDmnDeployment = dmnDeployments.stream()
-                .map(DmnDeployment::getDeploymentTime)
-                .max(Comparator.naturalOrder())
-                .map(this::toLocalDateTime)
-                .orElse(null);
+        AdminStatisticsDTO.DeploymentStatistics deploymentStats = AdminStatisticsDTO.DeploymentStatistics.builder()
+                .total(join(cmmnDeployments) + join(bpmnDeployments) + join(dmnDeployments))
+                .lastDeploymentTime(lastDeploymentTime)
+                .build();
 
-        LocalDateTime lastDeployment = null;
-        if (lastCmmnDeployment != null && lastBpmnDeployment != null && lastDmnDeployment != null) {
-            lastDeployment = lastCmmnDeployment.isAfter(lastBpmnDeployment)
-                    ? (lastCmmnDeployment.isAfter(lastDmnDeployment) ? lastCmmnDeployment : lastDmnDeployment)
-                    : (lastBpmnDeployment.isAfter(lastDmnDeployment) ? lastBpmnDeployment : lastDmnDeployment);
-        } else if (lastCmmnDeployment != null && lastBpmnDeployment != null) {
-            lastDeployment = lastCmmnDeployment.isAfter(lastBpmnDeployment) ? lastCmmnDeployment : lastBpmnDeployment;
-        } else if (lastCmmnDeployment != null && lastDmnDeployment != null) {
-            lastDeployment = lastCmmnDeployment.isAfter(lastDmnDeployment) ? lastCmmnDeployment : lastDmnDeployment;
-        } else if (lastBpmnDeployment != null && lastDmnDeployment != null) {
-            lastDeployment = lastBpmnDeployment.isAfter(lastDmnDeployment) ? lastBpmnDeployment : lastDmnDeployment;
-        } else if (lastCmmnDeployment != null) {
-            lastDeployment = lastCmmnDeployment;
-        } else if (lastBpmnDeployment != null) {
-            lastDeployment = lastBpmnDeployment;
-        } else if (lastDmnDeployment != null) {
-            lastDeployment = lastDmnDeployment;
-        }
+        return new DefinitionMetadataCache.Metadata(modelStats, deploymentStats);
+    }
 
-        String lastDeploymentTime = lastDeployment != null
-                ? lastDeployment.format(FORMATTER)
-                : null;
+    private <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, executor);
+    }
 
-        return AdminStatisticsDTO.DeploymentStatistics.builder()
-                .total(total)
-                .lastDeploymentTime(lastDeploymentTime)
-                .build();
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
     private LocalDateTime toLocalDateTime(Date date) {
-        if (date == null) {
-            return null;
-        }
         return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
     }
 }
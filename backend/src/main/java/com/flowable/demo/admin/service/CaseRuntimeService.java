@@ -11,7 +11,6 @@ import com.flowable.demo.admin.web.dto.CmmnCaseVisualizationDTO;
 import com.flowable.demo.admin.web.dto.PlanItemStateDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.flowable.bpmn.model.BpmnModel;
 import org.flowable.engine.HistoryService;
 import org.flowable.engine.ProcessEngine;
 import org.flowable.engine.RepositoryService;
@@ -28,8 +27,6 @@ import org.flowable.cmmn.api.repository.CaseDefinition;
 import org.flowable.cmmn.api.runtime.CaseInstance;
 import org.flowable.cmmn.api.runtime.PlanItemInstance;
 import org.flowable.engine.history.HistoricProcessInstance;
-import org.flowable.image.ProcessDiagramGenerator;
-import org.flowable.image.impl.DefaultProcessDiagramGenerator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -62,6 +59,7 @@ public class CaseRuntimeService {
     private final HistoryService historyService;
     private final RepositoryService repositoryService;
     private final ProcessEngine processEngine;
+    private final ProcessDiagramCache processDiagramCache;
 
     // ==================== Case 查询 ====================
 
@@ -332,124 +330,27 @@ public class CaseRuntimeService {
     public BpmnSubprocessVisualizationDTO getSubprocessVisualizationData(String planItemInstanceId) {
         log.info("Getting BPMN subprocess visualization for plan item: {}", planItemInstanceId);
 
-        // 1. 获取 PlanItem 实例
-        PlanItemInstance planItem = cmmnRuntimeService.createPlanItemInstanceQuery()
-                .planItemInstanceId(planItemInstanceId)
-                .singleResult();
-
-        if (planItem == null) {
-            log.warn("PlanItem instance not found: {}", planItemInstanceId);
-            return null;
-        }
-
-        // 检查是否为 processTask
-        if (!"processtask".equals(planItem.getPlanItemDefinitionType())) {
-            log.warn("PlanItem is not a processTask: {}", planItem.getPlanItemDefinitionType());
+        // 1. 通过 PlanItem 的 referenceId 定位子流程实例
+        String processInstanceId = findSubprocessInstanceId(planItemInstanceId);
+        if (processInstanceId == null) {
             return null;
         }
 
-        // 2. 获取关联的 Process 实例
-        Date planItemCreateTime = planItem.getCreateTime();
-        log.info("PlanItem: id={}, type={}, caseInstanceId={}, createTime={}", 
-                planItem.getId(), planItem.getPlanItemDefinitionType(), 
-                planItem.getCaseInstanceId(), planItemCreateTime);
-
-        // 方法1：尝试通过 superProcessInstanceId（caseInstanceId）查询
+        // 2. 按主键读取 Process 实例，已结束的从历史表读取
         ProcessInstance processInstance = runtimeService.createProcessInstanceQuery()
-                .superProcessInstanceId(planItem.getCaseInstanceId())
+                .processInstanceId(processInstanceId)
                 .singleResult();
 
-        if (processInstance != null) {
-            log.info("Found process instance via superProcessInstanceId: id={}, startTime={}", 
-                    processInstance.getId(), processInstance.getStartTime());
-        } else {
-            log.info("No process instance found via superProcessInstanceId");
-        }
-
-        // 方法2：如果没有找到，尝试通过变量 caseInstanceId 关联
         if (processInstance == null) {
-            List<ProcessInstance> byVariable = runtimeService.createProcessInstanceQuery()
-                    .variableValueEquals("caseInstanceId", planItem.getCaseInstanceId())
-                    .orderByStartTime()
-                    .desc()
-                    .list();
-            log.info("Found {} process instances by variable caseInstanceId", byVariable.size());
-            processInstance = byVariable.stream().findFirst().orElse(null);
-        }
-
-        // 方法3：如果仍然没有找到，尝试按时间匹配
-        if (processInstance == null) {
-            // 获取 processTask 创建时间前后的 process 实例
-            List<ProcessInstance> allInstances = runtimeService.createProcessInstanceQuery()
-                    .orderByStartTime()
-                    .desc()
-                    .list();
-            
-            log.info("All process instances count: {}", allInstances.size());
-            for (ProcessInstance p : allInstances) {
-                long diff = Math.abs(planItemCreateTime.getTime() - p.getStartTime().getTime());
-                log.info("  Process: id={}, startTime={}, diff={}ms", 
-                        p.getId(), p.getStartTime(), diff);
-            }
-            
-            // 找到最接近 planItem 创建时间的实例（30秒内）
-            processInstance = allInstances.stream()
-                    .filter(p -> {
-                        Date processTime = p.getStartTime();
-                        long diff = Math.abs(planItemCreateTime.getTime() - processTime.getTime());
-                        boolean match = diff < 30000; // 30秒内
-                        if (match) {
-                            log.info("  Matched process: id={}, startTime={}, diff={}ms", 
-                                    p.getId(), p.getStartTime(), diff);
-                        }
-                        return match;
-                    })
-                    .findFirst()
-                    .orElse(null);
-        }
+            HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery()
+                    .processInstanceId(processInstanceId)
+                    .singleResult();
 
-        if (processInstance == null) {
-            // 尝试从历史查询
-            org.flowable.engine.history.HistoricProcessInstance historicProcessInstance =
-                    historyService.createHistoricProcessInstanceQuery()
-                            .superProcessInstanceId(planItem.getCaseInstanceId())
-                            .singleResult();
-            
-            if (historicProcessInstance == null) {
-                historicProcessInstance = historyService.createHistoricProcessInstanceQuery()
-                        .variableValueEquals("caseInstanceId", planItem.getCaseInstanceId())
-                        .orderByProcessInstanceStartTime()
-                        .desc()
-                        .list()
-                        .stream()
-                        .findFirst()
-                        .orElse(null);
-            }
-            
             if (historicProcessInstance == null) {
-                // 最后尝试：按时间匹配历史实例
-                List<org.flowable.engine.history.HistoricProcessInstance> historicInstances =
-                        historyService.createHistoricProcessInstanceQuery()
-                                .orderByProcessInstanceStartTime()
-                                .desc()
-                                .list();
-                
-                historicProcessInstance = historicInstances.stream()
-                        .filter(p -> {
-                            Date planItemTime = planItem.getCreateTime();
-                            Date processTime = p.getStartTime();
-                            long diff = Math.abs(planItemTime.getTime() - processTime.getTime());
-                            return diff < 30000; // 30秒内
-                        })
-                        .findFirst()
-                        .orElse(null);
-                
-                if (historicProcessInstance == null) {
-                    log.error("Process instance not found for planItem: {}", planItemInstanceId);
-                    return null;
-                }
+                log.error("Process instance {} not found for planItem: {}", processInstanceId, planItemInstanceId);
+                return null;
             }
-            
+
             return buildHistoricSubprocessVisualization(historicProcessInstance);
         }
 
@@ -480,6 +381,46 @@ public class CaseRuntimeService {
                 .build();
     }
 
+    /**
+     * 获取 processTask 启动的子流程实例ID
+     * Flowable 启动子流程时把流程实例ID写入 PlanItem 的 referenceId（运行态和历史表都会保存），
+     * 因此只需按主键读取 PlanItem，不需要按变量或启动时间扫描流程实例
+     *
+     * @return 子流程实例ID，PlanItem 不存在、不是 processTask 或子流程尚未启动时返回 null
+     */
+    private String findSubprocessInstanceId(String planItemInstanceId) {
+        String definitionType;
+        String referenceId;
+
+        PlanItemInstance planItem = cmmnRuntimeService.createPlanItemInstanceQuery()
+                .planItemInstanceId(planItemInstanceId)
+                .singleResult();
+        if (planItem != null) {
+            definitionType = planItem.getPlanItemDefinitionType();
+            referenceId = planItem.getReferenceId();
+        } else {
+            // Case 已结束时运行态 PlanItem 已删除
+            HistoricPlanItemInstance historicPlanItem = cmmnHistoryService.createHistoricPlanItemInstanceQuery()
+                    .planItemInstanceId(planItemInstanceId)
+                    .singleResult();
+            if (historicPlanItem == null) {
+                log.warn("PlanItem instance not found: {}", planItemInstanceId);
+                return null;
+            }
+            definitionType = historicPlanItem.getPlanItemDefinitionType();
+            referenceId = historicPlanItem.getReferenceId();
+        }
+
+        if (!"processtask".equals(definitionType)) {
+            log.warn("PlanItem is not a processTask: {}", definitionType);
+            return null;
+        }
+        if (referenceId == null) {
+            log.info("Subprocess of plan item {} has not been started yet", planItemInstanceId);
+        }
+        return referenceId;
+    }
+
     /**
      * 获取活动节点状态
      */
@@ -535,7 +476,7 @@ public class CaseRuntimeService {
      * 构建历史子流程可视化数据
      */
     private BpmnSubprocessVisualizationDTO buildHistoricSubprocessVisualization(
-            org.flowable.engine.history.HistoricProcessInstance historicProcessInstance) {
+            HistoricProcessInstance historicProcessInstance) {
         
         ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery()
                 .processDefinitionId(historicProcessInstance.getProcessDefinitionId())
@@ -599,254 +540,102 @@ public class CaseRuntimeService {
     // ==================== BPMN 流程图生成 ====================
 
     /**
-     * 获取 BPMN 子流程流程图 SVG
-     * 使用 Flowable ProcessDiagramGenerator 生成带状态高亮的流程图
+     * 获取 BPMN 子流程流程图
+     * 使用 Flowable ProcessDiagramGenerator 生成带状态高亮的流程图，渲染结果由 ProcessDiagramCache 缓存
      *
      * @param planItemInstanceId PlanItem 实例 ID（processTask 实例）
-     * @return 流程图 SVG 字符串或 base64 PNG
+     * @return base64 PNG data URL
      */
     public String getSubprocessDiagramSvg(String planItemInstanceId) {
-        log.info("Generating BPMN subprocess diagram for plan item: {}", planItemInstanceId);
-
-        // 1. 获取 PlanItem 实例
-        PlanItemInstance planItem = cmmnRuntimeService.createPlanItemInstanceQuery()
-                .planItemInstanceId(planItemInstanceId)
-                .singleResult();
-
-        if (planItem == null) {
-            log.warn("PlanItem instance not found: {}", planItemInstanceId);
+        ProcessDiagramCache.DiagramKey key = getSubprocessDiagramKey(planItemInstanceId);
+        if (key == null) {
             return null;
         }
 
-        if (!"processtask".equals(planItem.getPlanItemDefinitionType())) {
-            log.warn("PlanItem is not a processTask: {}", planItem.getPlanItemDefinitionType());
+        byte[] bytes = getDiagramPng(key);
+        if (bytes == null) {
             return null;
         }
+        // 返回 base64 编码的 PNG data URL，前端可以显示
+        return "data:image/png;base64," + java.util.Base64.getEncoder().encodeToString(bytes);
+    }
 
-        // 2. 查找关联的 Process 实例
-        Date planItemCreateTime = planItem.getCreateTime();
-        ProcessInstance processInstance = null;
+    /**
+     * 获取流程图 PNG（命中缓存时不重新渲染）
+     */
+    public byte[] getDiagramPng(ProcessDiagramCache.DiagramKey key) {
+        try {
+            return processDiagramCache.getOrRender(key);
+        } catch (Exception e) {
+            log.error("Failed to generate process diagram for {}", key.getProcessDefinitionId(), e);
+            return null;
+        }
+    }
 
-        // 尝试通过 superProcessInstanceId 查询
-        processInstance = runtimeService.createProcessInstanceQuery()
-                .superProcessInstanceId(planItem.getCaseInstanceId())
-                .singleResult();
+    /**
+     * 解析 BPMN 子流程流程图的缓存 key：流程定义及当前高亮状态
+     * 只查询活动节点ID，不渲染图片，可用于 ETag 比对
+     *
+     * @param planItemInstanceId PlanItem 实例 ID（processTask 实例）
+     * @return 流程图 key，找不到关联流程实例时返回 null
+     */
+    public ProcessDiagramCache.DiagramKey getSubprocessDiagramKey(String planItemInstanceId) {
+        log.debug("Resolving BPMN subprocess diagram for plan item: {}", planItemInstanceId);
 
-        // 如果没找到，尝试通过变量 caseInstanceId 关联
-        if (processInstance == null) {
-            processInstance = runtimeService.createProcessInstanceQuery()
-                    .variableValueEquals("caseInstanceId", planItem.getCaseInstanceId())
-                    .orderByStartTime()
-                    .desc()
-                    .list()
-                    .stream()
-                    .findFirst()
-                    .orElse(null);
+        // 1. 通过 PlanItem 的 referenceId 定位子流程实例
+        String processInstanceId = findSubprocessInstanceId(planItemInstanceId);
+        if (processInstanceId == null) {
+            return null;
         }
 
-        // 如果仍然没找到，尝试按时间匹配
-        if (processInstance == null) {
-            List<ProcessInstance> allInstances = runtimeService.createProcessInstanceQuery()
-                    .orderByStartTime()
-                    .desc()
-                    .list();
-            
-            processInstance = allInstances.stream()
-                    .filter(p -> {
-                        Date processTime = p.getStartTime();
-                        long diff = Math.abs(planItemCreateTime.getTime() - processTime.getTime());
-                        return diff < 30000; // 30秒内
-                    })
-                    .findFirst()
-                    .orElse(null);
-        }
+        // 2. 按主键读取 Process 实例，已结束的从历史表读取
+        ProcessInstance processInstance = runtimeService.createProcessInstanceQuery()
+                .processInstanceId(processInstanceId)
+                .singleResult();
 
-        // 如果是历史实例
         if (processInstance == null) {
-            org.flowable.engine.history.HistoricProcessInstance historicProcessInstance =
-                    historyService.createHistoricProcessInstanceQuery()
-                            .superProcessInstanceId(planItem.getCaseInstanceId())
-                            .singleResult();
-            
-            if (historicProcessInstance == null) {
-                historicProcessInstance = historyService.createHistoricProcessInstanceQuery()
-                        .variableValueEquals("caseInstanceId", planItem.getCaseInstanceId())
-                        .orderByProcessInstanceStartTime()
-                        .desc()
-                        .list()
-                        .stream()
-                        .findFirst()
-                        .orElse(null);
-            }
-            
+            HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery()
+                    .processInstanceId(processInstanceId)
+                    .singleResult();
+
             if (historicProcessInstance == null) {
-                List<org.flowable.engine.history.HistoricProcessInstance> historicInstances =
-                        historyService.createHistoricProcessInstanceQuery()
-                                .orderByProcessInstanceStartTime()
-                                .desc()
-                                .list();
-                
-                historicProcessInstance = historicInstances.stream()
-                        .filter(p -> {
-                            Date planItemTime = planItem.getCreateTime();
-                            Date processTime = p.getStartTime();
-                            long diff = Math.abs(planItemTime.getTime() - processTime.getTime());
-                            return diff < 30000;
-                        })
-                        .findFirst()
-                        .orElse(null);
-                
-                if (historicProcessInstance == null) {
-                    log.error("Process instance not found for planItem: {}", planItemInstanceId);
-                    return null;
-                }
+                log.error("Process instance {} not found for planItem: {}", processInstanceId, planItemInstanceId);
+                return null;
             }
-            
-            return generateHistoricProcessDiagramSvg(historicProcessInstance);
+
+            return historicProcessDiagramKey(historicProcessInstance);
         }
 
-        // 3. 生成流程图
-        return generateProcessDiagramSvg(processInstance);
+        // 3. 流程图 key
+        return processDiagramKey(processInstance);
     }
 
     /**
-     * 生成活动流程图的 SVG
-     * 使用自定义字体支持中文
+     * 活动流程实例的流程图 key：当前活动节点 + 已完成节点
      */
-    private String generateProcessDiagramSvg(ProcessInstance processInstance) {
-        try {
-            log.info("Generating process diagram SVG for process instance: {}", processInstance.getId());
-            
-            // 获取流程定义
-            ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery()
-                    .processDefinitionId(processInstance.getProcessDefinitionId())
-                    .singleResult();
-
-            log.info("Process definition: {} ({})", processDefinition.getName(), processDefinition.getId());
-
-            // 获取当前活动节点ID
-            List<String> activeActivityIds = runtimeService.getActiveActivityIds(processInstance.getId());
-            log.info("Active activity IDs: {}", activeActivityIds);
-
-            // 获取历史活动
-            List<HistoricActivityInstance> historicActivities = historyService
-                    .createHistoricActivityInstanceQuery()
-                    .processInstanceId(processInstance.getId())
-                    .finished()
-                    .orderByHistoricActivityInstanceEndTime().asc()
-                    .list();
-            
-            List<String> completedActivityIds = historicActivities.stream()
-                    .map(HistoricActivityInstance::getActivityId)
-                    .distinct()
-                    .collect(Collectors.toList());
-            
-            log.info("Completed activity IDs: {}", completedActivityIds);
-
-            // 获取BPMN模型
-            BpmnModel bpmnModel = repositoryService.getBpmnModel(processDefinition.getId());
-
-            // 使用自定义字体生成流程图
-            DefaultProcessDiagramGenerator generator = new DefaultProcessDiagramGenerator();
-            
-            // 使用 Microsoft YaHei 字体
-            java.io.InputStream diagramStream = generator.generateDiagram(
-                    bpmnModel,
-                    "png",
-                    activeActivityIds,
-                    completedActivityIds,
-                    "Microsoft YaHei",  // activity font
-                    "Microsoft YaHei",  // label font
-                    "Microsoft YaHei",  // annotation font
-                    Thread.currentThread().getContextClassLoader(),
-                    1.0,
-                    true
-            );
-
-            if (diagramStream == null) {
-                log.error("generateDiagram returned null");
-                return null;
-            }
-
-            byte[] bytes = diagramStream.readAllBytes();
-            log.info("Generated diagram bytes: {}", bytes.length);
-            
-            // 返回 base64 编码的 PNG data URL，前端可以显示
-            String base64Png = java.util.Base64.getEncoder().encodeToString(bytes);
-            return "data:image/png;base64," + base64Png;
-
-        } catch (Exception e) {
-            log.error("Failed to generate process diagram with Chinese font", e);
-            return null;
-        }
+    private ProcessDiagramCache.DiagramKey processDiagramKey(ProcessInstance processInstance) {
+        List<String> activeActivityIds = runtimeService.getActiveActivityIds(processInstance.getId());
+        return processDiagramCache.key(processInstance.getProcessDefinitionId(), activeActivityIds,
+                getCompletedActivityIds(processInstance.getId()));
     }
 
     /**
-     * 生成历史流程图的 PNG
-     * 使用自定义字体支持中文
+     * 历史流程实例的流程图 key：无活动节点，只高亮已完成节点
      */
-    private String generateHistoricProcessDiagramSvg(
-            org.flowable.engine.history.HistoricProcessInstance historicProcessInstance) {
-        try {
-            log.info("Generating historic process diagram for process instance: {}", historicProcessInstance.getId());
-            
-            // 获取流程定义
-            ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery()
-                    .processDefinitionId(historicProcessInstance.getProcessDefinitionId())
-                    .singleResult();
-
-            log.info("Historic process definition: {} ({})", processDefinition.getName(), processDefinition.getId());
-
-            // 获取历史活动
-            List<HistoricActivityInstance> historicActivities = historyService
-                    .createHistoricActivityInstanceQuery()
-                    .processInstanceId(historicProcessInstance.getId())
-                    .finished()
-                    .orderByHistoricActivityInstanceEndTime().asc()
-                    .list();
-            
-            List<String> completedActivityIds = historicActivities.stream()
-                    .map(HistoricActivityInstance::getActivityId)
-                    .distinct()
-                    .collect(Collectors.toList());
-            
-            log.info("Historic completed activity IDs: {}", completedActivityIds);
-
-            // 获取BPMN模型
-            BpmnModel bpmnModel = repositoryService.getBpmnModel(processDefinition.getId());
-
-            // 使用自定义字体生成流程图
-            DefaultProcessDiagramGenerator generator = new DefaultProcessDiagramGenerator();
-            
-            // 使用 Microsoft YaHei 字体
-            java.io.InputStream diagramStream = generator.generateDiagram(
-                    bpmnModel,
-                    "png",
-                    Collections.emptyList(),  // 无活动节点
-                    completedActivityIds,
-                    "Microsoft YaHei",  // activity font
-                    "Microsoft YaHei",  // label font
-                    "Microsoft YaHei",  // annotation font
-                    Thread.currentThread().getContextClassLoader(),
-                    1.0,
-                    true
-            );
-
-            if (diagramStream == null) {
-                log.error("generateDiagram returned null");
-                return null;
-            }
-
-            byte[] bytes = diagramStream.readAllBytes();
-            log.info("Generated historic diagram bytes: {}", bytes.length);
-            
-            // 返回 base64 编码的 PNG data URL
-            String base64Png = java.util.Base64.getEncoder().encodeToString(bytes);
-            return "data:image/png;base64," + base64Png;
+    private ProcessDiagramCache.DiagramKey historicProcessDiagramKey(
+            HistoricProcessInstance historicProcessInstance) {
+        return processDiagramCache.key(historicProcessInstance.getProcessDefinitionId(), Collections.emptyList(),
+                getCompletedActivityIds(historicProcessInstance.getId()));
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to generate historic process diagram with Chinese font", e);
-            return null;
-        }
+    private List<String> getCompletedActivityIds(String processInstanceId) {
+        return historyService.createHistoricActivityInstanceQuery()
+                .processInstanceId(processInstanceId)
+                .finished()
+                .list()
+                .stream()
+                .map(HistoricActivityInstance::getActivityId)
+                .distinct()
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,87 @@
+package com.flowable.demo.admin.service;
+
+import com.flowable.demo.admin.web.dto.AdminStatisticsDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 模型定义与部署元数据缓存
+ * 缓存模型数量和部署统计，部署新资源时由 FlowableRepositoryAdapter 主动失效；
+ * TTL 兜底覆盖绕过本应用（如 Flowable REST API）进行的部署
+ */
+@Component
+@Slf4j
+public class DefinitionMetadataCache {
+
+    @Value("${app.admin-statistics.metadata-ttl-ms:60000}")
+    private long ttlMs = 60_000L;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile CacheEntry entry;
+
+    /**
+     * 获取缓存的元数据，缺失或过期时调用 loader 重新加载
+     */
+    public Metadata get(Supplier<Metadata> loader) {
+        CacheEntry current = entry;
+        if (current != null && System.currentTimeMillis() - current.getLoadedAt() < ttlMs) {
+            return current.getMetadata();
+        }
+
+        long loadVersion = version.get();
+        Metadata loaded = loader.get();
+        // 加载期间发生了部署则不写入缓存，避免把旧数据缓存到下一次失效
+        if (version.get() == loadVersion) {
+            entry = new CacheEntry(loaded, System.currentTimeMillis());
+        }
+        return loaded;
+    }
+
+    /**
+     * 使缓存失效；处于事务中时在提交后再失效一次，
+     * 防止提交前的并发读取把未包含新部署的数据重新写回缓存
+     */
+    public void invalidate() {
+        evict();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict();
+                }
+            });
+        }
+    }
+
+    private void evict() {
+        version.incrementAndGet();
+        entry = null;
+        log.debug("Definition metadata cache invalidated");
+    }
+
+    /**
+     * 缓存内容：模型统计和部署统计
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Metadata {
+        private final AdminStatisticsDTO.ModelStatistics models;
+        private final AdminStatisticsDTO.DeploymentStatistics deployments;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class CacheEntry {
+        private final Metadata metadata;
+        private final long loadedAt;
+    }
+}
@@ -0,0 +1,250 @@
+package com.flowable.demo.admin.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.bpmn.model.BpmnModel;
+import org.flowable.engine.RepositoryService;
+import org.flowable.image.impl.DefaultProcessDiagramGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * BPMN 流程图渲染缓存
+ * 按 (流程定义ID, 活动节点, 已完成节点) 缓存 ProcessDiagramGenerator 渲染出的 PNG，
+ * 内存中为按总字节数限制的 LRU；配置了 app.diagram-cache.spill-dir 时，被淘汰的图片写入磁盘，
+ * 再次命中时从磁盘读回。流程定义部署后不可变，同一个 key 的渲染结果永远相同，因此无需失效
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProcessDiagramCache {
+
+    private static final String DIAGRAM_FONT = "Microsoft YaHei";
+
+    private final RepositoryService repositoryService;
+
+    @Value("${app.diagram-cache.max-bytes:33554432}")
+    private long maxBytes = 32L * 1024 * 1024;
+
+    @Value("${app.diagram-cache.spill-dir:}")
+    private String spillDir = "";
+
+    @Value("${app.diagram-cache.spill-max-files:1000}")
+    private int spillMaxFiles = 1000;
+
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private long currentBytes;
+
+    /**
+     * 构建缓存 key，活动节点顺序不影响渲染结果，因此排序去重后参与哈希
+     */
+    public DiagramKey key(String processDefinitionId, Collection<String> activeActivityIds,
+            Collection<String> completedActivityIds) {
+        return new DiagramKey(processDefinitionId, normalize(activeActivityIds), normalize(completedActivityIds));
+    }
+
+    /**
+     * 获取流程图 PNG，未缓存时渲染
+     */
+    public byte[] getOrRender(DiagramKey key) {
+        byte[] cached = getCached(key.getHash());
+        if (cached != null) {
+            return cached;
+        }
+
+        byte[] rendered = render(key);
+        put(key.getHash(), rendered);
+        return rendered;
+    }
+
+    private byte[] getCached(String hash) {
+        synchronized (entries) {
+            byte[] bytes = entries.get(hash);
+            if (bytes != null) {
+                return bytes;
+            }
+        }
+
+        Path spilled = spillPath(hash);
+        if (spilled != null && Files.isRegularFile(spilled)) {
+            try {
+                byte[] bytes = Files.readAllBytes(spilled);
+                put(hash, bytes);
+                return bytes;
+            } catch (IOException e) {
+                log.warn("Failed to read spilled diagram {}: {}", spilled, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void put(String hash, byte[] bytes) {
+        if (bytes.length > maxBytes) {
+            spill(hash, bytes);
+            return;
+        }
+
+        List<Map.Entry<String, byte[]>> evicted = new ArrayList<>();
+        synchronized (entries) {
+            byte[] previous = entries.put(hash, bytes);
+            if (previous != null) {
+                currentBytes -= previous.length;
+            }
+            currentBytes += bytes.length;
+
+            Iterator<Map.Entry<String, byte[]>> iterator = entries.entrySet().iterator();
+            while (currentBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<String, byte[]> eldest = iterator.next();
+                iterator.remove();
+                currentBytes -= eldest.getValue().length;
+                evicted.add(eldest);
+            }
+        }
+
+        // 磁盘写入放在锁外
+        evicted.forEach(entry -> spill(entry.getKey(), entry.getValue()));
+    }
+
+    private void spill(String hash, byte[] bytes) {
+        Path target = spillPath(hash);
+        if (target == null || Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            trimSpillDir(target.getParent());
+        } catch (IOException e) {
+            log.warn("Failed to spill diagram {} to disk: {}", hash, e.getMessage());
+        }
+    }
+
+    /**
+     * 磁盘文件数超过上限时删除最早写入的文件
+     */
+    private void trimSpillDir(Path dir) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(dir)) {
+            files = stream.filter(path -> path.toString().endsWith(".png")).collect(Collectors.toList());
+        }
+        if (files.size() <= spillMaxFiles) {
+            return;
+        }
+        files.stream()
+                .sorted(Comparator.comparingLong(this::lastModified))
+                .limit(files.size() - spillMaxFiles)
+                .forEach(path -> {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (IOException e) {
+                        log.debug("Failed to delete spilled diagram {}", path);
+                    }
+                });
+    }
+
+    private long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private Path spillPath(String hash) {
+        if (spillDir == null || spillDir.isBlank()) {
+            return null;
+        }
+        return Paths.get(spillDir, hash + ".png");
+    }
+
+    /**
+     * 使用 Microsoft YaHei 字体渲染带状态高亮的流程图，支持中文
+     */
+    byte[] render(DiagramKey key) {
+        long start = System.currentTimeMillis();
+        BpmnModel bpmnModel = repositoryService.getBpmnModel(key.getProcessDefinitionId());
+        if (bpmnModel == null) {
+            throw new IllegalArgumentException("Process definition not found: " + key.getProcessDefinitionId());
+        }
+
+        DefaultProcessDiagramGenerator generator = new DefaultProcessDiagramGenerator();
+        try (InputStream diagramStream = generator.generateDiagram(
+                bpmnModel,
+                "png",
+                key.getActiveActivityIds(),
+                key.getCompletedActivityIds(),
+                DIAGRAM_FONT,  // activity font
+                DIAGRAM_FONT,  // label font
+                DIAGRAM_FONT,  // annotation font
+                Thread.currentThread().getContextClassLoader(),
+                1.0,
+                true)) {
+            byte[] bytes = diagramStream.readAllBytes();
+            log.info("Rendered diagram for {} ({} bytes) in {} ms", key.getProcessDefinitionId(), bytes.length,
+                    System.currentTimeMillis() - start);
+            return bytes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> normalize(Collection<String> activityIds) {
+        if (activityIds == null) {
+            return List.of();
+        }
+        return activityIds.stream().distinct().sorted().collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * 流程图缓存 key，hash 同时用作 HTTP ETag
+     */
+    @Getter
+    public static class DiagramKey {
+        private final String processDefinitionId;
+        private final List<String> activeActivityIds;
+        private final List<String> completedActivityIds;
+        private final String hash;
+
+        DiagramKey(String processDefinitionId, List<String> activeActivityIds, List<String> completedActivityIds) {
+            this.processDefinitionId = processDefinitionId;
+            this.activeActivityIds = activeActivityIds;
+            this.completedActivityIds = completedActivityIds;
+            this.hash = sha256(processDefinitionId + "|" + String.join(",", activeActivityIds)
+                    + "|" + String.join(",", completedActivityIds));
+        }
+
+        private static String sha256(String value) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
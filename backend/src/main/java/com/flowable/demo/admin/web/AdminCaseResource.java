@@ -2,22 +2,33 @@ package com.flowable.demo.admin.web;
 
 import com.flowable.demo.admin.service.CaseRuntimeService;
 import com.flowable.demo.admin.service.CaseMigrationService;
+import com.flowable.demo.admin.service.ProcessDiagramCache;
 import com.flowable.demo.admin.web.dto.CaseInstanceDTO;
 import com.flowable.demo.admin.web.dto.CaseOperationRequest;
+import com.flowable.demo.admin.web.dto.CaseStartOutboxDTO;
 import com.flowable.demo.admin.web.dto.CmmnCaseVisualizationDTO;
 import com.flowable.demo.admin.web.dto.BpmnSubprocessVisualizationDTO;
+import com.flowable.demo.admin.web.dto.ReviewQueueEntryDTO;
+import com.flowable.demo.domain.model.CaseStartOutbox;
+import com.flowable.demo.domain.model.ReviewQueueEntry;
+import com.flowable.demo.service.CaseStartOutboxService;
+import com.flowable.demo.service.ReviewQueueService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Admin Case 管理 REST API
@@ -31,6 +42,8 @@ public class AdminCaseResource {
 
     private final CaseRuntimeService caseRuntimeService;
     private final CaseMigrationService caseMigrationService;
+    private final CaseStartOutboxService caseStartOutboxService;
+    private final ReviewQueueService reviewQueueService;
 
     /**
      * 查询 Case 实例列表
@@ -168,6 +181,78 @@ public class AdminCaseResource {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 查询异步启动发件箱条目（默认返回死信）
+     * 
+     * @param status   状态: PENDING, PROCESSING, DEAD (默认 DEAD)
+     * @param pageable 分页参数
+     * @return 发件箱条目列表
+     */
+    @GetMapping("/start-outbox")
+    public ResponseEntity<Page<CaseStartOutboxDTO>> queryCaseStartOutbox(
+            @RequestParam(defaultValue = "DEAD") CaseStartOutbox.Status status,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("Query case start outbox: status={}, page={}", status, pageable.getPageNumber());
+
+        return ResponseEntity.ok(caseStartOutboxService.findByStatus(status, pageable).map(this::toOutboxDTO));
+    }
+
+    /**
+     * 重新排队死信条目
+     * 
+     * @param id 发件箱条目 ID
+     * @return 更新后的条目
+     */
+    @PostMapping("/start-outbox/{id}/retry")
+    public ResponseEntity<CaseStartOutboxDTO> retryCaseStart(@PathVariable UUID id) {
+        log.info("Retry dead-lettered case start: {}", id);
+
+        return ResponseEntity.ok(toOutboxDTO(caseStartOutboxService.retry(id)));
+    }
+
+    /**
+     * 查询审核完成队列条目（默认返回死信）
+     * 
+     * @param status   状态: PENDING, PROCESSING, DEAD (默认 DEAD)
+     * @param pageable 分页参数
+     * @return 队列条目列表
+     */
+    @GetMapping("/review-queue")
+    public ResponseEntity<Page<ReviewQueueEntryDTO>> queryReviewQueue(
+            @RequestParam(defaultValue = "DEAD") ReviewQueueEntry.Status status,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("Query review queue: status={}, page={}", status, pageable.getPageNumber());
+
+        return ResponseEntity.ok(reviewQueueService.findByStatus(status, pageable).map(this::toReviewQueueDTO));
+    }
+
+    /**
+     * 重新排队死信审核完成请求
+     * 
+     * @param id 队列条目 ID
+     * @return 更新后的条目
+     */
+    @PostMapping("/review-queue/{id}/retry")
+    public ResponseEntity<ReviewQueueEntryDTO> retryReviewCompletion(@PathVariable UUID id) {
+        log.info("Retry dead-lettered review completion: {}", id);
+
+        return ResponseEntity.ok(toReviewQueueDTO(reviewQueueService.retry(id)));
+    }
+
+    /**
+     * 删除死信审核完成请求，审核任务可以重新完成
+     * 
+     * @param id 队列条目 ID
+     * @return 无内容
+     */
+    @DeleteMapping("/review-queue/{id}")
+    public ResponseEntity<Void> deleteReviewCompletion(@PathVariable UUID id) {
+        log.info("Delete dead-lettered review completion: {}", id);
+
+        reviewQueueService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * 迁移现有案例，为没有 businessKey 的案例添加 claimNumber 变量
      * 
@@ -243,4 +328,65 @@ public class AdminCaseResource {
                 .contentType(org.springframework.http.MediaType.parseMediaType("image/svg+xml"))
                 .body(diagramSvg);
     }
+
+    /**
+     * 获取 BPMN 子流程流程图 PNG（二进制）
+     * ETag 由流程定义和高亮状态计算，状态未变化时返回 304，不再渲染和传输图片
+     *
+     * @param planItemInstanceId PlanItem 实例 ID（processTask 实例）
+     * @return 流程图 PNG
+     */
+    @GetMapping(value = "/plan-items/{planItemInstanceId}/subprocess-diagram.png", produces = MediaType.IMAGE_PNG_VALUE)
+    public ResponseEntity<byte[]> getSubprocessDiagramPng(
+            @PathVariable String planItemInstanceId,
+            WebRequest webRequest) {
+        ProcessDiagramCache.DiagramKey key = caseRuntimeService.getSubprocessDiagramKey(planItemInstanceId);
+        if (key == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = "\"" + key.getHash() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        byte[] png = caseRuntimeService.getDiagramPng(key);
+        if (png == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_PNG)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(png);
+    }
+
+    private CaseStartOutboxDTO toOutboxDTO(CaseStartOutbox entry) {
+        return CaseStartOutboxDTO.builder()
+                .id(entry.getId().toString())
+                .claimCaseId(entry.getClaimCaseId().toString())
+                .claimNumber(entry.getClaimNumber())
+                .status(entry.getStatus().name())
+                .attempts(entry.getAttempts())
+                .nextAttemptAt(entry.getNextAttemptAt())
+                .lastError(entry.getLastError())
+                .createdAt(entry.getCreatedAt())
+                .updatedAt(entry.getUpdatedAt())
+                .build();
+    }
+
+    private ReviewQueueEntryDTO toReviewQueueDTO(ReviewQueueEntry entry) {
+        return ReviewQueueEntryDTO.builder()
+                .id(entry.getId().toString())
+                .taskId(entry.getTaskId())
+                .caseInstanceId(entry.getCaseInstanceId())
+                .status(entry.getStatus().name())
+                .attempts(entry.getAttempts())
+                .nextAttemptAt(entry.getNextAttemptAt())
+                .lastError(entry.getLastError())
+                .createdAt(entry.getCreatedAt())
+                .updatedAt(entry.getUpdatedAt())
+                .build();
+    }
 }
@@ -0,0 +1,51 @@
+package com.flowable.demo.config;
+
+import com.flowable.demo.service.AuthenticationCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import java.util.Optional;
+
+/**
+ * 带结果缓存的认证提供者
+ * 命中 AuthenticationCache 时直接返回缓存的认证结果，未命中时委托给 DaoAuthenticationProvider
+ * （查询用户并执行密码校验），成功后写入缓存；认证失败的结果不缓存
+ */
+@RequiredArgsConstructor
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final AuthenticationCache authenticationCache;
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        String password = authentication.getCredentials() != null ? authentication.getCredentials().toString() : null;
+
+        Optional<Authentication> cached = authenticationCache.get(username, password);
+        if (cached.isPresent()) {
+            // 每次返回新的令牌，携带当前请求的 details（远程地址等）
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    cached.get().getPrincipal(), null, cached.get().getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        long generation = authenticationCache.generation();
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            // 缓存不带凭据和请求 details 的副本
+            authenticationCache.put(username, password, UsernamePasswordAuthenticationToken.authenticated(
+                    result.getPrincipal(), null, result.getAuthorities()), generation);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+}
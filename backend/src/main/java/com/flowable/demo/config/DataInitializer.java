@@ -11,6 +11,7 @@ import com.flowable.demo.domain.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,8 +23,10 @@ import java.util.HashSet;
 
 /**
  * 数据初始化器
+ * perf profile 下由 PerfDataSeeder 批量造数，不运行本初始化器
  */
 @Component
+@Profile("!perf")
 @RequiredArgsConstructor
 @Slf4j
 public class DataInitializer implements CommandLineRunner {
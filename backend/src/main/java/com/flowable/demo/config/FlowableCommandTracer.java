@@ -0,0 +1,424 @@
+package com.flowable.demo.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flowable.demo.service.ClaimMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.flowable.cmmn.api.runtime.CaseInstance;
+import org.flowable.cmmn.api.runtime.PlanItemInstance;
+import org.flowable.common.engine.api.scope.ScopeTypes;
+import org.flowable.common.engine.impl.AbstractEngineConfiguration;
+import org.flowable.common.engine.impl.context.Context;
+import org.flowable.common.engine.impl.interceptor.AbstractCommandInterceptor;
+import org.flowable.common.engine.impl.interceptor.Command;
+import org.flowable.common.engine.impl.interceptor.CommandConfig;
+import org.flowable.common.engine.impl.interceptor.CommandContext;
+import org.flowable.common.engine.impl.interceptor.CommandContextCloseListener;
+import org.flowable.common.engine.impl.interceptor.CommandExecutor;
+import org.flowable.common.engine.impl.persistence.cache.CachedEntity;
+import org.flowable.common.engine.impl.persistence.cache.EntityCache;
+import org.flowable.engine.runtime.Execution;
+import org.flowable.task.api.TaskInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flowable 命令级追踪
+ * 由 {@link FlowableEngineConfig} 安装到流程、CMMN 和 DMN 引擎：
+ * <ul>
+ *   <li>前置命令拦截器为每个命令计时（flowable.command，按引擎、命令类型、root/nested 和结果区分）；
+ *       同一线程上在外层命令执行期间发起的命令（包括跨引擎调用，如 CMMN 决策任务调用 DMN）归入外层命令的追踪</li>
+ *   <li>后置命令拦截器在命令上下文上注册关闭监听器，统计会话刷新次数和耗时，并从实体缓存收集涉及的 Case/流程实例ID</li>
+ *   <li>MyBatis 插件按类型统计追踪期间执行的 SQL 语句数</li>
+ * </ul>
+ * 外层命令结束时记录刷新次数和语句数分布；耗时达到 app.flowable.tracing.slow-command-threshold-ms 时
+ * 输出一行 JSON 慢命令报告（负值关闭报告）
+ */
+@Component
+@ConditionalOnProperty(name = "app.flowable.tracing.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class FlowableCommandTracer {
+
+    static final String NESTING_ROOT = "root";
+    static final String NESTING_NESTED = "nested";
+    static final int MAX_REPORTED_IDS = 5;
+    static final int MAX_REPORTED_NESTED_COMMANDS = 10;
+
+    private static final ThreadLocal<CommandTrace> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.flowable.tracing.slow-command-threshold-ms:500}")
+    private long slowCommandThresholdMs = 500;
+
+    public FlowableCommandTracer(MeterRegistry registry, ObjectMapper objectMapper) {
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 在引擎初始化前安装命令拦截器和 MyBatis 插件；engine 为指标和报告中的引擎标签
+     */
+    public void install(AbstractEngineConfiguration configuration, String engine) {
+        configuration.addCustomPreCommandInterceptor(new TimingInterceptor(engine));
+        configuration.addCustomPostCommandInterceptor(new ContextInterceptor());
+        installStatementCounter(configuration);
+        log.info("Flowable command tracing installed for {} engine (slow command threshold {} ms)", engine,
+                slowCommandThresholdMs);
+    }
+
+    /**
+     * 只安装 MyBatis 插件。
+     * 依赖引擎复用根引擎的 SqlSessionFactory，只有根引擎（Spring Boot 中为 App 引擎）的插件生效，不会重复计数
+     */
+    public void installStatementCounter(AbstractEngineConfiguration configuration) {
+        List<Interceptor> mybatisInterceptors = configuration.getCustomMybatisInterceptors() != null
+                ? new ArrayList<>(configuration.getCustomMybatisInterceptors())
+                : new ArrayList<>();
+        mybatisInterceptors.add(new StatementCounter());
+        configuration.setCustomMybatisInterceptors(mybatisInterceptors);
+    }
+
+    /**
+     * 指标标签用的命令类型：类的简单名称，lambda 命令去掉运行时生成的后缀
+     */
+    static String commandName(Command<?> command) {
+        String name = command.getClass().getName();
+        name = name.substring(name.lastIndexOf('.') + 1);
+        int lambda = name.indexOf("$$Lambda");
+        return lambda >= 0 ? name.substring(0, lambda + "$$Lambda".length()) : name;
+    }
+
+    private void complete(CommandTrace trace, long elapsedNanos, String outcome) {
+        DistributionSummary.builder("flowable.command.flushes")
+                .description("Session flushes per root Flowable command, including nested command contexts")
+                .tag("engine", trace.engine)
+                .tag("command", trace.command)
+                .register(registry)
+                .record(trace.flushes);
+        for (SqlCommandType type : CommandTrace.STATEMENT_TYPES) {
+            DistributionSummary.builder("flowable.command.statements")
+                    .description("SQL statements executed per root Flowable command")
+                    .tag("engine", trace.engine)
+                    .tag("command", trace.command)
+                    .tag("type", type.name())
+                    .register(registry)
+                    .record(trace.statements(type));
+        }
+
+        if (slowCommandThresholdMs < 0 || elapsedNanos < TimeUnit.MILLISECONDS.toNanos(slowCommandThresholdMs)) {
+            return;
+        }
+        Counter.builder("flowable.command.slow")
+                .description("Root Flowable commands above the slow command threshold")
+                .tag("engine", trace.engine)
+                .tag("command", trace.command)
+                .register(registry)
+                .increment();
+        try {
+            log.warn(objectMapper.writeValueAsString(trace.report(elapsedNanos, outcome)));
+        } catch (JsonProcessingException e) {
+            log.warn("Slow Flowable command {} on {} engine took {} ms", trace.command, trace.engine,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+    }
+
+    /**
+     * 前置拦截器：位于事务和命令上下文拦截器之前，计时包含会话刷新
+     */
+    private class TimingInterceptor extends AbstractCommandInterceptor {
+
+        private final String engine;
+
+        TimingInterceptor(String engine) {
+            this.engine = engine;
+        }
+
+        @Override
+        public <T> T execute(CommandConfig config, Command<T> command, CommandExecutor commandExecutor) {
+            String commandName = commandName(command);
+            CommandTrace trace = CURRENT.get();
+            boolean root = trace == null;
+            if (root) {
+                trace = new CommandTrace(engine, commandName);
+                CURRENT.set(trace);
+            }
+            trace.enter();
+            long startTime = System.nanoTime();
+            String outcome = ClaimMetrics.OUTCOME_ERROR;
+            try {
+                T result = next.execute(config, command, commandExecutor);
+                outcome = ClaimMetrics.OUTCOME_SUCCESS;
+                return result;
+            } finally {
+                long elapsed = System.nanoTime() - startTime;
+                trace.exit();
+                Timer.builder("flowable.command")
+                        .description("Flowable command execution time")
+                        .tag("engine", engine)
+                        .tag("command", commandName)
+                        .tag("nesting", root ? NESTING_ROOT : NESTING_NESTED)
+                        .tag("outcome", outcome)
+                        .register(registry)
+                        .record(elapsed, TimeUnit.NANOSECONDS);
+                if (root) {
+                    CURRENT.remove();
+                    complete(trace, elapsed, outcome);
+                } else {
+                    trace.nested(engine, commandName, elapsed);
+                }
+            }
+        }
+    }
+
+    /**
+     * 后置拦截器：命令上下文已创建，注册关闭监听器（复用的上下文只注册一次）
+     */
+    private static class ContextInterceptor extends AbstractCommandInterceptor {
+
+        @Override
+        public <T> T execute(CommandConfig config, Command<T> command, CommandExecutor commandExecutor) {
+            CommandTrace trace = CURRENT.get();
+            CommandContext commandContext = Context.getCommandContext();
+            if (trace != null && commandContext != null) {
+                commandContext.addCloseListener(new TraceCloseListener(trace));
+            }
+            return next.execute(config, command, commandExecutor);
+        }
+    }
+
+    private static class TraceCloseListener implements CommandContextCloseListener {
+
+        private final CommandTrace trace;
+
+        TraceCloseListener(CommandTrace trace) {
+            this.trace = trace;
+        }
+
+        @Override
+        public void closing(CommandContext commandContext) {
+            if (commandContext.getSessions().get(EntityCache.class) instanceof EntityCache entityCache) {
+                trace.collectScopeIds(entityCache);
+            }
+            trace.flushStarted();
+        }
+
+        @Override
+        public void afterSessionsFlush(CommandContext commandContext) {
+            trace.flushFinished();
+        }
+
+        @Override
+        public void closed(CommandContext commandContext) {
+        }
+
+        @Override
+        public void closeFailure(CommandContext commandContext) {
+        }
+
+        @Override
+        public Integer order() {
+            // 在其他监听器之后收集实体缓存
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public boolean multipleAllowed() {
+            return false;
+        }
+    }
+
+    @Intercepts({
+            @Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }),
+            @Signature(type = Executor.class, method = "query",
+                    args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class })
+    })
+    static class StatementCounter implements Interceptor {
+
+        @Override
+        public Object intercept(Invocation invocation) throws Throwable {
+            CommandTrace trace = CURRENT.get();
+            if (trace != null) {
+                trace.statement(((MappedStatement) invocation.getArgs()[0]).getSqlCommandType());
+            }
+            return invocation.proceed();
+        }
+    }
+
+    /**
+     * 一个外层命令的追踪数据，只在执行命令的线程上访问
+     */
+    static class CommandTrace {
+
+        static final List<SqlCommandType> STATEMENT_TYPES = List.of(SqlCommandType.SELECT, SqlCommandType.INSERT,
+                SqlCommandType.UPDATE, SqlCommandType.DELETE);
+
+        private final String engine;
+        private final String command;
+        private final Map<SqlCommandType, Long> statements = new EnumMap<>(SqlCommandType.class);
+        private final Map<String, NestedCommand> nestedCommands = new LinkedHashMap<>();
+        private final Set<String> caseInstanceIds = new LinkedHashSet<>();
+        private final Set<String> processInstanceIds = new LinkedHashSet<>();
+        private int depth;
+        private int maxDepth;
+        private int flushes;
+        private long flushNanos;
+        private long flushStartNanos;
+
+        CommandTrace(String engine, String command) {
+            this.engine = engine;
+            this.command = command;
+        }
+
+        void enter() {
+            depth++;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        void exit() {
+            depth--;
+        }
+
+        void nested(String engine, String command, long elapsedNanos) {
+            nestedCommands.computeIfAbsent(engine + ":" + command, key -> new NestedCommand(engine, command))
+                    .add(elapsedNanos);
+        }
+
+        void statement(SqlCommandType type) {
+            statements.merge(type, 1L, Long::sum);
+        }
+
+        long statements(SqlCommandType type) {
+            return statements.getOrDefault(type, 0L);
+        }
+
+        int flushes() {
+            return flushes;
+        }
+
+        void flushStarted() {
+            flushStartNanos = System.nanoTime();
+        }
+
+        void flushFinished() {
+            // 上下文关闭异常时可能重复回调，只计一次
+            if (flushStartNanos != 0) {
+                flushes++;
+                flushNanos += System.nanoTime() - flushStartNanos;
+                flushStartNanos = 0;
+            }
+        }
+
+        void collectScopeIds(EntityCache entityCache) {
+            for (Map<String, CachedEntity> entities : entityCache.getAllCachedEntities().values()) {
+                for (CachedEntity cachedEntity : entities.values()) {
+                    Object entity = cachedEntity.getEntity();
+                    if (entity instanceof CaseInstance caseInstance) {
+                        addId(caseInstanceIds, caseInstance.getId());
+                    } else if (entity instanceof PlanItemInstance planItemInstance) {
+                        addId(caseInstanceIds, planItemInstance.getCaseInstanceId());
+                    } else if (entity instanceof Execution execution) {
+                        addId(processInstanceIds, execution.getProcessInstanceId());
+                    } else if (entity instanceof TaskInfo task) {
+                        if (task.getProcessInstanceId() != null) {
+                            addId(processInstanceIds, task.getProcessInstanceId());
+                        } else if (ScopeTypes.CMMN.equals(task.getScopeType())) {
+                            addId(caseInstanceIds, task.getScopeId());
+                        }
+                    }
+                }
+            }
+        }
+
+        private static void addId(Set<String> ids, String id) {
+            if (id != null && ids.size() < MAX_REPORTED_IDS) {
+                ids.add(id);
+            }
+        }
+
+        /**
+         * 慢命令报告；嵌套命令按类型汇总，耗时包含其自身的嵌套命令，按总耗时降序
+         */
+        Map<String, Object> report(long elapsedNanos, String outcome) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("event", "slow-flowable-command");
+            report.put("engine", engine);
+            report.put("command", command);
+            report.put("outcome", outcome);
+            report.put("durationMs", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            report.put("flushMs", TimeUnit.NANOSECONDS.toMillis(flushNanos));
+            report.put("flushes", flushes);
+            Map<String, Long> statementCounts = new LinkedHashMap<>();
+            for (SqlCommandType type : STATEMENT_TYPES) {
+                statementCounts.put(type.name().toLowerCase(), statements(type));
+            }
+            report.put("statements", statementCounts);
+            report.put("maxDepth", maxDepth);
+            report.put("nestedCommands", nestedCommands.values().stream()
+                    .sorted(Comparator.comparingLong(NestedCommand::totalNanos).reversed())
+                    .limit(MAX_REPORTED_NESTED_COMMANDS)
+                    .map(NestedCommand::toReport)
+                    .toList());
+            report.put("caseInstanceIds", List.copyOf(caseInstanceIds));
+            report.put("processInstanceIds", List.copyOf(processInstanceIds));
+            report.put("thread", Thread.currentThread().getName());
+            return report;
+        }
+    }
+
+    private static class NestedCommand {
+
+        private final String engine;
+        private final String command;
+        private int count;
+        private long totalNanos;
+
+        NestedCommand(String engine, String command) {
+            this.engine = engine;
+            this.command = command;
+        }
+
+        void add(long elapsedNanos) {
+            count++;
+            totalNanos += elapsedNanos;
+        }
+
+        long totalNanos() {
+            return totalNanos;
+        }
+
+        Map<String, Object> toReport() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("engine", engine);
+            report.put("command", command);
+            report.put("count", count);
+            report.put("totalMs", TimeUnit.NANOSECONDS.toMillis(totalNanos));
+            return report;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.flowable.demo.config;
+
+import com.flowable.demo.service.ClaimMetrics;
+import org.flowable.app.spring.SpringAppEngineConfiguration;
+import org.flowable.cmmn.engine.impl.behavior.impl.DecisionTaskActivityBehavior;
+import org.flowable.cmmn.engine.impl.parser.DefaultCmmnActivityBehaviorFactory;
+import org.flowable.cmmn.model.DecisionTask;
+import org.flowable.cmmn.model.PlanItem;
+import org.flowable.cmmn.spring.SpringCmmnEngineConfiguration;
+import org.flowable.common.engine.impl.AbstractEngineConfiguration;
+import org.flowable.common.engine.impl.EngineConfigurator;
+import org.flowable.dmn.spring.SpringDmnEngineConfiguration;
+import org.flowable.spring.SpringProcessEngineConfiguration;
+import org.flowable.spring.boot.EngineConfigurationConfigurer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Flowable 引擎扩展配置
+ */
+@Configuration
+public class FlowableEngineConfig {
+
+    /**
+     * CMMN 决策任务使用 {@link PrecomputedDecisionTaskActivityBehavior}，可直接采用审核队列预先求值的决策结果
+     */
+    @Bean
+    public EngineConfigurationConfigurer<SpringCmmnEngineConfiguration> cmmnActivityBehaviorConfigurer(
+            ObjectProvider<ClaimMetrics> claimMetrics) {
+        return configuration -> {
+            DefaultCmmnActivityBehaviorFactory factory = new DefaultCmmnActivityBehaviorFactory() {
+                @Override
+                public DecisionTaskActivityBehavior createDecisionTaskActivityBehavior(PlanItem planItem,
+                        DecisionTask decisionTask) {
+                    return new PrecomputedDecisionTaskActivityBehavior(
+                            createExpression(decisionTask.getDecisionRefExpression()), decisionTask,
+                            claimMetrics.getIfAvailable());
+                }
+            };
+            configuration.setActivityBehaviorFactory(factory);
+            // 引擎只为默认工厂注入表达式管理器等依赖，自定义工厂在引擎初始化后补齐
+            configuration.addConfigurator(new EngineConfigurator() {
+                @Override
+                public void beforeInit(AbstractEngineConfiguration engineConfiguration) {
+                }
+
+                @Override
+                public void configure(AbstractEngineConfiguration engineConfiguration) {
+                    factory.setExpressionManager(configuration.getExpressionManager());
+                    factory.setClassDelegateFactory(configuration.getClassDelegateFactory());
+                }
+
+                @Override
+                public int getPriority() {
+                    return 0;
+                }
+            });
+        };
+    }
+
+    /**
+     * 流程、CMMN 和 DMN 引擎安装命令追踪（app.flowable.tracing.enabled=false 时不安装）
+     */
+    @Bean
+    public EngineConfigurationConfigurer<SpringProcessEngineConfiguration> processCommandTracingConfigurer(
+            ObjectProvider<FlowableCommandTracer> tracer) {
+        return configuration -> tracer.ifAvailable(t -> t.install(configuration, ClaimMetrics.ENGINE_BPMN));
+    }
+
+    @Bean
+    public EngineConfigurationConfigurer<SpringCmmnEngineConfiguration> cmmnCommandTracingConfigurer(
+            ObjectProvider<FlowableCommandTracer> tracer) {
+        return configuration -> tracer.ifAvailable(t -> t.install(configuration, ClaimMetrics.ENGINE_CMMN));
+    }
+
+    @Bean
+    public EngineConfigurationConfigurer<SpringDmnEngineConfiguration> dmnCommandTracingConfigurer(
+            ObjectProvider<FlowableCommandTracer> tracer) {
+        return configuration -> tracer.ifAvailable(t -> t.install(configuration, ClaimMetrics.ENGINE_DMN));
+    }
+
+    /**
+     * App 引擎是根引擎，其他引擎复用它的 SqlSessionFactory，SQL 语句计数插件只在这里生效
+     */
+    @Bean
+    public EngineConfigurationConfigurer<SpringAppEngineConfiguration> appStatementCountingConfigurer(
+            ObjectProvider<FlowableCommandTracer> tracer) {
+        return configuration -> tracer.ifAvailable(t -> t.installStatementCounter(configuration));
+    }
+}
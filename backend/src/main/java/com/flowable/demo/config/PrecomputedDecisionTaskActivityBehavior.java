@@ -0,0 +1,86 @@
+package com.flowable.demo.config;
+
+import com.flowable.demo.service.ClaimMetrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.cmmn.api.DecisionTableVariableManager;
+import org.flowable.cmmn.engine.CmmnEngineConfiguration;
+import org.flowable.cmmn.engine.impl.behavior.impl.DecisionTaskActivityBehavior;
+import org.flowable.cmmn.engine.impl.persistence.entity.PlanItemInstanceEntity;
+import org.flowable.cmmn.engine.impl.util.CommandContextUtil;
+import org.flowable.cmmn.model.DecisionTask;
+import org.flowable.common.engine.api.delegate.Expression;
+import org.flowable.common.engine.impl.interceptor.CommandContext;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 支持预先求值的 CMMN 决策任务
+ * 若完成前序任务时通过瞬时变量 {@value #PRECOMPUTED_DECISIONS_VARIABLE}（决策Key -> 输出）传入了本决策的结果，
+ * 直接把结果写入变量并完成决策任务，不再调用 DMN 引擎（也不写 DMN 执行审计）；
+ * 没有预先结果、结果为空或按部署版本解析决策时，按原有方式执行；两种路径分别记录 mode 标签不同的决策耗时
+ */
+@Slf4j
+public class PrecomputedDecisionTaskActivityBehavior extends DecisionTaskActivityBehavior {
+
+    public static final String PRECOMPUTED_DECISIONS_VARIABLE = "precomputedDecisions";
+
+    private final ClaimMetrics claimMetrics;
+
+    public PrecomputedDecisionTaskActivityBehavior(Expression decisionRefExpression, DecisionTask decisionTask,
+            ClaimMetrics claimMetrics) {
+        super(decisionRefExpression, decisionTask);
+        this.claimMetrics = claimMetrics;
+    }
+
+    @Override
+    public void execute(CommandContext commandContext, PlanItemInstanceEntity planItemInstanceEntity) {
+        String decisionKey = decisionTask.getDecision() != null ? decisionTask.getDecision().getExternalRef() : null;
+        Map<String, Object> outputs = precomputedOutputs(planItemInstanceEntity, decisionKey);
+        Timer.Sample sample = claimMetrics != null ? claimMetrics.start() : null;
+        String outcome = ClaimMetrics.OUTCOME_ERROR;
+        try {
+            if (outputs == null) {
+                super.execute(commandContext, planItemInstanceEntity);
+            } else {
+                applyPrecomputed(commandContext, planItemInstanceEntity, decisionKey, outputs);
+            }
+            outcome = ClaimMetrics.OUTCOME_SUCCESS;
+        } finally {
+            if (claimMetrics != null) {
+                claimMetrics.recordDecision(sample, decisionKey, outputs == null ? "decision-task" : "precomputed",
+                        outcome);
+            }
+        }
+    }
+
+    private void applyPrecomputed(CommandContext commandContext, PlanItemInstanceEntity planItemInstanceEntity,
+            String decisionKey, Map<String, Object> outputs) {
+        CmmnEngineConfiguration configuration = CommandContextUtil.getCmmnEngineConfiguration(commandContext);
+        List<Map<String, Object>> result = List.of(outputs);
+        DecisionTableVariableManager variableManager = configuration.getDecisionTableVariableManager();
+        if (variableManager != null) {
+            variableManager.setVariablesOnPlanItemInstance(result, decisionKey, planItemInstanceEntity,
+                    configuration.getObjectMapper(), false);
+        } else {
+            setVariablesOnPlanItemInstance(result, decisionKey, planItemInstanceEntity,
+                    configuration.getObjectMapper(), false);
+        }
+        log.debug("Applied precomputed decision {} to plan item {}", decisionKey, planItemInstanceEntity.getId());
+        CommandContextUtil.getAgenda(commandContext).planCompletePlanItemInstanceOperation(planItemInstanceEntity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> precomputedOutputs(PlanItemInstanceEntity planItemInstanceEntity, String decisionKey) {
+        if (decisionKey == null || decisionKey.isEmpty() || Boolean.parseBoolean(getFieldString("sameDeployment"))) {
+            return null;
+        }
+        Object precomputed = planItemInstanceEntity.getTransientVariable(PRECOMPUTED_DECISIONS_VARIABLE);
+        if (!(precomputed instanceof Map<?, ?> decisions)
+                || !(decisions.get(decisionKey) instanceof Map<?, ?> outputs) || outputs.isEmpty()) {
+            return null;
+        }
+        return (Map<String, Object>) outputs;
+    }
+}
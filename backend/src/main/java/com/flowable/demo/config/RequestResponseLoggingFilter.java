@@ -1,127 +1,216 @@
 package com.flowable.demo.config;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.Ordered;
-import org.springframework.core.annotation.Order;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 请求响应日志过滤器
- * 用于包装请求和响应，使得可以多次读取请求体和响应体
+ * 每个请求输出一行 JSON 事件（由 logback-spring.xml 中的异步 appender 写出）：
+ * <ul>
+ *   <li>OFF：不记录</li>
+ *   <li>SUMMARY（默认）：只记录方法、路径、状态码、耗时和响应字节数，不缓冲请求体和响应体</li>
+ *   <li>BODY：额外记录请求体和响应体的前 max-body-bytes 个字节，超出部分不再缓冲</li>
+ * </ul>
+ * 支持按路径配置采样率；流式和二进制接口（NDJSON、文件上传、图片等）不记录请求体和响应体
  */
 @Component
 @Slf4j
 public class RequestResponseLoggingFilter extends OncePerRequestFilter {
 
+    enum Mode {
+        OFF, SUMMARY, BODY
+    }
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.request-logging.mode:SUMMARY}")
+    private Mode mode = Mode.SUMMARY;
+
+    @Value("${app.request-logging.sample-rate:1.0}")
+    private double sampleRate = 1.0;
+
+    /**
+     * 按路径的采样率，格式：/api/tasks/**=0.1,/api/admin/**=0
+     */
+    @Value("${app.request-logging.route-sample-rates:}")
+    private String routeSampleRates = "";
+
+    @Value("${app.request-logging.max-body-bytes:2048}")
+    private int maxBodyBytes = 2048;
+
+    private List<RouteSampleRate> routes = List.of();
+
+    public RequestResponseLoggingFilter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void init() {
+        routes = parseRouteSampleRates(routeSampleRates);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        long startTime = System.currentTimeMillis();
+        if (!isSampled(request.getRequestURI())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        // 包装请求以便多次读取
-        ContentCachingRequestWrapper wrappedRequest = new ContentCachingRequestWrapper(request);
+        long startTime = System.currentTimeMillis();
+        boolean captureBody = mode == Mode.BODY && !isStreamingOrBinary(request.getContentType());
 
-        // 包装响应以便多次读取
-        ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
+        // 请求体只缓存被应用读取的前 maxBodyBytes 个字节
+        HttpServletRequest loggedRequest = captureBody
+                ? new ContentCachingRequestWrapper(request, maxBodyBytes)
+                : request;
+        // 响应体直接写入原始响应，只旁路复制前 maxBodyBytes 个字节
+        TeeResponseWrapper loggedResponse = new TeeResponseWrapper(response, captureBody ? maxBodyBytes : 0);
 
         try {
-            // 继续过滤器链
-            filterChain.doFilter(wrappedRequest, wrappedResponse);
+            filterChain.doFilter(loggedRequest, loggedResponse);
         } finally {
-            // 记录请求和响应日志
-            logRequest(wrappedRequest);
-            logResponse(wrappedResponse, startTime);
-
-            // 确保响应内容被写入原始响应
-            wrappedResponse.copyBodyToResponse();
+            loggedResponse.flushWriter();
+            logExchange(loggedRequest, loggedResponse, System.currentTimeMillis() - startTime);
         }
     }
 
-    private void logRequest(ContentCachingRequestWrapper request) {
+    private void logExchange(HttpServletRequest request, TeeResponseWrapper response, long duration) {
         try {
-            String characterEncoding = request.getCharacterEncoding();
-            String requestBody = new String(request.getContentAsByteArray(), characterEncoding != null ? characterEncoding : StandardCharsets.UTF_8.name());
-
-            log.info("====================================== Incoming Request ===========================================================");
-            log.info("Method: {}", request.getMethod());
-            log.info("URI: {}", request.getRequestURI());
-            log.info("Query String: {}", request.getQueryString());
-            //log.info("Remote Address: {}", request.getRemoteAddr());
-            //log.info("User-Agent: {}", request.getHeader("User-Agent"));
-            //log.info("Content-Type: {}", request.getContentType());
-            //log.info("Content-Length: {}", request.getContentLength());
-
-            // 记录请求头
-            //log.info("Headers:");
-            //request.getHeaderNames().asIterator().forEachRemaining(headerName -> {
-            //    String headerValue = request.getHeader(headerName);
-            //    if (!"Authorization".equalsIgnoreCase(headerName)) {
-            //        log.info("  {}: {}", headerName, headerValue);
-            //    } else {
-            //        log.info("  {}: [REDACTED]", headerName);
-            //    }
-            //});
-
-            // 记录请求体（仅对非文件上传请求）
-            if (request.getContentType() != null && !request.getContentType().contains("multipart/form-data") &&
-                    requestBody != null && !requestBody.trim().isEmpty()) {
-                log.info("Request Body: {}", requestBody.length() > 1000 ?
-                        requestBody.substring(0, 1000) + "...[truncated]" : requestBody);
-            }
-
-            log.info("================================================================================================================");
-
-        } catch (Exception e) {
-            log.error("Error logging request", e);
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("method", request.getMethod());
+            event.put("uri", request.getRequestURI());
+            if (request.getQueryString() != null) {
+                event.put("query", request.getQueryString());
+            }
+            event.put("status", response.getStatus());
+            event.put("durationMs", duration);
+            event.put("responseBytes", response.getByteCount());
+
+            if (request instanceof ContentCachingRequestWrapper cachingRequest) {
+                byte[] body = cachingRequest.getContentAsByteArray();
+                if (body.length > 0) {
+                    event.put("requestBody", decode(body, body.length, request.getCharacterEncoding()));
+                }
+            }
+            if (response.getCapturedCount() > 0 && !isStreamingOrBinary(response.getContentType())) {
+                event.put("responseBody", decode(response.getCaptured(), response.getCapturedCount(),
+                        response.getCharacterEncoding()));
+                if (response.getByteCount() > response.getCapturedCount()) {
+                    event.put("responseTruncated", true);
+                }
+            }
+
+            log.info(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Error logging request {} {}", request.getMethod(), request.getRequestURI(), e);
         }
     }
 
-    private void logResponse(ContentCachingResponseWrapper response, long startTime) {
-        try {
-            long duration = System.currentTimeMillis() - startTime;
-            String characterEncoding = response.getCharacterEncoding();
-            String responseBody = new String(response.getContentAsByteArray(), characterEncoding != null ? characterEncoding : StandardCharsets.UTF_8.name());
-
-            log.info("============================================== Outgoing Response ===============================================");
-            log.info("Status: {}", response.getStatus());
-            log.info("Content-Type: {}", response.getContentType());
-            log.info("Content-Length: {}", response.getContentSize());
-            log.info("Processing Time: {} ms", duration);
+    private String decode(byte[] bytes, int length, String characterEncoding) {
+        Charset charset = StandardCharsets.UTF_8;
+        if (characterEncoding != null) {
+            try {
+                charset = Charset.forName(characterEncoding);
+            } catch (IllegalArgumentException e) {
+                // keep UTF-8
+            }
+        }
+        return new String(bytes, 0, length, charset);
+    }
 
-            // 记录响应头
-            //log.info("Headers:");
-            //for (String headerName : response.getHeaderNames()) {
-            //    log.info("  {}: {}", headerName, response.getHeader(headerName));
-            //}
+    boolean isSampled(String path) {
+        if (mode == Mode.OFF) {
+            return false;
+        }
+        double rate = sampleRate(path);
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
 
-            // 记录响应体（仅对JSON响应且长度合理）
-            if (response.getContentType() != null && response.getContentType().contains("application/json") &&
-                    responseBody != null && !responseBody.trim().isEmpty()) {
-                log.info("Response Body: {}", responseBody.length() > 2000 ?
-                        responseBody.substring(0, 2000) + "...[truncated]" : responseBody);
+    double sampleRate(String path) {
+        for (RouteSampleRate route : routes) {
+            if (PATH_MATCHER.match(route.pattern, path)) {
+                return route.rate;
             }
+        }
+        return sampleRate;
+    }
 
-            log.info("==================================================================================================================");
+    static List<RouteSampleRate> parseRouteSampleRates(String value) {
+        List<RouteSampleRate> parsed = new ArrayList<>();
+        if (value == null || value.isBlank()) {
+            return parsed;
+        }
+        for (String entry : value.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid route sample rate: " + entry);
+            }
+            parsed.add(new RouteSampleRate(entry.substring(0, separator).trim(),
+                    Double.parseDouble(entry.substring(separator + 1).trim())));
+        }
+        return parsed;
+    }
 
-        } catch (Exception e) {
-            log.error("Error logging response", e);
+    /**
+     * 流式或二进制内容不记录正文
+     */
+    private static boolean isStreamingOrBinary(String contentType) {
+        if (contentType == null) {
+            return false;
         }
+        return contentType.startsWith("application/x-ndjson")
+                || contentType.startsWith("text/event-stream")
+                || contentType.startsWith("text/csv")
+                || contentType.startsWith("multipart/")
+                || contentType.startsWith("image/")
+                || contentType.startsWith("application/octet-stream");
     }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        if (mode == Mode.OFF) {
+            return true;
+        }
         String path = request.getRequestURI();
+        // 流式请求（NDJSON）不能包装请求体和响应体
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.startsWith("application/x-ndjson")) {
+            return true;
+        }
+        // 流式导出在异步线程中持续写出，不能包装响应
+        if (path.endsWith("/cases/export")) {
+            return true;
+        }
         // 排除不需要记录日志的路径
         return path.startsWith("/api-docs") ||
                 path.startsWith("/swagger-ui") ||
@@ -134,4 +223,142 @@ public class RequestResponseLoggingFilter extends OncePerRequestFilter {
                 path.endsWith(".jpg") ||
                 path.endsWith(".gif");
     }
+
+    static class RouteSampleRate {
+        private final String pattern;
+        private final double rate;
+
+        RouteSampleRate(String pattern, double rate) {
+            this.pattern = pattern;
+            this.rate = rate;
+        }
+    }
+
+    /**
+     * 响应包装器：正文直接写入原始响应，同时统计字节数并复制前 limit 个字节用于日志
+     */
+    static class TeeResponseWrapper extends HttpServletResponseWrapper {
+
+        private final int limit;
+        private final ByteArrayOutputStream captured;
+        private long byteCount;
+        private TeeOutputStream teeStream;
+        private PrintWriter writer;
+
+        TeeResponseWrapper(HttpServletResponse response, int limit) {
+            super(response);
+            this.limit = limit;
+            this.captured = new ByteArrayOutputStream(Math.min(limit, 256));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called on this response");
+            }
+            return teeStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (teeStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called on this response");
+                }
+                String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+                writer = new PrintWriter(new OutputStreamWriter(teeStream(), encoding), false);
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            flushWriter();
+            super.flushBuffer();
+        }
+
+        /**
+         * 把 PrintWriter 中缓冲的字符写入底层响应，过滤器链结束时必须调用
+         */
+        void flushWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        private TeeOutputStream teeStream() throws IOException {
+            if (teeStream == null) {
+                teeStream = new TeeOutputStream(super.getOutputStream());
+            }
+            return teeStream;
+        }
+
+        long getByteCount() {
+            return byteCount;
+        }
+
+        byte[] getCaptured() {
+            return captured.toByteArray();
+        }
+
+        int getCapturedCount() {
+            return captured.size();
+        }
+
+        private void record(int b) {
+            byteCount++;
+            if (captured.size() < limit) {
+                captured.write(b);
+            }
+        }
+
+        private void record(byte[] b, int off, int len) {
+            byteCount += len;
+            int remaining = limit - captured.size();
+            if (remaining > 0) {
+                captured.write(b, off, Math.min(remaining, len));
+            }
+        }
+
+        private class TeeOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream delegate;
+
+            TeeOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                delegate.write(b);
+                record(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                delegate.write(b, off, len);
+                record(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                delegate.setWriteListener(writeListener);
+            }
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package com.flowable.demo.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Case 流程启动发件箱实体
+ * 异步启动模式下与理赔案件在同一事务中写入，由 CaseStartWorker 取出并启动 Case 流程，成功后删除
+ */
+@Entity
+@Table(name = "case_start_outbox", indexes = {
+        @Index(name = "idx_case_start_outbox_status_next", columnList = "status, next_attempt_at")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class CaseStartOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "claim_case_id", nullable = false, unique = true)
+    private UUID claimCaseId;
+
+    @Column(name = "claim_number", nullable = false, length = 50)
+    private String claimNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * 发件箱状态
+     */
+    public enum Status {
+        /** 等待启动（含等待重试） */
+        PENDING,
+        /** 已被某个工作线程取走 */
+        PROCESSING,
+        /** 重试次数耗尽，需人工处理 */
+        DEAD
+    }
+}
@@ -9,7 +9,9 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -22,13 +24,21 @@ import java.util.UUID;
  * 理赔案件实体
  */
 @Entity
-@Table(name = "claim_case")
+@Table(name = "claim_case", indexes = {
+        @Index(name = "idx_claim_case_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_claim_case_status_created_at", columnList = "status, created_at"),
+        @Index(name = "idx_claim_case_assigned_created_at", columnList = "assigned_to, created_at"),
+        @Index(name = "idx_claim_case_creator_created_at", columnList = "created_by, created_at"),
+        @Index(name = "idx_claim_case_policy", columnList = "policy_id"),
+        @Index(name = "idx_claim_case_case_instance", columnList = "case_instance_id"),
+        @Index(name = "idx_claim_case_updated_at", columnList = "updated_at")
+})
 @Getter
 @Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@ToString(exclude = { "policy", "assignedTo", "createdBy", "history", "documents" })
+@ToString(exclude = { "policy", "assignedTo", "createdBy", "history", "documents", "statisticsState" })
 public class ClaimCase {
 
     @Override
@@ -53,7 +63,7 @@ public class ClaimCase {
     @Column(name = "claim_number", nullable = false, unique = true, length = 50)
     private String claimNumber;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "policy_id", nullable = false)
     private InsurancePolicy policy;
 
@@ -88,7 +98,12 @@ public class ClaimCase {
     @Column(name = "severity", nullable = false, length = 20)
     private Severity severity;
 
+    /**
+     * 按 VARCHAR 存储而不是 H2 的原生 ENUM，新增状态时不需要修改已有数据库的列定义
+     * （已有库由 db/migration/V2__claim_status_varchar.sql 转换）
+     */
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(name = "status", nullable = false, length = 20)
     private ClaimStatus status;
 
@@ -100,7 +115,7 @@ public class ClaimCase {
     @JoinColumn(name = "assigned_to")
     private User assignedTo;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
 
@@ -128,6 +143,12 @@ public class ClaimCase {
     @OneToMany(mappedBy = "claim", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<ClaimHistory> history = new HashSet<>();
 
+    /**
+     * 最近一次加载或写入数据库时的统计贡献，统计快照据此计算增量
+     */
+    @Transient
+    private StatisticsState statisticsState;
+
     @Builder.Default
     @OneToMany(mappedBy = "claim", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<ClaimDocument> documents = new HashSet<>();
@@ -193,6 +214,7 @@ public class ClaimCase {
     // 理赔状态枚举
     public enum ClaimStatus {
         DRAFT("草稿"),
+        PENDING_START("待启动"),
         SUBMITTED("已提交"),
         UNDER_REVIEW("审核中"),
         INVESTIGATING("调查中"),
@@ -217,6 +239,8 @@ public class ClaimCase {
             switch (this) {
                 case DRAFT:
                     return newStatus == SUBMITTED || newStatus == CANCELLED;
+                case PENDING_START:
+                    return newStatus == SUBMITTED || newStatus == CANCELLED;
                 case SUBMITTED:
                     return newStatus == UNDER_REVIEW || newStatus == CANCELLED;
                 case UNDER_REVIEW:
@@ -312,4 +336,17 @@ public class ClaimCase {
         documents.remove(document);
         document.setClaim(null);
     }
+
+    /**
+     * 案件对统计数据的贡献：状态、索赔金额和处理时长（秒）
+     */
+    public record StatisticsState(ClaimStatus status, BigDecimal claimedAmount, Long processingSeconds) {
+
+        public static StatisticsState of(ClaimCase claimCase) {
+            Long processingSeconds = claimCase.getCreatedAt() != null && claimCase.getUpdatedAt() != null
+                    ? java.time.Duration.between(claimCase.getCreatedAt(), claimCase.getUpdatedAt()).getSeconds()
+                    : null;
+            return new StatisticsState(claimCase.getStatus(), claimCase.getClaimedAmount(), processingSeconds);
+        }
+    }
 }
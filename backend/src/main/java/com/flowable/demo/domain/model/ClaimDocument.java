@@ -15,7 +15,9 @@ import java.util.UUID;
  * 理赔文档实体
  */
 @Entity
-@Table(name = "claim_document")
+@Table(name = "claim_document", indexes = {
+        @Index(name = "idx_claim_document_claim_type", columnList = "claim_id, document_type")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -27,7 +29,7 @@ public class ClaimDocument {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "claim_id", nullable = false)
     private ClaimCase claim;
 
@@ -17,7 +17,10 @@ import java.util.UUID;
  * 理赔历史记录实体
  */
 @Entity
-@Table(name = "claim_history")
+@Table(name = "claim_history", indexes = {
+        @Index(name = "idx_claim_history_claim_performed_at", columnList = "claim_id, performed_at"),
+        @Index(name = "idx_claim_history_performed_at", columnList = "performed_at")
+})
 @Getter
 @Setter
 @Builder
@@ -43,7 +46,7 @@ public class ClaimHistory {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
     
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "claim_id", nullable = false)
     private ClaimCase claim;
     
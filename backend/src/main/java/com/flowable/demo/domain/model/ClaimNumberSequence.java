@@ -0,0 +1,29 @@
+package com.flowable.demo.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 理赔编号日序列实体
+ * 每天一行，记录下一个可分配的序号，各节点按号段从中预留编号
+ */
+@Entity
+@Table(name = "claim_number_sequence")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimNumberSequence {
+
+    @Id
+    @Column(name = "sequence_date", nullable = false)
+    private LocalDate sequenceDate;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
@@ -20,7 +20,10 @@ import java.util.UUID;
  * 保险保单实体
  */
 @Entity
-@Table(name = "insurance_policy")
+@Table(name = "insurance_policy", indexes = {
+        @Index(name = "idx_insurance_policy_status_end_date", columnList = "status, end_date"),
+        @Index(name = "idx_insurance_policy_updated_at", columnList = "updated_at")
+})
 @Getter
 @Setter
 @Builder
@@ -0,0 +1,86 @@
+package com.flowable.demo.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 审核完成队列条目
+ * 审核队列模式下，审核任务的完成请求只写入本表即返回，由 ReviewQueueWorker 按微批完成任务、
+ * 执行理赔决策并推进后续阶段，成功后删除
+ */
+@Entity
+@Table(name = "review_queue_entry", indexes = {
+        @Index(name = "idx_review_queue_entry_status_next", columnList = "status, next_attempt_at")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ReviewQueueEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "task_id", nullable = false, unique = true, length = 64)
+    private String taskId;
+
+    @Column(name = "case_instance_id", nullable = false, length = 64)
+    private String caseInstanceId;
+
+    /**
+     * 完成任务时提交的变量（JSON）
+     */
+    @Column(columnDefinition = "TEXT")
+    @ToString.Exclude
+    private String variables;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * 队列条目状态
+     */
+    public enum Status {
+        /** 等待处理（含等待重试） */
+        PENDING,
+        /** 已被工作线程取走 */
+        PROCESSING,
+        /** 重试次数耗尽，需人工处理 */
+        DEAD
+    }
+}
@@ -0,0 +1,50 @@
+package com.flowable.demo.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 全文检索发件箱实体
+ * 理赔案件或保单写入、删除时，与实体变更在同一事务中写入一行，只记录文档类型和ID；
+ * SearchIndexService 定时取出，按文档当前状态重建词元，成功后删除。同一文档可以有多行，处理时合并
+ */
+@Entity
+@Table(name = "search_index_outbox", indexes = {
+        @Index(name = "idx_search_index_outbox_next", columnList = "next_attempt_at")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class SearchIndexOutbox {
+
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "document_type", nullable = false, length = 20)
+    private SearchToken.DocumentType documentType;
+
+    @Column(name = "document_id", nullable = false)
+    private UUID documentId;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
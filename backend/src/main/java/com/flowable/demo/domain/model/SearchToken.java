@@ -0,0 +1,72 @@
+package com.flowable.demo.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * 全文检索词元实体
+ * 被检索字段规范化后，从每个字符位置切出最长 3 个字符的 n-gram，一行一个，
+ * 由 SearchIndexService 经检索发件箱（search_index_outbox）异步维护；按 (文档类型, 词元, 排序值, 文档ID) 索引，
+ * 等值查询直接按索引顺序取得分最高的一批倒排，前缀查询也能走索引；按文档ID索引用于替换和校验
+ */
+@Entity
+@Table(name = "search_token", indexes = {
+        @Index(name = "idx_search_token_type_token_rank", columnList = "document_type, token, token_rank, document_id"),
+        @Index(name = "idx_search_token_type_document", columnList = "document_type, document_id")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class SearchToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "document_type", nullable = false, length = 20)
+    private DocumentType documentType;
+
+    @Column(name = "document_id", nullable = false)
+    private UUID documentId;
+
+    /**
+     * 字段权重，同一文档类型内每个字段取值不同，也用于区分字段
+     */
+    @Column(nullable = false)
+    private Integer weight;
+
+    /**
+     * 词元在字段中的起始位置，0 表示字段前缀
+     */
+    @Column(nullable = false)
+    private Integer position;
+
+    @Column(nullable = false, length = 12)
+    private String token;
+
+    /**
+     * 排序值 -权重 * 字段最大长度 + 位置，升序即 (权重降序, 位置升序)，与检索得分的高低一致；
+     * 随词元一起写入索引，截取倒排时不需要排序
+     */
+    @Column(name = "token_rank", nullable = false)
+    private Integer tokenRank;
+
+    /**
+     * 被索引的文档类型
+     */
+    public enum DocumentType {
+        CLAIM_CASE,
+        INSURANCE_POLICY
+    }
+}
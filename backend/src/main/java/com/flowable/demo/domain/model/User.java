@@ -20,7 +20,10 @@ import java.util.UUID;
  * 用户实体
  */
 @Entity
-@Table(name = "app_user")
+@Table(name = "app_user", indexes = {
+        @Index(name = "idx_app_user_active_username", columnList = "active, username"),
+        @Index(name = "idx_app_user_department_active", columnList = "department, active")
+})
 @Getter
 @Setter
 @Builder
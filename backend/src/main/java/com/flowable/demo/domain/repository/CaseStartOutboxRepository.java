@@ -0,0 +1,58 @@
+package com.flowable.demo.domain.repository;
+
+import com.flowable.demo.domain.model.CaseStartOutbox;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Case 流程启动发件箱仓储接口
+ */
+@Repository
+public interface CaseStartOutboxRepository extends JpaRepository<CaseStartOutbox, UUID> {
+
+    /**
+     * 按状态分页查询
+     */
+    Page<CaseStartOutbox> findByStatus(CaseStartOutbox.Status status, Pageable pageable);
+
+    /**
+     * 查询已到期、等待启动的条目ID
+     */
+    @Query("SELECT o.id FROM CaseStartOutbox o WHERE o.status = :status AND o.nextAttemptAt <= :now " +
+            "ORDER BY o.nextAttemptAt")
+    List<UUID> findDueIds(@Param("status") CaseStartOutbox.Status status, @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    /**
+     * 条件更新抢占条目，返回 1 表示抢占成功（多节点下只有一个节点能成功）
+     */
+    @Modifying
+    @Query("UPDATE CaseStartOutbox o SET o.status = :to, o.lockedAt = :now " +
+            "WHERE o.id = :id AND o.status = :from")
+    int transition(@Param("id") UUID id, @Param("from") CaseStartOutbox.Status from,
+            @Param("to") CaseStartOutbox.Status to, @Param("now") LocalDateTime now);
+
+    /**
+     * 释放长时间未完成的抢占（处理节点宕机等情况）
+     */
+    @Modifying
+    @Query("UPDATE CaseStartOutbox o SET o.status = :pending, o.lockedAt = NULL " +
+            "WHERE o.status = :processing AND o.lockedAt < :lockedBefore")
+    int releaseStale(@Param("pending") CaseStartOutbox.Status pending,
+            @Param("processing") CaseStartOutbox.Status processing,
+            @Param("lockedBefore") LocalDateTime lockedBefore);
+
+    /**
+     * 统计指定状态的条目数
+     */
+    long countByStatus(CaseStartOutbox.Status status);
+}
@@ -3,8 +3,14 @@ package com.flowable.demo.domain.repository;
 import com.flowable.demo.domain.model.ClaimCase;
 import com.flowable.demo.domain.model.InsurancePolicy;
 import com.flowable.demo.domain.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,6 +18,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,16 +29,72 @@ import java.util.UUID;
 @Repository
 public interface ClaimCaseRepository extends JpaRepository<ClaimCase, UUID>, BaseRepository<ClaimCase, UUID> {
 
+        /**
+         * 分页查询全部案件，同时加载保单、分配人和创建人
+         * 列表查询都带同样的 @EntityGraph：列表页要展示这三个多对一关联，
+         * 一并 JOIN FETCH 可避免逐行加载，且不影响数据库分页
+         */
+        @Override
+        @EntityGraph(attributePaths = { "policy", "assignedTo", "createdBy" })
+        Page<ClaimCase> findAll(Pageable pageable);
+
+        /**
+         * 游标（keyset）分页查询全部案件：按排序键定位续页起点，不使用 OFFSET，翻页成本与页码无关
+         */
+        @EntityGraph(attributePaths = { "policy", "assignedTo", "createdBy" })
+        Window<ClaimCase> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+        /**
+         * 游标（keyset）分页按状态查询案件
+         */
+        @EntityGraph(attributePaths = { "policy", "assignedTo", "createdBy" })
+        Window<ClaimCase> findByStatus(ClaimCase.ClaimStatus status, ScrollPosition position, Sort sort, Limit limit);
+
+        /**
+         * 游标（keyset）分页查询我创建的案件
+         * 我的案件由它和 findByAssignedTo 两路各自走 (创建人/分配人, 创建时间) 索引后合并，
+         * created_by = ? OR assigned_to = ? 在 H2 中只能全表扫描或按创建时间索引逐行过滤
+         */
+        @EntityGraph(attributePaths = { "policy", "assignedTo", "createdBy" })
+        Window<ClaimCase> findByCreatedBy(User createdBy, ScrollPosition position, Sort sort, Limit limit);
+
+        /**
+         * 游标（keyset）分页查询分配给我的案件
+         */
+        @EntityGraph(attributePaths = { "policy", "assignedTo", "createdBy" })
+        Window<ClaimCase> findByAssignedTo(User assignedTo, ScrollPosition position, Sort sort, Limit limit);
+
+        /**
+         * 统计我的案件数量（我创建的或分配给我的），与 findMyClaimCases 一样按两路索引取ID再合并
+         */
+        @Query("SELECT COUNT(c) FROM ClaimCase c WHERE c.id IN (" +
+                        "SELECT m.id FROM ClaimCase m WHERE m.createdBy.id = :userId " +
+                        "UNION SELECT m.id FROM ClaimCase m WHERE m.assignedTo.id = :userId)")
+        long countMyClaimCases(@Param("userId") UUID userId);
+
         /**
          * 根据理赔编号查找案件
          */
         Optional<ClaimCase> findByClaimNumber(String claimNumber);
 
+        /**
+         * 按前缀查找理赔编号，编号越长、字典序越大者越靠前（用于确定当天已用的最大序号）
+         */
+        @Query("SELECT c.claimNumber FROM ClaimCase c WHERE c.claimNumber LIKE CONCAT(:prefix, '%') " +
+                        "ORDER BY LENGTH(c.claimNumber) DESC, c.claimNumber DESC")
+        List<String> findClaimNumbersByPrefix(@Param("prefix") String prefix, Pageable pageable);
+
         /**
          * 根据 Case 实例 ID 查找案件
          */
         Optional<ClaimCase> findByCaseInstanceId(String caseInstanceId);
 
+        /**
+         * 根据一批 Case 实例 ID 查找案件，连同保单一次加载（审核队列按微批读取决策输入）
+         */
+        @EntityGraph(attributePaths = { "policy" })
+        List<ClaimCase> findByCaseInstanceIdIn(Collection<String> caseInstanceIds);
+
         /**
          * 根据状态查找案件
          */
@@ -40,6 +103,7 @@ public interface ClaimCaseRepository extends JpaRepository<ClaimCase, UUID>, Bas
         /**
          * 根据状态查找案件（分页）
          */
+        @EntityGraph(attributePaths = { "policy", "assignedTo", "createdBy" })
         Page<ClaimCase> findByStatus(ClaimCase.ClaimStatus status, Pageable pageable);
 
         /**
@@ -60,6 +124,7 @@ public interface ClaimCaseRepository extends JpaRepository<ClaimCase, UUID>, Bas
         /**
          * 根据分配人查找案件（分页）
          */
+        @EntityGraph(attributePaths = { "policy", "assignedTo", "createdBy" })
         Page<ClaimCase> findByAssignedTo(User assignedTo, Pageable pageable);
 
         /**
@@ -85,6 +150,7 @@ public interface ClaimCaseRepository extends JpaRepository<ClaimCase, UUID>, Bas
         /**
          * 根据保单查找案件（分页）
          */
+        @EntityGraph(attributePaths = { "policy", "assignedTo", "createdBy" })
         Page<ClaimCase> findByPolicy(InsurancePolicy policy, Pageable pageable);
 
         /**
@@ -168,30 +234,37 @@ public interface ClaimCaseRepository extends JpaRepository<ClaimCase, UUID>, Bas
                         BigDecimal amount);
 
         /**
-         * 根据关键词搜索案件（分页）
+         * 按ID批量查找案件，同时加载保单、分配人和创建人（用于全文检索结果）
          */
-        @Query("SELECT c FROM ClaimCase c WHERE " +
-                        "LOWER(c.claimNumber) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-                        "LOWER(c.claimantName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-                        "LOWER(c.claimantPhone) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-                        "LOWER(c.incidentLocation) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-        Page<ClaimCase> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+        @EntityGraph(attributePaths = { "policy", "assignedTo", "createdBy" })
+        List<ClaimCase> findAllByIdIn(Collection<UUID> ids);
 
         /**
          * 查找我的案件（我创建的或分配给我的）
+         * 两个条件分别由 (创建人, 创建时间) 和 (分配人, 创建时间) 索引取ID，UNION 去重后按主键读取，避免 OR 导致的全表扫描
          */
-        @Query("SELECT c FROM ClaimCase c WHERE c.createdBy.id = :userId OR c.assignedTo.id = :userId")
+        @Query("SELECT c FROM ClaimCase c WHERE c.id IN (" +
+                        "SELECT m.id FROM ClaimCase m WHERE m.createdBy.id = :userId " +
+                        "UNION SELECT m.id FROM ClaimCase m WHERE m.assignedTo.id = :userId)")
+        @EntityGraph(attributePaths = { "policy", "assignedTo", "createdBy" })
         Page<ClaimCase> findMyClaimCases(@Param("userId") UUID userId, Pageable pageable);
 
         /**
-         * 计算平均处理时间（天）
+         * 按状态一次性聚合统计：状态、案件数、索赔金额合计、有更新时间的案件数、处理时长合计（秒）
+         * 时长用 HQL 的 by second 表达，由 Hibernate 按方言翻译，H2 和 PostgreSQL 均可用
          */
-        @Query(value = "SELECT AVG(EXTRACT(EPOCH FROM (updated_at - created_at)) / 86400) FROM claim_case WHERE status IN ('PAID', 'REJECTED', 'CLOSED')", nativeQuery = true)
-        Double getAverageProcessingDays();
+        @Query("SELECT c.status, COUNT(c), SUM(c.claimedAmount), COUNT(c.updatedAt), " +
+                        "SUM((c.updatedAt - c.createdAt) by second) FROM ClaimCase c GROUP BY c.status")
+        List<Object[]> aggregateByStatus();
 
         /**
          * 计算总理赔申请金额
          */
         @Query("SELECT SUM(c.claimedAmount) FROM ClaimCase c")
         Double getTotalClaimedAmount();
+
+        /**
+         * 按更新时间查找案件（全文检索对账）
+         */
+        Slice<ClaimCase> findByUpdatedAtGreaterThanEqual(LocalDateTime since, Pageable pageable);
 }
@@ -20,9 +20,11 @@ public interface ClaimDocumentRepository extends BaseRepository<ClaimDocument, U
     List<ClaimDocument> findByClaimId(UUID claimId);
     
     /**
-     * 根据案件 ID 和文档类型查找文档
+     * 根据案件 ID 和文档类型查找文档（直接比较外键列，走 (案件, 文档类型) 索引）
      */
-    List<ClaimDocument> findByClaimIdAndDocumentType(UUID claimId, String documentType);
+    @Query("SELECT d FROM ClaimDocument d WHERE d.claim.id = :claimId AND d.documentType = :documentType")
+    List<ClaimDocument> findByClaimIdAndDocumentType(@Param("claimId") UUID claimId,
+            @Param("documentType") String documentType);
     
     /**
      * 根据上传人查找文档
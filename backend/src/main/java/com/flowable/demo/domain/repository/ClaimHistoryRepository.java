@@ -1,6 +1,12 @@
 package com.flowable.demo.domain.repository;
 
+import com.flowable.demo.domain.model.ClaimCase;
 import com.flowable.demo.domain.model.ClaimHistory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -25,6 +31,19 @@ public interface ClaimHistoryRepository extends BaseRepository<ClaimHistory, UUI
      */
     List<ClaimHistory> findByClaimIdOrderByPerformedAtDesc(UUID claimId);
     
+    /**
+     * 游标（keyset）分页查询案件的历史时间线，同时加载操作人
+     * 按案件实体而不是 claim.id 派生：后者会关联 claim_case，H2 为满足排序改走操作时间索引并逐行过滤，
+     * 按实体比较外键列才能走 (案件, 操作时间) 索引
+     */
+    @EntityGraph(attributePaths = { "performedBy" })
+    Window<ClaimHistory> findByClaim(ClaimCase claim, ScrollPosition position, Sort sort, Limit limit);
+    
+    /**
+     * 统计案件的历史记录数量
+     */
+    long countByClaimId(UUID claimId);
+    
     /**
      * 根据案件 ID 和操作类型查找历史记录
      */
@@ -0,0 +1,32 @@
+package com.flowable.demo.domain.repository;
+
+import com.flowable.demo.domain.model.ClaimNumberSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * 理赔编号日序列仓储接口
+ */
+@Repository
+public interface ClaimNumberSequenceRepository extends JpaRepository<ClaimNumberSequence, LocalDate> {
+
+    /**
+     * 原子地推进指定日期的序列，返回受影响行数（0 表示当天序列行尚不存在）
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ClaimNumberSequence s SET s.nextValue = s.nextValue + :blockSize WHERE s.sequenceDate = :date")
+    int advance(@Param("date") LocalDate date, @Param("blockSize") long blockSize);
+
+    /**
+     * 插入当天的序列行；行已存在时抛出 DataIntegrityViolationException，而不是像 save 那样合并成更新
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO claim_number_sequence (sequence_date, next_value) VALUES (:date, :nextValue)",
+            nativeQuery = true)
+    int insert(@Param("date") LocalDate date, @Param("nextValue") long nextValue);
+}
@@ -1,11 +1,14 @@
 package com.flowable.demo.domain.repository;
 
 import com.flowable.demo.domain.model.InsurancePolicy;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -55,12 +58,6 @@ public interface InsurancePolicyRepository extends BaseRepository<InsurancePolic
     @Query("SELECT p FROM InsurancePolicy p WHERE p.status = 'ACTIVE' AND p.endDate < :today")
     List<InsurancePolicy> findExpiredPolicies(@Param("today") LocalDate today);
     
-    /**
-     * 根据投保人身份证号或姓名模糊查找
-     */
-    @Query("SELECT p FROM InsurancePolicy p WHERE LOWER(p.policyHolderName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR p.policyNumber LIKE CONCAT('%', :keyword, '%')")
-    List<InsurancePolicy> searchByKeyword(@Param("keyword") String keyword);
-    
     /**
      * 统计各类型保单数量
      */
@@ -72,4 +69,9 @@ public interface InsurancePolicyRepository extends BaseRepository<InsurancePolic
      */
     @Query("SELECT p.status, COUNT(p) FROM InsurancePolicy p GROUP BY p.status")
     List<Object[]> countByStatus();
+    
+    /**
+     * 按更新时间查找保单（全文检索对账）
+     */
+    Slice<InsurancePolicy> findByUpdatedAtGreaterThanEqual(LocalDateTime since, Pageable pageable);
 }
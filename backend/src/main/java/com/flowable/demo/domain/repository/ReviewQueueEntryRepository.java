@@ -0,0 +1,58 @@
+package com.flowable.demo.domain.repository;
+
+import com.flowable.demo.domain.model.ReviewQueueEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 审核完成队列仓储接口
+ */
+@Repository
+public interface ReviewQueueEntryRepository extends JpaRepository<ReviewQueueEntry, UUID> {
+
+    Optional<ReviewQueueEntry> findByTaskId(String taskId);
+
+    Page<ReviewQueueEntry> findByStatus(ReviewQueueEntry.Status status, Pageable pageable);
+
+    /**
+     * 查询已到期、等待处理的条目ID，按入队顺序
+     */
+    @Query("SELECT e.id FROM ReviewQueueEntry e WHERE e.status = :status AND e.nextAttemptAt <= :now " +
+            "ORDER BY e.createdAt")
+    List<UUID> findDueIds(@Param("status") ReviewQueueEntry.Status status, @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    /**
+     * 条件更新抢占条目，返回 1 表示抢占成功（多节点下只有一个节点能成功）
+     */
+    @Modifying
+    @Query("UPDATE ReviewQueueEntry e SET e.status = :to, e.lockedAt = :now " +
+            "WHERE e.id = :id AND e.status = :from")
+    int transition(@Param("id") UUID id, @Param("from") ReviewQueueEntry.Status from,
+            @Param("to") ReviewQueueEntry.Status to, @Param("now") LocalDateTime now);
+
+    /**
+     * 释放长时间未完成的抢占（处理节点宕机等情况）
+     */
+    @Modifying
+    @Query("UPDATE ReviewQueueEntry e SET e.status = :pending, e.lockedAt = NULL " +
+            "WHERE e.status = :processing AND e.lockedAt < :lockedBefore")
+    int releaseStale(@Param("pending") ReviewQueueEntry.Status pending,
+            @Param("processing") ReviewQueueEntry.Status processing,
+            @Param("lockedBefore") LocalDateTime lockedBefore);
+
+    /**
+     * 统计指定状态的条目数
+     */
+    long countByStatus(ReviewQueueEntry.Status status);
+}
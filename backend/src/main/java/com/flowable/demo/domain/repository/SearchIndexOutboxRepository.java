@@ -0,0 +1,42 @@
+package com.flowable.demo.domain.repository;
+
+import com.flowable.demo.domain.model.SearchIndexOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 全文检索发件箱仓储接口
+ */
+@Repository
+public interface SearchIndexOutboxRepository extends JpaRepository<SearchIndexOutbox, UUID> {
+
+    /**
+     * 查询已到期的条目，先写入的先处理
+     */
+    @Query("SELECT o FROM SearchIndexOutbox o WHERE o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt")
+    List<SearchIndexOutbox> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * 删除条目，返回实际删除的行数（多节点下同一条目只有一个节点能删除成功）
+     */
+    @Modifying
+    @Query("DELETE FROM SearchIndexOutbox o WHERE o.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * 索引失败后推迟重试
+     */
+    @Modifying
+    @Query("UPDATE SearchIndexOutbox o SET o.attempts = o.attempts + 1, o.nextAttemptAt = :nextAttemptAt " +
+            "WHERE o.id IN :ids")
+    int postpone(@Param("ids") Collection<UUID> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+}
@@ -0,0 +1,86 @@
+package com.flowable.demo.domain.repository;
+
+import com.flowable.demo.domain.model.SearchToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 全文检索词元仓储接口
+ */
+@Repository
+public interface SearchTokenRepository extends JpaRepository<SearchToken, UUID> {
+
+    /**
+     * 查询文档当前的全部词元
+     */
+    List<SearchToken> findByDocumentTypeAndDocumentId(SearchToken.DocumentType documentType, UUID documentId);
+
+    /**
+     * 删除文档的全部词元
+     */
+    @Modifying
+    @Query("DELETE FROM SearchToken t WHERE t.documentType = :documentType AND t.documentId = :documentId")
+    int deleteByDocument(@Param("documentType") SearchToken.DocumentType documentType,
+            @Param("documentId") UUID documentId);
+
+    /**
+     * 是否已有该类型文档的词元（用于判断启动时是否需要重建索引）
+     */
+    boolean existsByDocumentType(SearchToken.DocumentType documentType);
+
+    /**
+     * 词元的倒排列表：包含该词元的文档ID（同一文档可能重复出现），按索引顺序截取
+     */
+    @Query("SELECT t.documentId FROM SearchToken t WHERE t.documentType = :documentType AND t.token = :token")
+    List<UUID> findDocumentIdsByToken(@Param("documentType") SearchToken.DocumentType documentType,
+            @Param("token") String token, Pageable pageable);
+
+    /**
+     * 两个词元在同一字段中相距 distance 个位置出现，返回 [文档ID, 字段权重, 第一个词元的位置]
+     * （两个词元都很常见时用于确定候选文档）。第一个词元按索引顺序读取，即得分从高到低，无需排序即可截取；
+     * 第二个词元按 (文档类型, 词元, 排序值, 文档ID) 逐条定位。排序值相差 distance 时字段也可能不同
+     * （位置越过字段最大长度），因此仍校验权重
+     */
+    @Query("SELECT a.documentId, a.weight, a.position FROM SearchToken a, SearchToken b " +
+            "WHERE a.documentType = :documentType AND a.token = :first " +
+            "AND b.documentType = :documentType AND b.token = :second " +
+            "AND b.tokenRank = a.tokenRank + :distance AND b.documentId = a.documentId AND b.weight = a.weight " +
+            "ORDER BY a.tokenRank, a.documentId")
+    List<Object[]> findTokenPairs(@Param("documentType") SearchToken.DocumentType documentType,
+            @Param("first") String first, @Param("second") String second, @Param("distance") int distance,
+            Pageable pageable);
+
+    /**
+     * 等于指定词元的倒排，返回 [文档ID, 字段权重, 位置]，按排序值即得分从高到低，直接按索引顺序截取
+     */
+    @Query("SELECT t.documentId, t.weight, t.position FROM SearchToken t " +
+            "WHERE t.documentType = :documentType AND t.token = :token " +
+            "ORDER BY t.tokenRank, t.documentId")
+    List<Object[]> findPostingsByToken(@Param("documentType") SearchToken.DocumentType documentType,
+            @Param("token") String token, Pageable pageable);
+
+    /**
+     * 以指定前缀开头的词元，返回 [文档ID, 字段权重, 位置]。覆盖多个词元，索引中不按得分有序，
+     * 为避免对全部倒排排序，按索引顺序截取
+     */
+    @Query("SELECT t.documentId, t.weight, t.position FROM SearchToken t " +
+            "WHERE t.documentType = :documentType AND t.token LIKE CONCAT(:prefix, '%')")
+    List<Object[]> findPostingsByTokenPrefix(@Param("documentType") SearchToken.DocumentType documentType,
+            @Param("prefix") String prefix, Pageable pageable);
+
+    /**
+     * 候选文档中指定词元的出现位置，返回 [文档ID, 字段权重, 位置, 词元]
+     */
+    @Query("SELECT t.documentId, t.weight, t.position, t.token FROM SearchToken t " +
+            "WHERE t.documentType = :documentType AND t.documentId IN :documentIds AND t.token IN :tokens")
+    List<Object[]> findPostings(@Param("documentType") SearchToken.DocumentType documentType,
+            @Param("documentIds") Collection<UUID> documentIds, @Param("tokens") Collection<String> tokens);
+}
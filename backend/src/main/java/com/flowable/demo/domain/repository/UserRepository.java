@@ -50,6 +50,18 @@ public interface UserRepository extends BaseRepository<User, UUID> {
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.username = :username AND u.active = true")
     Optional<User> findByUsernameAndActiveTrueWithRoles(@Param("username") String username);
     
+    /**
+     * 根据ID查找用户，同时加载角色
+     */
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id = :id")
+    Optional<User> findByIdWithRoles(@Param("id") UUID id);
+    
+    /**
+     * 根据用户名查找用户，同时加载角色
+     */
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.username = :username")
+    Optional<User> findByUsernameWithRoles(@Param("username") String username);
+    
     /**
      * 检查用户名是否存在
      */
@@ -76,4 +88,10 @@ public interface UserRepository extends BaseRepository<User, UUID> {
      */
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.active = true ORDER BY u.username")
     java.util.List<User> findAllActiveUsers();
+
+    /**
+     * 按ID批量查找用户，同时加载角色（用于分页结果的第二阶段查询）
+     */
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id IN :ids")
+    java.util.List<User> findAllWithRolesByIdIn(@Param("ids") java.util.Collection<UUID> ids);
 }
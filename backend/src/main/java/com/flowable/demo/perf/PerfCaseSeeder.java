@@ -0,0 +1,195 @@
+package com.flowable.demo.perf;
+
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.repository.ClaimCaseRepository;
+import com.flowable.demo.service.CaseService;
+import com.flowable.demo.web.rest.dto.ApproveRequestDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.cmmn.api.CmmnManagementService;
+import org.flowable.cmmn.api.CmmnTaskService;
+import org.flowable.common.engine.api.FlowableException;
+import org.flowable.job.api.Job;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 在途流程填充器（perf profile）
+ * 为 PerfDataSeeder 留下的 DRAFT 案件经 CaseService 启动 CMMN 实例，并按比例推进：
+ * 一部分停在审核，一部分完成审核（理赔分级后进入终审或调查），一部分再经批准启动 BPMN 支付流程。
+ * 由多个工作线程并行处理，每个案件的异步作业在工作线程上直接执行，不等待异步执行器轮询
+ */
+@Component
+@Profile("perf")
+@RequiredArgsConstructor
+@Slf4j
+public class PerfCaseSeeder {
+
+    private static final String REVIEW_TASK = "taskReviewClaim";
+    private static final String FINAL_APPROVAL_TASK = "taskFinalApproval";
+    private static final String ADMIN_USERNAME = "admin";
+    private static final long TASK_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ClaimCaseRepository claimCaseRepository;
+    private final CaseService caseService;
+    private final CmmnTaskService cmmnTaskService;
+    private final CmmnManagementService cmmnManagementService;
+
+    @Value("${app.perf.seed.workers:8}")
+    private int workers = 8;
+
+    /**
+     * 完成审核的比例（含随后被批准的）
+     */
+    @Value("${app.perf.seed.reviewed-ratio:0.5}")
+    private double reviewedRatio = 0.5;
+
+    /**
+     * 完成审核后被批准、进入支付的比例
+     */
+    @Value("${app.perf.seed.approved-ratio:0.2}")
+    private double approvedRatio = 0.2;
+
+    /**
+     * 启动并推进全部 DRAFT 的 perf 案件，返回各阶段的案件数
+     */
+    public Summary seed() {
+        long started = System.currentTimeMillis();
+        List<UUID> claimIds = jdbcTemplate.queryForList("SELECT id FROM claim_case WHERE status = 'DRAFT' "
+                + "AND case_instance_id IS NULL AND claim_number LIKE '" + PerfDataSeeder.CLAIM_NUMBER_PREFIX
+                + "%' ORDER BY claim_number", UUID.class);
+        UUID adminId = jdbcTemplate.queryForObject("SELECT id FROM app_user WHERE username = ?", UUID.class,
+                ADMIN_USERNAME);
+
+        AtomicInteger reviewing = new AtomicInteger();
+        AtomicInteger approving = new AtomicInteger();
+        AtomicInteger investigating = new AtomicInteger();
+        AtomicInteger paying = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers,
+                runnable -> new Thread(runnable, "perf-case-seed-" + threadCount.incrementAndGet()));
+        try {
+            List<Future<?>> futures = new ArrayList<>(claimIds.size());
+            for (int i = 0; i < claimIds.size(); i++) {
+                UUID claimId = claimIds.get(i);
+                // 按序号均匀分配目标阶段
+                double position = (i % 100) / 100.0;
+                futures.add(executor.submit(() -> {
+                    try {
+                        switch (advance(claimId, adminId, position)) {
+                            case REVIEW -> reviewing.incrementAndGet();
+                            case FINAL_APPROVAL -> approving.incrementAndGet();
+                            case INVESTIGATION -> investigating.incrementAndGet();
+                            case PAYMENT -> paying.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        log.warn("Failed to seed in-flight case for claim {}: {}", claimId, e.getMessage());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("In-flight case seeding interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("In-flight case seeding failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Summary summary = new Summary(reviewing.get(), approving.get(), investigating.get(), paying.get(),
+                failed.get(), System.currentTimeMillis() - started);
+        log.info("In-flight cases seeded: {}", summary);
+        return summary;
+    }
+
+    private Stage advance(UUID claimId, UUID adminId, double position) {
+        String caseInstanceId = transactionTemplate.execute(status -> {
+            ClaimCase claimCase = claimCaseRepository.findById(claimId)
+                    .orElseThrow(() -> new IllegalArgumentException("Claim case not found: " + claimId));
+            caseService.startClaimCase(claimCase);
+            return claimCase.getCaseInstanceId();
+        });
+        if (caseInstanceId == null) {
+            throw new IllegalStateException("Case instance was not started");
+        }
+        if (position >= reviewedRatio) {
+            return Stage.REVIEW;
+        }
+
+        awaitTask(caseInstanceId, REVIEW_TASK);
+        ClaimCase reviewed = caseService.completeReviewTask(claimId, ADMIN_USERNAME, "perf seed", null);
+        boolean atFinalApproval = cmmnTaskService.createTaskQuery()
+                .caseInstanceId(caseInstanceId)
+                .taskDefinitionKey(FINAL_APPROVAL_TASK)
+                .count() > 0;
+        if (!atFinalApproval) {
+            return Stage.INVESTIGATION;
+        }
+        if (position >= approvedRatio) {
+            return Stage.FINAL_APPROVAL;
+        }
+        caseService.approveClaimCase(claimId, adminId.toString(),
+                new ApproveRequestDTO(reviewed.getClaimedAmount(), "perf seed"));
+        return Stage.PAYMENT;
+    }
+
+    /**
+     * 等待任务出现；期间直接执行该案件的到期作业（如异步的 Triage 阶段），与异步执行器冲突时重试
+     */
+    private void awaitTask(String caseInstanceId, String taskDefinitionKey) {
+        long deadline = System.currentTimeMillis() + TASK_TIMEOUT_MS;
+        while (cmmnTaskService.createTaskQuery()
+                .caseInstanceId(caseInstanceId)
+                .taskDefinitionKey(taskDefinitionKey)
+                .count() == 0) {
+            for (Job job : cmmnManagementService.createJobQuery().caseInstanceId(caseInstanceId).list()) {
+                try {
+                    cmmnManagementService.executeJob(job.getId());
+                } catch (FlowableException e) {
+                    // 作业已被异步执行器取走
+                }
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Task " + taskDefinitionKey + " did not appear for case instance "
+                        + caseInstanceId);
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private enum Stage {
+        REVIEW, FINAL_APPROVAL, INVESTIGATION, PAYMENT
+    }
+
+    /**
+     * 各阶段的在途案件数
+     */
+    public record Summary(int review, int finalApproval, int investigation, int payment, int failed,
+            long elapsedMs) {
+    }
+}
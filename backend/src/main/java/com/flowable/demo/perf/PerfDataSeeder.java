@@ -0,0 +1,437 @@
+package com.flowable.demo.perf;
+
+import com.flowable.demo.domain.model.ClaimCase.ClaimStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 性能测试数据填充器（perf profile）
+ * 用 JDBC 批量插入生成角色、用户、保单、理赔案件及其历史和文档：数据按固定大小分片交给并行工作线程，
+ * 每个分片在自己的事务中写入；随机数按分片播种，同样的参数生成同样的数据。
+ * 案件状态按在途/终态的大致生产分布抽样，历史记录与到达该状态的流转路径一致；
+ * 最新的 in-flight-cases 个案件保持 DRAFT，由 PerfCaseSeeder 启动 CMMN 流程
+ */
+@Component
+@Profile("perf")
+@RequiredArgsConstructor
+@Slf4j
+public class PerfDataSeeder {
+
+    public static final String CLAIM_NUMBER_PREFIX = "PERF";
+    public static final String POLICY_NUMBER_PREFIX = "PERF-P";
+    public static final String USERNAME_PREFIX = "perf_user_";
+
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String USER_PASSWORD = "perf";
+    private static final int SLICE_SIZE = 10_000;
+
+    private static final String INSERT_ROLE = "INSERT INTO app_role (id, name, description, created_at) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_USER = "INSERT INTO app_user (id, username, password, first_name, last_name, "
+            + "email, phone, department, active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_role (user_id, role_id) VALUES (?, ?)";
+    private static final String INSERT_POLICY = "INSERT INTO insurance_policy (id, policy_number, policy_holder_name, "
+            + "policy_holder_phone, policy_holder_email, policy_type, coverage_amount, premium_amount, start_date, "
+            + "end_date, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CLAIM = "INSERT INTO claim_case (id, claim_number, policy_id, claim_type, "
+            + "claimed_amount, approved_amount, paid_amount, incident_date, incident_description, incident_location, "
+            + "claimant_name, claimant_phone, claimant_email, severity, status, payment_status, transaction_id, "
+            + "payment_date, assigned_to, created_by, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_HISTORY = "INSERT INTO claim_history (id, claim_id, action, description, "
+            + "performed_by, performed_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_DOCUMENT = "INSERT INTO claim_document (id, claim_id, document_type, "
+            + "document_name, file_path, file_size, mime_type, uploaded_by, uploaded_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[][] ROLES = {
+            { "ADMIN", "系统管理员" }, { "MANAGER", "经理" }, { "CLAIM_HANDLER", "理赔处理员" },
+            { "APPROVER", "审批人" }, { "FINANCE", "财务人员" }, { "USER", "普通用户" }
+    };
+
+    /**
+     * 普通用户轮流分配的角色
+     */
+    private static final String[] USER_ROLES = { "CLAIM_HANDLER", "CLAIM_HANDLER", "CLAIM_HANDLER", "APPROVER",
+            "MANAGER", "FINANCE" };
+
+    private static final String[] POLICY_TYPES = { "车险", "健康保险", "人寿保险", "财产保险", "意外险" };
+
+    private static final int[] POLICY_TYPE_WEIGHTS = { 45, 20, 10, 15, 10 };
+
+    /**
+     * 各险种的理赔类型，与 POLICY_TYPES 对应
+     */
+    private static final String[][] CLAIM_TYPES = {
+            { "交通事故", "车辆碰撞", "车辆盗抢" }, { "医疗费用", "住院费用" }, { "身故理赔", "重大疾病" },
+            { "财产损失", "火灾损失" }, { "意外伤害", "意外医疗" }
+    };
+
+    private static final long[] COVERAGE_AMOUNTS = { 300_000, 500_000, 1_000_000, 800_000, 200_000 };
+
+    private static final String[] DOCUMENT_TYPES = { "ID_CARD", "ACCIDENT_REPORT", "PHOTO", "INVOICE",
+            "MEDICAL_RECORD" };
+
+    private static final String[] SEVERITIES = { "LOW", "MEDIUM", "HIGH", "CRITICAL" };
+
+    private static final int[] SEVERITY_WEIGHTS = { 50, 30, 15, 5 };
+
+    /**
+     * 案件最终状态分布（百分比）：终态约三分之二，其余分布在各在途状态
+     */
+    private static final ClaimStatus[] FINAL_STATUSES = { ClaimStatus.SUBMITTED, ClaimStatus.UNDER_REVIEW,
+            ClaimStatus.INVESTIGATING, ClaimStatus.APPROVED, ClaimStatus.PAYMENT_PROCESSING, ClaimStatus.PAID,
+            ClaimStatus.CLOSED, ClaimStatus.REJECTED, ClaimStatus.CANCELLED };
+
+    private static final int[] FINAL_STATUS_WEIGHTS = { 6, 12, 5, 5, 3, 10, 47, 8, 4 };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${app.perf.seed.users:200}")
+    private int users = 200;
+
+    @Value("${app.perf.seed.policies:100000}")
+    private int policies = 100000;
+
+    @Value("${app.perf.seed.claims:1000000}")
+    private int claims = 1000000;
+
+    @Value("${app.perf.seed.in-flight-cases:1000}")
+    private int inFlightCases = 1000;
+
+    @Value("${app.perf.seed.workers:8}")
+    private int workers = 8;
+
+    @Value("${app.perf.seed.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${app.perf.seed.random-seed:42}")
+    private long randomSeed = 42;
+
+    /**
+     * 是否已经填充过（文件数据库重复启动时跳过）
+     */
+    public boolean isSeeded() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM claim_case WHERE claim_number LIKE '" + CLAIM_NUMBER_PREFIX + "%'", Integer.class);
+        return count != null && count > 0;
+    }
+
+    /**
+     * 生成全部数据，返回各表写入的行数
+     */
+    public Summary seed() {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, UUID> roleIds = seedRoles(now);
+        List<UUID> userIds = seedUsers(roleIds, now);
+        List<UUID> policyIds = new ArrayList<>(policies);
+        byte[] policyTypes = new byte[policies];
+        Random random = new Random(randomSeed);
+        for (int i = 0; i < policies; i++) {
+            policyIds.add(new UUID(random.nextLong(), random.nextLong()));
+            policyTypes[i] = (byte) pick(random, POLICY_TYPE_WEIGHTS);
+        }
+
+        AtomicLong histories = new AtomicLong();
+        AtomicLong documents = new AtomicLong();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers,
+                runnable -> new Thread(runnable, "perf-seed-" + threadCount.incrementAndGet()));
+        try {
+            runSlices(executor, policies, (from, to) -> seedPolicies(from, to, policyIds, policyTypes, now));
+            log.info("Seeded {} policies", policies);
+            runSlices(executor, claims, (from, to) -> {
+                long[] written = seedClaims(from, to, policyIds, policyTypes, userIds, now);
+                histories.addAndGet(written[0]);
+                documents.addAndGet(written[1]);
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Summary summary = new Summary(userIds.size(), policies, claims, histories.get(), documents.get(),
+                System.currentTimeMillis() - started);
+        log.info("Perf dataset seeded: {}", summary);
+        return summary;
+    }
+
+    private Map<String, UUID> seedRoles(LocalDateTime now) {
+        Map<String, UUID> roleIds = new LinkedHashMap<>();
+        for (String[] role : ROLES) {
+            List<UUID> existing = jdbcTemplate.queryForList("SELECT id FROM app_role WHERE name = ?", UUID.class,
+                    role[0]);
+            if (existing.isEmpty()) {
+                UUID id = UUID.randomUUID();
+                jdbcTemplate.update(INSERT_ROLE, id, role[0], role[1], Timestamp.valueOf(now));
+                roleIds.put(role[0], id);
+            } else {
+                roleIds.put(role[0], existing.get(0));
+            }
+        }
+        return roleIds;
+    }
+
+    /**
+     * 管理员（admin/admin）加 users 个普通用户（perf_user_NNNN/perf），返回全部用户ID，管理员在首位
+     */
+    private List<UUID> seedUsers(Map<String, UUID> roleIds, LocalDateTime now) {
+        List<UUID> userIds = new ArrayList<>(users + 1);
+        List<UUID> admin = jdbcTemplate.queryForList("SELECT id FROM app_user WHERE username = ?", UUID.class,
+                ADMIN_USERNAME);
+        if (admin.isEmpty()) {
+            UUID id = UUID.randomUUID();
+            jdbcTemplate.update(INSERT_USER, id, ADMIN_USERNAME, passwordEncoder.encode(ADMIN_USERNAME), "系统",
+                    "管理员", "admin@example.com", "13800138000", "IT部门", true, Timestamp.valueOf(now),
+                    Timestamp.valueOf(now));
+            jdbcTemplate.update(INSERT_USER_ROLE, id, roleIds.get("ADMIN"));
+            userIds.add(id);
+        } else {
+            userIds.add(admin.get(0));
+        }
+
+        // BCrypt 很慢，所有普通用户共用一个密码哈希
+        String passwordHash = passwordEncoder.encode(USER_PASSWORD);
+        List<Object[]> userRows = new ArrayList<>(users);
+        List<Object[]> userRoleRows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            UUID id = UUID.randomUUID();
+            String username = String.format("%s%04d", USERNAME_PREFIX, i);
+            userRows.add(new Object[] { id, username, passwordHash, "Perf", String.valueOf(i),
+                    username + "@example.com", String.format("139%08d", i), "理赔部", true,
+                    Timestamp.valueOf(now), Timestamp.valueOf(now) });
+            userRoleRows.add(new Object[] { id, roleIds.get(USER_ROLES[i % USER_ROLES.length]) });
+            userIds.add(id);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_USER, userRows);
+            jdbcTemplate.batchUpdate(INSERT_USER_ROLE, userRoleRows);
+        });
+        return userIds;
+    }
+
+    private void seedPolicies(int from, int to, List<UUID> policyIds, byte[] policyTypes, LocalDateTime now) {
+        Random random = sliceRandom(1, from);
+        List<Object[]> rows = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            int type = policyTypes[i];
+            LocalDate startDate = now.toLocalDate().minusDays(random.nextInt(730));
+            BigDecimal coverage = BigDecimal.valueOf(COVERAGE_AMOUNTS[type] / 2
+                    + random.nextInt((int) (COVERAGE_AMOUNTS[type] / 1000)) * 1000L);
+            LocalDateTime createdAt = startDate.atStartOfDay();
+            rows.add(new Object[] { policyIds.get(i), String.format("%s%08d", POLICY_NUMBER_PREFIX, i),
+                    "投保人" + i, String.format("137%08d", i % 100_000_000), "holder" + i + "@example.com",
+                    POLICY_TYPES[type], coverage,
+                    coverage.multiply(BigDecimal.valueOf(0.004)).setScale(2, RoundingMode.HALF_UP),
+                    Date.valueOf(startDate), Date.valueOf(startDate.plusYears(1)),
+                    startDate.plusYears(1).isBefore(now.toLocalDate()) ? "EXPIRED" : "ACTIVE",
+                    Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt) });
+        }
+        transactionTemplate.executeWithoutResult(status -> batchUpdate(INSERT_POLICY, rows));
+    }
+
+    /**
+     * 写入 [from, to) 范围的案件及其历史和文档，返回 {历史行数, 文档行数}
+     */
+    private long[] seedClaims(int from, int to, List<UUID> policyIds, byte[] policyTypes, List<UUID> userIds,
+            LocalDateTime now) {
+        Random random = sliceRandom(2, from);
+        List<Object[]> claimRows = new ArrayList<>(to - from);
+        List<Object[]> historyRows = new ArrayList<>((to - from) * 4);
+        List<Object[]> documentRows = new ArrayList<>((to - from) * 2);
+        long spanSeconds = 730L * 24 * 3600;
+        for (int i = from; i < to; i++) {
+            UUID id = new UUID(random.nextLong(), random.nextLong());
+            int policyIndex = random.nextInt(policyIds.size());
+            int type = policyTypes[policyIndex];
+            // 编号越大越新；最新的 inFlightCases 个案件保持 DRAFT
+            boolean inFlight = i >= claims - inFlightCases;
+            LocalDateTime createdAt = inFlight
+                    ? now.minusMinutes(claims - i)
+                    : now.minusSeconds(spanSeconds - spanSeconds * i / Math.max(claims, 1)).minusHours(1);
+            // 在途案件金额较小，理赔分级后大多直接进入终审
+            BigDecimal claimedAmount = BigDecimal.valueOf(inFlight
+                    ? 100 + random.nextInt(20_000)
+                    : 100 + (long) (Math.abs(random.nextGaussian()) * COVERAGE_AMOUNTS[type] / 10));
+            UUID createdBy = userIds.get(1 + random.nextInt(userIds.size() - 1));
+            UUID handler = userIds.get(random.nextInt(userIds.size()));
+
+            List<ClaimStatus> path = inFlight ? List.of(ClaimStatus.DRAFT) : statusPath(random);
+            ClaimStatus status = path.get(path.size() - 1);
+            LocalDateTime updatedAt = createdAt;
+            for (int step = 1; step < path.size(); step++) {
+                updatedAt = updatedAt.plusMinutes(10 + random.nextInt(72 * 60));
+                historyRows.add(new Object[] { new UUID(random.nextLong(), random.nextLong()), id, "STATUS_CHANGED",
+                        String.format("Status changed from %s to %s: perf seed", path.get(step - 1), path.get(step)),
+                        step == 1 ? createdBy : handler, Timestamp.valueOf(updatedAt) });
+            }
+
+            boolean approved = path.contains(ClaimStatus.APPROVED);
+            boolean paid = path.contains(ClaimStatus.PAID);
+            BigDecimal approvedAmount = approved
+                    ? claimedAmount.multiply(BigDecimal.valueOf(70 + random.nextInt(31), 2)).setScale(2, RoundingMode.HALF_UP)
+                    : null;
+            claimRows.add(new Object[] { id, String.format("%s%010d", CLAIM_NUMBER_PREFIX, i), policyIds.get(policyIndex),
+                    CLAIM_TYPES[type][random.nextInt(CLAIM_TYPES[type].length)], claimedAmount, approvedAmount,
+                    paid ? approvedAmount : null,
+                    Date.valueOf(createdAt.toLocalDate().minusDays(random.nextInt(30))),
+                    "Perf claim " + i, "Location " + random.nextInt(1000), "Claimant " + i,
+                    String.format("138%08d", i % 100_000_000), "claimant" + i + "@example.com",
+                    SEVERITIES[pick(random, SEVERITY_WEIGHTS)], status.name(),
+                    paid ? "PAID" : status == ClaimStatus.PAYMENT_PROCESSING ? "PROCESSING" : null,
+                    paid ? "TXN-" + id.toString().substring(0, 8) : null,
+                    paid ? Date.valueOf(updatedAt.toLocalDate()) : null,
+                    path.size() > 2 ? handler : null, createdBy,
+                    Timestamp.valueOf(createdAt), Timestamp.valueOf(updatedAt) });
+
+            int documentCount = inFlight ? 0 : random.nextInt(4);
+            for (int d = 0; d < documentCount; d++) {
+                String documentType = DOCUMENT_TYPES[random.nextInt(DOCUMENT_TYPES.length)];
+                documentRows.add(new Object[] { new UUID(random.nextLong(), random.nextLong()), id, documentType,
+                        documentType.toLowerCase() + "-" + i + ".pdf", "/perf/documents/" + i + "/" + d + ".pdf",
+                        10_000L + random.nextInt(5_000_000), "application/pdf", createdBy,
+                        Timestamp.valueOf(createdAt.plusMinutes(1 + d)) });
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            batchUpdate(INSERT_CLAIM, claimRows);
+            batchUpdate(INSERT_HISTORY, historyRows);
+            batchUpdate(INSERT_DOCUMENT, documentRows);
+        });
+        return new long[] { historyRows.size(), documentRows.size() };
+    }
+
+    /**
+     * 从 DRAFT 出发、符合 ClaimStatus 流转规则的状态路径
+     */
+    static List<ClaimStatus> statusPath(Random random) {
+        ClaimStatus target = FINAL_STATUSES[pick(random, FINAL_STATUS_WEIGHTS)];
+        List<ClaimStatus> path = new ArrayList<>(7);
+        path.add(ClaimStatus.DRAFT);
+        path.add(ClaimStatus.SUBMITTED);
+        if (target == ClaimStatus.SUBMITTED) {
+            return path;
+        }
+        if (target == ClaimStatus.CANCELLED) {
+            if (random.nextBoolean()) {
+                path.add(ClaimStatus.UNDER_REVIEW);
+            }
+            path.add(ClaimStatus.CANCELLED);
+            return path;
+        }
+        path.add(ClaimStatus.UNDER_REVIEW);
+        if (target == ClaimStatus.UNDER_REVIEW) {
+            return path;
+        }
+        // 约三成进入调查
+        if (target == ClaimStatus.INVESTIGATING || random.nextInt(10) < 3) {
+            path.add(ClaimStatus.INVESTIGATING);
+        }
+        if (target == ClaimStatus.INVESTIGATING) {
+            return path;
+        }
+        if (target == ClaimStatus.REJECTED) {
+            path.add(ClaimStatus.REJECTED);
+            return path;
+        }
+        for (ClaimStatus next : new ClaimStatus[] { ClaimStatus.APPROVED, ClaimStatus.PAYMENT_PROCESSING,
+                ClaimStatus.PAID, ClaimStatus.CLOSED }) {
+            path.add(next);
+            if (next == target) {
+                break;
+            }
+        }
+        return path;
+    }
+
+    private void runSlices(ExecutorService executor, int total, SliceWriter writer) {
+        List<Future<?>> futures = new ArrayList<>();
+        AtomicInteger done = new AtomicInteger();
+        int slices = (total + SLICE_SIZE - 1) / SLICE_SIZE;
+        for (int from = 0; from < total; from += SLICE_SIZE) {
+            int sliceFrom = from;
+            int sliceTo = Math.min(total, from + SLICE_SIZE);
+            futures.add(executor.submit(() -> {
+                writer.write(sliceFrom, sliceTo);
+                int completed = done.incrementAndGet();
+                if (completed % 10 == 0) {
+                    log.info("Seeded {}/{} slices", completed, slices);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Seeding interrupted", e);
+            } catch (ExecutionException e) {
+                futures.forEach(pending -> pending.cancel(true));
+                throw new IllegalStateException("Seeding failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+
+    private Random sliceRandom(int table, int from) {
+        return new Random(randomSeed * 31 + table * 1_000_003L + from);
+    }
+
+    private static int pick(Random random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int value = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            value -= weights[i];
+            if (value < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    @FunctionalInterface
+    private interface SliceWriter {
+        void write(int from, int to);
+    }
+
+    /**
+     * 各表写入的行数
+     */
+    public record Summary(int users, int policies, int claims, long histories, long documents, long elapsedMs) {
+    }
+}
@@ -0,0 +1,452 @@
+package com.flowable.demo.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flowable.demo.web.rest.dto.ApproveRequestDTO;
+import com.flowable.demo.web.rest.dto.ClaimCaseDTO;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * REST 负载驱动（perf profile）
+ * 按场景配比（如 intake=40,review=30,approve=20,pay=10）以多个线程回放受理、审核、批准、支付请求。
+ * 受理产生的案件在 review-delay-ms 后（异步的 Triage 阶段执行完）进入待审核池，审核、批准后依次进入下一阶段的池，
+ * 支付即完成支付 BPMN 流程的校验和确认任务；
+ * 某阶段的池为空时该次操作退化为受理。预热期后的请求计入统计，报告包含各操作的吞吐、错误数、延迟分位数和直方图
+ */
+@Component
+@Profile("perf")
+@RequiredArgsConstructor
+@Slf4j
+public class PerfLoadDriver {
+
+    private static final String POLICY_TYPE = "车险";
+    private static final String VALIDATE_PAYMENT_TASK = "userTask_validatePayment";
+    private static final String CONFIRM_PAYMENT_TASK = "userTask_confirmPayment";
+    private static final double[] PERCENTILES = { 0.5, 0.9, 0.99, 0.999 };
+    private static final Duration[] LATENCY_BUCKETS = {
+            Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50),
+            Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1),
+            Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10) };
+
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+
+    /**
+     * 目标地址，为空时使用本应用（http://localhost:{端口}{context-path}）
+     */
+    @Value("${app.perf.load.base-url:}")
+    private String baseUrl = "";
+
+    @Value("${app.perf.load.username:admin}")
+    private String username = "admin";
+
+    @Value("${app.perf.load.password:admin}")
+    private String password = "admin";
+
+    @Value("${app.perf.load.scenario:intake=40,review=30,approve=20,pay=10}")
+    private String scenario = "intake=40,review=30,approve=20,pay=10";
+
+    @Value("${app.perf.load.threads:16}")
+    private int threads = 16;
+
+    @Value("${app.perf.load.duration-seconds:60}")
+    private int durationSeconds = 60;
+
+    @Value("${app.perf.load.warmup-seconds:10}")
+    private int warmupSeconds = 10;
+
+    /**
+     * 受理后等待多久再审核：Triage 阶段为异步，审核任务要等异步执行器处理后才出现
+     */
+    @Value("${app.perf.load.review-delay-ms:6000}")
+    private long reviewDelayMs = 6000;
+
+    @Value("${app.perf.load.report-file:perf-report.json}")
+    private String reportFile = "perf-report.json";
+
+    /**
+     * 执行一轮负载并写出报告
+     */
+    public Report run() {
+        Map<Operation, Integer> weights = parseScenario(scenario);
+        Session session = new Session(resolveBaseUrl());
+        session.prepare();
+        log.info("Running load scenario {} against {} with {} threads for {}s (+{}s warmup)",
+                weights, session.baseUrl, threads, durationSeconds, warmupSeconds);
+
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long endNanos = measureFromNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                runnable -> new Thread(runnable, "perf-load-" + threadCount.incrementAndGet()));
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    while (System.nanoTime() < endNanos) {
+                        session.execute(pick(weights), System.nanoTime() >= measureFromNanos);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Load run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load run failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Report report = session.report(weights, TimeUnit.NANOSECONDS.toMillis(endNanos - measureFromNanos));
+        writeReport(report);
+        return report;
+    }
+
+    /**
+     * 解析场景配比，格式为 operation=weight，逗号分隔；操作名不区分大小写
+     */
+    static Map<Operation, Integer> parseScenario(String scenario) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : scenario.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid scenario entry: " + entry.trim());
+            }
+            Operation operation;
+            int weight;
+            try {
+                operation = Operation.valueOf(parts[0].trim().toUpperCase());
+                weight = Integer.parseInt(parts[1].trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid scenario entry: " + entry.trim(), e);
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("Scenario weight must not be negative: " + entry.trim());
+            }
+            if (weight > 0) {
+                weights.put(operation, weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Scenario has no operations: " + scenario);
+        }
+        return weights;
+    }
+
+    private static Operation pick(Map<Operation, Integer> weights) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private String resolveBaseUrl() {
+        if (!baseUrl.isBlank()) {
+            return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        }
+        String port = environment.getProperty("local.server.port", environment.getProperty("server.port", "8080"));
+        return "http://localhost:" + port + environment.getProperty("server.servlet.context-path", "");
+    }
+
+    private void writeReport(Report report) {
+        try {
+            String json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report);
+            log.info("Load report:\n{}", json);
+            if (!reportFile.isBlank()) {
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(Path.of(reportFile).toFile(), report);
+                log.info("Load report written to {}", Path.of(reportFile).toAbsolutePath());
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write load report to {}: {}", reportFile, e.getMessage());
+        }
+    }
+
+    enum Operation {
+        INTAKE, REVIEW, APPROVE, PAY
+    }
+
+    /**
+     * 一轮负载的 HTTP 客户端、案件池和统计
+     */
+    private class Session {
+
+        private final String baseUrl;
+        private final String authorization;
+        private final HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        private final Map<Operation, Timer> timers = new EnumMap<>(Operation.class);
+        private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        private final Map<Operation, LongAdder> fallbacks = new EnumMap<>(Operation.class);
+
+        private final DelayQueue<PendingCase> awaitingReview = new DelayQueue<>();
+        private final Queue<PendingCase> awaitingApproval = new ConcurrentLinkedQueue<>();
+        private final Queue<PendingCase> awaitingPayment = new ConcurrentLinkedQueue<>();
+
+        private String adminId;
+        private List<String> policyIds;
+
+        Session(String baseUrl) {
+            this.baseUrl = baseUrl;
+            this.authorization = "Basic " + Base64.getEncoder()
+                    .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+            for (Operation operation : Operation.values()) {
+                timers.put(operation, Timer.builder("perf.load.latency")
+                        .tag("operation", operation.name().toLowerCase())
+                        .publishPercentiles(PERCENTILES)
+                        .serviceLevelObjectives(LATENCY_BUCKETS)
+                        // 整轮只取一次快照，不让分位数窗口滚动过期
+                        .distributionStatisticExpiry(Duration.ofDays(1))
+                        .distributionStatisticBufferLength(1)
+                        .register(registry));
+                errors.put(operation, new LongAdder());
+                fallbacks.put(operation, new LongAdder());
+            }
+        }
+
+        /**
+         * 取批准人 ID 和可用于受理的保单
+         */
+        void prepare() {
+            adminId = send("GET", "/users/username/" + username, null).path("id").asText();
+            JsonNode page = send("GET", "/policies?size=200", null);
+            policyIds = new ArrayList<>();
+            for (JsonNode policy : page.path("content")) {
+                if (POLICY_TYPE.equals(policy.path("policyType").asText())
+                        && "ACTIVE".equals(policy.path("status").asText())) {
+                    policyIds.add(policy.path("id").asText());
+                }
+            }
+            if (policyIds.isEmpty()) {
+                throw new IllegalStateException("No active " + POLICY_TYPE + " policy available for intake");
+            }
+        }
+
+        void execute(Operation requested, boolean measured) {
+            PendingCase pending = switch (requested) {
+                case INTAKE -> null;
+                case REVIEW -> awaitingReview.poll();
+                case APPROVE -> awaitingApproval.poll();
+                case PAY -> awaitingPayment.poll();
+            };
+            Operation operation = requested;
+            if (requested != Operation.INTAKE && pending == null) {
+                operation = Operation.INTAKE;
+                if (measured) {
+                    fallbacks.get(requested).increment();
+                }
+            }
+
+            long started = System.nanoTime();
+            try {
+                switch (operation) {
+                    case INTAKE -> intake();
+                    case REVIEW -> review(pending);
+                    case APPROVE -> approve(pending);
+                    case PAY -> pay(pending);
+                }
+            } catch (RuntimeException e) {
+                if (measured) {
+                    errors.get(operation).increment();
+                }
+                log.debug("{} failed: {}", operation, e.getMessage());
+            } finally {
+                if (measured) {
+                    timers.get(operation).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+
+        private void intake() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            ClaimCaseDTO claim = new ClaimCaseDTO();
+            claim.setPolicyId(policyIds.get(random.nextInt(policyIds.size())));
+            claim.setClaimantName("Perf Claimant");
+            claim.setClaimantPhone("13800000000");
+            claim.setIncidentDate(LocalDate.now().minusDays(1 + random.nextInt(30)).toString());
+            claim.setIncidentLocation("Perf");
+            claim.setIncidentDescription("Load driver claim");
+            // 小额低严重度：理赔分级后直接进入终审
+            claim.setClaimedAmount((double) (200 + random.nextInt(800)));
+            claim.setClaimType("交通事故");
+            claim.setSeverity("LOW");
+            claim.setCreatedById(adminId);
+            JsonNode created = send("POST", "/cases", claim);
+            awaitingReview.add(new PendingCase(created.path("id").asText(), created.path("caseInstanceId").asText(),
+                    BigDecimal.valueOf(created.path("claimedAmount").asDouble()),
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(reviewDelayMs)));
+        }
+
+        private void review(PendingCase pending) {
+            send("POST", "/cases/" + pending.caseId() + "/complete-review?userId=" + username,
+                    Map.of("reviewComments", "perf load"));
+            awaitingApproval.add(pending);
+        }
+
+        private void approve(PendingCase pending) {
+            JsonNode approved = send("POST", "/cases/" + pending.caseId() + "/approve?userId=" + adminId,
+                    new ApproveRequestDTO(pending.amount(), "perf load"));
+            awaitingPayment.add(new PendingCase(pending.caseId(), approved.path("caseInstanceId").asText(),
+                    pending.amount(), System.nanoTime()));
+        }
+
+        /**
+         * 批准后由支付 BPMN 流程接管：每次完成该案件的下一个支付任务（校验、确认），校验完成后放回池中等待确认
+         */
+        private void pay(PendingCase pending) {
+            JsonNode tasks = send("GET", "/tasks/by-case/" + pending.caseInstanceId(), null);
+            for (JsonNode task : tasks.path("activeTasks")) {
+                String taskDefinitionKey = task.path("taskDefinitionKey").asText();
+                if (VALIDATE_PAYMENT_TASK.equals(taskDefinitionKey)) {
+                    send("POST", "/tasks/" + task.path("id").asText() + "/complete",
+                            Map.of("validationResult", "approved"));
+                    awaitingPayment.add(pending);
+                    return;
+                }
+                if (CONFIRM_PAYMENT_TASK.equals(taskDefinitionKey)) {
+                    send("POST", "/tasks/" + task.path("id").asText() + "/complete",
+                            Map.of("confirmationResult", "confirmed"));
+                    return;
+                }
+            }
+            throw new IllegalStateException("No payment task for case instance " + pending.caseInstanceId());
+        }
+
+        private JsonNode send(String method, String path, Object body) {
+            try {
+                HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .timeout(Duration.ofSeconds(30))
+                        .header("Authorization", authorization)
+                        .header("Accept", "application/json");
+                if (body == null) {
+                    request.method(method, HttpRequest.BodyPublishers.noBody());
+                } else {
+                    request.header("Content-Type", "application/json")
+                            .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+                }
+                HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() >= 300) {
+                    throw new IllegalStateException(method + " " + path + " returned " + response.statusCode());
+                }
+                return response.body().length == 0 ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+            } catch (IOException e) {
+                throw new IllegalStateException(method + " " + path + " failed: " + e.getMessage(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(method + " " + path + " interrupted", e);
+            }
+        }
+
+        Report report(Map<Operation, Integer> weights, long measuredMs) {
+            List<OperationReport> operations = new ArrayList<>();
+            long totalCount = 0;
+            long totalErrors = 0;
+            for (Operation operation : Operation.values()) {
+                HistogramSnapshot snapshot = timers.get(operation).takeSnapshot();
+                Map<String, Double> percentiles = new LinkedHashMap<>();
+                for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                    percentiles.put("p" + BigDecimal.valueOf(percentile.percentile() * 100).stripTrailingZeros().toPlainString(),
+                            percentile.value(TimeUnit.MILLISECONDS));
+                }
+                Map<String, Double> histogram = new LinkedHashMap<>();
+                for (CountAtBucket bucket : snapshot.histogramCounts()) {
+                    histogram.put("le" + (long) bucket.bucket(TimeUnit.MILLISECONDS) + "ms", bucket.count());
+                }
+                long count = snapshot.count();
+                long operationErrors = errors.get(operation).sum();
+                operations.add(new OperationReport(operation.name().toLowerCase(), count, operationErrors,
+                        fallbacks.get(operation).sum(), count * 1000.0 / measuredMs,
+                        snapshot.mean(TimeUnit.MILLISECONDS), snapshot.max(TimeUnit.MILLISECONDS),
+                        percentiles, histogram));
+                totalCount += count;
+                totalErrors += operationErrors;
+            }
+            Map<String, Integer> scenarioWeights = new LinkedHashMap<>();
+            weights.forEach((operation, weight) -> scenarioWeights.put(operation.name().toLowerCase(), weight));
+            return new Report(baseUrl, scenarioWeights, threads, warmupSeconds, measuredMs, totalCount, totalErrors,
+                    totalCount * 1000.0 / measuredMs, operations);
+        }
+    }
+
+    private record PendingCase(String caseId, String caseInstanceId, BigDecimal amount, long readyAtNanos)
+            implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(readyAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    /**
+     * 负载报告；延迟单位为毫秒，直方图为累计计数（le = 小于等于该上界）
+     */
+    public record Report(String baseUrl, Map<String, Integer> scenario, int threads, int warmupSeconds,
+            long measuredMs, long requests, long errors, double throughputPerSecond,
+            List<OperationReport> operations) {
+    }
+
+    /**
+     * 单个操作的统计；fallbacks 为该操作的池为空而改做受理的次数
+     */
+    public record OperationReport(String operation, long count, long errors, long fallbacks,
+            double throughputPerSecond, double meanMs, double maxMs, Map<String, Double> percentilesMs,
+            Map<String, Double> histogram) {
+    }
+}
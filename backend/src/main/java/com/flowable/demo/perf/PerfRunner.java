@@ -0,0 +1,70 @@
+package com.flowable.demo.perf;
+
+import com.flowable.demo.service.ClaimStatisticsService;
+import com.flowable.demo.service.SearchIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * perf profile 启动入口
+ * 数据库中还没有 perf 数据时批量造数并启动在途流程，随后重建搜索索引和统计快照；
+ * 开启 app.perf.load.enabled 时对 REST 接口回放负载，开启 app.perf.exit-on-completion 时完成后退出进程。
+ * 例：java -jar insurance-claim-system-1.0.0-exec.jar --spring.profiles.active=perf --app.perf.load.enabled=true
+ */
+@Component
+@Profile("perf")
+@RequiredArgsConstructor
+@Slf4j
+public class PerfRunner implements CommandLineRunner {
+
+    private final PerfDataSeeder dataSeeder;
+    private final PerfCaseSeeder caseSeeder;
+    private final PerfLoadDriver loadDriver;
+    private final SearchIndexService searchIndexService;
+    private final ClaimStatisticsService claimStatisticsService;
+    private final ApplicationContext applicationContext;
+
+    @Value("${app.perf.seed.enabled:true}")
+    private boolean seedEnabled = true;
+
+    /**
+     * 造数后是否重建搜索索引；索引逐文档写入，百万级案件需要较长时间，只测流程时可关闭
+     */
+    @Value("${app.perf.seed.rebuild-search-index:true}")
+    private boolean rebuildSearchIndex = true;
+
+    @Value("${app.perf.load.enabled:false}")
+    private boolean loadEnabled = false;
+
+    @Value("${app.perf.exit-on-completion:false}")
+    private boolean exitOnCompletion = false;
+
+    @Override
+    public void run(String... args) {
+        if (seedEnabled) {
+            if (dataSeeder.isSeeded()) {
+                log.info("Perf dataset already present, skipping seeding");
+            } else {
+                dataSeeder.seed();
+                caseSeeder.seed();
+                if (rebuildSearchIndex) {
+                    // 等索引重建完再回放负载，避免后台重建和负载争用数据库
+                    searchIndexService.rebuild().join();
+                }
+                claimStatisticsService.reconcile();
+            }
+        }
+        if (loadEnabled) {
+            loadDriver.run();
+        }
+        if (exitOnCompletion) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+}
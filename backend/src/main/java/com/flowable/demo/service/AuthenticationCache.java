@@ -0,0 +1,143 @@
+package com.flowable.demo.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP Basic 认证结果缓存
+ * 按用户名缓存认证成功的结果，只保存凭据的 HMAC-SHA256（密钥在启动时随机生成，不落盘），
+ * 命中时不再查询用户和执行密码校验；带 TTL 和容量上限，
+ * 用户信息、状态或角色变更时由 UserResource 主动失效
+ */
+@Component
+@Slf4j
+public class AuthenticationCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    @Value("${app.auth-cache.ttl-ms:60000}")
+    private long ttlMs = 60_000L;
+
+    @Value("${app.auth-cache.max-entries:10000}")
+    private int maxEntries = 10_000;
+
+    private final SecretKeySpec hmacKey;
+
+    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 每次失效递增，认证期间发生过失效的结果不写入缓存
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public AuthenticationCache() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hmacKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+    }
+
+    /**
+     * 查找未过期且凭据一致的认证结果
+     */
+    public Optional<Authentication> get(String username, String password) {
+        if (username == null || password == null) {
+            return Optional.empty();
+        }
+        CacheEntry entry = cache.get(username);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (System.currentTimeMillis() >= entry.getExpiresAt()) {
+            cache.remove(username, entry);
+            return Optional.empty();
+        }
+        // 常量时间比较，避免通过响应时间推测凭据
+        if (!MessageDigest.isEqual(entry.getCredentialHash(), hash(username, password))) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.getAuthentication());
+    }
+
+    /**
+     * 当前失效代数，认证前读取，写入时传回
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * 缓存认证成功的结果；认证期间发生过失效时放弃写入
+     */
+    public void put(String username, String password, Authentication authentication, long loadGeneration) {
+        if (username == null || password == null || ttlMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (cache.size() >= maxEntries) {
+            cache.values().removeIf(e -> now >= e.getExpiresAt());
+            if (cache.size() >= maxEntries) {
+                log.debug("Authentication cache is full ({} entries), not caching {}", maxEntries, username);
+                return;
+            }
+        }
+        CacheEntry entry = new CacheEntry(hash(username, password), authentication, now + ttlMs);
+        cache.put(username, entry);
+        if (generation.get() != loadGeneration) {
+            cache.remove(username, entry);
+        }
+    }
+
+    /**
+     * 使指定用户的认证结果失效
+     */
+    public void evict(String username) {
+        generation.incrementAndGet();
+        if (username != null) {
+            cache.remove(username);
+            log.debug("Evicted cached authentication for user {}", username);
+        }
+    }
+
+    /**
+     * 清空全部缓存
+     */
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    private byte[] hash(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class CacheEntry {
+        private final byte[] credentialHash;
+        private final Authentication authentication;
+        private final long expiresAt;
+    }
+}
@@ -0,0 +1,88 @@
+package com.flowable.demo.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按号段分配的理赔编号生成器
+ * 每个节点一次从数据库日序列预留 blockSize 个序号，之后用 AtomicLong 无锁发放；
+ * 只有号段耗尽或跨日时才访问数据库。节点重启会丢弃未用完的号段，编号可能不连续，但不会重复
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BlockAllocatingClaimNumberGenerator implements ClaimNumberGenerator {
+
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    private final ClaimNumberBlockAllocator allocator;
+
+    @Value("${app.claim-number.block-size:50}")
+    private int blockSize = 50;
+
+    private volatile Block current;
+
+    private final Object refillLock = new Object();
+
+    @Override
+    public String nextClaimNumber() {
+        return nextClaimNumber(LocalDate.now());
+    }
+
+    String nextClaimNumber(LocalDate date) {
+        while (true) {
+            Block block = current;
+            if (block != null && block.date.equals(date)) {
+                long sequence = block.next.getAndIncrement();
+                if (sequence < block.end) {
+                    return ClaimNumberBlockAllocator.format(date, sequence);
+                }
+            }
+            refill(block, date);
+        }
+    }
+
+    private void refill(Block exhausted, LocalDate date) {
+        synchronized (refillLock) {
+            // 其他线程可能已经完成了补充
+            if (current != exhausted) {
+                return;
+            }
+            long start = reserve(date);
+            current = new Block(date, start, start + blockSize);
+            log.debug("Reserved claim numbers [{}, {}) for {}", start, start + blockSize, date);
+        }
+    }
+
+    private long reserve(LocalDate date) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return allocator.reserve(date, blockSize);
+            } catch (DataIntegrityViolationException e) {
+                // 其他节点同时创建了当天的序列行，重试即可走推进分支
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Concurrent claim number sequence initialization for {}, retrying", date);
+            }
+        }
+    }
+
+    private static final class Block {
+        private final LocalDate date;
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(LocalDate date, long start, long end) {
+            this.date = date;
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
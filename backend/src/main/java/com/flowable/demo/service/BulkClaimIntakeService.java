@@ -0,0 +1,281 @@
+package com.flowable.demo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.InsurancePolicy;
+import com.flowable.demo.domain.model.User;
+import com.flowable.demo.domain.repository.ClaimCaseRepository;
+import com.flowable.demo.domain.repository.InsurancePolicyRepository;
+import com.flowable.demo.domain.repository.UserRepository;
+import com.flowable.demo.web.rest.dto.BulkClaimResultDTO;
+import com.flowable.demo.web.rest.dto.ClaimCaseDTO;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 理赔案件批量受理服务
+ * 保单和创建人按批次用一次 IN 查询校验，案件按分片在独立事务中批量插入并启动 Case 流程
+ * （异步启动模式下只写入发件箱）；
+ * 分片失败时退化为逐条事务，单条错误不影响同一分片内的其他案件
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkClaimIntakeService {
+
+    private final CaseService caseService;
+    private final ClaimCaseRepository claimCaseRepository;
+    private final InsurancePolicyRepository insurancePolicyRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.bulk-intake.chunk-size:100}")
+    private int chunkSize = 100;
+
+    @Value("${app.bulk-intake.max-items:5000}")
+    private int maxItems = 5000;
+
+    /**
+     * 批量创建理赔案件
+     *
+     * @param indexOffset        结果序号的起始值
+     * @param defaultCreatedById 条目未指定创建人时使用的用户ID
+     * @return 逐条结果，与请求顺序一致
+     */
+    public List<BulkClaimResultDTO> createClaimCases(List<ClaimCaseDTO> items, int indexOffset,
+            String defaultCreatedById) {
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException(
+                    "Too many claims in one bulk request: " + items.size() + " (max " + maxItems + ")");
+        }
+
+        BulkClaimResultDTO[] results = new BulkClaimResultDTO[items.size()];
+        List<PreparedClaim> prepared = prepare(items, indexOffset, defaultCreatedById, results);
+
+        for (int from = 0; from < prepared.size(); from += chunkSize) {
+            List<PreparedClaim> chunk = prepared.subList(from, Math.min(from + chunkSize, prepared.size()));
+            for (BulkClaimResultDTO result : createChunk(chunk)) {
+                results[result.getIndex() - indexOffset] = result;
+            }
+        }
+
+        log.info("Bulk intake processed {} claims in {} chunks", items.size(),
+                (prepared.size() + chunkSize - 1) / chunkSize);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 流式批量创建理赔案件：逐行读取 NDJSON，每攒满一个分片就处理并输出该分片的结果
+     */
+    public void streamClaimCases(BufferedReader reader, String defaultCreatedById,
+            Consumer<BulkClaimResultDTO> sink) throws IOException {
+        List<ClaimCaseDTO> chunk = new ArrayList<>(chunkSize);
+        int offset = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parseLine(line));
+            if (chunk.size() >= chunkSize) {
+                createClaimCases(chunk, offset, defaultCreatedById).forEach(sink);
+                offset += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            createClaimCases(chunk, offset, defaultCreatedById).forEach(sink);
+        }
+    }
+
+    private ClaimCaseDTO parseLine(String line) {
+        try {
+            return objectMapper.readValue(line, ClaimCaseDTO.class);
+        } catch (JsonProcessingException e) {
+            log.debug("Invalid NDJSON line in bulk intake: {}", e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 校验条目并用一次 IN 查询加载全部保单和创建人，校验失败的条目直接写入 results
+     */
+    private List<PreparedClaim> prepare(List<ClaimCaseDTO> items, int indexOffset, String defaultCreatedById,
+            BulkClaimResultDTO[] results) {
+        Set<UUID> policyIds = new HashSet<>();
+        Set<UUID> userIds = new HashSet<>();
+        UUID[] itemPolicyIds = new UUID[items.size()];
+        UUID[] itemCreatorIds = new UUID[items.size()];
+
+        for (int i = 0; i < items.size(); i++) {
+            ClaimCaseDTO dto = items.get(i);
+            String error = validate(dto);
+            if (error == null) {
+                String createdById = dto.getCreatedById();
+                if (createdById == null) {
+                    log.debug("No createdBy provided for bulk item {}, using current user", indexOffset + i);
+                    createdById = defaultCreatedById;
+                }
+                itemPolicyIds[i] = parseUuid(dto.getPolicyId());
+                itemCreatorIds[i] = parseUuid(createdById);
+                if (itemCreatorIds[i] == null) {
+                    error = "Invalid creator ID";
+                }
+            }
+            if (error != null) {
+                results[i] = BulkClaimResultDTO.failed(indexOffset + i, error);
+                continue;
+            }
+            policyIds.add(itemPolicyIds[i]);
+            userIds.add(itemCreatorIds[i]);
+        }
+
+        Map<UUID, InsurancePolicy> policies = policyIds.isEmpty() ? Map.of()
+                : insurancePolicyRepository.findAllById(policyIds).stream()
+                        .collect(Collectors.toMap(InsurancePolicy::getId, Function.identity()));
+        Map<UUID, User> users = userIds.isEmpty() ? Map.of()
+                : userRepository.findAllById(userIds).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<PreparedClaim> prepared = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            InsurancePolicy policy = policies.get(itemPolicyIds[i]);
+            User createdBy = users.get(itemCreatorIds[i]);
+            if (policy == null) {
+                results[i] = BulkClaimResultDTO.failed(indexOffset + i, "Policy not found");
+            } else if (createdBy == null) {
+                results[i] = BulkClaimResultDTO.failed(indexOffset + i, "Creator not found");
+            } else {
+                prepared.add(new PreparedClaim(indexOffset + i, items.get(i), policy, createdBy));
+            }
+        }
+        return prepared;
+    }
+
+    private String validate(ClaimCaseDTO dto) {
+        if (dto == null) {
+            return "Invalid claim JSON";
+        }
+        if (dto.getId() != null) {
+            return "A new claimCase cannot already have an ID";
+        }
+        if (parseUuid(dto.getPolicyId()) == null) {
+            return "Invalid policy ID";
+        }
+        if (dto.getClaimantName() == null || dto.getClaimantName().isBlank()) {
+            return "Claimant name is required";
+        }
+        if (dto.getClaimType() == null || dto.getClaimType().isBlank()) {
+            return "Claim type is required";
+        }
+        if (dto.getClaimedAmount() == null || dto.getClaimedAmount() <= 0) {
+            return "Claimed amount must be positive";
+        }
+        try {
+            LocalDate.parse(dto.getIncidentDate());
+        } catch (DateTimeParseException | NullPointerException e) {
+            return "Invalid incident date";
+        }
+        if (dto.getSeverity() != null) {
+            try {
+                ClaimCase.Severity.valueOf(dto.getSeverity().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return "Invalid severity: " + dto.getSeverity();
+            }
+        }
+        return null;
+    }
+
+    private UUID parseUuid(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 在一个事务中创建一个分片；失败时逐条重试，找出具体失败的条目
+     */
+    private List<BulkClaimResultDTO> createChunk(List<PreparedClaim> chunk) {
+        try {
+            return transactionTemplate.execute(status -> createInTransaction(chunk));
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                log.warn("Bulk intake item {} failed: {}", chunk.get(0).index, e.getMessage());
+                return List.of(BulkClaimResultDTO.failed(chunk.get(0).index, e.getMessage()));
+            }
+            log.warn("Bulk intake chunk of {} claims failed ({}), retrying items individually",
+                    chunk.size(), e.getMessage());
+            List<BulkClaimResultDTO> results = new ArrayList<>(chunk.size());
+            for (PreparedClaim item : chunk) {
+                results.addAll(createChunk(List.of(item)));
+            }
+            return results;
+        }
+    }
+
+    private List<BulkClaimResultDTO> createInTransaction(List<PreparedClaim> chunk) {
+        List<ClaimCase> claimCases = chunk.stream()
+                .map(item -> caseService.newClaimCase(item.dto, item.policy, item.createdBy))
+                .collect(Collectors.toList());
+
+        // 一次 flush 发出 JDBC 批量 INSERT（hibernate.jdbc.batch_size）
+        claimCaseRepository.saveAll(claimCases);
+        claimCaseRepository.flush();
+
+        List<BulkClaimResultDTO> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ClaimCase claimCase = claimCases.get(i);
+            caseService.startOrEnqueue(claimCase);
+            if (claimCase.getCaseInstanceId() == null
+                    && claimCase.getStatus() != ClaimCase.ClaimStatus.PENDING_START) {
+                // 回滚整个分片，由逐条重试定位失败的条目，避免留下没有 Case 流程的草稿案件
+                throw new IllegalStateException("Failed to start case process for claim " + claimCase.getClaimNumber());
+            }
+            results.add(BulkClaimResultDTO.builder()
+                    .index(chunk.get(i).index)
+                    .status(BulkClaimResultDTO.CREATED)
+                    .id(claimCase.getId().toString())
+                    .claimNumber(claimCase.getClaimNumber())
+                    .caseInstanceId(claimCase.getCaseInstanceId())
+                    .build());
+        }
+        return results;
+    }
+
+    @AllArgsConstructor
+    private static class PreparedClaim {
+        private final int index;
+        private final ClaimCaseDTO dto;
+        private final InsurancePolicy policy;
+        private final User createdBy;
+    }
+}
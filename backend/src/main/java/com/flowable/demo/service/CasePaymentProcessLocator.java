@@ -0,0 +1,44 @@
+package com.flowable.demo.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.cmmn.api.CmmnHistoryService;
+import org.flowable.cmmn.api.history.HistoricPlanItemInstance;
+import org.flowable.cmmn.api.runtime.PlanItemDefinitionType;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Case 与支付子流程的关联查询
+ * processTask 启动 ClaimPaymentProcess 时，Flowable 把子流程实例ID写入 PlanItem 的 referenceId；
+ * 历史 PlanItem 表按 CASE_INST_ID_ 建有索引，且同时包含运行中和已结束的 PlanItem，
+ * 因此一次索引查询即可拿到 Case 下全部（含已完成的）子流程实例ID，不需要扫描流程变量
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CasePaymentProcessLocator {
+
+    private final CmmnHistoryService cmmnHistoryService;
+
+    /**
+     * 获取 Case 下由 processTask 启动的全部流程实例ID（包括已结束的流程）
+     */
+    public List<String> findProcessInstanceIds(String caseInstanceId) {
+        List<String> processInstanceIds = cmmnHistoryService.createHistoricPlanItemInstanceQuery()
+                .planItemInstanceCaseInstanceId(caseInstanceId)
+                .planItemInstanceDefinitionType(PlanItemDefinitionType.PROCESS_TASK)
+                .list()
+                .stream()
+                .map(HistoricPlanItemInstance::getReferenceId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+
+        log.debug("Found {} process instances started by case {}", processInstanceIds.size(), caseInstanceId);
+        return processInstanceIds;
+    }
+}
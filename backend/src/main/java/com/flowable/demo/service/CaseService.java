@@ -8,10 +8,12 @@ import com.flowable.demo.domain.repository.InsurancePolicyRepository;
 import com.flowable.demo.domain.repository.UserRepository;
 import com.flowable.demo.web.rest.dto.ApproveRequestDTO;
 import com.flowable.demo.web.rest.dto.ClaimCaseDTO;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.cmmn.api.CmmnRuntimeService;
 import org.flowable.cmmn.api.CmmnTaskService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -37,6 +39,14 @@ public class CaseService {
     private final UserRepository userRepository;
     private final CmmnRuntimeService cmmnRuntimeService;
     private final CmmnTaskService cmmnTaskService;
+    private final ClaimNumberGenerator claimNumberGenerator;
+    private final CaseStartOutboxService caseStartOutboxService;
+    private final ClaimStatisticsService claimStatisticsService;
+    private final ReviewQueueService reviewQueueService;
+    private final ClaimMetrics claimMetrics;
+
+    @Value("${app.case-start.async:false}")
+    private boolean asyncCaseStart;
 
     /**
      * 创建理赔案件
@@ -57,8 +67,21 @@ public class CaseService {
 
         // 1. 先创建并保存 ClaimCase（此时还没有 caseInstanceId，状态为 DRAFT）
         // 状态会在 CMMN 监听器触发后自动改为 SUBMITTED
-        ClaimCase claimCase = ClaimCase.builder()
-                .claimNumber(generateClaimNumber())
+        ClaimCase claimCase = claimCaseRepository.save(newClaimCase(dto, policy, createdBy));
+        log.info("Claim case saved with ID: {}", claimCase.getId());
+
+        // 2. 启动 Case 流程并回写 caseInstanceId（异步模式下只写入发件箱）
+        startOrEnqueue(claimCase);
+
+        return claimCase;
+    }
+
+    /**
+     * 根据 DTO 构建尚未保存的理赔案件（状态为 DRAFT）
+     */
+    public ClaimCase newClaimCase(ClaimCaseDTO dto, InsurancePolicy policy, User createdBy) {
+        return ClaimCase.builder()
+                .claimNumber(claimNumberGenerator.nextClaimNumber())
                 .policy(policy)
                 .claimantName(dto.getClaimantName())
                 .claimantPhone(dto.getClaimantPhone())
@@ -73,20 +96,34 @@ public class CaseService {
                 .status(ClaimCase.ClaimStatus.DRAFT)
                 .createdBy(createdBy)
                 .build();
+    }
 
-        // 保存到数据库
-        claimCase = claimCaseRepository.save(claimCase);
-        log.info("Claim case saved with ID: {}", claimCase.getId());
+    /**
+     * 同步启动 Case 流程，或在异步模式下将案件置为 PENDING_START 并在当前事务中写入发件箱，
+     * 由 CaseStartWorker 稍后启动
+     */
+    public void startOrEnqueue(ClaimCase claimCase) {
+        if (asyncCaseStart) {
+            claimCase.setStatus(ClaimCase.ClaimStatus.PENDING_START);
+            caseStartOutboxService.enqueue(claimCase);
+            return;
+        }
+        startClaimCase(claimCase);
+    }
 
-        // 2. 启动 Case 流程，传入 claimCaseId
+    /**
+     * 为已保存的理赔案件启动 Case 流程，并回写 caseInstanceId
+     */
+    public void startClaimCase(ClaimCase claimCase) {
+        // 启动 Case 流程，传入 claimCaseId
         String caseInstanceId = startCaseProcessWithClaimCaseId(claimCase);
         
         if (caseInstanceId != null) {
-            // 3. 更新 ClaimCase 的 caseInstanceId
+            // 更新 ClaimCase 的 caseInstanceId
             claimCase.setCaseInstanceId(caseInstanceId);
             claimCaseRepository.save(claimCase);
             
-            // 4. Set caseInstanceId as a variable in the CMMN case instance
+            // Set caseInstanceId as a variable in the CMMN case instance
             // This is needed so the BPMN process called from CMMN can access it
             cmmnRuntimeService.setVariable(caseInstanceId, "caseInstanceId", caseInstanceId);
             log.info("Set caseInstanceId variable for case instance: {}", caseInstanceId);
@@ -95,8 +132,6 @@ public class CaseService {
         } else {
             log.warn("Failed to start case process for claim case {}", claimCase.getId());
         }
-
-        return claimCase;
     }
 
     /**
@@ -346,35 +381,7 @@ public class CaseService {
     @Transactional(readOnly = true)
     public Map<String, Object> getClaimCaseStatistics() {
         log.debug("Getting claim case statistics");
-
-        Map<String, Object> statistics = new HashMap<>();
-
-        // 总理赔数
-        long totalClaims = claimCaseRepository.count();
-        statistics.put("totalClaims", totalClaims);
-
-        // 待处理理赔（包括SUBMITTED和UNDER_REVIEW状态）
-        long pendingClaims = claimCaseRepository.countByStatus(ClaimCase.ClaimStatus.SUBMITTED) +
-                claimCaseRepository.countByStatus(ClaimCase.ClaimStatus.UNDER_REVIEW);
-        statistics.put("pendingClaims", pendingClaims);
-
-        // 已批准理赔
-        long approvedClaims = claimCaseRepository.countByStatus(ClaimCase.ClaimStatus.APPROVED);
-        statistics.put("approvedClaims", approvedClaims);
-
-        // 已拒绝理赔
-        long rejectedClaims = claimCaseRepository.countByStatus(ClaimCase.ClaimStatus.REJECTED);
-        statistics.put("rejectedClaims", rejectedClaims);
-
-        // 总金额（所有理赔申请的金额总和）
-        Double totalAmount = claimCaseRepository.getTotalClaimedAmount();
-        statistics.put("totalAmount", totalAmount != null ? totalAmount : 0.0);
-
-        // 平均处理时间（小时）
-        Double avgProcessingDays = claimCaseRepository.getAverageProcessingDays();
-        statistics.put("averageProcessingTime", avgProcessingDays != null ? avgProcessingDays * 24 : 0.0);
-
-        return statistics;
+        return claimStatisticsService.getStatistics();
     }
 
     /**
@@ -382,6 +389,7 @@ public class CaseService {
      * 通过 claimCaseId 变量传递给流程，监听器可以通过 claimCaseId 查找
      */
     private String startCaseProcessWithClaimCaseId(ClaimCase claimCase) {
+        Timer.Sample sample = claimMetrics.start();
         try {
             Map<String, Object> variables = new HashMap<>();
             // 传入 claimCaseId，监听器可以通过它查找 ClaimCase
@@ -427,10 +435,12 @@ public class CaseService {
 
             String caseInstanceId = caseInstance.getId();
             log.info("Started case process for claim case {} with instance ID: {}", claimCase.getId(), caseInstanceId);
+            claimMetrics.recordCaseStart(sample, ClaimMetrics.OUTCOME_SUCCESS);
 
             return caseInstanceId;
 
         } catch (Exception e) {
+            claimMetrics.recordCaseStart(sample, ClaimMetrics.OUTCOME_ERROR);
             log.error("Failed to start case process: {}", e.getMessage(), e);
             return null;
         }
@@ -561,19 +571,25 @@ public class CaseService {
                 variables.put("reviewedAt", LocalDateTime.now().toString());
                 variables.put("reviewComments", reviewComments);
                 variables.put("reviewNotes", reviewNotes);
-                
-                // CRITICAL: Include DMN decision table input variables
-                // These are needed for the taskAssessComplexity decision task that will be triggered
-                variables.put("policyType", claimCase.getPolicy().getPolicyType());
-                variables.put("claimedAmount", claimCase.getClaimedAmount());
-                variables.put("coverageAmount", claimCase.getPolicy().getCoverageAmount());
-                variables.put("claimType", claimCase.getClaimType());
-                variables.put("severity", claimCase.getSeverity().toString());
-                
-                // 查找并完成Review Claim任务
-                completeCmmnTask(claimCase.getCaseInstanceId(), "taskReviewClaim", variables);
-                
-                log.info("Completed review task for claim case {}", claimCase.getId());
+
+                if (reviewQueueService.isEnabled()) {
+                    // 审核队列模式：只写入队列，决策输入、决策求值和后续阶段由 ReviewQueueWorker 按微批完成
+                    enqueueReviewTask(claimCase.getCaseInstanceId(), variables);
+                    log.info("Queued review task completion for claim case {}", claimCase.getId());
+                } else {
+                    // CRITICAL: Include DMN decision table input variables
+                    // These are needed for the taskAssessComplexity decision task that will be triggered
+                    variables.put("policyType", claimCase.getPolicy().getPolicyType());
+                    variables.put("claimedAmount", claimCase.getClaimedAmount());
+                    variables.put("coverageAmount", claimCase.getPolicy().getCoverageAmount());
+                    variables.put("claimType", claimCase.getClaimType());
+                    variables.put("severity", claimCase.getSeverity().toString());
+
+                    // 查找并完成Review Claim任务
+                    completeCmmnTask(claimCase.getCaseInstanceId(), ReviewQueueService.REVIEW_TASK_KEY, variables);
+
+                    log.info("Completed review task for claim case {}", claimCase.getId());
+                }
                 
                 // 只在状态为SUBMITTED时才更新为UNDER_REVIEW
                 if (claimCase.getStatus() == ClaimCase.ClaimStatus.SUBMITTED) {
@@ -592,6 +608,8 @@ public class CaseService {
                             reviewedBy);
                     claimCaseRepository.save(claimCase);
                 }
+            } catch (IllegalStateException e) {
+                throw e;
             } catch (Exception e) {
                 log.error("Failed to complete review CMMN task: {}", e.getMessage(), e);
                 throw new RuntimeException("Failed to complete review task: " + e.getMessage(), e);
@@ -601,6 +619,23 @@ public class CaseService {
         return claimCase;
     }
 
+    /**
+     * 查找审核任务并写入审核完成队列
+     */
+    private void enqueueReviewTask(String caseInstanceId, Map<String, Object> variables) {
+        List<org.flowable.task.api.Task> tasks = cmmnTaskService.createTaskQuery()
+                .caseInstanceId(caseInstanceId)
+                .taskDefinitionKey(ReviewQueueService.REVIEW_TASK_KEY)
+                .active()
+                .list();
+        if (tasks.isEmpty()) {
+            log.warn("No active task {} found for case instance {}", ReviewQueueService.REVIEW_TASK_KEY,
+                    caseInstanceId);
+            return;
+        }
+        reviewQueueService.enqueue(tasks.get(0), variables);
+    }
+
     /**
      * 查找并完成指定类型的CMMN任务
      */
@@ -615,7 +650,14 @@ public class CaseService {
             
             if (!tasks.isEmpty()) {
                 org.flowable.task.api.Task task = tasks.get(0);
-                cmmnTaskService.complete(task.getId(), variables);
+                Timer.Sample sample = claimMetrics.start();
+                String outcome = ClaimMetrics.OUTCOME_ERROR;
+                try {
+                    cmmnTaskService.complete(task.getId(), variables);
+                    outcome = ClaimMetrics.OUTCOME_SUCCESS;
+                } finally {
+                    claimMetrics.recordTaskCompletion(sample, task, outcome);
+                }
                 log.info("Completed CMMN task {} for case instance {}", taskDefinitionKey, caseInstanceId);
             } else {
                 log.warn("No active task {} found for case instance {}", taskDefinitionKey, caseInstanceId);
@@ -665,25 +707,4 @@ public class CaseService {
 
         return claimCase;
     }
-
-    /**
-     * 生成理赔案件编号
-     * 使用 synchronized 确保线程安全，防止并发请求生成相同的理赔编号
-     */
-    private synchronized String generateClaimNumber() {
-        String dateStr = LocalDate.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long sequence = claimCaseRepository.countByCreatedAtAfter(
-                LocalDateTime.now().withHour(0).withMinute(0).withSecond(0)) + 1;
-        String claimNumber = "CLM" + dateStr + String.format("%04d", sequence);
-        
-        // 验证编号是否已存在（双重检查）
-        while (claimCaseRepository.findByClaimNumber(claimNumber).isPresent()) {
-            sequence++;
-            claimNumber = "CLM" + dateStr + String.format("%04d", sequence);
-            log.warn("Generated claim number {} already exists, trying next sequence: {}", 
-                    claimNumber, sequence);
-        }
-        
-        return claimNumber;
-    }
 }
@@ -0,0 +1,155 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.CaseStartOutbox;
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.repository.CaseStartOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Case 流程启动发件箱服务
+ * 负责写入、抢占、完成和重试发件箱条目；重试按指数退避，超过最大次数后进入死信（DEAD）
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class CaseStartOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final CaseStartOutboxRepository outboxRepository;
+
+    @Value("${app.case-start.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${app.case-start.retry-backoff-ms:2000}")
+    private long retryBackoffMs = 2000;
+
+    @Value("${app.case-start.lock-timeout-ms:300000}")
+    private long lockTimeoutMs = 300000;
+
+    /**
+     * 在当前事务中为理赔案件写入启动条目
+     */
+    public CaseStartOutbox enqueue(ClaimCase claimCase) {
+        CaseStartOutbox entry = CaseStartOutbox.builder()
+                .claimCaseId(claimCase.getId())
+                .claimNumber(claimCase.getClaimNumber())
+                .status(CaseStartOutbox.Status.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+        log.debug("Queued case start for claim {}", claimCase.getClaimNumber());
+        return outboxRepository.save(entry);
+    }
+
+    /**
+     * 抢占最多 limit 个到期条目，返回抢占成功的条目ID
+     */
+    public List<UUID> claimDue(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        int released = outboxRepository.releaseStale(CaseStartOutbox.Status.PENDING,
+                CaseStartOutbox.Status.PROCESSING, now.minusNanos(lockTimeoutMs * 1_000_000));
+        if (released > 0) {
+            log.warn("Released {} stale case start entries", released);
+        }
+
+        List<UUID> claimed = new ArrayList<>();
+        for (UUID id : outboxRepository.findDueIds(CaseStartOutbox.Status.PENDING, now, PageRequest.of(0, limit))) {
+            if (outboxRepository.transition(id, CaseStartOutbox.Status.PENDING,
+                    CaseStartOutbox.Status.PROCESSING, now) == 1) {
+                claimed.add(id);
+            }
+        }
+        return claimed;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CaseStartOutbox> findById(UUID id) {
+        return outboxRepository.findById(id);
+    }
+
+    /**
+     * Case 流程启动成功，删除条目
+     */
+    public void complete(UUID id) {
+        outboxRepository.deleteById(id);
+    }
+
+    /**
+     * 将已抢占但未能提交给工作线程的条目放回队列
+     */
+    public void release(UUID id) {
+        outboxRepository.transition(id, CaseStartOutbox.Status.PROCESSING, CaseStartOutbox.Status.PENDING,
+                LocalDateTime.now());
+    }
+
+    /**
+     * 记录一次失败：未超过最大次数则按指数退避重新排队，否则进入死信
+     */
+    public void fail(UUID id, Throwable error) {
+        outboxRepository.findById(id).ifPresent(entry -> {
+            int attempts = entry.getAttempts() + 1;
+            entry.setAttempts(attempts);
+            entry.setLockedAt(null);
+            entry.setLastError(truncate(NestedExceptionUtils.getMostSpecificCause(error).toString()));
+            if (attempts >= maxAttempts) {
+                entry.setStatus(CaseStartOutbox.Status.DEAD);
+                log.error("Case start for claim {} failed {} times, moved to dead letter: {}",
+                        entry.getClaimNumber(), attempts, entry.getLastError());
+            } else {
+                long delayMs = retryBackoffMs << Math.min(attempts - 1, 16);
+                entry.setStatus(CaseStartOutbox.Status.PENDING);
+                entry.setNextAttemptAt(LocalDateTime.now().plusNanos(delayMs * 1_000_000));
+                log.warn("Case start for claim {} failed (attempt {}), retrying in {} ms: {}",
+                        entry.getClaimNumber(), attempts, delayMs, entry.getLastError());
+            }
+            outboxRepository.save(entry);
+        });
+    }
+
+    /**
+     * 按状态分页查询条目（死信视图使用 DEAD）
+     */
+    @Transactional(readOnly = true)
+    public Page<CaseStartOutbox> findByStatus(CaseStartOutbox.Status status, Pageable pageable) {
+        return outboxRepository.findByStatus(status, pageable);
+    }
+
+    /**
+     * 将死信条目重新排队
+     */
+    public CaseStartOutbox retry(UUID id) {
+        CaseStartOutbox entry = outboxRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Case start entry not found: " + id));
+        if (entry.getStatus() != CaseStartOutbox.Status.DEAD) {
+            throw new IllegalStateException("Only dead-lettered case starts can be retried, current status: "
+                    + entry.getStatus());
+        }
+        entry.setStatus(CaseStartOutbox.Status.PENDING);
+        entry.setAttempts(0);
+        entry.setNextAttemptAt(LocalDateTime.now());
+        log.info("Requeued dead-lettered case start for claim {}", entry.getClaimNumber());
+        return outboxRepository.save(entry);
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,110 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.CaseStartOutbox;
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.repository.ClaimCaseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Case 流程异步启动工作器
+ * 仅在 app.case-start.async=true 时启用：定时从发件箱抢占到期条目，交给固定大小的线程池，
+ * 每个条目在独立事务中启动 Case 流程并回写 caseInstanceId
+ */
+@Component
+@ConditionalOnProperty(name = "app.case-start.async", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class CaseStartWorker {
+
+    private final CaseStartOutboxService outboxService;
+    private final CaseService caseService;
+    private final ClaimCaseRepository claimCaseRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.case-start.workers:4}")
+    private int workers = 4;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 2), runnable -> {
+                    Thread thread = new Thread(runnable, "case-start-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        log.info("Case start worker started with {} threads", workers);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 按线程池剩余容量抢占到期条目并提交
+     */
+    @Scheduled(fixedDelayString = "${app.case-start.poll-interval-ms:1000}")
+    public void poll() {
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+
+        List<UUID> claimed = outboxService.claimDue(capacity);
+        for (UUID id : claimed) {
+            try {
+                executor.execute(() -> startCase(id));
+            } catch (RejectedExecutionException e) {
+                outboxService.release(id);
+            }
+        }
+    }
+
+    void startCase(UUID outboxId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> startInTransaction(outboxId));
+        } catch (RuntimeException e) {
+            outboxService.fail(outboxId, e);
+        }
+    }
+
+    private void startInTransaction(UUID outboxId) {
+        CaseStartOutbox entry = outboxService.findById(outboxId).orElse(null);
+        if (entry == null) {
+            return;
+        }
+
+        ClaimCase claimCase = claimCaseRepository.findById(entry.getClaimCaseId()).orElse(null);
+        if (claimCase == null) {
+            log.warn("Claim case {} no longer exists, dropping case start entry", entry.getClaimNumber());
+        } else if (claimCase.getCaseInstanceId() == null) {
+            caseService.startClaimCase(claimCase);
+            if (claimCase.getCaseInstanceId() == null) {
+                throw new IllegalStateException("Case process did not start for claim " + claimCase.getClaimNumber());
+            }
+        }
+        outboxService.complete(outboxId);
+    }
+}
@@ -0,0 +1,164 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.ClaimHistory;
+import com.flowable.demo.domain.model.User;
+import com.flowable.demo.domain.repository.ClaimCaseRepository;
+import com.flowable.demo.domain.repository.ClaimHistoryRepository;
+import com.flowable.demo.domain.repository.UserRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * 理赔案件列表与历史时间线的游标（keyset）分页查询服务
+ * 按 (创建时间, ID) 降序，续页时以上一页最后一条记录的排序键作为查询条件，
+ * 不使用 OFFSET，第 N 页与第 1 页的查询成本相同；总数可按需跳过
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class ClaimListingService {
+
+    private static final Sort CASE_ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    /**
+     * 与 CASE_ORDER 一致的内存排序；数据库按无符号字节序比较 UUID，UUID.compareTo 是有符号比较，不能直接使用
+     */
+    private static final Comparator<ClaimCase> CASE_COMPARATOR = Comparator
+            .comparing(ClaimCase::getCreatedAt)
+            .thenComparing(ClaimCase::getId, Comparator
+                    .comparing((UUID id) -> id.getMostSignificantBits(), Long::compareUnsigned)
+                    .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned))
+            .reversed();
+
+    private static final Sort HISTORY_ORDER = Sort.by(Sort.Order.desc("performedAt"), Sort.Order.desc("id"));
+
+    private final ClaimCaseRepository claimCaseRepository;
+    private final ClaimHistoryRepository claimHistoryRepository;
+    private final UserRepository userRepository;
+    private final ClaimStatisticsSnapshot claimStatisticsSnapshot;
+
+    /**
+     * 游标分页查询案件，status 为 null 时查询全部案件
+     * ESTIMATED 模式下总数取自统计快照，不访问数据库
+     *
+     * @param cursorCreatedAt 上一页最后一条案件的创建时间，首页为 null
+     * @param cursorId        上一页最后一条案件的ID，首页为 null
+     */
+    public ListingSlice<ClaimCase> findCases(ClaimCase.ClaimStatus status, LocalDateTime cursorCreatedAt,
+                                             UUID cursorId, int size, TaskInboxService.CountMode countMode) {
+        ScrollPosition position = position("createdAt", cursorCreatedAt, cursorId);
+        Window<ClaimCase> window = status == null
+                ? claimCaseRepository.findAllBy(position, CASE_ORDER, Limit.of(size))
+                : claimCaseRepository.findByStatus(status, position, CASE_ORDER, Limit.of(size));
+
+        LongSupplier exactCount = status == null
+                ? claimCaseRepository::count
+                : () -> claimCaseRepository.countByStatus(status);
+        Long total = null;
+        boolean totalExact = false;
+        if (countMode == TaskInboxService.CountMode.EXACT) {
+            total = exactCount.getAsLong();
+            totalExact = true;
+        } else if (countMode == TaskInboxService.CountMode.ESTIMATED) {
+            total = claimStatisticsSnapshot.isInitialized()
+                    ? claimStatisticsSnapshot.count(status)
+                    : exactCount.getAsLong();
+        }
+
+        log.debug("Claim case slice (status={}): {} cases, hasNext={}, total={}", status, window.size(),
+                window.hasNext(), total);
+        return new ListingSlice<>(window.getContent(), window.hasNext(), total, totalExact);
+    }
+
+    /**
+     * 游标分页查询我的案件（我创建的或分配给我的）
+     * ESTIMATED 模式下只在首页统计总数，续页不再统计
+     */
+    public ListingSlice<ClaimCase> findMyCases(UUID userId, LocalDateTime cursorCreatedAt, UUID cursorId, int size,
+                                               TaskInboxService.CountMode countMode) {
+        ScrollPosition position = position("createdAt", cursorCreatedAt, cursorId);
+        User user = userRepository.getReferenceById(userId);
+        Window<ClaimCase> created = claimCaseRepository.findByCreatedBy(user, position, CASE_ORDER, Limit.of(size));
+        Window<ClaimCase> assigned = claimCaseRepository.findByAssignedTo(user, position, CASE_ORDER, Limit.of(size));
+
+        // 两路各取一页后按同一排序合并去重（自己创建又分配给自己的案件两路都有），取前 size 条
+        Map<UUID, ClaimCase> merged = new LinkedHashMap<>();
+        Stream.concat(created.stream(), assigned.stream())
+                .sorted(CASE_COMPARATOR)
+                .forEach(claimCase -> merged.putIfAbsent(claimCase.getId(), claimCase));
+        List<ClaimCase> content = merged.values().stream().limit(size).toList();
+        boolean hasNext = merged.size() > size || created.hasNext() || assigned.hasNext();
+        return slice(content, hasNext, cursorId == null, countMode,
+                () -> claimCaseRepository.countMyClaimCases(userId));
+    }
+
+    /**
+     * 游标分页查询案件历史时间线，按 (操作时间, ID) 降序
+     * ESTIMATED 模式下只在首页统计总数，续页不再统计
+     */
+    public ListingSlice<ClaimHistory> findHistory(UUID claimId, LocalDateTime cursorPerformedAt, UUID cursorId,
+                                                  int size, TaskInboxService.CountMode countMode) {
+        ScrollPosition position = position("performedAt", cursorPerformedAt, cursorId);
+        Window<ClaimHistory> window = claimHistoryRepository.findByClaim(
+                claimCaseRepository.getReferenceById(claimId), position, HISTORY_ORDER, Limit.of(size));
+        return slice(window, cursorId == null, countMode, () -> claimHistoryRepository.countByClaimId(claimId));
+    }
+
+    private ScrollPosition position(String sortProperty, LocalDateTime cursorSortKey, UUID cursorId) {
+        if (cursorSortKey == null || cursorId == null) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(sortProperty, cursorSortKey);
+        keys.put("id", cursorId);
+        return ScrollPosition.forward(keys);
+    }
+
+    private <T> ListingSlice<T> slice(Window<T> window, boolean firstPage, TaskInboxService.CountMode countMode,
+                                      LongSupplier exactCount) {
+        return slice(window.getContent(), window.hasNext(), firstPage, countMode, exactCount);
+    }
+
+    private <T> ListingSlice<T> slice(List<T> content, boolean hasNext, boolean firstPage,
+                                      TaskInboxService.CountMode countMode, LongSupplier exactCount) {
+        Long total = null;
+        boolean totalExact = false;
+        if (countMode == TaskInboxService.CountMode.EXACT
+                || (countMode == TaskInboxService.CountMode.ESTIMATED && firstPage)) {
+            total = exactCount.getAsLong();
+            totalExact = true;
+        }
+        return new ListingSlice<>(content, hasNext, total, totalExact);
+    }
+
+    /**
+     * 游标分页结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ListingSlice<T> {
+        private final List<T> content;
+        private final boolean hasNext;
+        private final Long total;
+        private final boolean totalExact;
+    }
+}
@@ -0,0 +1,116 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.ClaimCase.ClaimStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.flowable.task.api.Task;
+import org.springframework.stereotype.Component;
+
+/**
+ * 理赔流程指标
+ * 为案件启动、DMN 求值、CMMN 状态监听、BPMN 支付执行和任务完成记录耗时（Timer，带 engine 标签），
+ * 并按状态流转计数。调用方先 {@link #start()} 再在 finally 中调用对应的 record 方法；
+ * Sample 为 null 时（如单元测试中的 mock）不记录
+ */
+@Component
+@RequiredArgsConstructor
+public class ClaimMetrics {
+
+    public static final String ENGINE_CMMN = "CMMN";
+    public static final String ENGINE_BPMN = "BPMN";
+    public static final String ENGINE_DMN = "DMN";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry registry;
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * 启动理赔 CMMN 实例（CaseService.startCaseProcessWithClaimCaseId）
+     */
+    public void recordCaseStart(Timer.Sample sample, String outcome) {
+        stop(sample, Timer.builder("claim.case.start")
+                .description("Time to start the claim CMMN case instance")
+                .tag("engine", ENGINE_CMMN)
+                .tag("outcome", outcome));
+    }
+
+    /**
+     * 决策求值；mode 为 compiled、engine（DMN 引擎）、precomputed（采用预先求值结果）或 decision-task（CMMN 决策任务）
+     */
+    public void recordDecision(Timer.Sample sample, String decisionKey, String mode, String outcome) {
+        stop(sample, Timer.builder("claim.decision.evaluation")
+                .description("Time to evaluate a claim decision")
+                .tag("engine", ENGINE_DMN)
+                .tag("decision", decisionKey != null ? decisionKey : "unknown")
+                .tag("mode", mode)
+                .tag("outcome", outcome));
+    }
+
+    /**
+     * CMMN 计划项监听器更新案件状态（ClaimStateListener.stateChanged）
+     */
+    public void recordStateUpdate(Timer.Sample sample, String status, String outcome) {
+        stop(sample, Timer.builder("claim.state.update")
+                .description("Time spent in ClaimStateListener updating the claim status")
+                .tag("engine", ENGINE_CMMN)
+                .tag("status", status != null ? status : "none")
+                .tag("outcome", outcome));
+    }
+
+    /**
+     * BPMN 支付服务任务（PaymentService.execute）
+     */
+    public void recordPayment(Timer.Sample sample, String outcome) {
+        stop(sample, Timer.builder("claim.payment.execute")
+                .description("Time spent in the payment service task")
+                .tag("engine", ENGINE_BPMN)
+                .tag("outcome", outcome));
+    }
+
+    /**
+     * 完成任务（含同步推进的后续计划项/活动），按任务定义Key和所属引擎区分
+     */
+    public void recordTaskCompletion(Timer.Sample sample, Task task, String outcome) {
+        recordTaskCompletion(sample, engineOf(task), task != null ? task.getTaskDefinitionKey() : null, outcome);
+    }
+
+    /**
+     * 只有任务ID、未加载任务对象时（如审核队列工作器），由调用方给出引擎和任务定义Key
+     */
+    public void recordTaskCompletion(Timer.Sample sample, String engine, String taskDefinitionKey, String outcome) {
+        stop(sample, Timer.builder("claim.task.completion")
+                .description("Time to complete a task, including the synchronous continuation")
+                .tag("engine", engine)
+                .tag("task", taskDefinitionKey != null ? taskDefinitionKey : "unknown")
+                .tag("outcome", outcome));
+    }
+
+    /**
+     * 已提交的状态流转；新建案件的 from 为 none
+     */
+    public void countTransition(ClaimStatus from, ClaimStatus to) {
+        Counter.builder("claim.status.transitions")
+                .description("Committed claim status transitions")
+                .tag("from", from != null ? from.name() : "none")
+                .tag("to", to != null ? to.name() : "none")
+                .register(registry)
+                .increment();
+    }
+
+    public static String engineOf(Task task) {
+        return task != null && task.getProcessInstanceId() != null ? ENGINE_BPMN : ENGINE_CMMN;
+    }
+
+    private void stop(Timer.Sample sample, Timer.Builder timer) {
+        if (sample != null) {
+            sample.stop(timer.register(registry));
+        }
+    }
+}
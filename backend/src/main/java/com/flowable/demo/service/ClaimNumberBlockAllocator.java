@@ -0,0 +1,77 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.ClaimNumberSequence;
+import com.flowable.demo.domain.repository.ClaimCaseRepository;
+import com.flowable.demo.domain.repository.ClaimNumberSequenceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 理赔编号号段分配器
+ * 在独立事务中推进当日序列行，预留一段连续序号；
+ * 独立事务保证号段一经分配即提交，不受调用方事务回滚影响，也不会长时间持有行锁；
+ * 当天序列行的初始化冲突以 DataIntegrityViolationException 抛出，由调用方重试
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClaimNumberBlockAllocator {
+
+    static final String PREFIX = "CLM";
+
+    private final ClaimNumberSequenceRepository sequenceRepository;
+    private final ClaimCaseRepository claimCaseRepository;
+
+    /**
+     * 为指定日期预留 blockSize 个序号
+     *
+     * @return 号段的第一个序号（含），号段为 [start, start + blockSize)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reserve(LocalDate date, int blockSize) {
+        if (sequenceRepository.advance(date, blockSize) > 0) {
+            long next = sequenceRepository.findById(date)
+                    .map(ClaimNumberSequence::getNextValue)
+                    .orElseThrow(() -> new IllegalStateException("Claim number sequence row disappeared for " + date));
+            return next - blockSize;
+        }
+
+        // 当天第一次分配：从已存在的编号之后开始，兼容升级前按计数生成的编号。
+        // 必须是真正的 INSERT：其他节点已提交当天的行时要因主键冲突失败，
+        // 由调用方在新事务中重试并走推进分支，而不是把那一行覆盖成同一个号段
+        long start = lastUsedSequence(date) + 1;
+        sequenceRepository.insert(date, start + blockSize);
+        log.info("Initialized claim number sequence for {} at {}", date, start);
+        return start;
+    }
+
+    static String format(LocalDate date, long sequence) {
+        return prefix(date) + String.format("%04d", sequence);
+    }
+
+    private static String prefix(LocalDate date) {
+        return PREFIX + date.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    private long lastUsedSequence(LocalDate date) {
+        String prefix = prefix(date);
+        List<String> latest = claimCaseRepository.findClaimNumbersByPrefix(prefix, PageRequest.of(0, 1));
+        if (latest.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(latest.get(0).substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            log.warn("Unexpected claim number format {}, starting sequence at 1", latest.get(0));
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.flowable.demo.service;
+
+/**
+ * 理赔编号生成器
+ * 编号格式为 CLM + yyyyMMdd + 至少4位的当日序号
+ */
+public interface ClaimNumberGenerator {
+
+    /**
+     * 生成下一个理赔编号，保证跨线程、跨节点唯一
+     */
+    String nextClaimNumber();
+}
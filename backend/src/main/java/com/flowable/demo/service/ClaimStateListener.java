@@ -3,6 +3,7 @@ package com.flowable.demo.service;
 import com.flowable.demo.domain.model.ClaimCase.ClaimStatus;
 import com.flowable.demo.domain.model.ClaimCase.PaymentStatus;
 import com.flowable.demo.domain.repository.ClaimCaseRepository;
+import io.micrometer.core.instrument.Timer;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.cmmn.api.CmmnRuntimeService;
@@ -22,15 +23,18 @@ public class ClaimStateListener implements org.flowable.cmmn.api.listener.PlanIt
 
     private final ClaimCaseRepository claimCaseRepository;
     private final CmmnRuntimeService cmmnRuntimeService;
+    private final ClaimMetrics claimMetrics;
 
     // 通过field注入设置的claim状态
     @Setter
     private Expression status;
 
-    // 构造函数注入ClaimCaseRepository和CmmnRuntimeService
-    public ClaimStateListener(ClaimCaseRepository claimCaseRepository, CmmnRuntimeService cmmnRuntimeService) {
+    // 构造函数注入ClaimCaseRepository、CmmnRuntimeService和ClaimMetrics
+    public ClaimStateListener(ClaimCaseRepository claimCaseRepository, CmmnRuntimeService cmmnRuntimeService,
+            ClaimMetrics claimMetrics) {
         this.claimCaseRepository = claimCaseRepository;
         this.cmmnRuntimeService = cmmnRuntimeService;
+        this.claimMetrics = claimMetrics;
     }
 
     @Override
@@ -58,11 +62,16 @@ public class ClaimStateListener implements org.flowable.cmmn.api.listener.PlanIt
             return;
         }
 
+        Timer.Sample sample = claimMetrics.start();
+        String outcome = ClaimMetrics.OUTCOME_ERROR;
         try {
             ClaimStatus newStatus = ClaimStatus.valueOf(statusValue);
             updateClaimStatus(planItemInstance, newStatus);
+            outcome = ClaimMetrics.OUTCOME_SUCCESS;
         } catch (IllegalArgumentException e) {
             log.error("Invalid status value: {} for case instance: {}", status, caseInstanceId, e);
+        } finally {
+            claimMetrics.recordStateUpdate(sample, statusValue, outcome);
         }
     }
 
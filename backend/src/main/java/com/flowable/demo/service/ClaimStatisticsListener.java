@@ -0,0 +1,72 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.ClaimCase;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+
+/**
+ * 理赔案件统计实体监听器
+ * 捕获所有写入路径（ClaimCase.updateStatus、ClaimStateListener、支付监听器等）的状态和金额变化，
+ * 在事务提交后把增量应用到 ClaimStatisticsSnapshot 并计入状态流转指标，回滚的变更不会计入
+ */
+@Component
+@RequiredArgsConstructor
+public class ClaimStatisticsListener {
+
+    private final ClaimStatisticsSnapshot snapshot;
+    // 只加载 JPA 的切片测试中没有指标 Bean
+    private final ObjectProvider<ClaimMetrics> claimMetrics;
+
+    @PostLoad
+    public void onLoad(ClaimCase claimCase) {
+        claimCase.setStatisticsState(ClaimCase.StatisticsState.of(claimCase));
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onWrite(ClaimCase claimCase) {
+        ClaimCase.StatisticsState before = claimCase.getStatisticsState();
+        ClaimCase.StatisticsState after = ClaimCase.StatisticsState.of(claimCase);
+        claimCase.setStatisticsState(after);
+        publish(before, after);
+    }
+
+    @PostRemove
+    public void onRemove(ClaimCase claimCase) {
+        publish(claimCase.getStatisticsState(), null);
+        claimCase.setStatisticsState(null);
+    }
+
+    private void publish(ClaimCase.StatisticsState before, ClaimCase.StatisticsState after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(before, after);
+                }
+            });
+        } else {
+            apply(before, after);
+        }
+    }
+
+    private void apply(ClaimCase.StatisticsState before, ClaimCase.StatisticsState after) {
+        snapshot.apply(before, after);
+        ClaimCase.ClaimStatus from = before != null ? before.status() : null;
+        if (after != null && after.status() != from) {
+            claimMetrics.ifAvailable(metrics -> metrics.countTransition(from, after.status()));
+        }
+    }
+}
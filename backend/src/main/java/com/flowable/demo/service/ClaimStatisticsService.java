@@ -0,0 +1,59 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.ClaimCase.ClaimStatus;
+import com.flowable.demo.domain.repository.ClaimCaseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 理赔统计服务
+ * 读取内存快照；快照首次使用时以及每隔 app.statistics.reconcile-interval-ms 用一次分组聚合查询校准
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClaimStatisticsService {
+
+    private final ClaimCaseRepository claimCaseRepository;
+    private final ClaimStatisticsSnapshot snapshot;
+
+    /**
+     * 获取理赔统计数据
+     */
+    public Map<String, Object> getStatistics() {
+        if (!snapshot.isInitialized()) {
+            reconcile();
+        }
+        return snapshot.toStatistics();
+    }
+
+    /**
+     * 用一次分组聚合查询重建快照，修正增量更新可能产生的偏差（如绕过实体的批量更新）
+     */
+    @Scheduled(initialDelayString = "${app.statistics.reconcile-interval-ms:300000}",
+            fixedDelayString = "${app.statistics.reconcile-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public synchronized void reconcile() {
+        Map<ClaimStatus, ClaimStatisticsSnapshot.StatusTotals> totals = new EnumMap<>(ClaimStatus.class);
+        for (Object[] row : claimCaseRepository.aggregateByStatus()) {
+            totals.put((ClaimStatus) row[0], new ClaimStatisticsSnapshot.StatusTotals(
+                    toLong(row[1]),
+                    row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO,
+                    toLong(row[3]),
+                    toLong(row[4])));
+        }
+        snapshot.replace(totals);
+        log.debug("Reconciled claim statistics snapshot for {} statuses", totals.size());
+    }
+
+    private long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
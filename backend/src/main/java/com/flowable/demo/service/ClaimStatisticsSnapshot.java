@@ -0,0 +1,126 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.ClaimCase.ClaimStatus;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 理赔统计内存快照
+ * 按状态保存案件数、索赔金额和处理时长的累计值；案件写入提交后按增量更新，
+ * 并由 ClaimStatisticsService 定期用聚合查询整体校准，读取与案件总数无关
+ */
+@Component
+public class ClaimStatisticsSnapshot {
+
+    /** 计入平均处理时间的终态 */
+    static final Set<ClaimStatus> FINISHED_STATUSES = EnumSet.of(ClaimStatus.PAID, ClaimStatus.REJECTED,
+            ClaimStatus.CLOSED);
+
+    private volatile ConcurrentHashMap<ClaimStatus, StatusTotals> totals = new ConcurrentHashMap<>();
+
+    private volatile boolean initialized;
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * 应用一次案件变更：扣除变更前的贡献，加上变更后的贡献（新增时 before 为 null，删除时 after 为 null）
+     */
+    public void apply(ClaimCase.StatisticsState before, ClaimCase.StatisticsState after) {
+        ConcurrentHashMap<ClaimStatus, StatusTotals> current = totals;
+        if (before != null && before.status() != null) {
+            current.merge(before.status(), StatusTotals.of(before).negate(), StatusTotals::add);
+        }
+        if (after != null && after.status() != null) {
+            current.merge(after.status(), StatusTotals.of(after), StatusTotals::add);
+        }
+    }
+
+    /**
+     * 用聚合查询结果整体替换快照
+     */
+    public void replace(Map<ClaimStatus, StatusTotals> fresh) {
+        totals = new ConcurrentHashMap<>(fresh);
+        initialized = true;
+    }
+
+    /**
+     * 生成统计结果（与原统计接口的字段保持一致）
+     */
+    public Map<String, Object> toStatistics() {
+        Map<ClaimStatus, StatusTotals> current = totals;
+        long totalClaims = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        long finishedTimed = 0;
+        long finishedSeconds = 0;
+        for (Map.Entry<ClaimStatus, StatusTotals> entry : current.entrySet()) {
+            StatusTotals value = entry.getValue();
+            totalClaims += value.count();
+            totalAmount = totalAmount.add(value.claimedAmount());
+            if (FINISHED_STATUSES.contains(entry.getKey())) {
+                finishedTimed += value.timedCount();
+                finishedSeconds += value.processingSeconds();
+            }
+        }
+
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("totalClaims", totalClaims);
+        // 待处理理赔（包括SUBMITTED和UNDER_REVIEW状态）
+        statistics.put("pendingClaims", count(current, ClaimStatus.SUBMITTED) + count(current, ClaimStatus.UNDER_REVIEW));
+        statistics.put("approvedClaims", count(current, ClaimStatus.APPROVED));
+        statistics.put("rejectedClaims", count(current, ClaimStatus.REJECTED));
+        statistics.put("totalAmount", totalAmount.doubleValue());
+        // 平均处理时间（小时）
+        statistics.put("averageProcessingTime", finishedTimed > 0 ? finishedSeconds / 3600.0 / finishedTimed : 0.0);
+        return statistics;
+    }
+
+    /**
+     * 指定状态的案件数，status 为 null 时返回全部状态的案件总数
+     */
+    public long count(ClaimStatus status) {
+        Map<ClaimStatus, StatusTotals> current = totals;
+        if (status != null) {
+            return count(current, status);
+        }
+        return current.values().stream().mapToLong(StatusTotals::count).sum();
+    }
+
+    private long count(Map<ClaimStatus, StatusTotals> current, ClaimStatus status) {
+        StatusTotals value = current.get(status);
+        return value != null ? value.count() : 0;
+    }
+
+    /**
+     * 单个状态的累计值
+     *
+     * @param timedCount        有处理时长（updatedAt 非空）的案件数
+     * @param processingSeconds 处理时长合计（秒）
+     */
+    public record StatusTotals(long count, BigDecimal claimedAmount, long timedCount, long processingSeconds) {
+
+        static StatusTotals of(ClaimCase.StatisticsState state) {
+            return new StatusTotals(1,
+                    state.claimedAmount() != null ? state.claimedAmount() : BigDecimal.ZERO,
+                    state.processingSeconds() != null ? 1 : 0,
+                    state.processingSeconds() != null ? state.processingSeconds() : 0);
+        }
+
+        StatusTotals add(StatusTotals other) {
+            return new StatusTotals(count + other.count, claimedAmount.add(other.claimedAmount),
+                    timedCount + other.timedCount, processingSeconds + other.processingSeconds);
+        }
+
+        StatusTotals negate() {
+            return new StatusTotals(-count, claimedAmount.negate(), -timedCount, -processingSeconds);
+        }
+    }
+}
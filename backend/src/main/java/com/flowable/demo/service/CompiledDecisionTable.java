@@ -0,0 +1,550 @@
+package com.flowable.demo.service;
+
+import lombok.Getter;
+import org.flowable.dmn.engine.impl.el.ExecutionVariableFactory;
+import org.flowable.dmn.model.DecisionRule;
+import org.flowable.dmn.model.DecisionTable;
+import org.flowable.dmn.model.HitPolicy;
+import org.flowable.dmn.model.InputClause;
+import org.flowable.dmn.model.OutputClause;
+import org.flowable.dmn.model.RuleInputClauseContainer;
+import org.flowable.dmn.model.RuleOutputClauseContainer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 预编译的 DMN 决策表
+ * 把 FIRST 命中策略的决策表编译为不可变的条件数组：变量按名称解析为槽位，
+ * 每条规则只保留非空的输入条件，输出在编译时按 typeRef 转换好，求值时不再解析表达式。
+ * 输入条目按 Flowable 的预处理规则理解（"车险" 即 input == "车险"，&lt;= 10000 即 input &lt;= 10000，
+ * ${...} 原样作为 JUEL 表达式），比较语义与 JUEL 一致；
+ * 只支持变量、字面量、比较和 &amp;&amp; / || / ! 组合，其他表达式在编译时抛出 IllegalArgumentException，
+ * 由调用方回退到 Flowable DMN 引擎
+ */
+public final class CompiledDecisionTable {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private static final String[] OPERATORS = { "==", "!=", "<=", ">=", "<", ">" };
+
+    /**
+     * 条件引用的变量名，下标即槽位
+     */
+    @Getter
+    private final List<String> variables;
+
+    private final Condition[][] rules;
+
+    private final Map<String, Object>[] outputs;
+
+    private CompiledDecisionTable(List<String> variables, Condition[][] rules, Map<String, Object>[] outputs) {
+        this.variables = variables;
+        this.rules = rules;
+        this.outputs = outputs;
+    }
+
+    /**
+     * 编译决策表
+     *
+     * @throws IllegalArgumentException 命中策略或表达式不受支持
+     */
+    @SuppressWarnings("unchecked")
+    public static CompiledDecisionTable compile(DecisionTable table) {
+        if (table.getHitPolicy() != HitPolicy.FIRST) {
+            throw new IllegalArgumentException("Unsupported hit policy: " + table.getHitPolicy());
+        }
+        Slots slots = new Slots();
+        List<Condition[]> rules = new ArrayList<>();
+        List<Map<String, Object>> outputs = new ArrayList<>();
+
+        for (DecisionRule rule : table.getRules()) {
+            List<Condition> conditions = new ArrayList<>();
+            for (RuleInputClauseContainer entry : rule.getInputEntries()) {
+                Condition condition = compileInputEntry(entry.getInputClause(),
+                        entry.getInputEntry() != null ? entry.getInputEntry().getText() : null, slots);
+                if (condition != null) {
+                    conditions.add(condition);
+                }
+            }
+            rules.add(conditions.toArray(Condition[]::new));
+
+            Map<String, Object> output = new LinkedHashMap<>();
+            for (RuleOutputClauseContainer entry : rule.getOutputEntries()) {
+                OutputClause clause = entry.getOutputClause();
+                Object value = literal(entry.getOutputEntry() != null ? entry.getOutputEntry().getText() : null);
+                output.put(clause.getName(), clause.getTypeRef() != null
+                        ? ExecutionVariableFactory.getExecutionVariable(clause.getTypeRef(), value)
+                        : value);
+            }
+            outputs.add(Collections.unmodifiableMap(output));
+        }
+        return new CompiledDecisionTable(List.copyOf(slots.names), rules.toArray(Condition[][]::new),
+                outputs.toArray(Map[]::new));
+    }
+
+    /**
+     * 按 FIRST 命中策略求值，返回第一条命中规则的输出（不可修改）；没有规则命中时返回空 Map
+     */
+    public Map<String, Object> evaluate(Map<String, ?> variables) {
+        Object[] values = new Object[this.variables.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = variables.get(this.variables.get(i));
+        }
+        for (int r = 0; r < rules.length; r++) {
+            if (matches(rules[r], values)) {
+                return outputs[r];
+            }
+        }
+        return Collections.emptyMap();
+    }
+
+    private static boolean matches(Condition[] conditions, Object[] values) {
+        for (Condition condition : conditions) {
+            if (!condition.test(values)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Condition compileInputEntry(InputClause clause, String text, Slots slots) {
+        if (text == null || text.isBlank() || text.trim().equals("-")) {
+            return null;
+        }
+        String expression = text.trim();
+        if (expression.contains("#{") || (expression.contains("${") && expression.contains("}"))) {
+            if (!(expression.startsWith("${") || expression.startsWith("#{")) || !expression.endsWith("}")) {
+                throw new IllegalArgumentException("Unsupported input entry: " + text);
+            }
+            return new Parser(expression.substring(2, expression.length() - 1), slots).parseExpression();
+        }
+
+        String inputExpression = clause.getInputExpression() != null ? clause.getInputExpression().getText() : null;
+        if (inputExpression == null || !IDENTIFIER.matcher(inputExpression.trim()).matches()) {
+            throw new IllegalArgumentException("Unsupported input expression: " + inputExpression);
+        }
+        // 与 Flowable 预处理一致：以比较运算符开头时直接拼接，否则视为相等比较
+        String operator = "==";
+        String operand = expression;
+        if (expression.length() >= 2) {
+            for (String candidate : OPERATORS) {
+                if (expression.startsWith(candidate)) {
+                    operator = candidate;
+                    operand = expression.substring(candidate.length());
+                    break;
+                }
+            }
+        }
+        return new Parser(inputExpression.trim() + " " + operator + " " + operand.trim(), slots).parseExpression();
+    }
+
+    /**
+     * 解析字面量：字符串、布尔、null 和数字
+     */
+    private static Object literal(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Empty output entry is not supported");
+        }
+        Parser parser = new Parser(text.trim(), new Slots());
+        Operand operand = parser.parseOperand();
+        if (!(operand instanceof Constant constant) || !parser.atEnd()) {
+            throw new IllegalArgumentException("Unsupported output entry: " + text);
+        }
+        return constant.value;
+    }
+
+    /**
+     * 编译后的条件
+     */
+    private interface Condition {
+        boolean test(Object[] values);
+    }
+
+    private interface Operand {
+        Object value(Object[] values);
+    }
+
+    private record Variable(int slot) implements Operand {
+        @Override
+        public Object value(Object[] values) {
+            return values[slot];
+        }
+    }
+
+    private record Constant(Object value) implements Operand {
+        @Override
+        public Object value(Object[] values) {
+            return value;
+        }
+    }
+
+    private record Comparison(Operand left, String operator, Operand right) implements Condition {
+        @Override
+        public boolean test(Object[] values) {
+            Object a = left.value(values);
+            Object b = right.value(values);
+            return switch (operator) {
+                case "==" -> JuelOperations.eq(a, b);
+                case "!=" -> !JuelOperations.eq(a, b);
+                default -> JuelOperations.compare(operator, a, b);
+            };
+        }
+    }
+
+    private record Truth(Operand operand) implements Condition {
+        @Override
+        public boolean test(Object[] values) {
+            return JuelOperations.toBoolean(operand.value(values));
+        }
+    }
+
+    private record And(Condition left, Condition right) implements Condition {
+        @Override
+        public boolean test(Object[] values) {
+            return left.test(values) && right.test(values);
+        }
+    }
+
+    private record Or(Condition left, Condition right) implements Condition {
+        @Override
+        public boolean test(Object[] values) {
+            return left.test(values) || right.test(values);
+        }
+    }
+
+    private record Not(Condition condition) implements Condition {
+        @Override
+        public boolean test(Object[] values) {
+            return !condition.test(values);
+        }
+    }
+
+    private static class Slots {
+        private final List<String> names = new ArrayList<>();
+
+        int slot(String name) {
+            int index = names.indexOf(name);
+            if (index < 0) {
+                names.add(name);
+                index = names.size() - 1;
+            }
+            return index;
+        }
+    }
+
+    /**
+     * JUEL 表达式子集的递归下降解析器：
+     * or := and (('||' | 'or') and)*；and := unary (('&amp;&amp;' | 'and') unary)*；
+     * unary := ('!' | 'not') unary | '(' or ')' | operand (op operand)?
+     */
+    private static class Parser {
+
+        private final String text;
+        private final Slots slots;
+        private int pos;
+
+        Parser(String text, Slots slots) {
+            this.text = text;
+            this.slots = slots;
+        }
+
+        Condition parseExpression() {
+            Condition condition = parseOr();
+            if (!atEnd()) {
+                throw unsupported();
+            }
+            return condition;
+        }
+
+        boolean atEnd() {
+            skipWhitespace();
+            return pos >= text.length();
+        }
+
+        private Condition parseOr() {
+            Condition condition = parseAnd();
+            while (accept("||") || acceptKeyword("or")) {
+                condition = new Or(condition, parseAnd());
+            }
+            return condition;
+        }
+
+        private Condition parseAnd() {
+            Condition condition = parseUnary();
+            while (accept("&&") || acceptKeyword("and")) {
+                condition = new And(condition, parseUnary());
+            }
+            return condition;
+        }
+
+        private Condition parseUnary() {
+            if (acceptKeyword("not") || (peek('!') && !peek("!=") && accept("!"))) {
+                return new Not(parseUnary());
+            }
+            if (accept("(")) {
+                Condition condition = parseOr();
+                if (!accept(")")) {
+                    throw unsupported();
+                }
+                return condition;
+            }
+            Operand left = parseOperand();
+            String operator = parseOperator();
+            if (operator == null) {
+                return new Truth(left);
+            }
+            return new Comparison(left, operator, parseOperand());
+        }
+
+        private String parseOperator() {
+            for (String operator : OPERATORS) {
+                if (accept(operator)) {
+                    return operator;
+                }
+            }
+            String[][] keywords = { { "eq", "==" }, { "ne", "!=" }, { "le", "<=" }, { "ge", ">=" },
+                    { "lt", "<" }, { "gt", ">" } };
+            for (String[] keyword : keywords) {
+                if (acceptKeyword(keyword[0])) {
+                    return keyword[1];
+                }
+            }
+            return null;
+        }
+
+        Operand parseOperand() {
+            skipWhitespace();
+            if (pos >= text.length()) {
+                throw unsupported();
+            }
+            char c = text.charAt(pos);
+            if (c == '"' || c == '\'') {
+                return new Constant(parseString(c));
+            }
+            if (Character.isDigit(c) || (c == '-' && pos + 1 < text.length() && Character.isDigit(text.charAt(pos + 1)))) {
+                return new Constant(parseNumber());
+            }
+            if (Character.isLetter(c) || c == '_') {
+                int start = pos;
+                while (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) {
+                    pos++;
+                }
+                String identifier = text.substring(start, pos);
+                skipWhitespace();
+                if (pos < text.length() && (text.charAt(pos) == '.' || text.charAt(pos) == '(' || text.charAt(pos) == '[')) {
+                    // 属性访问和函数调用不在支持范围内
+                    throw unsupported();
+                }
+                return switch (identifier) {
+                    case "true" -> new Constant(Boolean.TRUE);
+                    case "false" -> new Constant(Boolean.FALSE);
+                    case "null" -> new Constant(null);
+                    default -> new Variable(slots.slot(identifier));
+                };
+            }
+            throw unsupported();
+        }
+
+        private String parseString(char quote) {
+            StringBuilder value = new StringBuilder();
+            pos++;
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '\\' && pos < text.length()) {
+                    value.append(text.charAt(pos++));
+                } else if (c == quote) {
+                    return value.toString();
+                } else {
+                    value.append(c);
+                }
+            }
+            throw unsupported();
+        }
+
+        private Object parseNumber() {
+            int start = pos;
+            if (text.charAt(pos) == '-') {
+                pos++;
+            }
+            while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+                pos++;
+            }
+            String number = text.substring(start, pos);
+            // 与 JUEL 一致：整数字面量为 Long，带小数点的为 Double
+            return number.contains(".") ? Double.valueOf(number) : Long.valueOf(number);
+        }
+
+        private boolean peek(char c) {
+            skipWhitespace();
+            return pos < text.length() && text.charAt(pos) == c;
+        }
+
+        private boolean peek(String token) {
+            skipWhitespace();
+            return text.startsWith(token, pos);
+        }
+
+        private boolean accept(String token) {
+            if (peek(token)) {
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            skipWhitespace();
+            int end = pos + keyword.length();
+            if (text.startsWith(keyword, pos)
+                    && (end >= text.length() || !Character.isLetterOrDigit(text.charAt(end)))) {
+                pos = end;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException unsupported() {
+            return new IllegalArgumentException("Unsupported expression: " + text);
+        }
+    }
+
+    /**
+     * JUEL（EL 规范）的相等与关系运算语义
+     */
+    static final class JuelOperations {
+
+        private JuelOperations() {
+        }
+
+        static boolean eq(Object a, Object b) {
+            if (a == b) {
+                return true;
+            }
+            if (a == null || b == null) {
+                return false;
+            }
+            if (a instanceof BigDecimal || b instanceof BigDecimal) {
+                return toBigDecimal(a).equals(toBigDecimal(b));
+            }
+            if (isFloating(a) || isFloating(b)) {
+                return toDouble(a) == toDouble(b);
+            }
+            if (a instanceof BigInteger || b instanceof BigInteger) {
+                return toBigInteger(a).equals(toBigInteger(b));
+            }
+            if (isIntegral(a) || isIntegral(b)) {
+                return toLong(a) == toLong(b);
+            }
+            if (a instanceof Boolean || b instanceof Boolean) {
+                return toBoolean(a) == toBoolean(b);
+            }
+            if (a instanceof String || b instanceof String) {
+                return a.toString().equals(b.toString());
+            }
+            return a.equals(b);
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        static boolean compare(String operator, Object a, Object b) {
+            if (a == b) {
+                return operator.equals("<=") || operator.equals(">=");
+            }
+            if (a == null || b == null) {
+                return false;
+            }
+            int result;
+            if (a instanceof BigDecimal || b instanceof BigDecimal) {
+                result = toBigDecimal(a).compareTo(toBigDecimal(b));
+            } else if (isFloating(a) || isFloating(b)) {
+                result = Double.compare(toDouble(a), toDouble(b));
+            } else if (a instanceof BigInteger || b instanceof BigInteger) {
+                result = toBigInteger(a).compareTo(toBigInteger(b));
+            } else if (isIntegral(a) || isIntegral(b)) {
+                result = Long.compare(toLong(a), toLong(b));
+            } else if (a instanceof String || b instanceof String) {
+                result = a.toString().compareTo(b.toString());
+            } else if (a instanceof Comparable comparable) {
+                result = comparable.compareTo(b);
+            } else {
+                throw new IllegalArgumentException("Cannot compare " + a.getClass() + " with " + b.getClass());
+            }
+            return switch (operator) {
+                case "<" -> result < 0;
+                case "<=" -> result <= 0;
+                case ">" -> result > 0;
+                default -> result >= 0;
+            };
+        }
+
+        static boolean toBoolean(Object value) {
+            if (value == null || "".equals(value)) {
+                return false;
+            }
+            if (value instanceof Boolean bool) {
+                return bool;
+            }
+            if (value instanceof String string) {
+                return Boolean.parseBoolean(string);
+            }
+            throw new IllegalArgumentException("Cannot coerce " + value.getClass() + " to Boolean");
+        }
+
+        private static boolean isFloating(Object value) {
+            return value instanceof Double || value instanceof Float;
+        }
+
+        private static boolean isIntegral(Object value) {
+            return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+        }
+
+        private static BigDecimal toBigDecimal(Object value) {
+            if (value instanceof BigDecimal decimal) {
+                return decimal;
+            }
+            if (value instanceof BigInteger integer) {
+                return new BigDecimal(integer);
+            }
+            if (value instanceof Number number) {
+                return isIntegral(number) ? BigDecimal.valueOf(number.longValue()) : new BigDecimal(number.doubleValue());
+            }
+            return value.toString().isEmpty() ? BigDecimal.ZERO : new BigDecimal(value.toString());
+        }
+
+        private static double toDouble(Object value) {
+            if (value instanceof Number number) {
+                return number.doubleValue();
+            }
+            return value.toString().isEmpty() ? 0 : Double.parseDouble(value.toString());
+        }
+
+        private static BigInteger toBigInteger(Object value) {
+            if (value instanceof BigInteger integer) {
+                return integer;
+            }
+            if (value instanceof Number number) {
+                return BigInteger.valueOf(number.longValue());
+            }
+            return value.toString().isEmpty() ? BigInteger.ZERO : new BigInteger(value.toString());
+        }
+
+        private static long toLong(Object value) {
+            if (value instanceof Number number) {
+                return number.longValue();
+            }
+            return value.toString().isEmpty() ? 0 : Long.parseLong(value.toString());
+        }
+    }
+}
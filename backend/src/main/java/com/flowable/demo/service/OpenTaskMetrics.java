@@ -0,0 +1,95 @@
+package com.flowable.demo.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 待办任务数指标
+ * 定时用一次分组聚合查询统计 ACT_RU_TASK 中按候选组和所属引擎（CMMN/BPMN）分组的待办任务数，
+ * 发布为 claim.tasks.open 仪表；没有候选组的任务计入 group=none，有多个候选组的任务在每个组中各计一次。
+ * 抓取指标时只读取缓存的计数，不访问数据库
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OpenTaskMetrics {
+
+    static final String NO_GROUP = "none";
+
+    // CMMN 与 BPMN 任务共用 ACT_RU_TASK，BPMN 任务带流程实例ID
+    static final String OPEN_TASKS_SQL = "SELECT COALESCE(L.GROUP_ID_, '" + NO_GROUP + "') AS GROUP_ID, "
+            + "CASE WHEN T.PROC_INST_ID_ IS NOT NULL THEN '" + ClaimMetrics.ENGINE_BPMN + "' ELSE '"
+            + ClaimMetrics.ENGINE_CMMN + "' END AS ENGINE, COUNT(*) AS OPEN_TASKS "
+            + "FROM ACT_RU_TASK T "
+            + "LEFT JOIN ACT_RU_IDENTITYLINK L ON L.TASK_ID_ = T.ID_ AND L.TYPE_ = 'candidate' "
+            + "AND L.GROUP_ID_ IS NOT NULL "
+            + "GROUP BY COALESCE(L.GROUP_ID_, '" + NO_GROUP + "'), "
+            + "CASE WHEN T.PROC_INST_ID_ IS NOT NULL THEN '" + ClaimMetrics.ENGINE_BPMN + "' ELSE '"
+            + ClaimMetrics.ENGINE_CMMN + "' END";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry registry;
+
+    /**
+     * (group, engine) -> 最近一次统计的待办数；已注册的组在没有待办时归零而不是移除
+     */
+    private final ConcurrentMap<GroupEngine, AtomicLong> openTasks = new ConcurrentHashMap<>();
+
+    @Scheduled(initialDelayString = "${app.metrics.open-tasks-refresh-ms:15000}",
+            fixedDelayString = "${app.metrics.open-tasks-refresh-ms:15000}")
+    public void refresh() {
+        List<OpenTaskCount> counts;
+        try {
+            counts = jdbcTemplate.query(OPEN_TASKS_SQL, (rs, rowNum) -> new OpenTaskCount(
+                    new GroupEngine(rs.getString("GROUP_ID"), rs.getString("ENGINE")), rs.getLong("OPEN_TASKS")));
+        } catch (DataAccessException e) {
+            log.warn("Failed to refresh open task metrics: {}", e.getMessage());
+            return;
+        }
+
+        Map<GroupEngine, Long> latest = new HashMap<>();
+        for (OpenTaskCount count : counts) {
+            latest.put(count.key(), count.openTasks());
+        }
+        openTasks.forEach((key, value) -> value.set(latest.getOrDefault(key, 0L)));
+        latest.forEach((key, value) -> openTasks.computeIfAbsent(key, this::register).set(value));
+        log.debug("Refreshed open task metrics for {} group/engine pairs", latest.size());
+    }
+
+    /**
+     * 最近一次统计的待办数，尚未统计到的组返回 0
+     */
+    public long getOpenTasks(String group, String engine) {
+        AtomicLong value = openTasks.get(new GroupEngine(group, engine));
+        return value != null ? value.get() : 0L;
+    }
+
+    private AtomicLong register(GroupEngine key) {
+        AtomicLong value = new AtomicLong();
+        Gauge.builder("claim.tasks.open", value, AtomicLong::get)
+                .description("Open tasks per candidate group and engine")
+                .tag("group", key.group())
+                .tag("engine", key.engine())
+                .register(registry);
+        return value;
+    }
+
+    private record GroupEngine(String group, String engine) {
+    }
+
+    private record OpenTaskCount(GroupEngine key, long openTasks) {
+    }
+}
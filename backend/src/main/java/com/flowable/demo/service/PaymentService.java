@@ -1,5 +1,7 @@
 package com.flowable.demo.service;
 
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.engine.delegate.DelegateExecution;
 import org.flowable.engine.delegate.JavaDelegate;
@@ -14,11 +16,25 @@ import java.util.UUID;
  * 用于BPMN流程中的支付执行
  */
 @Service("paymentService")
+@RequiredArgsConstructor
 @Slf4j
 public class PaymentService implements JavaDelegate {
 
+    private final ClaimMetrics claimMetrics;
+
     @Override
     public void execute(DelegateExecution execution) {
+        Timer.Sample sample = claimMetrics.start();
+        String outcome = ClaimMetrics.OUTCOME_ERROR;
+        try {
+            doExecute(execution);
+            outcome = ClaimMetrics.OUTCOME_SUCCESS;
+        } finally {
+            claimMetrics.recordPayment(sample, outcome);
+        }
+    }
+
+    private void doExecute(DelegateExecution execution) {
         log.info("Executing payment service for process instance: {}", execution.getProcessInstanceId());
         
         // 获取支付参数（处理可能的BigDecimal类型）
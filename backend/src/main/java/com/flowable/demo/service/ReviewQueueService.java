@@ -0,0 +1,227 @@
+package com.flowable.demo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flowable.demo.domain.model.ReviewQueueEntry;
+import com.flowable.demo.domain.repository.ReviewQueueEntryRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.task.api.Task;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 审核完成队列服务
+ * 审核队列模式（app.review-queue.enabled=true）下，审核任务的完成请求只在当前事务中写入队列，
+ * 由 ReviewQueueWorker 按微批完成；负责写入、抢占、完成和重试条目，重试按指数退避，超过最大次数后进入死信。
+ * 死信条目可由管理端重新排队或删除，再次完成同一任务时也会替换死信条目
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ReviewQueueService {
+
+    /**
+     * 走审核队列的任务定义
+     */
+    public static final String REVIEW_TASK_KEY = "taskReviewClaim";
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private static final TypeReference<Map<String, Object>> VARIABLES_TYPE = new TypeReference<>() {
+    };
+
+    private final ReviewQueueEntryRepository queueRepository;
+    private final ObjectMapper objectMapper;
+
+    @Getter
+    @Value("${app.review-queue.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.review-queue.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${app.review-queue.retry-backoff-ms:2000}")
+    private long retryBackoffMs = 2000;
+
+    @Value("${app.review-queue.lock-timeout-ms:300000}")
+    private long lockTimeoutMs = 300000;
+
+    /**
+     * 是否由审核队列完成该任务
+     */
+    public boolean isQueued(Task task) {
+        return enabled && REVIEW_TASK_KEY.equals(task.getTaskDefinitionKey()) && task.getScopeId() != null;
+    }
+
+    /**
+     * 在当前事务中写入审核任务的完成请求；该任务已有死信条目时，用本次提交的变量替换并重新排队
+     *
+     * @throws IllegalStateException 该任务已在队列中等待或正在处理
+     */
+    public ReviewQueueEntry enqueue(Task task, Map<String, Object> variables) {
+        ReviewQueueEntry entry = queueRepository.findByTaskId(task.getId()).orElse(null);
+        if (entry == null) {
+            entry = ReviewQueueEntry.builder()
+                    .taskId(task.getId())
+                    .build();
+        } else if (entry.getStatus() == ReviewQueueEntry.Status.DEAD) {
+            log.info("Replacing dead-lettered completion of review task {} (last error: {})",
+                    task.getId(), entry.getLastError());
+        } else {
+            throw new IllegalStateException("Review task " + task.getId() + " is already queued for completion");
+        }
+        entry.setCaseInstanceId(task.getScopeId());
+        entry.setVariables(writeVariables(variables));
+        requeue(entry);
+        log.debug("Queued completion of review task {} for case instance {}", task.getId(), task.getScopeId());
+        return queueRepository.save(entry);
+    }
+
+    /**
+     * 抢占最多 limit 个到期条目，返回抢占成功的条目ID（按入队顺序）
+     */
+    public List<UUID> claimDue(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        int released = queueRepository.releaseStale(ReviewQueueEntry.Status.PENDING,
+                ReviewQueueEntry.Status.PROCESSING, now.minusNanos(lockTimeoutMs * 1_000_000));
+        if (released > 0) {
+            log.warn("Released {} stale review queue entries", released);
+        }
+
+        List<UUID> claimed = new ArrayList<>();
+        for (UUID id : queueRepository.findDueIds(ReviewQueueEntry.Status.PENDING, now, PageRequest.of(0, limit))) {
+            if (queueRepository.transition(id, ReviewQueueEntry.Status.PENDING,
+                    ReviewQueueEntry.Status.PROCESSING, now) == 1) {
+                claimed.add(id);
+            }
+        }
+        return claimed;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReviewQueueEntry> findAllById(Collection<UUID> ids) {
+        return queueRepository.findAllById(ids);
+    }
+
+    /**
+     * 任务已完成，删除条目
+     */
+    public void complete(UUID id) {
+        queueRepository.deleteById(id);
+    }
+
+    /**
+     * 记录一次失败：未超过最大次数则按指数退避重新排队，否则进入死信
+     */
+    public void fail(UUID id, Throwable error) {
+        queueRepository.findById(id).ifPresent(entry -> {
+            int attempts = entry.getAttempts() + 1;
+            entry.setAttempts(attempts);
+            entry.setLockedAt(null);
+            entry.setLastError(truncate(NestedExceptionUtils.getMostSpecificCause(error).toString()));
+            if (attempts >= maxAttempts) {
+                entry.setStatus(ReviewQueueEntry.Status.DEAD);
+                log.error("Completion of review task {} failed {} times, moved to dead letter: {}",
+                        entry.getTaskId(), attempts, entry.getLastError());
+            } else {
+                long delayMs = retryBackoffMs << Math.min(attempts - 1, 16);
+                entry.setStatus(ReviewQueueEntry.Status.PENDING);
+                entry.setNextAttemptAt(LocalDateTime.now().plusNanos(delayMs * 1_000_000));
+                log.warn("Completion of review task {} failed (attempt {}), retrying in {} ms: {}",
+                        entry.getTaskId(), attempts, delayMs, entry.getLastError());
+            }
+            queueRepository.save(entry);
+        });
+    }
+
+    /**
+     * 按状态分页查询条目（死信视图使用 DEAD）
+     */
+    @Transactional(readOnly = true)
+    public Page<ReviewQueueEntry> findByStatus(ReviewQueueEntry.Status status, Pageable pageable) {
+        return queueRepository.findByStatus(status, pageable);
+    }
+
+    /**
+     * 将死信条目按原有变量重新排队
+     */
+    public ReviewQueueEntry retry(UUID id) {
+        ReviewQueueEntry entry = findDead(id);
+        requeue(entry);
+        log.info("Requeued dead-lettered completion of review task {}", entry.getTaskId());
+        return queueRepository.save(entry);
+    }
+
+    /**
+     * 删除死信条目，之后可以重新完成该审核任务
+     */
+    public void delete(UUID id) {
+        ReviewQueueEntry entry = findDead(id);
+        queueRepository.delete(entry);
+        log.info("Deleted dead-lettered completion of review task {}", entry.getTaskId());
+    }
+
+    /**
+     * 读取条目中保存的完成变量
+     */
+    public Map<String, Object> readVariables(ReviewQueueEntry entry) {
+        if (entry.getVariables() == null) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(entry.getVariables(), VARIABLES_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable variables in review queue entry " + entry.getId(), e);
+        }
+    }
+
+    private ReviewQueueEntry findDead(UUID id) {
+        ReviewQueueEntry entry = queueRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Review queue entry not found: " + id));
+        if (entry.getStatus() != ReviewQueueEntry.Status.DEAD) {
+            throw new IllegalStateException("Only dead-lettered review queue entries can be changed, current status: "
+                    + entry.getStatus());
+        }
+        return entry;
+    }
+
+    private void requeue(ReviewQueueEntry entry) {
+        entry.setStatus(ReviewQueueEntry.Status.PENDING);
+        entry.setAttempts(0);
+        entry.setNextAttemptAt(LocalDateTime.now());
+        entry.setLockedAt(null);
+        entry.setLastError(null);
+    }
+
+    private String writeVariables(Map<String, Object> variables) {
+        try {
+            return objectMapper.writeValueAsString(variables);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Task variables cannot be serialized: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
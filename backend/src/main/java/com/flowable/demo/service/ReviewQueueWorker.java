@@ -0,0 +1,174 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.config.PrecomputedDecisionTaskActivityBehavior;
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.ReviewQueueEntry;
+import com.flowable.demo.domain.repository.ClaimCaseRepository;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.cmmn.api.CmmnTaskService;
+import org.flowable.common.engine.api.FlowableObjectNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 审核完成队列工作器
+ * 仅在 app.review-queue.enabled=true 时启用：在专用线程上按微批取出审核完成请求，
+ * 整批用一次查询加载案件及保单、用同一个已编译的决策版本求值理赔分级，
+ * 再逐条在独立事务中完成审核任务，决策结果作为瞬时变量交给决策任务，后续阶段随之激活
+ */
+@Component
+@ConditionalOnProperty(name = "app.review-queue.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewQueueWorker {
+
+    private final ReviewQueueService reviewQueueService;
+    private final ClaimCaseRepository claimCaseRepository;
+    private final DecisionEvaluationService decisionEvaluationService;
+    private final CmmnTaskService cmmnTaskService;
+    private final TransactionTemplate transactionTemplate;
+    private final ClaimMetrics claimMetrics;
+
+    @Value("${app.review-queue.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${app.review-queue.poll-interval-ms:50}")
+    private long pollIntervalMs = 50;
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "review-queue");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::drain, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Review queue worker started (batch size {}, poll interval {} ms)", batchSize, pollIntervalMs);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 连续处理满批，直到队列中没有更多到期条目
+     */
+    void drain() {
+        try {
+            while (processBatch() == batchSize && !executor.isShutdown()) {
+                // 队列积压时不等待下一次轮询
+            }
+        } catch (RuntimeException e) {
+            // 异常逃出会终止定时任务
+            log.error("Review queue batch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 处理一批到期条目，返回抢占到的条目数
+     */
+    int processBatch() {
+        List<UUID> claimed = reviewQueueService.claimDue(batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        long startTime = System.nanoTime();
+        List<ReviewQueueEntry> entries = new ArrayList<>(reviewQueueService.findAllById(claimed));
+        entries.sort(Comparator.comparing(ReviewQueueEntry::getCreatedAt));
+
+        Map<String, ClaimCase> claimCases = claimCaseRepository.findByCaseInstanceIdIn(
+                        entries.stream().map(ReviewQueueEntry::getCaseInstanceId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(ClaimCase::getCaseInstanceId, Function.identity()));
+        Map<String, Map<String, Object>> decisions = evaluateDecisions(claimCases);
+
+        for (ReviewQueueEntry entry : entries) {
+            complete(entry, claimCases.get(entry.getCaseInstanceId()), decisions.get(entry.getCaseInstanceId()));
+        }
+        log.debug("Completed {} queued review tasks in {} ms", entries.size(),
+                (System.nanoTime() - startTime) / 1_000_000);
+        return claimed.size();
+    }
+
+    /**
+     * 整批求值理赔分级决策，返回 Case 实例ID -> 决策输出；求值失败时返回空 Map，由决策任务自行执行
+     */
+    private Map<String, Map<String, Object>> evaluateDecisions(Map<String, ClaimCase> claimCases) {
+        if (claimCases.isEmpty()) {
+            return Map.of();
+        }
+        List<String> caseInstanceIds = new ArrayList<>(claimCases.keySet());
+        List<Map<String, Object>> inputs = caseInstanceIds.stream()
+                .map(caseInstanceId -> DecisionEvaluationService.claimTriageInputs(claimCases.get(caseInstanceId)))
+                .toList();
+        try {
+            List<Map<String, Object>> results = decisionEvaluationService.evaluateBatch(
+                    DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY, inputs).getResults();
+            Map<String, Map<String, Object>> decisions = new HashMap<>();
+            for (int i = 0; i < caseInstanceIds.size(); i++) {
+                decisions.put(caseInstanceIds.get(i), results.get(i));
+            }
+            return decisions;
+        } catch (RuntimeException e) {
+            log.warn("Batch claim triage evaluation failed, decision tasks will evaluate individually: {}",
+                    e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private void complete(ReviewQueueEntry entry, ClaimCase claimCase, Map<String, Object> decision) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, Object> variables = reviewQueueService.readVariables(entry);
+                Map<String, Object> transientVariables = new HashMap<>();
+                if (claimCase != null) {
+                    // 与同步完成时相同的决策输入变量
+                    variables.putAll(DecisionEvaluationService.claimTriageInputs(claimCase));
+                    if (decision != null) {
+                        transientVariables.put(PrecomputedDecisionTaskActivityBehavior.PRECOMPUTED_DECISIONS_VARIABLE,
+                                Map.of(DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY, decision));
+                    }
+                }
+                Timer.Sample sample = claimMetrics.start();
+                String outcome = ClaimMetrics.OUTCOME_ERROR;
+                try {
+                    cmmnTaskService.complete(entry.getTaskId(), variables, transientVariables);
+                    outcome = ClaimMetrics.OUTCOME_SUCCESS;
+                } finally {
+                    claimMetrics.recordTaskCompletion(sample, ClaimMetrics.ENGINE_CMMN,
+                            ReviewQueueService.REVIEW_TASK_KEY, outcome);
+                }
+                reviewQueueService.complete(entry.getId());
+            });
+        } catch (FlowableObjectNotFoundException e) {
+            log.warn("Queued review task {} no longer exists, dropping entry", entry.getTaskId());
+            reviewQueueService.complete(entry.getId());
+        } catch (RuntimeException e) {
+            reviewQueueService.fail(entry.getId(), e);
+        }
+    }
+}
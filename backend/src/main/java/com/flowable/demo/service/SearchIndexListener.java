@@ -0,0 +1,52 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.InsurancePolicy;
+import com.flowable.demo.domain.model.SearchToken.DocumentType;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * 全文检索实体监听器
+ * 理赔案件和保单写入或删除时，在实体所在事务中写入检索发件箱，回滚的变更不会留下记录，
+ * 提交的变更即使节点随后宕机也会被索引。
+ * SearchIndexService 依赖仓储（进而依赖 EntityManagerFactory），这里延迟获取以避免循环依赖
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchIndexListener {
+
+    private final ObjectProvider<SearchIndexService> searchIndexService;
+
+    @PostPersist
+    @PostUpdate
+    public void onWrite(Object entity) {
+        enqueue(entity);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        enqueue(entity);
+    }
+
+    private void enqueue(Object entity) {
+        if (entity instanceof ClaimCase claimCase) {
+            enqueue(DocumentType.CLAIM_CASE, claimCase.getId());
+        } else if (entity instanceof InsurancePolicy policy) {
+            enqueue(DocumentType.INSURANCE_POLICY, policy.getId());
+        }
+    }
+
+    private void enqueue(DocumentType type, UUID id) {
+        SearchIndexService service = searchIndexService.getIfAvailable();
+        if (service != null) {
+            service.enqueue(type, id);
+        }
+    }
+}
@@ -0,0 +1,648 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.InsurancePolicy;
+import com.flowable.demo.domain.model.SearchIndexOutbox;
+import com.flowable.demo.domain.model.SearchToken;
+import com.flowable.demo.domain.model.SearchToken.DocumentType;
+import com.flowable.demo.domain.repository.ClaimCaseRepository;
+import com.flowable.demo.domain.repository.InsurancePolicyRepository;
+import com.flowable.demo.domain.repository.SearchIndexOutboxRepository;
+import com.flowable.demo.domain.repository.SearchTokenRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 理赔案件和保单的全文检索服务
+ * <ul>
+ *   <li>索引：字段去掉空白和标点、转小写后，从每个位置切出最长 3 个字符的 n-gram 存入 search_token；
+ *       SearchIndexListener 在实体所在事务中写入 search_index_outbox，实体变更提交则待索引记录一定存在。
+ *       定时任务取出发件箱条目，按文档合并后读取文档当前状态重建词元，成功后删除条目，失败按指数退避重试；
+ *       词元未变化时不写库</li>
+ *   <li>检索：不超过 3 个字符的检索词按词元前缀匹配；更长的检索词先用倒排最短的 n-gram
+ *       （或两个 n-gram 按相对位置关联）取候选文档，再按 n-gram 位置校验检索词是字段的子串。多个检索词（空白分隔）须全部命中。
+ *       按字段权重和是否为字段前缀排序，每个检索词最多读取 max-candidates 条倒排，超出时结果标记为截断：
+ *       单个词元的倒排按索引中的排序值顺序读取，保留的是得分最高的一批；1~2 个字符的检索词覆盖多个词元，按索引顺序截取</li>
+ * </ul>
+ * 启动时若某类文档还没有任何词元，则在后台从数据库重建；另有定时对账按 updated_at 重建最近变更的文档，
+ * 兜底绕过实体写库和多次索引失败的情况；绕过实体批量写库后也可调用 rebuild() 全量重建
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexService {
+
+    static final int GRAM_LENGTH = 3;
+    private static final String INSERT_OUTBOX_SQL = "INSERT INTO search_index_outbox "
+            + "(id, document_type, document_id, attempts, next_attempt_at, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int MAX_FIELD_LENGTH = 128;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final SearchTokenRepository searchTokenRepository;
+    private final ClaimCaseRepository claimCaseRepository;
+    private final InsurancePolicyRepository insurancePolicyRepository;
+    private final SearchIndexOutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.search.max-candidates:1000}")
+    private int maxCandidates = 1000;
+
+    @Value("${app.search.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup = true;
+
+    @Value("${app.search.outbox-batch-size:500}")
+    private int outboxBatchSize = 500;
+
+    @Value("${app.search.retry-backoff-ms:2000}")
+    private long retryBackoffMs = 2000;
+
+    @Value("${app.search.reconcile-lookback-ms:86400000}")
+    private long reconcileLookbackMs = 86400000;
+
+    @Value("${app.search.reconcile-overlap-ms:60000}")
+    private long reconcileOverlapMs = 60000;
+
+    /**
+     * 下一次对账的起点（按 updated_at），首次对账回看 reconcile-lookback-ms
+     */
+    private volatile LocalDateTime reconcileSince;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        // 全量重建在单个后台线程中执行
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    // ==================== 索引维护 ====================
+
+    /**
+     * 在当前事务中记录待索引的文档（由实体监听器在 flush 时调用，因此直接用 JDBC 写入，
+     * 不经过 EntityManager；事务回滚时记录一并回滚）
+     */
+    public void enqueue(DocumentType type, UUID id) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(INSERT_OUTBOX_SQL, UUID.randomUUID(), type.name(), id, 0, now, now);
+    }
+
+    /**
+     * 处理到期的发件箱条目：同一文档的多条记录合并为一次索引；
+     * 每个文档在独立事务中先删除条目再重建词元，删除不到条目说明已被其他节点处理
+     */
+    @Scheduled(fixedDelayString = "${app.search.poll-interval-ms:1000}")
+    public void processOutbox() {
+        List<SearchIndexOutbox> due;
+        do {
+            due = outboxRepository.findDue(LocalDateTime.now(), PageRequest.of(0, outboxBatchSize));
+            Map<DocumentKey, List<SearchIndexOutbox>> byDocument = due.stream()
+                    .collect(Collectors.groupingBy(entry -> new DocumentKey(entry.getDocumentType(),
+                            entry.getDocumentId()), LinkedHashMap::new, Collectors.toList()));
+            byDocument.forEach(this::indexFromOutbox);
+        } while (due.size() == outboxBatchSize);
+    }
+
+    private void indexFromOutbox(DocumentKey key, List<SearchIndexOutbox> entries) {
+        List<UUID> ids = entries.stream().map(SearchIndexOutbox::getId).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (outboxRepository.deleteByIds(ids) > 0) {
+                    index(load(key));
+                }
+            });
+        } catch (RuntimeException e) {
+            int attempts = entries.stream().mapToInt(SearchIndexOutbox::getAttempts).max().orElse(0) + 1;
+            long delayMs = retryBackoffMs << Math.min(attempts - 1, 16);
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxRepository.postpone(ids, LocalDateTime.now().plusNanos(delayMs * 1_000_000)));
+            log.warn("Failed to index {} {} (attempt {}), retrying in {} ms: {}", key.type, key.id, attempts,
+                    delayMs, e.getMessage());
+        }
+    }
+
+    /**
+     * 读取文档当前状态，实体已删除时返回空文档以清空其词元
+     */
+    private Document load(DocumentKey key) {
+        if (key.type == DocumentType.CLAIM_CASE) {
+            return claimCaseRepository.findById(key.id).map(SearchIndexService::claimCase)
+                    .orElseGet(() -> removed(key.type, key.id));
+        }
+        return insurancePolicyRepository.findById(key.id).map(SearchIndexService::insurancePolicy)
+                .orElseGet(() -> removed(key.type, key.id));
+    }
+
+    /**
+     * 定时对账：重建自上次对账以来 updated_at 有变化的文档（词元未变化时不写库），
+     * 兜底绕过实体写库和多次索引失败的文档；窗口向前重叠 reconcile-overlap-ms，覆盖对账期间仍未提交的事务
+     */
+    @Scheduled(initialDelayString = "${app.search.reconcile-interval-ms:300000}",
+            fixedDelayString = "${app.search.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        LocalDateTime started = LocalDateTime.now();
+        LocalDateTime since = reconcileSince != null ? reconcileSince
+                : started.minusNanos(reconcileLookbackMs * 1_000_000);
+        long checked = reconcile(since, claimCaseRepository::findByUpdatedAtGreaterThanEqual,
+                SearchIndexService::claimCase)
+                + reconcile(since, insurancePolicyRepository::findByUpdatedAtGreaterThanEqual,
+                SearchIndexService::insurancePolicy);
+        reconcileSince = started.minusNanos(reconcileOverlapMs * 1_000_000);
+        log.debug("Reconciled search index for {} documents updated since {}", checked, since);
+    }
+
+    private <T> long reconcile(LocalDateTime since, BiFunction<LocalDateTime, Pageable, Slice<T>> loader,
+                               Function<T, Document> toDocument) {
+        long checked = 0;
+        Slice<Document> slice;
+        int pageNumber = 0;
+        do {
+            PageRequest pageable = PageRequest.of(pageNumber++, REBUILD_BATCH_SIZE, Sort.by("id"));
+            try {
+                slice = transactionTemplate.execute(status -> loader.apply(since, pageable).map(toDocument));
+            } catch (RuntimeException e) {
+                log.error("Failed to reconcile search index since {}", since, e);
+                return checked;
+            }
+            for (Document document : slice) {
+                try {
+                    index(document);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to reconcile search index for {} {}: {}", document.getType(), document.getId(),
+                            e.getMessage());
+                }
+            }
+            checked += slice.getNumberOfElements();
+        } while (slice.hasNext());
+        return checked;
+    }
+
+    /**
+     * 用文档当前字段替换其全部词元；词元未变化（例如只改了状态）时不写库
+     */
+    void index(Document document) {
+        List<SearchToken> tokens = tokenize(document);
+        transactionTemplate.executeWithoutResult(status -> {
+            List<SearchToken> existing = searchTokenRepository.findByDocumentTypeAndDocumentId(
+                    document.getType(), document.getId());
+            if (signature(existing).equals(signature(tokens))) {
+                return;
+            }
+            if (!existing.isEmpty()) {
+                searchTokenRepository.deleteByDocument(document.getType(), document.getId());
+            }
+            searchTokenRepository.saveAll(tokens);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        executor.execute(() -> {
+            rebuild(DocumentType.CLAIM_CASE, true);
+            rebuild(DocumentType.INSURANCE_POLICY, true);
+        });
+    }
+
+    /**
+     * 在后台从数据库重建全部文档的索引（用于绕过实体直接写库之后，如 perf 批量造数），返回重建完成的 Future
+     */
+    public CompletableFuture<Void> rebuild() {
+        return CompletableFuture.runAsync(() -> {
+            rebuild(DocumentType.CLAIM_CASE, false);
+            rebuild(DocumentType.INSURANCE_POLICY, false);
+        }, executor);
+    }
+
+    private void rebuild(DocumentType type, boolean onlyIfEmpty) {
+        Function<Pageable, Page<Document>> loader = type == DocumentType.CLAIM_CASE
+                ? pageable -> claimCaseRepository.findAll(pageable).map(SearchIndexService::claimCase)
+                : pageable -> insurancePolicyRepository.findAll(pageable).map(SearchIndexService::insurancePolicy);
+        try {
+            if (onlyIfEmpty && searchTokenRepository.existsByDocumentType(type)) {
+                return;
+            }
+            long started = System.currentTimeMillis();
+            long indexed = 0;
+            Page<Document> page;
+            int pageNumber = 0;
+            do {
+                PageRequest pageable = PageRequest.of(pageNumber++, REBUILD_BATCH_SIZE, Sort.by("id"));
+                page = transactionTemplate.execute(status -> loader.apply(pageable));
+                page.forEach(this::index);
+                indexed += page.getNumberOfElements();
+            } while (page.hasNext());
+            if (indexed > 0) {
+                log.info("Rebuilt search index for {} {} documents in {} ms", indexed, type,
+                        System.currentTimeMillis() - started);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild search index for {}", type, e);
+        }
+    }
+
+    // ==================== 检索 ====================
+
+    /**
+     * 检索文档ID，按相关度排序后分页；
+     * 结果被 max-candidates 截断时 isTruncated() 为 true，此时总数只是已找到的命中数（下限）
+     */
+    public SearchPage<UUID> search(DocumentType type, String keyword, Pageable pageable) {
+        TermScores ranked = score(type, keyword);
+        List<UUID> ids = ranked.ranked();
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        return new SearchPage<>(ids.subList(from, to), pageable, ids.size(), ranked.truncated());
+    }
+
+    List<UUID> rank(DocumentType type, String keyword) {
+        return score(type, keyword).ranked();
+    }
+
+    private TermScores score(DocumentType type, String keyword) {
+        List<String> terms = terms(keyword);
+        if (terms.isEmpty()) {
+            return new TermScores(new HashMap<>(), false);
+        }
+        Map<UUID, Integer> scores = null;
+        boolean truncated = false;
+        for (String term : terms) {
+            TermScores termScores = scoreTerm(type, term);
+            truncated |= termScores.truncated();
+            if (scores == null) {
+                scores = termScores.scores();
+            } else {
+                scores.keySet().retainAll(termScores.scores().keySet());
+                scores.replaceAll((id, score) -> score + termScores.scores().get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return new TermScores(scores, truncated);
+    }
+
+    /**
+     * 单个检索词的命中文档及得分（字段权重 * 2，出现在字段开头再加 1，取文档内最高分）。
+     * 超过 max-candidates 时标记为截断；按单个词元读取的倒排保留的是排序值最小即得分最高的一批
+     */
+    private TermScores scoreTerm(DocumentType type, String term) {
+        Map<UUID, Integer> scores = new HashMap<>();
+        if (term.length() <= GRAM_LENGTH) {
+            // 任意不超过 3 个字符的子串都是某个词元的前缀，直接按前缀取倒排；3 个字符即等于词元
+            PageRequest limit = PageRequest.of(0, maxCandidates + 1);
+            List<Object[]> postings = term.length() == GRAM_LENGTH
+                    ? searchTokenRepository.findPostingsByToken(type, term, limit)
+                    : searchTokenRepository.findPostingsByTokenPrefix(type, term, limit);
+            for (Object[] row : postings.subList(0, Math.min(postings.size(), maxCandidates))) {
+                scores.merge((UUID) row[0], score((Integer) row[1], (Integer) row[2]), Math::max);
+            }
+            return new TermScores(scores, postings.size() > maxCandidates);
+        }
+
+        // 候选文档：优先用倒排不超过上限的 n-gram（其倒排完整，取最短的一个）；
+        // 全部 n-gram 都很常见（如数字串、"clm"）时，改为按相对位置关联检索词末尾的两个 n-gram
+        Map<Integer, String> grams = queryGrams(term);
+        Set<UUID> candidates = null;
+        boolean truncated = false;
+        for (String gram : new LinkedHashSet<>(grams.values())) {
+            List<UUID> postings = searchTokenRepository.findDocumentIdsByToken(type, gram,
+                    PageRequest.of(0, maxCandidates + 1));
+            if (postings.isEmpty()) {
+                return new TermScores(scores, false);
+            }
+            if (postings.size() <= maxCandidates && (candidates == null || postings.size() < candidates.size())) {
+                candidates = new LinkedHashSet<>(postings);
+            }
+        }
+        if (candidates == null) {
+            List<Integer> offsets = new ArrayList<>(grams.keySet());
+            int firstOffset = offsets.get(offsets.size() - 2);
+            int secondOffset = offsets.get(offsets.size() - 1);
+            List<Object[]> pairs = searchTokenRepository.findTokenPairs(type, grams.get(firstOffset),
+                    grams.get(secondOffset), secondOffset - firstOffset, PageRequest.of(0, maxCandidates + 1));
+            truncated = pairs.size() > maxCandidates;
+            candidates = new LinkedHashSet<>();
+            for (Object[] row : pairs.subList(0, Math.min(pairs.size(), maxCandidates))) {
+                candidates.add((UUID) row[0]);
+            }
+            if (candidates.isEmpty()) {
+                return new TermScores(scores, false);
+            }
+        }
+
+        // 按位置校验：各 n-gram 须在同一字段中按其在检索词内的偏移出现，即检索词是字段的子串
+        Map<FieldKey, Map<String, Set<Integer>>> occurrences = new HashMap<>();
+        for (Object[] row : searchTokenRepository.findPostings(type, candidates, grams.values())) {
+            occurrences.computeIfAbsent(new FieldKey((UUID) row[0], (Integer) row[1]), k -> new HashMap<>())
+                    .computeIfAbsent((String) row[3], k -> new HashSet<>())
+                    .add((Integer) row[2]);
+        }
+        String first = grams.get(0);
+        occurrences.forEach((field, positions) -> {
+            for (int start : positions.getOrDefault(first, Set.of())) {
+                if (matchesAt(grams, positions, start)) {
+                    scores.merge(field.documentId, score(field.weight, start), Math::max);
+                }
+            }
+        });
+        return new TermScores(scores, truncated);
+    }
+
+    private static boolean matchesAt(Map<Integer, String> grams, Map<String, Set<Integer>> positions, int start) {
+        for (Map.Entry<Integer, String> gram : grams.entrySet()) {
+            if (!positions.getOrDefault(gram.getValue(), Set.of()).contains(start + gram.getKey())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int score(int weight, int position) {
+        return weight * 2 + (position == 0 ? 1 : 0);
+    }
+
+    /**
+     * 词元的排序值：升序即 (权重降序, 位置升序)，位置不超过字段最大长度，得分高的排序值一定更小
+     */
+    static int tokenRank(int weight, int position) {
+        return -weight * MAX_FIELD_LENGTH + position;
+    }
+
+    // ==================== 分词 ====================
+
+    /**
+     * 规范化：转小写，只保留字母、数字和汉字（电话号码中的空格、横线等被去掉）
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(value.length());
+        value.toLowerCase(Locale.ROOT).codePoints()
+                .filter(Character::isLetterOrDigit)
+                .forEach(normalized::appendCodePoint);
+        return normalized.toString();
+    }
+
+    /**
+     * 检索词按空白拆分后规范化
+     */
+    static List<String> terms(String keyword) {
+        List<String> terms = new ArrayList<>();
+        if (keyword == null) {
+            return terms;
+        }
+        for (String part : keyword.trim().split("\\s+")) {
+            String term = normalize(part);
+            if (!term.isEmpty() && !terms.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * 索引用 n-gram：每个位置一个，末尾不足 3 个字符的也保留，
+     * 因此任意不超过 3 个字符的子串都是某个词元的前缀
+     */
+    static List<SearchToken> tokenize(Document document) {
+        List<SearchToken> tokens = new ArrayList<>();
+        for (Field field : document.getFields()) {
+            String value = normalize(field.getValue());
+            if (value.length() > MAX_FIELD_LENGTH) {
+                value = value.substring(0, MAX_FIELD_LENGTH);
+            }
+            for (int i = 0; i < value.length(); i++) {
+                tokens.add(SearchToken.builder()
+                        .documentType(document.getType())
+                        .documentId(document.getId())
+                        .weight(field.getWeight())
+                        .position(i)
+                        .tokenRank(tokenRank(field.getWeight(), i))
+                        .token(value.substring(i, Math.min(i + GRAM_LENGTH, value.length())))
+                        .build());
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 检索用 n-gram 及其在检索词内的偏移：从开头每隔 3 个字符取一个，再补上结尾的一个，覆盖整个检索词
+     */
+    static Map<Integer, String> queryGrams(String term) {
+        Map<Integer, String> grams = new LinkedHashMap<>();
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i += GRAM_LENGTH) {
+            grams.put(i, term.substring(i, i + GRAM_LENGTH));
+        }
+        grams.put(term.length() - GRAM_LENGTH, term.substring(term.length() - GRAM_LENGTH));
+        return grams;
+    }
+
+    private static Set<String> signature(List<SearchToken> tokens) {
+        return tokens.stream()
+                .map(t -> t.getWeight() + ":" + t.getPosition() + ":" + t.getToken())
+                .collect(Collectors.toSet());
+    }
+
+    // ==================== 文档 ====================
+
+    /**
+     * 理赔案件的检索字段：理赔编号、电话、理赔人姓名、出险地点（权重依次降低）
+     */
+    public static Document claimCase(ClaimCase claimCase) {
+        return new Document(DocumentType.CLAIM_CASE, claimCase.getId(), List.of(
+                new Field(4, claimCase.getClaimNumber()),
+                new Field(3, claimCase.getClaimantPhone()),
+                new Field(2, claimCase.getClaimantName()),
+                new Field(1, claimCase.getIncidentLocation())));
+    }
+
+    /**
+     * 保单的检索字段：保单号、投保人姓名
+     */
+    public static Document insurancePolicy(InsurancePolicy policy) {
+        return new Document(DocumentType.INSURANCE_POLICY, policy.getId(), List.of(
+                new Field(2, policy.getPolicyNumber()),
+                new Field(1, policy.getPolicyHolderName())));
+    }
+
+    /**
+     * 已删除的文档：没有字段，写入时清空其词元
+     */
+    public static Document removed(DocumentType type, UUID id) {
+        return new Document(type, id, List.of());
+    }
+
+    /**
+     * 待索引的文档
+     */
+    @Getter
+    public static class Document {
+        private final DocumentType type;
+        private final UUID id;
+        private final List<Field> fields;
+
+        public Document(DocumentType type, UUID id, List<Field> fields) {
+            this.type = type;
+            this.id = id;
+            this.fields = fields;
+        }
+    }
+
+    /**
+     * 被检索的字段，权重在同一文档类型内唯一
+     */
+    @Getter
+    public static class Field {
+        private final int weight;
+        private final String value;
+
+        public Field(int weight, String value) {
+            this.weight = weight;
+            this.value = value;
+        }
+    }
+
+    /**
+     * 检索结果的一页，isTruncated() 表示候选倒排超过 max-candidates 被截断，结果和总数都不完整
+     */
+    public static class SearchPage<T> extends PageImpl<T> {
+        private final boolean truncated;
+
+        public SearchPage(List<T> content, Pageable pageable, long total, boolean truncated) {
+            super(content, pageable, total);
+            this.truncated = truncated;
+        }
+
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        /**
+         * 换成同一页的其他内容（如实体转换后的 DTO），保留分页信息和截断标记
+         */
+        public <R> SearchPage<R> withContent(List<R> content) {
+            return new SearchPage<>(content, getPageable(), getTotalElements(), truncated);
+        }
+    }
+
+    /**
+     * 文档得分，以及读取倒排时是否被截断
+     */
+    private record TermScores(Map<UUID, Integer> scores, boolean truncated) {
+
+        List<UUID> ranked() {
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<UUID, Integer>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static final class FieldKey {
+        private final UUID documentId;
+        private final int weight;
+
+        private FieldKey(UUID documentId, int weight) {
+            this.documentId = documentId;
+            this.weight = weight;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FieldKey)) {
+                return false;
+            }
+            FieldKey that = (FieldKey) o;
+            return weight == that.weight && documentId.equals(that.documentId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(documentId, weight);
+        }
+    }
+
+    private static final class DocumentKey {
+        private final DocumentType type;
+        private final UUID id;
+
+        private DocumentKey(DocumentType type, UUID id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DocumentKey)) {
+                return false;
+            }
+            DocumentKey that = (DocumentKey) o;
+            return type == that.type && id.equals(that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, id);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.flowable.demo.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.cmmn.api.CmmnTaskService;
+import org.flowable.identitylink.api.IdentityLinkInfo;
+import org.flowable.task.api.Task;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 任务身份关联批量加载器
+ * 一次查询加载一整页任务的身份关联（候选人/候选组），在内存中按任务ID分组，
+ * 避免逐个任务调用 getIdentityLinksForTask
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskIdentityLinkLoader {
+
+    private final CmmnTaskService cmmnTaskService;
+
+    /**
+     * 批量加载任务的身份关联
+     *
+     * @return 任务ID到身份关联列表的映射，没有关联的任务映射为空列表
+     */
+    public Map<String, List<IdentityLinkInfo>> loadIdentityLinks(Collection<String> taskIds) {
+        if (taskIds == null || taskIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Set<String> distinctIds = new LinkedHashSet<>(taskIds);
+        Map<String, List<IdentityLinkInfo>> linksByTaskId = new HashMap<>();
+        for (String taskId : distinctIds) {
+            linksByTaskId.put(taskId, new ArrayList<>());
+        }
+
+        // CMMN 与 BPMN 任务共用 ACT_RU_TASK，一次关联查询即可覆盖两个引擎
+        List<Task> tasks = cmmnTaskService.createTaskQuery()
+                .taskIds(distinctIds)
+                .includeIdentityLinks()
+                .list();
+
+        for (Task task : tasks) {
+            List<IdentityLinkInfo> links = linksByTaskId.get(task.getId());
+            if (links != null && task.getIdentityLinks() != null) {
+                links.addAll(task.getIdentityLinks());
+            }
+        }
+
+        log.debug("Loaded identity links for {} tasks in one query", distinctIds.size());
+        return linksByTaskId;
+    }
+}
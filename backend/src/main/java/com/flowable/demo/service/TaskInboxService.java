@@ -0,0 +1,212 @@
+package com.flowable.demo.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.cmmn.api.CmmnTaskService;
+import org.flowable.engine.TaskService;
+import org.flowable.task.api.NativeTaskQuery;
+import org.flowable.task.api.Task;
+import org.flowable.task.api.TaskQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 统一任务收件箱查询服务
+ * CMMN 与 BPMN 引擎共用 ACT_RU_TASK 表，一次查询即可覆盖两个引擎的任务，
+ * 排序、过滤和分页全部下推到数据库执行
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskInboxService {
+
+    private static final int MAX_CACHED_COUNTS = 10_000;
+
+    private final CmmnTaskService cmmnTaskService;
+    private final TaskService taskService;
+
+    @Value("${app.task-inbox.count-cache-ttl-ms:30000}")
+    private long countCacheTtlMs;
+
+    private final Map<String, CachedCount> countCache = new ConcurrentHashMap<>();
+
+    /**
+     * 收件箱类型
+     */
+    public enum InboxType {
+        /** 已分配给用户的任务 */
+        ASSIGNED,
+        /** 用户或用户所在组可认领的任务 */
+        CLAIMABLE
+    }
+
+    /**
+     * 总数统计方式
+     */
+    public enum CountMode {
+        /** 每次精确统计 */
+        EXACT,
+        /** 短时间内复用上一次的统计结果 */
+        ESTIMATED,
+        /** 不统计总数 */
+        NONE
+    }
+
+    /**
+     * 偏移分页查询（兼容 Spring Data Pageable）
+     */
+    public Page<Task> findPage(InboxType type, String username, Collection<String> groups, Pageable pageable) {
+        List<Task> tasks = sorted(createQuery(type, username, groups))
+                .listPage((int) pageable.getOffset(), pageable.getPageSize());
+        long total = createQuery(type, username, groups).count();
+        return new PageImpl<>(tasks, pageable, total);
+    }
+
+    /**
+     * 游标分页查询，按 (创建时间, 任务ID) 降序
+     *
+     * @param cursorCreateTime 上一页最后一条任务的创建时间，首页为 null
+     * @param cursorTaskId     上一页最后一条任务的ID，首页为 null
+     */
+    public InboxSlice findSlice(InboxType type, String username, Collection<String> groups,
+                                Date cursorCreateTime, String cursorTaskId, int size, CountMode countMode) {
+        List<Task> tasks;
+        if (cursorCreateTime != null && cursorTaskId != null) {
+            tasks = afterCursor(type, username, groups, cursorCreateTime, cursorTaskId)
+                    .listPage(0, size + 1);
+        } else {
+            tasks = sorted(createQuery(type, username, groups)).listPage(0, size + 1);
+        }
+
+        boolean hasNext = tasks.size() > size;
+        if (hasNext) {
+            tasks = tasks.subList(0, size);
+        }
+
+        Long total = null;
+        boolean totalExact = false;
+        if (countMode == CountMode.EXACT) {
+            total = createQuery(type, username, groups).count();
+            totalExact = true;
+        } else if (countMode == CountMode.ESTIMATED) {
+            total = estimateCount(type, username, groups);
+        }
+
+        log.debug("Inbox {} slice for {}: {} tasks, hasNext={}, total={}", type, username, tasks.size(), hasNext, total);
+        return new InboxSlice(tasks, hasNext, total, totalExact);
+    }
+
+    /**
+     * 统计收件箱任务总数
+     */
+    public long count(InboxType type, String username, Collection<String> groups) {
+        return createQuery(type, username, groups).count();
+    }
+
+    private long estimateCount(InboxType type, String username, Collection<String> groups) {
+        String key = type + ":" + username + ":" + groups;
+        long now = System.currentTimeMillis();
+        CachedCount cached = countCache.get(key);
+        if (cached != null && now - cached.getCountedAt() < countCacheTtlMs) {
+            return cached.getCount();
+        }
+
+        long count = count(type, username, groups);
+        if (countCache.size() >= MAX_CACHED_COUNTS) {
+            countCache.values().removeIf(entry -> now - entry.getCountedAt() >= countCacheTtlMs);
+        }
+        countCache.put(key, new CachedCount(count, now));
+        return count;
+    }
+
+    private TaskQuery createQuery(InboxType type, String username, Collection<String> groups) {
+        TaskQuery query = cmmnTaskService.createTaskQuery();
+        if (type == InboxType.ASSIGNED) {
+            return query.taskAssignee(username);
+        }
+
+        if (groups == null || groups.isEmpty()) {
+            query.taskCandidateUser(username);
+        } else {
+            query.or()
+                    .taskCandidateUser(username)
+                    .taskCandidateGroupIn(groups)
+                    .endOr();
+        }
+        return query.active();
+    }
+
+    /**
+     * 游标之后的任务：(创建时间, 任务ID) < 游标 的比较和排序都在数据库中完成，
+     * 与首页 TaskQuery 使用同一排序规则，翻页时不会因排序规则不同而跳过或重复任务。
+     * TaskQuery 无法表达任务ID的范围条件，这里用原生查询复现 createQuery 的过滤条件；
+     * CmmnTaskService 不提供原生查询，两个引擎共用任务表，借用 BPMN 引擎的 TaskService 执行
+     */
+    private NativeTaskQuery afterCursor(InboxType type, String username, Collection<String> groups,
+                                        Date cursorCreateTime, String cursorTaskId) {
+        NativeTaskQuery query = taskService.createNativeTaskQuery()
+                .parameter("cursorCreateTime", cursorCreateTime)
+                .parameter("cursorTaskId", cursorTaskId)
+                .parameter("username", username);
+
+        StringBuilder sql = new StringBuilder("SELECT RES.* FROM ACT_RU_TASK RES WHERE ");
+        if (type == InboxType.ASSIGNED) {
+            sql.append("RES.ASSIGNEE_ = #{username}");
+        } else {
+            sql.append("RES.ASSIGNEE_ IS NULL AND RES.SUSPENSION_STATE_ = 1 AND EXISTS (")
+                    .append("SELECT LINK.ID_ FROM ACT_RU_IDENTITYLINK LINK ")
+                    .append("WHERE LINK.TASK_ID_ = RES.ID_ AND LINK.TYPE_ = 'candidate' ")
+                    .append("AND (LINK.USER_ID_ = #{username}");
+            if (groups != null && !groups.isEmpty()) {
+                sql.append(" OR LINK.GROUP_ID_ IN (");
+                int index = 0;
+                for (String group : groups) {
+                    String name = "group" + index;
+                    sql.append(index++ > 0 ? ", " : "").append("#{").append(name).append('}');
+                    query.parameter(name, group);
+                }
+                sql.append(')');
+            }
+            sql.append("))");
+        }
+        sql.append(" AND (RES.CREATE_TIME_ < #{cursorCreateTime} ")
+                .append("OR (RES.CREATE_TIME_ = #{cursorCreateTime} AND RES.ID_ < #{cursorTaskId}))")
+                .append(" ORDER BY RES.CREATE_TIME_ DESC, RES.ID_ DESC");
+        return query.sql(sql.toString());
+    }
+
+    private TaskQuery sorted(TaskQuery query) {
+        return query.orderByTaskCreateTime().desc()
+                .orderByTaskId().desc();
+    }
+
+    /**
+     * 游标分页结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class InboxSlice {
+        private final List<Task> tasks;
+        private final boolean hasNext;
+        private final Long total;
+        private final boolean totalExact;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class CachedCount {
+        private final long count;
+        private final long countedAt;
+    }
+}
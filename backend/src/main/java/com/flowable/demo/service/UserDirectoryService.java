@@ -0,0 +1,109 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.Role;
+import com.flowable.demo.domain.model.User;
+import com.flowable.demo.domain.repository.UserRepository;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 用户目录查询服务
+ * 分两阶段查询：先在数据库中按筛选条件和排序分页查出当前页的用户（不关联角色，分页由数据库完成），
+ * 再按这一页的用户ID批量加载角色，避免集合 FETCH JOIN 与分页同时使用时 Hibernate 退化为内存分页
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class UserDirectoryService {
+
+    /**
+     * 允许排序的字段
+     */
+    static final Set<String> SORTABLE_PROPERTIES = Set.of(
+            "username", "email", "firstName", "lastName", "department", "active", "createdAt", "updatedAt");
+
+    private static final Sort DEFAULT_SORT = Sort.by("username");
+
+    private final UserRepository userRepository;
+
+    /**
+     * 分页查询用户，角色已加载
+     *
+     * @param department 部门，为空时不过滤
+     * @param role       角色名称，为空时不过滤
+     * @param active     是否活跃，为 null 时不过滤
+     */
+    public Page<User> findUsers(String department, String role, Boolean active, Pageable pageable) {
+        Pageable sortedPageable = withStableSort(pageable);
+        Page<User> page = userRepository.findAll(filter(department, role, active), sortedPageable);
+        if (page.isEmpty()) {
+            return page;
+        }
+
+        List<UUID> ids = page.getContent().stream().map(User::getId).collect(Collectors.toList());
+        Map<UUID, User> withRoles = userRepository.findAllWithRolesByIdIn(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity(), (a, b) -> a));
+
+        // 按第一阶段的顺序返回
+        List<User> content = new ArrayList<>(ids.size());
+        for (User user : page.getContent()) {
+            content.add(withRoles.getOrDefault(user.getId(), user));
+        }
+        return new PageImpl<>(content, sortedPageable, page.getTotalElements());
+    }
+
+    static Specification<User> filter(String department, String role, Boolean active) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (department != null && !department.isBlank()) {
+                predicates.add(cb.equal(root.get("department"), department));
+            }
+            if (active != null) {
+                predicates.add(cb.equal(root.get("active"), active));
+            }
+            if (role != null && !role.isBlank()) {
+                // 用子查询过滤角色，避免 JOIN 产生重复行影响分页和计数
+                Subquery<UUID> withRole = query.subquery(UUID.class);
+                Root<User> user = withRole.from(User.class);
+                Join<User, Role> roles = user.join("roles");
+                withRole.select(user.get("id")).where(cb.equal(roles.get("name"), role));
+                predicates.add(root.get("id").in(withRole));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * 校验排序字段，未指定时按用户名排序，并追加ID作为唯一排序键保证翻页稳定
+     */
+    static Pageable withStableSort(Pageable pageable) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : DEFAULT_SORT;
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort.and(Sort.by("id")));
+    }
+}
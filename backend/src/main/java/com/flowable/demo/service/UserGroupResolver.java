@@ -0,0 +1,167 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.Role;
+import com.flowable.demo.domain.model.User;
+import com.flowable.demo.domain.repository.UserRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 用户与 Flowable 候选组的解析缓存
+ * 按用户ID或用户名缓存解析出的用户名和候选组，带 TTL，
+ * 用户信息或角色变更时由 UserResource 主动失效
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserGroupResolver {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final UserRepository userRepository;
+
+    @Value("${app.user-groups.cache-ttl-ms:300000}")
+    private long ttlMs;
+
+    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 根据用户ID（UUID）或用户名解析用户及其候选组
+     */
+    public Optional<UserGroups> find(String userIdOrUsername) {
+        if (userIdOrUsername == null) {
+            return Optional.empty();
+        }
+
+        long now = System.currentTimeMillis();
+        CacheEntry entry = cache.get(userIdOrUsername);
+        if (entry != null && now - entry.getLoadedAt() < ttlMs) {
+            return Optional.of(entry.getUserGroups());
+        }
+
+        Optional<UserGroups> loaded = load(userIdOrUsername);
+        loaded.ifPresent(userGroups -> {
+            if (cache.size() >= MAX_ENTRIES) {
+                cache.values().removeIf(e -> now - e.getLoadedAt() >= ttlMs);
+            }
+            cache.put(userIdOrUsername, new CacheEntry(userGroups, now));
+        });
+        return loaded;
+    }
+
+    /**
+     * 根据用户ID（UUID）或用户名解析用户及其候选组，用户不存在时抛出异常
+     */
+    public UserGroups resolve(String userIdOrUsername) {
+        return find(userIdOrUsername)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+    }
+
+    /**
+     * 使指定用户的缓存失效（无论以用户ID还是用户名缓存）
+     */
+    public void evict(User user) {
+        if (user == null) {
+            return;
+        }
+        evict(user.getUsername());
+        if (user.getId() != null) {
+            cache.remove(user.getId().toString());
+        }
+    }
+
+    /**
+     * 使指定用户名的缓存失效
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.remove(username);
+        cache.values().removeIf(entry -> username.equals(entry.getUserGroups().getUsername()));
+        log.debug("Evicted cached groups for user {}", username);
+    }
+
+    /**
+     * 清空全部缓存
+     */
+    public void evictAll() {
+        cache.clear();
+    }
+
+    /**
+     * 将应用角色映射为 Flowable 候选组
+     */
+    public static String mapRoleToGroup(String roleName) {
+        switch (roleName) {
+            case "ADMIN":
+                return "managers"; // Admin can see manager tasks
+            case "MANAGER":
+                return "managers";
+            case "APPROVER":
+                return "managers"; // Approvers are also in managers group for approval tasks
+            case "CLAIM_HANDLER":
+                return null; // No candidate group mapping needed for claim handlers
+            case "FINANCE":
+                return null; // No candidate group mapping needed for finance
+            default:
+                return null;
+        }
+    }
+
+    private Optional<UserGroups> load(String userIdOrUsername) {
+        Optional<User> user = Optional.empty();
+        try {
+            user = userRepository.findByIdWithRoles(UUID.fromString(userIdOrUsername));
+        } catch (IllegalArgumentException e) {
+            // not a UUID, fall back to username
+        }
+        if (user.isEmpty()) {
+            user = userRepository.findByUsernameWithRoles(userIdOrUsername);
+        }
+        return user.map(u -> new UserGroups(u.getId(), u.getUsername(), toGroups(u.getRoles())));
+    }
+
+    private List<String> toGroups(Collection<Role> roles) {
+        return roles.stream()
+                .map(role -> mapRoleToGroup(role.getName()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * 解析结果：用户名和对应的 Flowable 候选组
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class UserGroups {
+        private final UUID userId;
+        private final String username;
+        private final List<String> groups;
+
+        public boolean isMemberOf(String groupId) {
+            return groupId != null && groups.contains(groupId);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class CacheEntry {
+        private final UserGroups userGroups;
+        private final long loadedAt;
+    }
+}
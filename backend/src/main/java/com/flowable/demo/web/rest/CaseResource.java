@@ -1,14 +1,27 @@
 package com.flowable.demo.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.ClaimHistory;
+import com.flowable.demo.domain.model.SearchToken;
 import com.flowable.demo.domain.model.User;
 import com.flowable.demo.domain.repository.ClaimCaseRepository;
 import com.flowable.demo.domain.repository.InsurancePolicyRepository;
 import com.flowable.demo.domain.repository.UserRepository;
+import com.flowable.demo.service.BulkClaimIntakeService;
 import com.flowable.demo.service.CaseService;
+import com.flowable.demo.service.ClaimExportService;
+import com.flowable.demo.service.ClaimListingService;
+import com.flowable.demo.service.SearchIndexService;
+import com.flowable.demo.service.TaskInboxService;
 import com.flowable.demo.web.rest.dto.ApproveRequestDTO;
+import com.flowable.demo.web.rest.dto.BulkClaimResponseDTO;
+import com.flowable.demo.web.rest.dto.BulkClaimResultDTO;
 import com.flowable.demo.web.rest.dto.ClaimCaseDTO;
+import com.flowable.demo.web.rest.dto.ClaimHistoryDTO;
+import com.flowable.demo.web.rest.dto.CursorPageDTO;
 import com.flowable.demo.web.rest.dto.InsurancePolicyDTO;
+import com.flowable.demo.web.rest.dto.PageCursor;
 import com.flowable.demo.web.rest.dto.PaymentRequestDTO;
 import com.flowable.demo.web.rest.dto.RejectRequestDTO;
 import io.swagger.v3.oas.annotations.Operation;
@@ -21,19 +34,34 @@ import org.flowable.cmmn.api.CmmnTaskService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -46,12 +74,20 @@ import java.util.stream.Collectors;
 @Tag(name = "理赔案件管理", description = "理赔案件的增删改查和流程操作")
 public class CaseResource {
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final CaseService caseService;
     private final ClaimCaseRepository claimCaseRepository;
     private final InsurancePolicyRepository insurancePolicyRepository;
     private final UserRepository userRepository;
     private final CmmnRuntimeService cmmnRuntimeService;
     private final CmmnTaskService cmmnTaskService;
+    private final BulkClaimIntakeService bulkClaimIntakeService;
+    private final SearchIndexService searchIndexService;
+    private final ClaimListingService claimListingService;
+    private final ClaimExportService claimExportService;
+    private final ObjectMapper objectMapper;
 
     /**
      * 创建新理赔案件
@@ -74,16 +110,8 @@ public class CaseResource {
 
         // 如果前端没有传 createdById，使用当前登录用户
         if (claimCaseDTO.getCreatedById() == null) {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null && authentication.isAuthenticated()) {
-                String username = authentication.getName();
-                User currentUser = userRepository.findByUsername(username)
-                        .orElseThrow(() -> new RuntimeException("Current user not found: " + username));
-                claimCaseDTO.setCreatedById(currentUser.getId().toString());
-                log.info("No createdBy provided in request, using current user: {}", username);
-            } else {
-                log.warn("No authenticated user found, createdBy will be null");
-            }
+            log.debug("No createdBy provided in request, using current user");
+            claimCaseDTO.setCreatedById(currentUserId());
         }
 
         ClaimCase result = caseService.createClaimCase(claimCaseDTO);
@@ -93,6 +121,58 @@ public class CaseResource {
                 .body(resultDTO);
     }
 
+    /**
+     * 批量创建理赔案件
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "批量创建理赔案件", description = "批量创建理赔案件并启动 Case 流程，逐条返回结果；未指定创建人的条目使用当前登录用户")
+    public ResponseEntity<BulkClaimResponseDTO> createClaimCasesBulk(@RequestBody List<ClaimCaseDTO> claimCaseDTOs) {
+        log.debug("REST request to bulk create {} ClaimCases", claimCaseDTOs.size());
+
+        List<BulkClaimResultDTO> results = bulkClaimIntakeService.createClaimCases(claimCaseDTOs, 0, currentUserId());
+        return ResponseEntity.ok(BulkClaimResponseDTO.of(results));
+    }
+
+    /**
+     * 流式批量创建理赔案件（NDJSON）
+     * 请求每行一个案件，响应每行一个结果，按分片处理并逐步输出
+     */
+    @PostMapping(value = "/bulk", consumes = NDJSON_VALUE, produces = NDJSON_VALUE)
+    @Operation(summary = "流式批量创建理赔案件", description = "以 NDJSON 逐行提交案件，按分片处理并逐行返回结果")
+    public void createClaimCasesBulkStream(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        log.debug("REST request to bulk create ClaimCases from NDJSON stream");
+
+        String defaultCreatedById = currentUserId();
+        response.setContentType(NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer writer = response.getWriter();
+        bulkClaimIntakeService.streamClaimCases(request.getReader(), defaultCreatedById, result -> {
+            try {
+                writer.write(objectMapper.writeValueAsString(result));
+                writer.write('\n');
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * 当前登录用户的ID，未登录时返回 null
+     */
+    private String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            String username = authentication.getName();
+            User currentUser = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("Current user not found: " + username));
+            return currentUser.getId().toString();
+        }
+        log.warn("No authenticated user found, createdBy will be null");
+        return null;
+    }
+
     /**
      * 更新理赔案件
      */
@@ -286,17 +366,22 @@ public class CaseResource {
      * 搜索理赔案件
      */
     @GetMapping("/search")
-    @Operation(summary = "搜索理赔案件", description = "根据关键词搜索理赔案件")
+    @Operation(summary = "搜索理赔案件", description = "根据理赔编号、电话、理赔人姓名或出险地点搜索理赔案件，按相关度排序")
     public ResponseEntity<Page<ClaimCaseDTO>> searchClaimCases(
             @Parameter(description = "搜索关键词") @RequestParam String keyword,
             Pageable pageable) {
         log.debug("REST request to search ClaimCases with keyword : {}", keyword);
 
-        Page<ClaimCase> page = claimCaseRepository.searchByKeyword(keyword, pageable);
-        Page<ClaimCaseDTO> result = new PageImpl<>(
-                page.getContent().stream().map(this::convertToDTO).collect(Collectors.toList()),
-                pageable,
-                page.getTotalElements());
+        // 全文检索得到按相关度排序的一页ID，再批量加载案件并保持该顺序
+        SearchIndexService.SearchPage<UUID> ids = searchIndexService.search(SearchToken.DocumentType.CLAIM_CASE, keyword, pageable);
+        Map<UUID, ClaimCase> claimCases = claimCaseRepository.findAllByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(ClaimCase::getId, Function.identity()));
+        Page<ClaimCaseDTO> result = ids.withContent(
+                ids.getContent().stream()
+                        .map(claimCases::get)
+                        .filter(Objects::nonNull)
+                        .map(this::convertToDTO)
+                        .collect(Collectors.toList()));
 
         return ResponseEntity.ok(result);
     }
@@ -320,6 +405,119 @@ public class CaseResource {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * 游标分页获取理赔案件
+     * 按 (创建时间, ID) 降序，翻页成本与页码无关
+     */
+    @GetMapping("/cursor")
+    @Operation(summary = "游标分页获取理赔案件列表", description = "按创建时间和案件ID游标分页获取所有理赔案件")
+    public ResponseEntity<CursorPageDTO<ClaimCaseDTO>> getClaimCasesByCursor(
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "页大小") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "总数统计方式: EXACT、ESTIMATED 或 NONE") @RequestParam(defaultValue = "ESTIMATED") TaskInboxService.CountMode countMode) {
+        log.debug("REST request to get ClaimCases, cursor: {}", cursor);
+
+        validateCursorPageSize(size);
+        KeysetCursor keyset = KeysetCursor.decode(cursor);
+        ClaimListingService.ListingSlice<ClaimCase> slice = claimListingService.findCases(null,
+                keyset.sortKey(), keyset.id(), size, countMode);
+        return ResponseEntity.ok(toCursorPage(slice, size, this::convertToDTO, ClaimCase::getCreatedAt, ClaimCase::getId));
+    }
+
+    /**
+     * 游标分页根据状态查询理赔案件
+     */
+    @GetMapping("/by-status/cursor")
+    @Operation(summary = "游标分页根据状态查询", description = "按创建时间和案件ID游标分页查询指定状态的理赔案件")
+    public ResponseEntity<CursorPageDTO<ClaimCaseDTO>> getClaimCasesByStatusAndCursor(
+            @Parameter(description = "状态") @RequestParam String status,
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "页大小") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "总数统计方式: EXACT、ESTIMATED 或 NONE") @RequestParam(defaultValue = "ESTIMATED") TaskInboxService.CountMode countMode) {
+        log.debug("REST request to get ClaimCases by status : {}, cursor: {}", status, cursor);
+
+        validateCursorPageSize(size);
+        KeysetCursor keyset = KeysetCursor.decode(cursor);
+        ClaimListingService.ListingSlice<ClaimCase> slice = claimListingService.findCases(
+                ClaimCase.ClaimStatus.valueOf(status.toUpperCase()), keyset.sortKey(), keyset.id(), size, countMode);
+        return ResponseEntity.ok(toCursorPage(slice, size, this::convertToDTO, ClaimCase::getCreatedAt, ClaimCase::getId));
+    }
+
+    /**
+     * 游标分页获取我的理赔案件
+     */
+    @GetMapping("/my-cases/cursor")
+    @Operation(summary = "游标分页获取我的理赔案件", description = "按创建时间和案件ID游标分页获取当前用户相关的理赔案件")
+    public ResponseEntity<CursorPageDTO<ClaimCaseDTO>> getMyClaimCasesByCursor(
+            @Parameter(description = "用户ID") @RequestParam UUID userId,
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "页大小") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "总数统计方式: EXACT、ESTIMATED 或 NONE") @RequestParam(defaultValue = "ESTIMATED") TaskInboxService.CountMode countMode) {
+        log.debug("REST request to get my ClaimCases for user : {}, cursor: {}", userId, cursor);
+
+        validateCursorPageSize(size);
+        KeysetCursor keyset = KeysetCursor.decode(cursor);
+        ClaimListingService.ListingSlice<ClaimCase> slice = claimListingService.findMyCases(userId,
+                keyset.sortKey(), keyset.id(), size, countMode);
+        return ResponseEntity.ok(toCursorPage(slice, size, this::convertToDTO, ClaimCase::getCreatedAt, ClaimCase::getId));
+    }
+
+    /**
+     * 游标分页获取案件历史时间线
+     * 按 (操作时间, ID) 降序
+     */
+    @GetMapping("/{id}/history")
+    @Operation(summary = "获取案件历史时间线", description = "按操作时间和记录ID游标分页获取案件的历史记录")
+    public ResponseEntity<CursorPageDTO<ClaimHistoryDTO>> getClaimCaseHistory(
+            @Parameter(description = "案件ID") @PathVariable UUID id,
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "页大小") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "总数统计方式: EXACT、ESTIMATED 或 NONE") @RequestParam(defaultValue = "ESTIMATED") TaskInboxService.CountMode countMode) {
+        log.debug("REST request to get history of ClaimCase : {}, cursor: {}", id, cursor);
+
+        validateCursorPageSize(size);
+        KeysetCursor keyset = KeysetCursor.decode(cursor);
+        ClaimListingService.ListingSlice<ClaimHistory> slice = claimListingService.findHistory(id,
+                keyset.sortKey(), keyset.id(), size, countMode);
+        return ResponseEntity.ok(toCursorPage(slice, size, history -> convertToHistoryDTO(id, history),
+                ClaimHistory::getPerformedAt, ClaimHistory::getId));
+    }
+
+    /**
+     * 流式导出理赔案件
+     * 结果逐行写入响应输出流，内存占用与导出行数无关；该路径不经过请求日志过滤器
+     */
+    @GetMapping("/export")
+    @Operation(summary = "导出理赔案件", description = "按状态、创建日期和保单类型过滤，以 CSV 或 NDJSON 流式导出理赔案件")
+    public ResponseEntity<StreamingResponseBody> exportClaimCases(
+            @Parameter(description = "导出格式: CSV 或 NDJSON") @RequestParam(defaultValue = "CSV") ClaimExportService.Format format,
+            @Parameter(description = "状态") @RequestParam(required = false) String status,
+            @Parameter(description = "创建日期起（含）") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "创建日期止（含）") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "保单类型") @RequestParam(required = false) String policyType) {
+        log.debug("REST request to export ClaimCases as {}, status: {}, from: {}, to: {}, policyType: {}",
+                format, status, from, to, policyType);
+
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Export date range is invalid: " + from + " > " + to);
+        }
+        ClaimExportService.Filter filter = new ClaimExportService.Filter(
+                status != null ? ClaimCase.ClaimStatus.valueOf(status.toUpperCase()) : null,
+                from, to, policyType);
+
+        MediaType mediaType = format == ClaimExportService.Format.NDJSON
+                ? MediaType.parseMediaType(NDJSON_VALUE)
+                : new MediaType("text", "csv", StandardCharsets.UTF_8);
+        String filename = "claims-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE)
+                + (format == ClaimExportService.Format.NDJSON ? ".ndjson" : ".csv");
+        StreamingResponseBody body = outputStream -> claimExportService.export(filter, format, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
     /**
      * 批准理赔案件
      */
@@ -483,6 +681,68 @@ public class CaseResource {
         return ResponseEntity.ok(statistics);
     }
 
+    private void validateCursorPageSize(int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * 将游标分页结果转换为 DTO，用本页最后一条记录的排序键和ID生成下一页游标
+     */
+    private <T, D> CursorPageDTO<D> toCursorPage(ClaimListingService.ListingSlice<T> slice, int size,
+                                                 Function<T, D> converter,
+                                                 Function<T, LocalDateTime> sortKey,
+                                                 Function<T, UUID> id) {
+        String nextCursor = null;
+        if (slice.isHasNext()) {
+            T last = slice.getContent().get(slice.getContent().size() - 1);
+            nextCursor = new PageCursor(sortKey.apply(last).toString(), id.apply(last).toString()).encode();
+        }
+        return CursorPageDTO.<D>builder()
+                .content(slice.getContent().stream().map(converter).collect(Collectors.toList()))
+                .size(size)
+                .hasNext(slice.isHasNext())
+                .nextCursor(nextCursor)
+                .totalElements(slice.getTotal())
+                .totalExact(slice.isTotalExact())
+                .build();
+    }
+
+    /**
+     * 解析后的游标：排序键（创建时间或操作时间）和ID，首页两者均为 null
+     */
+    private record KeysetCursor(LocalDateTime sortKey, UUID id) {
+
+        static KeysetCursor decode(String cursor) {
+            PageCursor pageCursor = PageCursor.decode(cursor);
+            if (pageCursor == null) {
+                return new KeysetCursor(null, null);
+            }
+            try {
+                return new KeysetCursor(LocalDateTime.parse(pageCursor.getSortKey()), UUID.fromString(pageCursor.getId()));
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+            }
+        }
+    }
+
+    /**
+     * 转换历史记录为 DTO
+     */
+    private ClaimHistoryDTO convertToHistoryDTO(UUID claimId, ClaimHistory history) {
+        ClaimHistoryDTO dto = new ClaimHistoryDTO();
+        dto.setId(history.getId().toString());
+        dto.setClaimCaseId(claimId.toString());
+        dto.setActionType(history.getAction());
+        dto.setActionDescription(history.getDescription());
+        if (history.getPerformedBy() != null) {
+            dto.setOperator(history.getPerformedBy().getFullName());
+        }
+        dto.setOperateTime(history.getPerformedAt());
+        return dto;
+    }
+
     /**
      * 转换为 DTO
      */
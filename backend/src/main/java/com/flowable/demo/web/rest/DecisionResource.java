@@ -0,0 +1,51 @@
+package com.flowable.demo.web.rest;
+
+import com.flowable.demo.service.DecisionEvaluationService;
+import com.flowable.demo.web.rest.dto.ClaimTriageInputDTO;
+import com.flowable.demo.web.rest.dto.DecisionBatchResponseDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 决策求值 REST API
+ */
+@RestController
+@RequestMapping("/decisions")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "决策求值", description = "DMN 决策表的批量求值")
+public class DecisionResource {
+
+    private final DecisionEvaluationService decisionEvaluationService;
+
+    /**
+     * 批量理赔分级
+     */
+    @PostMapping("/claim-triage/evaluate-batch")
+    @Operation(summary = "批量理赔分级", description = "用最新版本的 ClaimDecisionTable 对一批理赔输入逐条求值，结果与请求顺序一致")
+    public ResponseEntity<DecisionBatchResponseDTO> evaluateClaimTriageBatch(
+            @RequestBody List<ClaimTriageInputDTO> inputs) {
+        log.debug("REST request to evaluate claim triage for {} inputs", inputs.size());
+
+        List<Map<String, Object>> variables = inputs.stream().map(ClaimTriageInputDTO::toVariables).toList();
+        DecisionEvaluationService.BatchResult result = decisionEvaluationService.evaluateBatch(
+                DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY, variables);
+
+        return ResponseEntity.ok(DecisionBatchResponseDTO.builder()
+                .decisionKey(result.getDecisionKey())
+                .decisionVersion(result.getDecisionVersion())
+                .total(result.getResults().size())
+                .results(result.getResults())
+                .build());
+    }
+}
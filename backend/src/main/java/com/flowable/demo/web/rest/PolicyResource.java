@@ -1,7 +1,9 @@
 package com.flowable.demo.web.rest;
 
 import com.flowable.demo.domain.model.InsurancePolicy;
+import com.flowable.demo.domain.model.SearchToken;
 import com.flowable.demo.domain.repository.InsurancePolicyRepository;
+import com.flowable.demo.service.SearchIndexService;
 import com.flowable.demo.web.rest.dto.InsurancePolicyDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,8 +17,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +35,7 @@ import java.util.stream.Collectors;
 public class PolicyResource {
 
     private final InsurancePolicyRepository insurancePolicyRepository;
+    private final SearchIndexService searchIndexService;
 
     /**
      * 获取所有保单（分页）
@@ -49,6 +55,28 @@ public class PolicyResource {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * 搜索保单（保单号、投保人姓名），按相关度排序
+     */
+    @GetMapping("/search")
+    @Operation(summary = "搜索保单", description = "根据保单号或投保人姓名搜索保单")
+    public ResponseEntity<Page<InsurancePolicyDTO>> searchPolicies(
+            @Parameter(description = "搜索关键词") @RequestParam String keyword,
+            Pageable pageable) {
+        log.debug("REST request to search InsurancePolicies with keyword: {}", keyword);
+
+        SearchIndexService.SearchPage<UUID> ids = searchIndexService.search(SearchToken.DocumentType.INSURANCE_POLICY, keyword, pageable);
+        Map<UUID, InsurancePolicy> policies = insurancePolicyRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(InsurancePolicy::getId, Function.identity()));
+        List<InsurancePolicyDTO> content = ids.getContent().stream()
+                .map(policies::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(ids.withContent(content));
+    }
+
     /**
      * 根据保单号获取保单
      */
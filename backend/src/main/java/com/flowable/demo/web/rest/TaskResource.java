@@ -1,11 +1,17 @@
 package com.flowable.demo.web.rest;
 
 import com.flowable.demo.domain.model.ClaimCase;
-import com.flowable.demo.domain.model.Role;
-import com.flowable.demo.domain.model.User;
 import com.flowable.demo.domain.repository.ClaimCaseRepository;
-import com.flowable.demo.domain.repository.UserRepository;
+import com.flowable.demo.service.CasePaymentProcessLocator;
+import com.flowable.demo.service.ClaimMetrics;
+import com.flowable.demo.service.ReviewQueueService;
+import com.flowable.demo.service.TaskIdentityLinkLoader;
+import com.flowable.demo.service.TaskInboxService;
+import com.flowable.demo.service.UserGroupResolver;
+import com.flowable.demo.web.rest.dto.CursorPageDTO;
+import com.flowable.demo.web.rest.dto.PageCursor;
 import com.flowable.demo.web.rest.dto.TaskDTO;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,8 +19,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.cmmn.api.CmmnTaskService;
 import org.flowable.engine.HistoryService;
-import org.flowable.engine.RuntimeService;
 import org.flowable.engine.TaskService;
+import org.flowable.identitylink.api.IdentityLinkInfo;
 import org.flowable.task.api.Task;
 import org.flowable.task.api.history.HistoricTaskInstance;
 import org.springframework.data.domain.Page;
@@ -38,12 +44,18 @@ import java.util.stream.Collectors;
 @Tag(name = "任务管理", description = "Flowable 任务的管理操作")
 public class TaskResource {
 
+    private static final int MAX_INBOX_PAGE_SIZE = 200;
+
     private final CmmnTaskService cmmnTaskService;
     private final TaskService taskService;
-    private final RuntimeService runtimeService;
     private final HistoryService historyService;
     private final ClaimCaseRepository claimCaseRepository;
-    private final UserRepository userRepository;
+    private final TaskInboxService taskInboxService;
+    private final TaskIdentityLinkLoader taskIdentityLinkLoader;
+    private final CasePaymentProcessLocator casePaymentProcessLocator;
+    private final UserGroupResolver userGroupResolver;
+    private final ReviewQueueService reviewQueueService;
+    private final ClaimMetrics claimMetrics;
 
     /**
      * 获取我的待办任务
@@ -55,63 +67,20 @@ public class TaskResource {
             Pageable pageable) {
         log.debug("REST request to get my tasks for user: {}", userId);
         
-        // Try to find user by UUID first, then use username for Flowable query
-        String flowableUserId = userId;
-        try {
-            User user = userRepository.findById(UUID.fromString(userId)).orElse(null);
-            if (user != null) {
-                flowableUserId = user.getUsername();
-                log.debug("Found user with UUID {}, using Flowable username: {}", userId, flowableUserId);
-            }
-        } catch (IllegalArgumentException e) {
-            // userId is already a username, use it directly
-            log.debug("userId is a username, using it directly: {}", userId);
-        }
-        
-        // Get tasks from both CMMN and BPMN engines
-        List<Task> cmmnTasks = cmmnTaskService.createTaskQuery()
-                .taskAssignee(flowableUserId)
-                .orderByTaskCreateTime().desc()
-                .list();
-        
-        List<Task> bpmnTasks = taskService.createTaskQuery()
-                .taskAssignee(flowableUserId)
-                .orderByTaskCreateTime().desc()
-                .list();
-        
-        // Merge both lists and remove duplicates
-        Set<String> taskIds = new HashSet<>();
-        List<Task> allTasks = new ArrayList<>();
-        
-        for (Task task : cmmnTasks) {
-            if (taskIds.add(task.getId())) {
-                allTasks.add(task);
-            }
-        }
-        
-        for (Task task : bpmnTasks) {
-            if (taskIds.add(task.getId())) {
-                allTasks.add(task);
-            }
-        }
-        
-        // Sort by creation time
-        allTasks.sort((t1, t2) -> t2.getCreateTime().compareTo(t1.getCreateTime()));
+        String flowableUserId = resolveFlowableUserId(userId);
         
-        // Apply pagination
-        long total = allTasks.size();
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), allTasks.size());
-        List<Task> pagedTasks = start < allTasks.size() ? allTasks.subList(start, end) : new ArrayList<>();
+        // CMMN and BPMN tasks share ACT_RU_TASK, so a single query pages both engines in the database
+        Page<Task> page = taskInboxService.findPage(TaskInboxService.InboxType.ASSIGNED,
+                flowableUserId, Collections.emptyList(), pageable);
         
         Page<TaskDTO> result = new PageImpl<>(
-                pagedTasks.stream().map(this::convertToDTO).collect(Collectors.toList()),
+                convertToDTOs(page.getContent()),
                 pageable,
-                total
+                page.getTotalElements()
         );
         
         log.debug("Returning {} tasks for user {} (Flowable userId: {}, total: {})", 
-                pagedTasks.size(), userId, flowableUserId, total);
+                page.getNumberOfElements(), userId, flowableUserId, page.getTotalElements());
         return ResponseEntity.ok(result);
     }
 
@@ -128,107 +97,93 @@ public class TaskResource {
             Pageable pageable) {
         log.debug("REST request to get claimable tasks for user: {}", userId);
         
-        // Try to find user by UUID first, then by username
-        User user = null;
-        try {
-            user = userRepository.findById(UUID.fromString(userId))
-                    .orElse(null);
-        } catch (IllegalArgumentException e) {
-            // userId is not a valid UUID, try by username
-        }
+        // Resolve candidate groups once (cached) and match them with a single taskCandidateGroupIn query
+        UserGroupResolver.UserGroups user = userGroupResolver.resolve(userId);
+        List<String> groups = user.getGroups();
         
-        if (user == null) {
-            user = userRepository.findByUsername(userId)
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        }
+        Page<Task> page = taskInboxService.findPage(TaskInboxService.InboxType.CLAIMABLE,
+                user.getUsername(), groups, pageable);
         
-        String username = user.getUsername();
+        Page<TaskDTO> result = new PageImpl<>(
+                convertToDTOs(page.getContent()),
+                pageable,
+                page.getTotalElements()
+        );
         
-        // Get all tasks with candidate users directly from both CMMN and BPMN
-        List<Task> tasksByCandidateUser = new ArrayList<>();
-        tasksByCandidateUser.addAll(cmmnTaskService.createTaskQuery()
-                .taskCandidateUser(username)
-                .active()
-                .list());
-        tasksByCandidateUser.addAll(taskService.createTaskQuery()
-                .taskCandidateUser(username)
-                .active()
-                .list());
-        
-        // Get all tasks with candidate groups that the user's roles match
-        List<Task> tasksByCandidateGroups = new ArrayList<>();
-        
-        // Map role names to Flowable group names
-        for (Role role : user.getRoles()) {
-            String flowableGroup = mapRoleToGroup(role.getName());
-            if (flowableGroup != null) {
-                // Query both CMMN and BPMN engines
-                tasksByCandidateGroups.addAll(cmmnTaskService.createTaskQuery()
-                        .taskCandidateGroup(flowableGroup)
-                        .active()
-                        .list());
-                tasksByCandidateGroups.addAll(taskService.createTaskQuery()
-                        .taskCandidateGroup(flowableGroup)
-                        .active()
-                        .list());
-                log.debug("Found {} tasks for user {} with role {} (group: {})", 
-                        tasksByCandidateGroups.size(), userId, role.getName(), flowableGroup);
-            }
+        log.debug("Returning {} claimable tasks for user {} (groups: {}, total: {})", 
+                page.getNumberOfElements(), userId, groups, page.getTotalElements());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 游标分页获取任务收件箱
+     * 按 (创建时间, 任务ID) 降序，翻页成本与页码无关
+     */
+    @GetMapping("/inbox")
+    @Operation(summary = "游标分页获取任务收件箱", description = "按创建时间和任务ID游标分页获取我的待办或可认领任务")
+    public ResponseEntity<CursorPageDTO<TaskDTO>> getInbox(
+            @Parameter(description = "用户ID或用户名") @RequestParam String userId,
+            @Parameter(description = "收件箱类型: ASSIGNED 或 CLAIMABLE") @RequestParam(defaultValue = "ASSIGNED") TaskInboxService.InboxType type,
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "页大小") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "总数统计方式: EXACT、ESTIMATED 或 NONE") @RequestParam(defaultValue = "ESTIMATED") TaskInboxService.CountMode countMode) {
+        log.debug("REST request to get {} inbox for user: {}, cursor: {}", type, userId, cursor);
+        
+        if (size < 1 || size > MAX_INBOX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_INBOX_PAGE_SIZE);
         }
         
-        // Merge both lists and remove duplicates
-        Set<String> taskIds = new HashSet<>();
-        List<Task> allTasks = new ArrayList<>();
-        
-        for (Task task : tasksByCandidateUser) {
-            if (taskIds.add(task.getId())) {
-                allTasks.add(task);
-            }
+        String username;
+        List<String> groups;
+        if (type == TaskInboxService.InboxType.CLAIMABLE) {
+            UserGroupResolver.UserGroups user = userGroupResolver.resolve(userId);
+            username = user.getUsername();
+            groups = user.getGroups();
+        } else {
+            username = resolveFlowableUserId(userId);
+            groups = Collections.emptyList();
         }
         
-        for (Task task : tasksByCandidateGroups) {
-            if (taskIds.add(task.getId())) {
-                allTasks.add(task);
+        Date cursorCreateTime = null;
+        String cursorTaskId = null;
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        if (pageCursor != null) {
+            try {
+                cursorCreateTime = new Date(Long.parseLong(pageCursor.getSortKey()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid page cursor: " + cursor);
             }
+            cursorTaskId = pageCursor.getId();
         }
         
-        // Sort by creation time
-        allTasks.sort((t1, t2) -> t2.getCreateTime().compareTo(t1.getCreateTime()));
-        
-        // Apply pagination
-        long total = allTasks.size();
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), allTasks.size());
-        List<Task> pagedTasks = start < allTasks.size() ? allTasks.subList(start, end) : new ArrayList<>();
+        TaskInboxService.InboxSlice slice = taskInboxService.findSlice(type, username, groups,
+                cursorCreateTime, cursorTaskId, size, countMode);
         
-        Page<TaskDTO> result = new PageImpl<>(
-                pagedTasks.stream().map(this::convertToDTO).collect(Collectors.toList()),
-                pageable,
-                total
-        );
+        String nextCursor = null;
+        if (slice.isHasNext()) {
+            Task last = slice.getTasks().get(slice.getTasks().size() - 1);
+            nextCursor = new PageCursor(String.valueOf(last.getCreateTime().getTime()), last.getId()).encode();
+        }
         
-        log.debug("Returning {} claimable tasks for user {} (total: {})", pagedTasks.size(), userId, total);
+        CursorPageDTO<TaskDTO> result = CursorPageDTO.<TaskDTO>builder()
+                .content(convertToDTOs(slice.getTasks()))
+                .size(size)
+                .hasNext(slice.isHasNext())
+                .nextCursor(nextCursor)
+                .totalElements(slice.getTotal())
+                .totalExact(slice.isTotalExact())
+                .build();
         return ResponseEntity.ok(result);
     }
     
     /**
-     * Map application role names to Flowable group names
+     * 将用户ID（UUID）或用户名解析为 Flowable 使用的用户名
      */
-    private String mapRoleToGroup(String roleName) {
-        switch (roleName) {
-            case "ADMIN":
-                return "managers"; // Admin can see manager tasks
-            case "MANAGER":
-                return "managers";
-            case "APPROVER":
-                return "managers"; // Approvers are also in managers group for approval tasks
-            case "CLAIM_HANDLER":
-                return null; // No candidate group mapping needed for claim handlers
-            case "FINANCE":
-                return null; // No candidate group mapping needed for finance
-            default:
-                return null;
-        }
+    private String resolveFlowableUserId(String userId) {
+        // Unknown users are treated as Flowable usernames directly
+        return userGroupResolver.find(userId)
+                .map(UserGroupResolver.UserGroups::getUsername)
+                .orElse(userId);
     }
 
     /**
@@ -291,7 +246,7 @@ public class TaskResource {
      * 完成任务
      */
     @PostMapping("/{taskId}/complete")
-    @Operation(summary = "完成任务", description = "完成指定的任务")
+    @Operation(summary = "完成任务", description = "完成指定的任务；审核队列模式下审核任务写入队列后返回 202")
     public ResponseEntity<Void> completeTask(
             @Parameter(description = "任务ID") @PathVariable String taskId,
             @RequestBody(required = false) Map<String, Object> variables) {
@@ -311,6 +266,12 @@ public class TaskResource {
                 
                 // Check if it's a review claim task - add DMN input variables
                 if ("taskReviewClaim".equals(taskKey)) {
+                    if (reviewQueueService.isQueued(task)) {
+                        // 审核队列模式：写入队列即返回，决策和后续阶段由 ReviewQueueWorker 按微批推进
+                        reviewQueueService.enqueue(task, variables);
+                        log.debug("Queued completion of review claim task {}", taskId);
+                        return ResponseEntity.accepted().build();
+                    }
                     log.debug("Completing review claim task - adding DMN input variables");
                     addDmnInputVariables(task, variables);
                 }
@@ -362,12 +323,19 @@ public class TaskResource {
             // BPMN tasks have processInstanceId, CMMN tasks have scopeId
             boolean isBpmnTask = task != null && task.getProcessInstanceId() != null;
             
-            if (isBpmnTask) {
-                log.debug("Task is from BPMN process, using taskService.complete()");
-                taskService.complete(taskId, variables);
-            } else {
-                log.debug("Task is from CMMN case, using cmmnTaskService.complete()");
-                cmmnTaskService.complete(taskId, variables);
+            Timer.Sample sample = claimMetrics.start();
+            String outcome = ClaimMetrics.OUTCOME_ERROR;
+            try {
+                if (isBpmnTask) {
+                    log.debug("Task is from BPMN process, using taskService.complete()");
+                    taskService.complete(taskId, variables);
+                } else {
+                    log.debug("Task is from CMMN case, using cmmnTaskService.complete()");
+                    cmmnTaskService.complete(taskId, variables);
+                }
+                outcome = ClaimMetrics.OUTCOME_SUCCESS;
+            } finally {
+                claimMetrics.recordTaskCompletion(sample, task, outcome);
             }
             
             log.debug("Task {} completed successfully", taskId);
@@ -421,7 +389,7 @@ public class TaskResource {
             return ResponseEntity.notFound().build();
         }
         
-        return ResponseEntity.ok(convertToDTO(task));
+        return ResponseEntity.ok(convertToDTOs(List.of(task)).get(0));
     }
 
     /**
@@ -480,18 +448,7 @@ public class TaskResource {
         Map<String, Object> statistics = new HashMap<>();
         
         if (userId != null) {
-            // Try to find user by UUID first, then use username for Flowable query
-            String flowableUserId = userId;
-            try {
-                User user = userRepository.findById(UUID.fromString(userId)).orElse(null);
-                if (user != null) {
-                    flowableUserId = user.getUsername();
-                    log.debug("Found user with UUID {}, using Flowable username: {}", userId, flowableUserId);
-                }
-            } catch (IllegalArgumentException e) {
-                // userId is already a username, use it directly
-                log.debug("userId is a username, using it directly: {}", userId);
-            }
+            String flowableUserId = resolveFlowableUserId(userId);
             
             // 我的待办任务数 - include both CMMN and BPMN
             long myTasksCount = cmmnTaskService.createTaskQuery()
@@ -556,23 +513,18 @@ public class TaskResource {
                 .asc()
                 .list();
         
-        // Get BPMN active tasks - first find process instances with the caseInstanceId variable
-        List<org.flowable.engine.runtime.ProcessInstance> bpmnProcessInstances = runtimeService
-                .createProcessInstanceQuery()
-                .variableValueEquals("caseInstanceId", caseInstanceId)
-                .list();
-        
-        log.debug("Found {} BPMN process instances for case {}", bpmnProcessInstances.size(), caseInstanceId);
-        
-        List<Task> bpmnActiveTasks = new ArrayList<>();
-        for (org.flowable.engine.runtime.ProcessInstance processInstance : bpmnProcessInstances) {
-            List<Task> tasks = taskService.createTaskQuery()
-                    .processInstanceId(processInstance.getId())
-                    .active()
-                    .list();
-            bpmnActiveTasks.addAll(tasks);
-            log.debug("Process instance {} has {} active tasks", processInstance.getId(), tasks.size());
-        }
+        // Get BPMN active tasks - payment processes started by the case's processTask plan items,
+        // including finished ones so that their historic tasks are not missed
+        List<String> processInstanceIds = casePaymentProcessLocator.findProcessInstanceIds(caseInstanceId);
+        log.debug("Found {} BPMN process instances for case {}", processInstanceIds.size(), caseInstanceId);
+
+        List<Task> bpmnActiveTasks = processInstanceIds.isEmpty() ? Collections.emptyList()
+                : taskService.createTaskQuery()
+                        .processInstanceIdIn(processInstanceIds)
+                        .active()
+                        .orderByTaskCreateTime()
+                        .asc()
+                        .list();
         
         // Merge active tasks
         Set<String> taskIds = new HashSet<>();
@@ -601,27 +553,14 @@ public class TaskResource {
                 .desc()
                 .list();
         
-        // Get historic BPMN tasks - find process instances first
-        List<org.flowable.engine.runtime.ProcessInstance> bpmnHistoricProcessInstances = runtimeService
-                .createProcessInstanceQuery()
-                .variableValueEquals("caseInstanceId", caseInstanceId)
-                .includeProcessVariables()
-                .list();
-        
-        Set<String> historicProcessInstanceIds = bpmnHistoricProcessInstances.stream()
-                .map(org.flowable.engine.runtime.ProcessInstance::getId)
-                .collect(Collectors.toSet());
-        
-        List<HistoricTaskInstance> bpmnHistoricTasks = new ArrayList<>();
-        for (String processInstanceId : historicProcessInstanceIds) {
-            List<HistoricTaskInstance> tasks = historyService.createHistoricTaskInstanceQuery()
-                    .processInstanceId(processInstanceId)
-                    .finished()
-                    .orderByHistoricTaskInstanceEndTime()
-                    .desc()
-                    .list();
-            bpmnHistoricTasks.addAll(tasks);
-        }
+        // Get historic BPMN tasks of the same processes in one query
+        List<HistoricTaskInstance> bpmnHistoricTasks = processInstanceIds.isEmpty() ? Collections.emptyList()
+                : historyService.createHistoricTaskInstanceQuery()
+                        .processInstanceIdIn(processInstanceIds)
+                        .finished()
+                        .orderByHistoricTaskInstanceEndTime()
+                        .desc()
+                        .list();
         
         // Merge historic tasks
         Set<String> historicTaskIds = new HashSet<>();
@@ -640,16 +579,27 @@ public class TaskResource {
         }
         
         Map<String, Object> result = new HashMap<>();
-        result.put("activeTasks", allActiveTasks.stream().map(this::convertToDTO).collect(Collectors.toList()));
+        // Load candidate links for all active tasks in one query, shared by activeTasks and availableForMe
+        Map<String, List<IdentityLinkInfo>> identityLinks = taskIdentityLinkLoader.loadIdentityLinks(
+                allActiveTasks.stream().map(Task::getId).collect(Collectors.toList()));
+        
+        result.put("activeTasks", allActiveTasks.stream()
+                .map(task -> convertToDTO(task, identityLinks.get(task.getId())))
+                .collect(Collectors.toList()));
         result.put("historicTasks", allHistoricTasks.stream().map(this::convertToHistoricDTO).collect(Collectors.toList()));
         
         // 如果提供了用户ID，过滤并标记当前用户可以执行的任务
         if (userId != null) {
+            // Resolve the user once for all tasks instead of reloading it inside the identity link loop
+            String username = resolveFlowableUserId(userId);
+            List<String> groups = userGroupResolver.find(userId)
+                    .map(UserGroupResolver.UserGroups::getGroups)
+                    .orElse(Collections.emptyList());
             List<Task> availableForMeRaw = allActiveTasks.stream()
-                    .filter(task -> isTaskAvailableForUser(task, userId))
+                    .filter(task -> isTaskAvailableForUser(task, username, groups, identityLinks.get(task.getId())))
                     .collect(Collectors.toList());
             result.put("availableForMe", availableForMeRaw.stream()
-                    .map(this::convertToDTO)
+                    .map(task -> convertToDTO(task, identityLinks.get(task.getId())))
                     .collect(Collectors.toList()));
         }
         
@@ -659,55 +609,27 @@ public class TaskResource {
     /**
      * 检查任务是否对指定用户可用（可执行）
      */
-    private boolean isTaskAvailableForUser(Task task, String userId) {
-        // Convert userId (UUID) to username for comparison with Flowable task assignee
-        String username = userId;
-        try {
-            User user = userRepository.findById(UUID.fromString(userId)).orElse(null);
-            if (user != null) {
-                username = user.getUsername();
-                log.debug("Converted userId {} to username {}", userId, username);
-            }
-        } catch (IllegalArgumentException e) {
-            // userId is already a username, use it directly
-            log.debug("userId is a username, using it directly: {}", userId);
-        }
-        
+    private boolean isTaskAvailableForUser(Task task, String username, List<String> groups,
+                                           List<IdentityLinkInfo> identityLinks) {
         // 任务已分配给该用户
         if (username.equals(task.getAssignee())) {
-            log.debug("Task {} is assigned to user {} (username: {})", task.getId(), userId, username);
+            log.debug("Task {} is assigned to user {}", task.getId(), username);
             return true;
         }
         
-        // 任务是该用户的候选任务
-        List<org.flowable.identitylink.api.IdentityLink> identityLinks = 
-                cmmnTaskService.getIdentityLinksForTask(task.getId());
-        for (org.flowable.identitylink.api.IdentityLink link : identityLinks) {
+        // 任务是该用户的候选任务，或用户所在组的候选任务
+        for (IdentityLinkInfo link : identityLinks) {
             if ("candidate".equals(link.getType())) {
                 if (username.equals(link.getUserId())) {
                     return true;
                 }
-                if (link.getGroupId() != null) {
-                    // 检查用户是否属于该组
-                    try {
-                        User user = userRepository.findById(UUID.fromString(userId))
-                                .orElse(userRepository.findByUsername(userId).orElse(null));
-                        if (user != null) {
-                            for (Role role : user.getRoles()) {
-                                String flowableGroup = mapRoleToGroup(role.getName());
-                                if (flowableGroup != null && flowableGroup.equals(link.getGroupId())) {
-                                    return true;
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        log.debug("Error checking group membership for user {}: {}", userId, e.getMessage());
-                    }
+                if (link.getGroupId() != null && groups.contains(link.getGroupId())) {
+                    return true;
                 }
             }
         }
         
-        log.debug("Task {} is not available for user {} (username: {})", task.getId(), userId, username);
+        log.debug("Task {} is not available for user {}", task.getId(), username);
         return false;
     }
 
@@ -737,10 +659,21 @@ public class TaskResource {
         return dto;
     }
 
+    /**
+     * 批量转换为 DTO，整页任务的身份关联通过一次查询加载
+     */
+    private List<TaskDTO> convertToDTOs(List<Task> tasks) {
+        Map<String, List<IdentityLinkInfo>> identityLinks = taskIdentityLinkLoader.loadIdentityLinks(
+                tasks.stream().map(Task::getId).collect(Collectors.toList()));
+        return tasks.stream()
+                .map(task -> convertToDTO(task, identityLinks.get(task.getId())))
+                .collect(Collectors.toList());
+    }
+
     /**
      * 转换为 DTO
      */
-    private TaskDTO convertToDTO(Task task) {
+    private TaskDTO convertToDTO(Task task, List<IdentityLinkInfo> identityLinks) {
         TaskDTO dto = new TaskDTO();
         dto.setId(task.getId());
         dto.setName(task.getName());
@@ -766,12 +699,13 @@ public class TaskResource {
         dto.setSuspended(task.isSuspended());
         
         // 获取候选用户和组
-        dto.setCandidateUsers(cmmnTaskService.getIdentityLinksForTask(task.getId()).stream()
+        List<IdentityLinkInfo> links = identityLinks != null ? identityLinks : Collections.emptyList();
+        dto.setCandidateUsers(links.stream()
                 .filter(link -> "candidate".equals(link.getType()) && link.getUserId() != null)
                 .map(link -> link.getUserId())
                 .collect(Collectors.toList()));
         
-        dto.setCandidateGroups(cmmnTaskService.getIdentityLinksForTask(task.getId()).stream()
+        dto.setCandidateGroups(links.stream()
                 .filter(link -> "candidate".equals(link.getType()) && link.getGroupId() != null)
                 .map(link -> link.getGroupId())
                 .collect(Collectors.toList()));
@@ -4,6 +4,9 @@ import com.flowable.demo.domain.model.User;
 import com.flowable.demo.domain.model.Role;
 import com.flowable.demo.domain.repository.UserRepository;
 import com.flowable.demo.domain.repository.RoleRepository;
+import com.flowable.demo.service.AuthenticationCache;
+import com.flowable.demo.service.UserDirectoryService;
+import com.flowable.demo.service.UserGroupResolver;
 import com.flowable.demo.web.rest.dto.UserDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,7 +14,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -41,6 +43,9 @@ public class UserResource {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final EntityManager entityManager;
+    private final UserGroupResolver userGroupResolver;
+    private final AuthenticationCache authenticationCache;
+    private final UserDirectoryService userDirectoryService;
 
     /**
      * 获取当前用户信息
@@ -87,35 +92,22 @@ public class UserResource {
 
     /**
      * 获取所有用户
+     * 分页、排序和筛选都在数据库中完成，角色按当前页批量加载
      */
     @GetMapping
-    @Operation(summary = "获取所有用户", description = "获取所有用户的分页列表")
+    @Operation(summary = "获取所有用户", description = "获取所有用户的分页列表，支持按部门、角色和状态筛选")
     public ResponseEntity<Page<UserDTO>> getAllUsers(
             @Parameter(description = "是否只获取活跃用户") @RequestParam(defaultValue = "true") boolean activeOnly,
+            @Parameter(description = "是否活跃，指定时优先于 activeOnly") @RequestParam(required = false) Boolean active,
+            @Parameter(description = "部门") @RequestParam(required = false) String department,
+            @Parameter(description = "角色") @RequestParam(required = false) String role,
             Pageable pageable) {
-        log.debug("REST request to get all users, activeOnly: {}", activeOnly);
+        log.debug("REST request to get all users, activeOnly: {}, active: {}, department: {}, role: {}",
+                activeOnly, active, department, role);
 
-        List<User> users;
-        long total;
-
-        if (activeOnly) {
-            users = userRepository.findAllActiveUsers();
-            total = users.size();
-        } else {
-            users = userRepository.findAll();
-            total = userRepository.count();
-        }
-
-        // 手动分页
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), users.size());
-        List<User> pageContent = users.subList(start, end);
-
-        List<UserDTO> userDTOs = pageContent.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-
-        Page<UserDTO> result = new PageImpl<>(userDTOs, pageable, total);
+        Boolean activeFilter = active != null ? active : (activeOnly ? Boolean.TRUE : null);
+        Page<UserDTO> result = userDirectoryService.findUsers(department, role, activeFilter, pageable)
+                .map(this::convertToDTO);
         return ResponseEntity.ok(result);
     }
 
@@ -162,6 +154,7 @@ public class UserResource {
         // 使用persist而不是save来确保创建新实体
         entityManager.persist(user);
         entityManager.flush(); // 确保立即获取生成的ID
+        userGroupResolver.evict(user);
         
         return ResponseEntity.ok(convertToDTO(user));
     }
@@ -182,6 +175,7 @@ public class UserResource {
         }
 
         User existingUser = userOptional.get();
+        String previousUsername = existingUser.getUsername();
 
         // 检查用户名和邮箱是否与其他用户冲突
         if (!existingUser.getUsername().equals(userDTO.getUsername()) &&
@@ -202,6 +196,12 @@ public class UserResource {
         existingUser.setActive("ACTIVE".equals(userDTO.getStatus()));
 
         User savedUser = userRepository.save(existingUser);
+        
+        // 用户名、状态或角色可能变化，使缓存的候选组和认证结果失效
+        userGroupResolver.evict(previousUsername);
+        userGroupResolver.evict(savedUser);
+        authenticationCache.evict(previousUsername);
+        authenticationCache.evict(savedUser.getUsername());
         return ResponseEntity.ok(convertToDTO(savedUser));
     }
 
@@ -214,11 +214,14 @@ public class UserResource {
             @Parameter(description = "用户ID") @PathVariable String id) {
         log.debug("REST request to delete user: {}", id);
 
-        if (!userRepository.existsById(UUID.fromString(id))) {
+        Optional<User> userOptional = userRepository.findById(UUID.fromString(id));
+        if (userOptional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
         userRepository.deleteById(UUID.fromString(id));
+        userGroupResolver.evict(userOptional.get());
+        authenticationCache.evict(userOptional.get().getUsername());
         return ResponseEntity.ok().build();
     }
 
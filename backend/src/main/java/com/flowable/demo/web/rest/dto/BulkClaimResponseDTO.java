@@ -0,0 +1,44 @@
+package com.flowable.demo.web.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量创建理赔案件响应 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批量创建理赔案件响应")
+public class BulkClaimResponseDTO {
+
+    @Schema(description = "提交条数")
+    private int total;
+
+    @Schema(description = "成功条数")
+    private int succeeded;
+
+    @Schema(description = "失败条数")
+    private int failed;
+
+    @Schema(description = "逐条结果，与请求顺序一致")
+    private List<BulkClaimResultDTO> results;
+
+    public static BulkClaimResponseDTO of(List<BulkClaimResultDTO> results) {
+        int succeeded = (int) results.stream()
+                .filter(result -> BulkClaimResultDTO.CREATED.equals(result.getStatus()))
+                .count();
+        return BulkClaimResponseDTO.builder()
+                .total(results.size())
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.flowable.demo.web.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量创建理赔案件的单条结果 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "批量创建理赔案件的单条结果")
+public class BulkClaimResultDTO {
+
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    @Schema(description = "请求中的序号（从0开始）")
+    private int index;
+
+    @Schema(description = "结果状态：CREATED 或 FAILED")
+    private String status;
+
+    @Schema(description = "案件ID")
+    private String id;
+
+    @Schema(description = "案件编号")
+    private String claimNumber;
+
+    @Schema(description = "案件实例ID")
+    private String caseInstanceId;
+
+    @Schema(description = "失败原因")
+    private String error;
+
+    public static BulkClaimResultDTO failed(int index, String error) {
+        return BulkClaimResultDTO.builder()
+                .index(index)
+                .status(FAILED)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.flowable.demo.web.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 理赔分级决策输入 DTO，字段与 ClaimDecisionTable 的输入变量一致
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "理赔分级决策输入")
+public class ClaimTriageInputDTO {
+
+    @Schema(description = "保单类型", example = "车险")
+    private String policyType;
+
+    @Schema(description = "索赔金额", example = "8000")
+    private BigDecimal claimedAmount;
+
+    @Schema(description = "保额", example = "100000")
+    private BigDecimal coverageAmount;
+
+    @Schema(description = "理赔类型", example = "盗窃")
+    private String claimType;
+
+    @Schema(description = "严重程度", example = "MEDIUM")
+    private String severity;
+
+    /**
+     * 转为决策变量，类型与案件审核时传给决策任务的变量相同
+     */
+    public Map<String, Object> toVariables() {
+        Map<String, Object> variables = new HashMap<>(8);
+        variables.put("policyType", policyType);
+        variables.put("claimedAmount", claimedAmount);
+        variables.put("coverageAmount", coverageAmount);
+        variables.put("claimType", claimType);
+        variables.put("severity", severity);
+        return variables;
+    }
+}
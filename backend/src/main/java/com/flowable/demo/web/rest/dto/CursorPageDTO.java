@@ -0,0 +1,38 @@
+package com.flowable.demo.web.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页结果 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "游标分页结果")
+public class CursorPageDTO<T> {
+
+    @Schema(description = "当前页数据")
+    private List<T> content;
+
+    @Schema(description = "页大小")
+    private int size;
+
+    @Schema(description = "是否还有下一页")
+    private boolean hasNext;
+
+    @Schema(description = "下一页游标，没有下一页时为空")
+    private String nextCursor;
+
+    @Schema(description = "总数，未统计时为空")
+    private Long totalElements;
+
+    @Schema(description = "总数是否精确（false 表示估算值）")
+    private boolean totalExact;
+}
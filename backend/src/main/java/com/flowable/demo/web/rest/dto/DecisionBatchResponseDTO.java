@@ -0,0 +1,33 @@
+package com.flowable.demo.web.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 决策批量求值响应 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "决策批量求值响应")
+public class DecisionBatchResponseDTO {
+
+    @Schema(description = "决策Key")
+    private String decisionKey;
+
+    @Schema(description = "求值使用的决策版本")
+    private int decisionVersion;
+
+    @Schema(description = "输入条数")
+    private int total;
+
+    @Schema(description = "逐条决策输出，与请求顺序一致；没有规则命中时为空对象")
+    private List<Map<String, Object>> results;
+}
@@ -0,0 +1,56 @@
+package com.flowable.demo.web.rest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 游标分页的续页令牌
+ * 由排序键和主键组成，对外以 Base64 URL 编码的不透明字符串传递
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 排序键（如创建时间）的字符串形式
+     */
+    private final String sortKey;
+
+    /**
+     * 用于打破排序键相同情况的主键
+     */
+    private final String id;
+
+    /**
+     * 编码为不透明令牌
+     */
+    public String encode() {
+        String raw = sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析令牌，令牌为空时返回 null
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + token);
+        }
+        int index = raw.indexOf(SEPARATOR);
+        if (index <= 0 || index == raw.length() - 1) {
+            throw new IllegalArgumentException("Invalid page cursor: " + token);
+        }
+        return new PageCursor(raw.substring(0, index), raw.substring(index + 1));
+    }
+}
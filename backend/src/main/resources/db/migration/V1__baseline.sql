@@ -0,0 +1,108 @@
+-- 基线结构：引入版本化脚本之前由 Hibernate 生成的业务表（与 data/flowable_demo.mv.db 一致）
+-- 脚本在每次启动时执行，只能包含可重复执行的语句
+
+create table if not exists app_role (
+    created_at timestamp(6) not null,
+    id uuid not null,
+    name varchar(50) not null unique,
+    description text,
+    primary key (id)
+);
+
+create table if not exists app_user (
+    active boolean not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    id uuid not null,
+    phone varchar(20),
+    username varchar(50) not null unique,
+    department varchar(100),
+    email varchar(100),
+    first_name varchar(100),
+    last_name varchar(100),
+    password varchar(255) not null,
+    primary key (id)
+);
+
+create table if not exists insurance_policy (
+    coverage_amount numeric(12,2) not null,
+    end_date date not null,
+    premium_amount numeric(10,2) not null,
+    start_date date not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    id uuid not null,
+    policy_holder_phone varchar(20),
+    status varchar(20) not null,
+    policy_number varchar(50) not null unique,
+    policy_type varchar(50) not null,
+    policy_holder_email varchar(100),
+    policy_holder_name varchar(100) not null,
+    primary key (id)
+);
+
+create table if not exists claim_case (
+    approved_amount numeric(19,2),
+    claimed_amount numeric(19,2) not null,
+    incident_date date not null,
+    paid_amount numeric(19,2),
+    payment_date date,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    assigned_to uuid,
+    created_by uuid not null,
+    id uuid not null,
+    policy_id uuid not null,
+    claimant_phone varchar(20),
+    claim_number varchar(50) not null unique,
+    claim_type varchar(50) not null,
+    case_instance_id varchar(64),
+    claimant_email varchar(100),
+    claimant_name varchar(100) not null,
+    transaction_id varchar(100),
+    incident_location varchar(200),
+    incident_description text,
+    payment_status enum ('DISPUTED','NOT_STARTED','PAID','PAYMENT_FAILED','PAYMENT_REJECTED','PROCESSING'),
+    severity enum ('CRITICAL','HIGH','LOW','MEDIUM') not null,
+    status enum ('APPROVED','CANCELLED','CLOSED','DRAFT','INVESTIGATING','PAID','PAYMENT_PROCESSING','REJECTED','SUBMITTED','UNDER_REVIEW') not null,
+    primary key (id)
+);
+
+create table if not exists claim_document (
+    file_size bigint,
+    uploaded_at timestamp(6) not null,
+    claim_id uuid not null,
+    id uuid not null,
+    uploaded_by uuid,
+    document_type varchar(50) not null,
+    mime_type varchar(100),
+    document_name varchar(200) not null,
+    file_path varchar(500),
+    primary key (id)
+);
+
+create table if not exists claim_history (
+    performed_at timestamp(6) not null,
+    claim_id uuid not null,
+    id uuid not null,
+    performed_by uuid,
+    action varchar(100) not null,
+    description text,
+    primary key (id)
+);
+
+create table if not exists user_role (
+    role_id uuid not null,
+    user_id uuid not null,
+    primary key (role_id, user_id)
+);
+
+alter table claim_case add constraint if not exists FKk5ua2n3kospxuoayi2x9bsgef foreign key (assigned_to) references app_user;
+alter table claim_case add constraint if not exists FKw05rw5ksakx5fjl3chkifuxo foreign key (created_by) references app_user;
+alter table claim_case add constraint if not exists FK1sjd00tm92h1qkp9nptj3905l foreign key (policy_id) references insurance_policy;
+alter table claim_document add constraint if not exists FKlhwgp3j7i4obqq8mgq5vksabp foreign key (claim_id) references claim_case;
+alter table claim_document add constraint if not exists FK9vu3soqsgk0o17wkrccurjx73 foreign key (uploaded_by) references app_user;
+alter table claim_history add constraint if not exists FKsnrx6pvuu0379nole86q9lstd foreign key (claim_id) references claim_case;
+alter table claim_history add constraint if not exists FK6vn5nw275l6rsbgtrahb0t7rj foreign key (performed_by) references app_user;
+alter table user_role add constraint if not exists FKp6m37g6n6c288s096400uw8fw foreign key (role_id) references app_role;
+alter table user_role add constraint if not exists FKg7fr1r7o0fkk41nfhnjdyqn7b foreign key (user_id) references app_user;
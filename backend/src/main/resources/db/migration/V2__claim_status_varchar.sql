@@ -0,0 +1,3 @@
+-- 理赔状态改为 VARCHAR：原生 ENUM 列不包含新增的 PENDING_START（异步启动），ddl-auto=update 也不会修改已有列
+-- 列类型已是 VARCHAR(20) 时 H2 不做任何改动，可重复执行
+alter table claim_case alter column status set data type varchar(20);
@@ -0,0 +1,20 @@
+-- 检索词元增加排序值 token_rank = -weight * 128 + position（128 为 SearchIndexService 的字段最大长度），
+-- 倒排按 (document_type, token, token_rank, document_id) 索引，截取得分最高的一批时不需要排序
+create table if not exists search_token (
+    position integer not null,
+    token_rank integer not null,
+    weight integer not null,
+    token varchar(12) not null,
+    document_id uuid not null,
+    id uuid not null,
+    document_type enum ('CLAIM_CASE','INSURANCE_POLICY') not null,
+    primary key (id)
+);
+
+-- 已有词元：先以生成列补齐排序值，再去掉表达式转为普通列；列已存在时两条语句都不做任何改动
+alter table search_token add column if not exists token_rank integer generated always as (-weight * 128 + position) not null;
+alter table search_token alter column token_rank drop expression;
+
+drop index if exists idx_search_token_type_token;
+create index if not exists idx_search_token_type_token_rank on search_token (document_type, token, token_rank, document_id);
+create index if not exists idx_search_token_type_document on search_token (document_type, document_id);
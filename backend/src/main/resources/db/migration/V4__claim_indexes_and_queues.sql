@@ -0,0 +1,64 @@
+-- 基线之后新增的业务表（立案发件箱、理赔编号序列、审核完成队列、检索发件箱）和查询索引，
+-- 与实体上的 @Table/@Index 定义一致；生产环境 ddl-auto=validate 不会建表建索引，全部由本脚本完成
+create table if not exists case_start_outbox (
+    attempts integer not null,
+    created_at timestamp(6) not null,
+    locked_at timestamp(6),
+    next_attempt_at timestamp(6) not null,
+    updated_at timestamp(6),
+    claim_case_id uuid not null unique,
+    id uuid not null,
+    claim_number varchar(50) not null,
+    last_error text,
+    status enum ('DEAD','PENDING','PROCESSING') not null,
+    primary key (id)
+);
+
+create table if not exists claim_number_sequence (
+    sequence_date date not null,
+    next_value bigint not null,
+    primary key (sequence_date)
+);
+
+create table if not exists review_queue_entry (
+    attempts integer not null,
+    created_at timestamp(6) not null,
+    locked_at timestamp(6),
+    next_attempt_at timestamp(6) not null,
+    updated_at timestamp(6),
+    id uuid not null,
+    case_instance_id varchar(64) not null,
+    task_id varchar(64) not null unique,
+    last_error text,
+    variables text,
+    status enum ('DEAD','PENDING','PROCESSING') not null,
+    primary key (id)
+);
+
+create table if not exists search_index_outbox (
+    attempts integer not null,
+    created_at timestamp(6) not null,
+    next_attempt_at timestamp(6) not null,
+    document_id uuid not null,
+    id uuid not null,
+    document_type enum ('CLAIM_CASE','INSURANCE_POLICY') not null,
+    primary key (id)
+);
+
+create index if not exists idx_app_user_active_username on app_user (active, username);
+create index if not exists idx_app_user_department_active on app_user (department, active);
+create index if not exists idx_case_start_outbox_status_next on case_start_outbox (status, next_attempt_at);
+create index if not exists idx_claim_case_created_at on claim_case (created_at, id);
+create index if not exists idx_claim_case_status_created_at on claim_case (status, created_at);
+create index if not exists idx_claim_case_assigned_created_at on claim_case (assigned_to, created_at);
+create index if not exists idx_claim_case_creator_created_at on claim_case (created_by, created_at);
+create index if not exists idx_claim_case_policy on claim_case (policy_id);
+create index if not exists idx_claim_case_case_instance on claim_case (case_instance_id);
+create index if not exists idx_claim_case_updated_at on claim_case (updated_at);
+create index if not exists idx_claim_document_claim_type on claim_document (claim_id, document_type);
+create index if not exists idx_claim_history_claim_performed_at on claim_history (claim_id, performed_at);
+create index if not exists idx_claim_history_performed_at on claim_history (performed_at);
+create index if not exists idx_insurance_policy_status_end_date on insurance_policy (status, end_date);
+create index if not exists idx_insurance_policy_updated_at on insurance_policy (updated_at);
+create index if not exists idx_review_queue_entry_status_next on review_queue_entry (status, next_attempt_at);
+create index if not exists idx_search_index_outbox_next on search_index_outbox (next_attempt_at);
@@ -0,0 +1,96 @@
+package com.flowable.demo.admin.service;
+
+import com.flowable.demo.admin.adapter.FlowableBpmnAdapter;
+import com.flowable.demo.admin.adapter.FlowableCmmnAdapter;
+import com.flowable.demo.admin.adapter.FlowableRepositoryAdapter;
+import com.flowable.demo.admin.web.dto.AdminStatisticsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminStatisticsServiceTest {
+
+    @Mock
+    private FlowableRepositoryAdapter repositoryAdapter;
+
+    @Mock
+    private FlowableCmmnAdapter cmmnAdapter;
+
+    @Mock
+    private FlowableBpmnAdapter bpmnAdapter;
+
+    @Spy
+    private DefinitionMetadataCache metadataCache = new DefinitionMetadataCache();
+
+    @InjectMocks
+    private AdminStatisticsService adminStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        adminStatisticsService.start();
+
+        when(repositoryAdapter.countCaseDefinitionKeys()).thenReturn(2L);
+        when(repositoryAdapter.countProcessDefinitionKeys()).thenReturn(3L);
+        when(repositoryAdapter.countDmnDecisionKeys()).thenReturn(1L);
+        when(repositoryAdapter.countCmmnDeployments()).thenReturn(4L);
+        when(repositoryAdapter.countBpmnDeployments()).thenReturn(5L);
+        when(repositoryAdapter.getDmnDeploymentCount()).thenReturn(1L);
+        when(repositoryAdapter.getLatestCmmnDeploymentTime()).thenReturn(date(LocalDateTime.of(2025, 1, 2, 10, 0)));
+        when(repositoryAdapter.getLatestBpmnDeploymentTime()).thenReturn(date(LocalDateTime.of(2025, 1, 3, 9, 30)));
+        when(repositoryAdapter.getLatestDmnDeploymentTime()).thenReturn(null);
+        when(cmmnAdapter.countCaseInstancesByState()).thenReturn(Map.of("ACTIVE", 7L));
+        when(bpmnAdapter.countProcessInstances()).thenReturn(Map.of("ACTIVE", 8L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        adminStatisticsService.stop();
+    }
+
+    @Test
+    void getStatistics_combinesCountQueries() {
+        AdminStatisticsDTO statistics = adminStatisticsService.getStatistics();
+
+        assertThat(statistics.getModels().getTotal()).isEqualTo(6L);
+        assertThat(statistics.getModels().getBpmn()).isEqualTo(3L);
+        assertThat(statistics.getDeployments().getTotal()).isEqualTo(10L);
+        assertThat(statistics.getDeployments().getLastDeploymentTime()).isEqualTo("2025-01-03 09:30:00");
+        assertThat(statistics.getCases()).containsEntry("ACTIVE", 7L);
+        assertThat(statistics.getProcesses()).containsEntry("ACTIVE", 8L);
+        verify(repositoryAdapter, never()).getAllCaseDefinitions();
+        verify(repositoryAdapter, never()).getBpmnDeployments();
+    }
+
+    @Test
+    void getStatistics_cachesDefinitionMetadataUntilInvalidated() {
+        adminStatisticsService.getStatistics();
+        adminStatisticsService.getStatistics();
+
+        verify(repositoryAdapter, times(1)).countCaseDefinitionKeys();
+        verify(cmmnAdapter, times(2)).countCaseInstancesByState();
+
+        when(repositoryAdapter.countCaseDefinitionKeys()).thenReturn(3L);
+        metadataCache.invalidate();
+
+        assertThat(adminStatisticsService.getStatistics().getModels().getCmmn()).isEqualTo(3L);
+        verify(repositoryAdapter, times(2)).countCaseDefinitionKeys();
+    }
+
+    private Date date(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,118 @@
+package com.flowable.demo.admin.service;
+
+import com.flowable.demo.admin.adapter.FlowableCmmnAdapter;
+import com.flowable.demo.admin.adapter.FlowableRepositoryAdapter;
+import org.flowable.cmmn.api.CmmnHistoryService;
+import org.flowable.cmmn.api.CmmnRepositoryService;
+import org.flowable.cmmn.api.CmmnRuntimeService;
+import org.flowable.cmmn.api.history.HistoricPlanItemInstance;
+import org.flowable.cmmn.api.runtime.PlanItemInstance;
+import org.flowable.cmmn.api.runtime.PlanItemInstanceQuery;
+import org.flowable.engine.HistoryService;
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.history.HistoricProcessInstance;
+import org.flowable.engine.history.HistoricProcessInstanceQuery;
+import org.flowable.engine.runtime.ProcessInstanceQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CaseRuntimeServiceTest {
+
+    @Mock
+    private FlowableCmmnAdapter cmmnAdapter;
+
+    @Mock
+    private FlowableRepositoryAdapter repositoryAdapter;
+
+    @Mock
+    private CmmnRepositoryService cmmnRepositoryService;
+
+    @Mock
+    private CmmnRuntimeService cmmnRuntimeService;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private CmmnHistoryService cmmnHistoryService;
+
+    @Mock
+    private RuntimeService runtimeService;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private HistoryService historyService;
+
+    @Mock
+    private RepositoryService repositoryService;
+
+    @Mock
+    private ProcessEngine processEngine;
+
+    @Mock
+    private ProcessDiagramCache processDiagramCache;
+
+    @InjectMocks
+    private CaseRuntimeService caseRuntimeService;
+
+    private ProcessInstanceQuery processInstanceQuery;
+
+    @BeforeEach
+    void setUp() {
+        processInstanceQuery = mock(ProcessInstanceQuery.class);
+        lenient().when(runtimeService.createProcessInstanceQuery()).thenReturn(processInstanceQuery);
+        lenient().when(processInstanceQuery.processInstanceId(anyString())).thenReturn(processInstanceQuery);
+    }
+
+    @Test
+    void getSubprocessDiagramKey_readsProcessInstanceByPlanItemReference() {
+        PlanItemInstance planItem = mock(PlanItemInstance.class);
+        when(planItem.getPlanItemDefinitionType()).thenReturn("processtask");
+        when(planItem.getReferenceId()).thenReturn("proc-1");
+        mockPlanItemQuery(planItem);
+
+        HistoricProcessInstance historic = mock(HistoricProcessInstance.class);
+        when(historic.getId()).thenReturn("proc-1");
+        when(historic.getProcessDefinitionId()).thenReturn("payment:1:1");
+        HistoricProcessInstanceQuery historicQuery = historyService.createHistoricProcessInstanceQuery();
+        when(historicQuery.processInstanceId("proc-1").singleResult()).thenReturn(historic);
+        when(historyService.createHistoricActivityInstanceQuery().processInstanceId("proc-1").finished().list())
+                .thenReturn(List.of());
+
+        ProcessDiagramCache.DiagramKey key = mock(ProcessDiagramCache.DiagramKey.class);
+        when(processDiagramCache.key("payment:1:1", List.of(), List.of())).thenReturn(key);
+
+        assertThat(caseRuntimeService.getSubprocessDiagramKey("plan-item-1")).isSameAs(key);
+        verify(processInstanceQuery).processInstanceId("proc-1");
+        verify(processInstanceQuery, never()).list();
+    }
+
+    @Test
+    void getSubprocessDiagramKey_fallsBackToHistoricPlanItemAfterCaseEnds() {
+        mockPlanItemQuery(null);
+        HistoricPlanItemInstance historicPlanItem = mock(HistoricPlanItemInstance.class);
+        when(historicPlanItem.getPlanItemDefinitionType()).thenReturn("processtask");
+        when(historicPlanItem.getReferenceId()).thenReturn(null);
+        when(cmmnHistoryService.createHistoricPlanItemInstanceQuery().planItemInstanceId("plan-item-1").singleResult())
+                .thenReturn(historicPlanItem);
+
+        assertThat(caseRuntimeService.getSubprocessDiagramKey("plan-item-1")).isNull();
+        verifyNoInteractions(runtimeService);
+    }
+
+    private void mockPlanItemQuery(PlanItemInstance result) {
+        PlanItemInstanceQuery query = mock(PlanItemInstanceQuery.class);
+        when(cmmnRuntimeService.createPlanItemInstanceQuery()).thenReturn(query);
+        when(query.planItemInstanceId("plan-item-1")).thenReturn(query);
+        when(query.singleResult()).thenReturn(result);
+    }
+}
@@ -0,0 +1,69 @@
+package com.flowable.demo.admin.service;
+
+import org.flowable.engine.RepositoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProcessDiagramCacheTest {
+
+    private ProcessDiagramCache cache;
+
+    @TempDir
+    Path spillDir;
+
+    @BeforeEach
+    void setUp() {
+        cache = spy(new ProcessDiagramCache(mock(RepositoryService.class)));
+        ReflectionTestUtils.setField(cache, "maxBytes", 10L);
+        doAnswer(inv -> new byte[6]).when(cache).render(any());
+    }
+
+    @Test
+    void key_ignoresActivityOrderAndDuplicates() {
+        ProcessDiagramCache.DiagramKey first = cache.key("proc:1:1", List.of("b", "a"), List.of("x", "x"));
+        ProcessDiagramCache.DiagramKey second = cache.key("proc:1:1", List.of("a", "b"), List.of("x"));
+        ProcessDiagramCache.DiagramKey otherState = cache.key("proc:1:1", List.of("a"), List.of("x", "b"));
+
+        assertThat(first.getHash()).isEqualTo(second.getHash());
+        assertThat(otherState.getHash()).isNotEqualTo(first.getHash());
+    }
+
+    @Test
+    void getOrRender_rendersOnceAndEvictsLeastRecentlyUsed() {
+        ProcessDiagramCache.DiagramKey a = cache.key("proc:1:1", List.of("a"), List.of());
+        ProcessDiagramCache.DiagramKey b = cache.key("proc:1:1", List.of("b"), List.of());
+
+        cache.getOrRender(a);
+        cache.getOrRender(a);
+        verify(cache, times(1)).render(a);
+
+        // 两张 6 字节的图超过 10 字节上限，a 被淘汰
+        cache.getOrRender(b);
+        cache.getOrRender(a);
+        verify(cache, times(2)).render(a);
+    }
+
+    @Test
+    void getOrRender_readsEvictedDiagramBackFromSpillDir() {
+        ReflectionTestUtils.setField(cache, "spillDir", spillDir.toString());
+        ProcessDiagramCache.DiagramKey a = cache.key("proc:1:1", List.of("a"), List.of());
+        ProcessDiagramCache.DiagramKey b = cache.key("proc:1:1", List.of("b"), List.of());
+
+        cache.getOrRender(a);
+        cache.getOrRender(b);
+        assertThat(Files.exists(spillDir.resolve(a.getHash() + ".png"))).isTrue();
+
+        assertThat(cache.getOrRender(a)).hasSize(6);
+        verify(cache, times(1)).render(a);
+    }
+}
@@ -0,0 +1,57 @@
+package com.flowable.demo.config;
+
+import com.flowable.demo.service.AuthenticationCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CachingAuthenticationProviderTest {
+
+    private final AuthenticationProvider delegate = mock(AuthenticationProvider.class);
+    private final CachingAuthenticationProvider provider =
+            new CachingAuthenticationProvider(delegate, new AuthenticationCache());
+
+    @Test
+    void authenticate_delegatesOnceForRepeatedCredentials() {
+        when(delegate.authenticate(any())).thenReturn(UsernamePasswordAuthenticationToken.authenticated(
+                "alice", "secret", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        provider.authenticate(request("alice", "secret", "first"));
+        Authentication second = provider.authenticate(request("alice", "secret", "second"));
+
+        verify(delegate, times(1)).authenticate(any());
+        assertThat(second.isAuthenticated()).isTrue();
+        assertThat(second.getName()).isEqualTo("alice");
+        assertThat(second.getCredentials()).isNull();
+        assertThat(second.getDetails()).isEqualTo("second");
+        assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void authenticate_doesNotCacheFailures() {
+        when(delegate.authenticate(any())).thenThrow(new BadCredentialsException("bad"));
+
+        assertThatThrownBy(() -> provider.authenticate(request("alice", "wrong", null)))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> provider.authenticate(request("alice", "wrong", null)))
+                .isInstanceOf(BadCredentialsException.class);
+
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    private Authentication request(String username, String password, Object details) {
+        UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+        token.setDetails(details);
+        return token;
+    }
+}
@@ -0,0 +1,158 @@
+package com.flowable.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flowable.demo.service.ClaimMetrics;
+import com.flowable.demo.service.DecisionEvaluationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.flowable.cmmn.engine.impl.persistence.entity.CaseInstanceEntityImpl;
+import org.flowable.common.engine.api.scope.ScopeTypes;
+import org.flowable.common.engine.impl.interceptor.Command;
+import org.flowable.common.engine.impl.interceptor.CommandExecutor;
+import org.flowable.common.engine.impl.persistence.cache.CachedEntity;
+import org.flowable.common.engine.impl.persistence.cache.EntityCache;
+import org.flowable.dmn.engine.DmnEngine;
+import org.flowable.dmn.engine.impl.cfg.StandaloneInMemDmnEngineConfiguration;
+import org.flowable.engine.impl.persistence.entity.ExecutionEntityImpl;
+import org.flowable.task.service.impl.persistence.entity.TaskEntityImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 命令追踪：安装到独立的内存 DMN 引擎上，检查计时、嵌套、刷新和语句统计以及慢命令报告
+ */
+class FlowableCommandTracerTest {
+
+    private SimpleMeterRegistry registry;
+    private FlowableCommandTracer tracer;
+    private DmnEngine dmnEngine;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        tracer = new FlowableCommandTracer(registry, new ObjectMapper());
+        // 冷启动的部署命令可能超过默认阈值，慢命令报告只在对应用例中开启
+        ReflectionTestUtils.setField(tracer, "slowCommandThresholdMs", -1L);
+        StandaloneInMemDmnEngineConfiguration configuration = new StandaloneInMemDmnEngineConfiguration();
+        configuration.setJdbcUrl("jdbc:h2:mem:command-tracer;DB_CLOSE_DELAY=1000");
+        configuration.setDatabaseSchemaUpdate(StandaloneInMemDmnEngineConfiguration.DB_SCHEMA_UPDATE_CREATE_DROP);
+        tracer.install(configuration, ClaimMetrics.ENGINE_DMN);
+        dmnEngine = configuration.buildDmnEngine();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dmnEngine.close();
+    }
+
+    @Test
+    void rootCommand_recordsTimerFlushesAndStatements() {
+        dmnEngine.getDmnRepositoryService().createDeployment()
+                .addClasspathResource("dmn/ClaimDecisionTable.dmn")
+                .deploy();
+
+        assertThat(registry.get("flowable.command").tag("engine", ClaimMetrics.ENGINE_DMN)
+                .tag("command", "DeployCmd").tag("nesting", FlowableCommandTracer.NESTING_ROOT)
+                .tag("outcome", ClaimMetrics.OUTCOME_SUCCESS).timer().count()).isEqualTo(1);
+        assertThat(registry.get("flowable.command.flushes").tag("command", "DeployCmd").summary().totalAmount())
+                .isGreaterThanOrEqualTo(1.0);
+        assertThat(registry.get("flowable.command.statements").tag("command", "DeployCmd")
+                .tag("type", SqlCommandType.INSERT.name()).summary().totalAmount()).isPositive();
+        assertThat(registry.find("flowable.command.slow").counter()).isNull();
+    }
+
+    @Test
+    void nestedCommand_isTimedSeparatelyAndCountedInRootTrace() {
+        CommandExecutor commandExecutor = dmnEngine.getDmnEngineConfiguration().getCommandExecutor();
+        Command<Void> inner = commandContext -> null;
+        Command<Void> outer = commandContext -> {
+            commandExecutor.execute(inner);
+            commandExecutor.execute(inner);
+            return null;
+        };
+
+        commandExecutor.execute(outer);
+
+        String innerName = FlowableCommandTracer.commandName(inner);
+        assertThat(innerName).endsWith("$$Lambda");
+        assertThat(registry.get("flowable.command").tag("command", innerName)
+                .tag("nesting", FlowableCommandTracer.NESTING_NESTED).timer().count()).isEqualTo(2);
+        // 嵌套命令复用外层命令上下文，只刷新一次
+        assertThat(registry.get("flowable.command.flushes").tag("command", innerName).summary().totalAmount())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void slowCommand_isCountedAboveThreshold() {
+        dmnEngine.getDmnRepositoryService().createDeployment()
+                .addClasspathResource("dmn/ClaimDecisionTable.dmn")
+                .deploy();
+        ReflectionTestUtils.setField(tracer, "slowCommandThresholdMs", 0L);
+
+        dmnEngine.getDmnDecisionService().createExecuteDecisionBuilder()
+                .decisionKey(DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY)
+                .variables(Map.of("claimAmount", BigDecimal.ONE))
+                .executeWithAuditTrail();
+
+        assertThat(registry.get("flowable.command.slow").tag("engine", ClaimMetrics.ENGINE_DMN)
+                .tag("command", "EvaluateDecisionCmd").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void report_includesScopeIdsNestedCommandsAndStatements() {
+        FlowableCommandTracer.CommandTrace trace = new FlowableCommandTracer.CommandTrace(ClaimMetrics.ENGINE_CMMN,
+                "CompleteTaskCmd");
+        trace.enter();
+        trace.enter();
+        trace.nested(ClaimMetrics.ENGINE_DMN, "ExecuteDecisionCmd", 2_000_000);
+        trace.exit();
+        trace.nested(ClaimMetrics.ENGINE_CMMN, "GetVariableCmd", 5_000_000);
+        trace.statement(SqlCommandType.INSERT);
+        trace.statement(SqlCommandType.INSERT);
+        trace.statement(SqlCommandType.SELECT);
+        trace.flushStarted();
+        trace.flushFinished();
+        trace.flushFinished();
+
+        CaseInstanceEntityImpl caseInstance = new CaseInstanceEntityImpl();
+        caseInstance.setId("case-1");
+        TaskEntityImpl cmmnTask = new TaskEntityImpl();
+        cmmnTask.setId("task-1");
+        cmmnTask.setScopeId("case-2");
+        cmmnTask.setScopeType(ScopeTypes.CMMN);
+        ExecutionEntityImpl execution = new ExecutionEntityImpl();
+        execution.setId("execution-1");
+        execution.setProcessInstanceId("process-1");
+        EntityCache entityCache = mock(EntityCache.class);
+        when(entityCache.getAllCachedEntities()).thenReturn(Map.of(
+                CaseInstanceEntityImpl.class, Map.of("case-1", new CachedEntity(caseInstance, false)),
+                TaskEntityImpl.class, Map.of("task-1", new CachedEntity(cmmnTask, false)),
+                ExecutionEntityImpl.class, Map.of("execution-1", new CachedEntity(execution, false))));
+        trace.collectScopeIds(entityCache);
+
+        Map<String, Object> report = trace.report(750_000_000, ClaimMetrics.OUTCOME_SUCCESS);
+
+        assertThat(report).containsEntry("engine", ClaimMetrics.ENGINE_CMMN)
+                .containsEntry("command", "CompleteTaskCmd")
+                .containsEntry("durationMs", 750L)
+                .containsEntry("flushes", 1)
+                .containsEntry("maxDepth", 2)
+                .containsEntry("statements", Map.of("select", 1L, "insert", 2L, "update", 0L, "delete", 0L))
+                .containsEntry("processInstanceIds", List.of("process-1"));
+        assertThat((List<Object>) report.get("caseInstanceIds")).containsExactlyInAnyOrder("case-1", "case-2");
+        assertThat((List<Map<String, Object>>) report.get("nestedCommands"))
+                .extracting(command -> command.get("command"))
+                .containsExactly("GetVariableCmd", "ExecuteDecisionCmd");
+    }
+}
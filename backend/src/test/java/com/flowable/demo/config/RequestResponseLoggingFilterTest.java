@@ -0,0 +1,95 @@
+package com.flowable.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestResponseLoggingFilterTest {
+
+    private RequestResponseLoggingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RequestResponseLoggingFilter(new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "mode", RequestResponseLoggingFilter.Mode.BODY);
+        ReflectionTestUtils.setField(filter, "maxBodyBytes", 8);
+    }
+
+    @Test
+    void teeResponseWrapper_passesBodyThroughAndCapturesOnlyPrefix() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestResponseLoggingFilter.TeeResponseWrapper wrapper =
+                new RequestResponseLoggingFilter.TeeResponseWrapper(response, 8);
+
+        wrapper.getOutputStream().write("0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(response.getContentAsString()).isEqualTo("0123456789abcdef");
+        assertThat(wrapper.getByteCount()).isEqualTo(16);
+        assertThat(new String(wrapper.getCaptured(), StandardCharsets.UTF_8)).isEqualTo("01234567");
+    }
+
+    @Test
+    void doFilter_flushesWriterOutputToOriginalResponse() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cases");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType("application/json");
+                resp.getWriter().write("{\"content\":[]}");
+            }
+        });
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getContentAsString()).isEqualTo("{\"content\":[]}");
+    }
+
+    @Test
+    void routeSampleRates_firstMatchingPatternWins() {
+        ReflectionTestUtils.setField(filter, "routeSampleRates", "/api/tasks/**=0.1, /api/admin/**=0");
+        filter.init();
+
+        assertThat(filter.sampleRate("/api/tasks/inbox")).isEqualTo(0.1);
+        assertThat(filter.sampleRate("/api/admin/statistics")).isEqualTo(0.0);
+        assertThat(filter.sampleRate("/api/cases")).isEqualTo(1.0);
+        assertThat(filter.isSampled("/api/admin/statistics")).isFalse();
+    }
+
+    @Test
+    void doFilter_unsampledRequestIsNotWrapped() throws Exception {
+        ReflectionTestUtils.setField(filter, "routeSampleRates", "/api/admin/**=0");
+        filter.init();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/statistics");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<Object> seenResponse = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, resp) -> seenResponse.set(resp));
+
+        assertThat(seenResponse.get()).isSameAs(response);
+    }
+
+    @Test
+    void doFilter_streamingExportIsNotWrapped() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cases/export");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<Object> seenResponse = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, resp) -> seenResponse.set(resp));
+
+        assertThat(seenResponse.get()).isSameAs(response);
+    }
+}
@@ -0,0 +1,150 @@
+package com.flowable.demo.domain.repository;
+
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.InsurancePolicy;
+import com.flowable.demo.domain.model.User;
+import com.flowable.demo.service.ClaimStatisticsListener;
+import com.flowable.demo.service.ClaimStatisticsSnapshot;
+import com.flowable.demo.service.SearchIndexListener;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 案件列表分页查询的 SQL 语句数：每页只允许一条查询加一条计数，与页大小无关
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ClaimCaseRepositoryTest {
+
+    private static final int CASES = 30;
+
+    /**
+     * 应用主类带有显式 @ComponentScan，这里只加载 JPA 相关的 Bean
+     */
+    @Configuration
+    @EntityScan("com.flowable.demo.domain.model")
+    @EnableJpaRepositories("com.flowable.demo.domain.repository")
+    @Import({ ClaimStatisticsListener.class, ClaimStatisticsSnapshot.class, SearchIndexListener.class })
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private ClaimCaseRepository claimCaseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User assignee;
+    private User creator;
+    private InsurancePolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        assignee = persistUser("assignee");
+        creator = persistUser("creator");
+        for (int i = 0; i < CASES; i++) {
+            // 每个案件使用不同的保单，保证懒加载时不会命中一级缓存
+            policy = persistPolicy("POL-" + i);
+            entityManager.persist(ClaimCase.builder()
+                    .claimNumber("CLM-" + i)
+                    .policy(policy)
+                    .claimType("AUTO")
+                    .claimedAmount(BigDecimal.valueOf(1000 + i))
+                    .incidentDate(LocalDate.now())
+                    .incidentLocation("Location " + i)
+                    .claimantName("Claimant " + i)
+                    .severity(ClaimCase.Severity.LOW)
+                    .status(ClaimCase.ClaimStatus.SUBMITTED)
+                    .assignedTo(assignee)
+                    .createdBy(creator)
+                    .build());
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void pagedListings_useOneSelectAndOneCountRegardlessOfPageSize() {
+        for (int size : new int[] { 5, 20 }) {
+            PageRequest pageable = PageRequest.of(0, size, Sort.by("createdAt").descending());
+
+            assertStatements(() -> claimCaseRepository.findAll(pageable), size);
+            assertStatements(() -> claimCaseRepository.findByStatus(ClaimCase.ClaimStatus.SUBMITTED, pageable), size);
+            assertStatements(() -> claimCaseRepository.findByAssignedTo(assignee, pageable), size);
+            assertStatements(() -> claimCaseRepository.findMyClaimCases(creator.getId(), pageable), size);
+        }
+    }
+
+    @Test
+    void findByPolicy_loadsAssociationsWithPage() {
+        assertStatements(() -> claimCaseRepository.findByPolicy(policy, PageRequest.of(0, 10)), 1);
+    }
+
+    @Test
+    void findAllByIdIn_loadsAssociationsForSearchResults() {
+        List<UUID> ids = claimCaseRepository.findAll().stream().limit(10).map(ClaimCase::getId).toList();
+
+        assertStatements(() -> new PageImpl<>(claimCaseRepository.findAllByIdIn(ids)), 10);
+    }
+
+    private void assertStatements(Supplier<Page<ClaimCase>> query, int expectedRows) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<ClaimCase> page = query.get();
+        // 与 CaseResource.convertToDTO 访问相同的关联
+        for (ClaimCase claimCase : page.getContent()) {
+            assertThat(claimCase.getPolicy().getPolicyNumber()).isNotNull();
+            assertThat(claimCase.getAssignedTo().getFullName()).isNotNull();
+            assertThat(claimCase.getCreatedBy().getFullName()).isNotNull();
+        }
+
+        assertThat(page.getContent()).hasSize(expectedRows);
+        // 一条分页查询，最多再加一条计数查询
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    private User persistUser(String username) {
+        User user = User.builder().username(username).password("x").firstName(username).build();
+        entityManager.persist(user);
+        return user;
+    }
+
+    private InsurancePolicy persistPolicy(String policyNumber) {
+        InsurancePolicy insurancePolicy = InsurancePolicy.builder()
+                .policyNumber(policyNumber)
+                .policyHolderName("Holder")
+                .policyType("AUTO")
+                .coverageAmount(BigDecimal.valueOf(100000))
+                .premiumAmount(BigDecimal.valueOf(1000))
+                .startDate(LocalDate.now().minusYears(1))
+                .endDate(LocalDate.now().plusYears(1))
+                .build();
+        entityManager.persist(insurancePolicy);
+        return insurancePolicy;
+    }
+}
@@ -0,0 +1,171 @@
+package com.flowable.demo.domain.repository;
+
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.ClaimCase.ClaimStatus;
+import com.flowable.demo.domain.model.InsurancePolicy;
+import com.flowable.demo.domain.model.User;
+import com.flowable.demo.service.ClaimStatisticsListener;
+import com.flowable.demo.service.ClaimStatisticsService;
+import com.flowable.demo.service.ClaimStatisticsSnapshot;
+import com.flowable.demo.service.SearchIndexListener;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 统计聚合查询在 H2 上的实际结果，以及映射文件中注册的统计监听器
+ */
+@DataJpaTest
+class ClaimCaseStatisticsQueryTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Configuration
+    @EntityScan("com.flowable.demo.domain.model")
+    @EnableJpaRepositories("com.flowable.demo.domain.repository")
+    @Import({ ClaimStatisticsListener.class, ClaimStatisticsSnapshot.class, SearchIndexListener.class,
+            ClaimStatisticsService.class })
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private ClaimCaseRepository claimCaseRepository;
+
+    @Autowired
+    private ClaimStatisticsService claimStatisticsService;
+
+    @Autowired
+    private ClaimStatisticsSnapshot snapshot;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void aggregateByStatus_returnsCountsAmountsAndDurationsPerStatus() {
+        InsurancePolicy policy = persistPolicy("POL-AGG");
+        User creator = persistUser("agg-creator");
+        persistCase("CLM-AGG-1", policy, creator, ClaimStatus.PAID, "1000.50", CREATED.plusHours(2));
+        persistCase("CLM-AGG-2", policy, creator, ClaimStatus.PAID, "200.25", CREATED.plusMinutes(30));
+        persistCase("CLM-AGG-3", policy, creator, ClaimStatus.REJECTED, "300", null);
+        persistCase("CLM-AGG-4", policy, creator, ClaimStatus.UNDER_REVIEW, "50", CREATED.plusSeconds(45));
+        entityManager.clear();
+
+        Map<ClaimStatus, Object[]> rows = new EnumMap<>(ClaimStatus.class);
+        for (Object[] row : claimCaseRepository.aggregateByStatus()) {
+            rows.put((ClaimStatus) row[0], row);
+        }
+
+        assertThat(rows).containsOnlyKeys(ClaimStatus.PAID, ClaimStatus.REJECTED, ClaimStatus.UNDER_REVIEW);
+        assertRow(rows.get(ClaimStatus.PAID), 2, "1200.75", 2, 7200 + 1800);
+        assertRow(rows.get(ClaimStatus.REJECTED), 1, "300", 0, 0);
+        assertRow(rows.get(ClaimStatus.UNDER_REVIEW), 1, "50", 1, 45);
+
+        claimStatisticsService.reconcile();
+        Map<String, Object> statistics = snapshot.toStatistics();
+        assertThat(statistics).containsEntry("totalClaims", 4L)
+                .containsEntry("pendingClaims", 1L)
+                .containsEntry("rejectedClaims", 1L)
+                .containsEntry("totalAmount", 1550.75);
+        // 终态中只有两个已支付案件有处理时长：(2h + 0.5h) / 2
+        assertThat((Double) statistics.get("averageProcessingTime")).isEqualTo(1.25);
+    }
+
+    @Test
+    void statisticsListener_isRegisteredFromMappingFileAndAppliesEachCommitOnce() {
+        snapshot.replace(Map.of());
+        InsurancePolicy policy = persistPolicy("POL-LISTENER");
+        User creator = persistUser("listener-creator");
+        ClaimCase claimCase = persistCase("CLM-LISTENER", policy, creator, ClaimStatus.CLOSED, "10", null);
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertThat(snapshot.count(ClaimStatus.CLOSED)).isEqualTo(1);
+
+        TestTransaction.start();
+        ClaimCase loaded = claimCaseRepository.findById(claimCase.getId()).orElseThrow();
+        assertThat(loaded.getStatisticsState()).isNotNull();
+        loaded.setStatus(ClaimStatus.PAID);
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertThat(snapshot.count(ClaimStatus.CLOSED)).isZero();
+        assertThat(snapshot.count(ClaimStatus.PAID)).isEqualTo(1);
+
+        TestTransaction.start();
+        loaded = claimCaseRepository.findById(claimCase.getId()).orElseThrow();
+        claimCaseRepository.delete(loaded);
+        entityManager.remove(entityManager.find(InsurancePolicy.class, policy.getId()));
+        entityManager.remove(entityManager.find(User.class, creator.getId()));
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertThat(snapshot.count(ClaimStatus.PAID)).isZero();
+    }
+
+    private void assertRow(Object[] row, long count, String amount, long timedCount, long seconds) {
+        assertThat(((Number) row[1]).longValue()).isEqualTo(count);
+        assertThat((BigDecimal) row[2]).isEqualByComparingTo(amount);
+        assertThat(((Number) row[3]).longValue()).isEqualTo(timedCount);
+        assertThat(row[4] != null ? ((Number) row[4]).longValue() : 0L).isEqualTo(seconds);
+    }
+
+    private ClaimCase persistCase(String claimNumber, InsurancePolicy policy, User creator, ClaimStatus status,
+                                  String amount, LocalDateTime updatedAt) {
+        ClaimCase claimCase = ClaimCase.builder()
+                .claimNumber(claimNumber)
+                .policy(policy)
+                .claimType("AUTO")
+                .claimedAmount(new BigDecimal(amount))
+                .incidentDate(LocalDate.of(2024, 12, 31))
+                .incidentLocation("Location")
+                .claimantName("Claimant")
+                .severity(ClaimCase.Severity.LOW)
+                .status(status)
+                .createdBy(creator)
+                .build();
+        entityManager.persist(claimCase);
+        entityManager.flush();
+        // 时间戳由 Hibernate 自动维护，这里直接改写成固定值
+        entityManager.createNativeQuery("UPDATE claim_case SET created_at = :createdAt, updated_at = :updatedAt "
+                        + "WHERE id = :id")
+                .setParameter("createdAt", CREATED)
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("id", claimCase.getId())
+                .executeUpdate();
+        return claimCase;
+    }
+
+    private User persistUser(String username) {
+        User user = User.builder().username(username).password("x").firstName(username).build();
+        entityManager.persist(user);
+        return user;
+    }
+
+    private InsurancePolicy persistPolicy(String policyNumber) {
+        InsurancePolicy policy = InsurancePolicy.builder()
+                .policyNumber(policyNumber)
+                .policyHolderName("Holder")
+                .policyType("AUTO")
+                .coverageAmount(BigDecimal.valueOf(100000))
+                .premiumAmount(BigDecimal.valueOf(1000))
+                .startDate(LocalDate.now().minusYears(1))
+                .endDate(LocalDate.now().plusYears(1))
+                .build();
+        entityManager.persist(policy);
+        return policy;
+    }
+}
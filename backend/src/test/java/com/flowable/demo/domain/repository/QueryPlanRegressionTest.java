@@ -0,0 +1,219 @@
+package com.flowable.demo.domain.repository;
+
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.User;
+import com.flowable.demo.service.ClaimStatisticsListener;
+import com.flowable.demo.service.ClaimStatisticsSnapshot;
+import com.flowable.demo.service.SearchIndexListener;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 热点查询的执行计划回归测试：执行 ClaimCaseRepository / ClaimHistoryRepository 等仓储方法，
+ * 经 StatementInspector 记录 Hibernate 实际发出的 SQL（含分页、COUNT 和 @EntityGraph 的关联），逐条用 H2 的 EXPLAIN 检查：
+ * 任何一条都不能退化为全表扫描（计划中出现 tableScan），第一条（主查询）须经由索引访问热点谓词列
+ * H2 会为外键自动建单列索引，代价相同时可能选它而不是同前缀的组合索引，因此只断言索引访问条件覆盖了该列
+ */
+@DataJpaTest(properties = {
+        "app.search.rebuild-on-startup=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.flowable.demo.domain.repository.QueryPlanRegressionTest$RecordingStatementInspector"
+})
+class QueryPlanRegressionTest {
+
+    private static final Sort CASE_ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    private static final Sort HISTORY_ORDER = Sort.by(Sort.Order.desc("performedAt"), Sort.Order.desc("id"));
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    /**
+     * 应用主类带有显式 @ComponentScan，这里只加载 JPA 相关的 Bean
+     */
+    @Configuration
+    @EntityScan("com.flowable.demo.domain.model")
+    @EnableJpaRepositories("com.flowable.demo.domain.repository")
+    @Import({ ClaimStatisticsListener.class, ClaimStatisticsSnapshot.class, SearchIndexListener.class })
+    static class JpaConfig {
+    }
+
+    /**
+     * 记录发往数据库的 SQL，由 Hibernate 按类名实例化
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+
+        static void clear() {
+            synchronized (STATEMENTS) {
+                STATEMENTS.clear();
+            }
+        }
+
+        /**
+         * 查询语句，去掉 use_sql_comments 加在开头的注释
+         */
+        static List<String> selects() {
+            synchronized (STATEMENTS) {
+                return STATEMENTS.stream()
+                        .map(sql -> sql.replaceFirst("^\\s*/\\*.*?\\*/\\s*", ""))
+                        .filter(sql -> sql.startsWith("select"))
+                        .toList();
+            }
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ClaimCaseRepository claimCaseRepository;
+
+    @Autowired
+    private ClaimHistoryRepository claimHistoryRepository;
+
+    @Autowired
+    private ClaimDocumentRepository claimDocumentRepository;
+
+    @Autowired
+    private InsurancePolicyRepository insurancePolicyRepository;
+
+    /**
+     * 分页查询取第 2 页：空表上第 1 页不足一页时 Spring Data 不发出 COUNT 查询
+     */
+    static Stream<Arguments> hotQueries() {
+        UUID id = UUID.randomUUID();
+        User user = User.builder().id(id).build();
+        ClaimCase claim = ClaimCase.builder().id(id).build();
+        PageRequest byCreatedAt = PageRequest.of(1, 20, CASE_ORDER);
+        return Stream.of(
+                query("findAll(Pageable) 按创建时间排序", "CREATED_AT",
+                        t -> t.claimCaseRepository.findAll(byCreatedAt)),
+                query("findAllBy(ScrollPosition) 续页", "CREATED_AT",
+                        t -> t.claimCaseRepository.findAllBy(after("createdAt", id), CASE_ORDER, Limit.of(20))),
+                query("findByStatus(Pageable)", "STATUS",
+                        t -> t.claimCaseRepository.findByStatus(ClaimCase.ClaimStatus.SUBMITTED, byCreatedAt)),
+                query("findByStatus(ScrollPosition) 续页", "STATUS",
+                        t -> t.claimCaseRepository.findByStatus(ClaimCase.ClaimStatus.SUBMITTED,
+                                after("createdAt", id), CASE_ORDER, Limit.of(20))),
+                query("findByAssignedTo(Pageable)", "ASSIGNED_TO",
+                        t -> t.claimCaseRepository.findByAssignedTo(user, byCreatedAt)),
+                query("findByCreatedBy", "CREATED_BY", t -> t.claimCaseRepository.findByCreatedBy(user)),
+                query("findMyClaimCases(Pageable)", "CREATED_BY",
+                        t -> t.claimCaseRepository.findMyClaimCases(id, byCreatedAt)),
+                query("findByCreatedBy(ScrollPosition) 续页", "CREATED_BY",
+                        t -> t.claimCaseRepository.findByCreatedBy(user, after("createdAt", id), CASE_ORDER,
+                                Limit.of(20))),
+                query("findByAssignedTo(ScrollPosition) 续页", "ASSIGNED_TO",
+                        t -> t.claimCaseRepository.findByAssignedTo(user, after("createdAt", id), CASE_ORDER,
+                                Limit.of(20))),
+                query("countMyClaimCases", "CREATED_BY", t -> t.claimCaseRepository.countMyClaimCases(id)),
+                query("findByPolicyId", "POLICY_ID", t -> t.claimCaseRepository.findByPolicyId(id)),
+                query("findByCaseInstanceId", "CASE_INSTANCE_ID",
+                        t -> t.claimCaseRepository.findByCaseInstanceId("case-1")),
+                query("countByCreatedAtAfter", "CREATED_AT",
+                        t -> t.claimCaseRepository.countByCreatedAtAfter(TIME)),
+                query("findByClaimIdOrderByPerformedAtDesc", "CLAIM_ID",
+                        t -> t.claimHistoryRepository.findByClaimIdOrderByPerformedAtDesc(id)),
+                query("findByClaim(ScrollPosition) 续页", "CLAIM_ID",
+                        t -> t.claimHistoryRepository.findByClaim(claim, after("performedAt", id), HISTORY_ORDER,
+                                Limit.of(20))),
+                query("countByClaimId(ClaimHistory)", "CLAIM_ID", t -> t.claimHistoryRepository.countByClaimId(id)),
+                query("findLatestStatusChanges", "CLAIM_ID",
+                        t -> t.claimHistoryRepository.findLatestStatusChanges(id)),
+                query("findByPerformedAtBetween", "PERFORMED_AT",
+                        t -> t.claimHistoryRepository.findByPerformedAtBetween(TIME, TIME.plusMonths(1))),
+                query("findByClaimIdAndDocumentType", "CLAIM_ID",
+                        t -> t.claimDocumentRepository.findByClaimIdAndDocumentType(id, "INVOICE")),
+                query("findPoliciesExpiringSoon", "END_DATE",
+                        t -> t.insurancePolicyRepository.findPoliciesExpiringSoon(LocalDate.of(2024, 1, 1),
+                                LocalDate.of(2024, 2, 1))));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryUsesIndex(String query, String indexedColumn, Consumer<QueryPlanRegressionTest> invocation) {
+        entityManager.clear();
+        RecordingStatementInspector.clear();
+
+        invocation.accept(this);
+
+        List<String> statements = RecordingStatementInspector.selects();
+        assertThat(statements).as("%s 发出的查询", query).isNotEmpty();
+        for (String sql : statements) {
+            assertThat(explain(sql)).as("%s 的执行计划: %s", query, sql).doesNotContainIgnoringCase("tableScan");
+        }
+        String plan = explain(statements.get(0));
+        assertThat(indexAccess(plan)).as("%s 的索引访问: %s", query, plan).containsIgnoringCase(indexedColumn);
+    }
+
+    /**
+     * 对捕获的 SQL 原样执行 EXPLAIN，参数保持未绑定，H2 按参数化条件给出执行计划
+     */
+    private String explain(String sql) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        });
+    }
+
+    /**
+     * 计划中 FROM 之后描述访问方式的注释，形如 "PUBLIC.IDX_X: STATUS = ..."
+     */
+    private String indexAccess(String plan) {
+        int start = plan.indexOf("/* PUBLIC.");
+        assertThat(start).as("执行计划中没有索引访问: %s", plan).isNotNegative();
+        return plan.substring(start, plan.indexOf("*/", start));
+    }
+
+    private static Arguments query(String name, String indexedColumn, Consumer<QueryPlanRegressionTest> invocation) {
+        return Arguments.of(name, indexedColumn, invocation);
+    }
+
+    /**
+     * 游标续页位置：排序键之后接 ID
+     */
+    private static ScrollPosition after(String sortProperty, UUID id) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(sortProperty, TIME);
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,128 @@
+package com.flowable.demo.domain.repository;
+
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.ClaimCase.ClaimStatus;
+import com.flowable.demo.domain.model.InsurancePolicy;
+import com.flowable.demo.domain.model.User;
+import com.flowable.demo.service.ClaimStatisticsListener;
+import com.flowable.demo.service.ClaimStatisticsSnapshot;
+import com.flowable.demo.service.SearchIndexListener;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 在已有数据库上启动：复制仓库中的开发库（基线结构，status 为原生 ENUM，没有之后新增的表和索引），
+ * 按生产环境的 ddl-auto=validate 启动，Hibernate 不做任何改动，只靠 db/migration 脚本把库转换为当前映射的结构
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SchemaMigrationTest {
+
+    @Configuration
+    @EntityScan("com.flowable.demo.domain.model")
+    @EnableJpaRepositories("com.flowable.demo.domain.repository")
+    @Import({ ClaimStatisticsListener.class, ClaimStatisticsSnapshot.class, SearchIndexListener.class })
+    static class JpaConfig {
+    }
+
+    @DynamicPropertySource
+    static void existingDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + copyDevelopmentDatabase()
+                + ";DB_CLOSE_ON_EXIT=FALSE");
+    }
+
+    @Autowired
+    private ClaimCaseRepository claimCaseRepository;
+
+    @Autowired
+    private InsurancePolicyRepository insurancePolicyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void existingDatabase_acceptsStatusesAddedAfterBaseline() {
+        assertThat(jdbcTemplate.queryForObject("SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS "
+                + "WHERE TABLE_NAME = 'CLAIM_CASE' AND COLUMN_NAME = 'STATUS'", String.class))
+                .isEqualTo("CHARACTER VARYING");
+        InsurancePolicy policy = insurancePolicyRepository.findAll().get(0);
+        User creator = userRepository.findAll().get(0);
+
+        ClaimCase claimCase = claimCaseRepository.saveAndFlush(ClaimCase.builder()
+                .claimNumber("CLM-MIGRATION-1")
+                .policy(policy)
+                .claimType("AUTO")
+                .claimedAmount(new BigDecimal("100"))
+                .incidentDate(LocalDate.of(2025, 1, 1))
+                .claimantName("Migration")
+                .severity(ClaimCase.Severity.LOW)
+                .status(ClaimStatus.PENDING_START)
+                .createdBy(creator)
+                .build());
+        entityManager.clear();
+
+        assertThat(claimCaseRepository.findById(claimCase.getId())).get()
+                .extracting(ClaimCase::getStatus).isEqualTo(ClaimStatus.PENDING_START);
+    }
+
+    @Test
+    void existingDatabase_hasEveryIndexDeclaredOnEntities() {
+        List<String> declared = entityManager.getMetamodel().getEntities().stream()
+                .map(entity -> entity.getJavaType().getAnnotation(Table.class))
+                .filter(Objects::nonNull)
+                .flatMap(table -> Arrays.stream(table.indexes()))
+                .map(index -> index.name().toUpperCase(Locale.ROOT))
+                .toList();
+        List<String> existing = jdbcTemplate.queryForList("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES "
+                + "WHERE TABLE_SCHEMA = 'PUBLIC'", String.class);
+
+        assertThat(declared).isNotEmpty();
+        assertThat(existing).containsAll(declared);
+    }
+
+    /**
+     * 每个测试上下文使用一份独立副本，不修改仓库中的数据库文件
+     */
+    static String copyDevelopmentDatabase() {
+        try {
+            Path directory = Files.createTempDirectory("schema-migration");
+            directory.toFile().deleteOnExit();
+            Path copy = directory.resolve("flowable_demo.mv.db");
+            Files.copy(Path.of("data", "flowable_demo.mv.db"), copy);
+            copy.toFile().deleteOnExit();
+            return directory.resolve("flowable_demo").toAbsolutePath().toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.flowable.demo.perf;
+
+import com.flowable.demo.domain.model.ClaimCase.ClaimStatus;
+import com.flowable.demo.service.ClaimStatisticsListener;
+import com.flowable.demo.service.ClaimStatisticsSnapshot;
+import com.flowable.demo.service.SearchIndexListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 批量造数：各表行数、在途 DRAFT 案件、状态历史符合 ClaimStatus 流转规则
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PerfDataSeederTest {
+
+    private static final int USERS = 5;
+    private static final int POLICIES = 50;
+    private static final int CLAIMS = 300;
+    private static final int IN_FLIGHT = 20;
+    private static final Pattern TRANSITION = Pattern.compile("Status changed from (\\w+) to (\\w+):.*");
+
+    /**
+     * 工作线程各自提交事务，测试方法不包在事务中；只加载 JPA 相关的 Bean
+     */
+    @Configuration
+    @EntityScan("com.flowable.demo.domain.model")
+    @EnableJpaRepositories("com.flowable.demo.domain.repository")
+    @Import({ ClaimStatisticsListener.class, ClaimStatisticsSnapshot.class, SearchIndexListener.class })
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private PerfDataSeeder seeder;
+
+    @BeforeEach
+    void setUp() {
+        seeder = new PerfDataSeeder(jdbcTemplate, new TransactionTemplate(transactionManager),
+                new BCryptPasswordEncoder(4));
+        ReflectionTestUtils.setField(seeder, "users", USERS);
+        ReflectionTestUtils.setField(seeder, "policies", POLICIES);
+        ReflectionTestUtils.setField(seeder, "claims", CLAIMS);
+        ReflectionTestUtils.setField(seeder, "inFlightCases", IN_FLIGHT);
+        ReflectionTestUtils.setField(seeder, "workers", 2);
+        ReflectionTestUtils.setField(seeder, "batchSize", 40);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : new String[] { "claim_document", "claim_history", "claim_case", "insurance_policy",
+                "user_role", "app_user", "app_role" }) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void seed_writesDatasetWithInFlightDrafts() {
+        assertThat(seeder.isSeeded()).isFalse();
+
+        PerfDataSeeder.Summary summary = seeder.seed();
+
+        assertThat(seeder.isSeeded()).isTrue();
+        assertThat(count("SELECT COUNT(*) FROM app_user")).isEqualTo(USERS + 1);
+        assertThat(count("SELECT COUNT(*) FROM app_role")).isEqualTo(6);
+        assertThat(count("SELECT COUNT(*) FROM insurance_policy")).isEqualTo(POLICIES);
+        assertThat(count("SELECT COUNT(*) FROM claim_case")).isEqualTo(CLAIMS);
+        assertThat(count("SELECT COUNT(*) FROM claim_history")).isEqualTo(summary.histories());
+        assertThat(count("SELECT COUNT(*) FROM claim_document")).isEqualTo(summary.documents());
+
+        // 最新的 IN_FLIGHT 个案件为 DRAFT，没有历史和文档，等待启动 CMMN 实例
+        assertThat(count("SELECT COUNT(*) FROM claim_case WHERE status = 'DRAFT'")).isEqualTo(IN_FLIGHT);
+        assertThat(count("SELECT COUNT(*) FROM claim_history h JOIN claim_case c ON c.id = h.claim_id "
+                + "WHERE c.status = 'DRAFT'")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM claim_case WHERE case_instance_id IS NOT NULL")).isZero();
+    }
+
+    @Test
+    void seed_historiesFollowStatusTransitionsAndEndAtCurrentStatus() {
+        seeder.seed();
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT c.id, c.status, h.description "
+                + "FROM claim_case c JOIN claim_history h ON h.claim_id = c.id ORDER BY c.id, h.performed_at");
+        assertThat(rows).isNotEmpty();
+        Object currentClaim = null;
+        String lastTarget = null;
+        String lastStatus = null;
+        for (Map<String, Object> row : rows) {
+            if (!row.get("ID").equals(currentClaim)) {
+                if (currentClaim != null) {
+                    assertThat(lastTarget).isEqualTo(lastStatus);
+                }
+                currentClaim = row.get("ID");
+                lastTarget = ClaimStatus.DRAFT.name();
+            }
+            Matcher matcher = TRANSITION.matcher((String) row.get("DESCRIPTION"));
+            assertThat(matcher.matches()).isTrue();
+            assertThat(matcher.group(1)).isEqualTo(lastTarget);
+            assertThat(ClaimStatus.valueOf(matcher.group(1)).canTransitionTo(ClaimStatus.valueOf(matcher.group(2))))
+                    .as(row.get("DESCRIPTION").toString())
+                    .isTrue();
+            lastTarget = matcher.group(2);
+            lastStatus = (String) row.get("STATUS");
+        }
+        assertThat(lastTarget).isEqualTo(lastStatus);
+    }
+
+    @Test
+    void statusPath_isValidFromDraftAndCoversInFlightAndFinalStatuses() {
+        Random random = new Random(7);
+        Set<ClaimStatus> reached = EnumSet.noneOf(ClaimStatus.class);
+        for (int i = 0; i < 5_000; i++) {
+            List<ClaimStatus> path = PerfDataSeeder.statusPath(random);
+            assertThat(path.get(0)).isEqualTo(ClaimStatus.DRAFT);
+            for (int step = 1; step < path.size(); step++) {
+                assertThat(path.get(step - 1).canTransitionTo(path.get(step))).as(path.toString()).isTrue();
+            }
+            reached.add(path.get(path.size() - 1));
+        }
+        assertThat(reached).contains(ClaimStatus.SUBMITTED, ClaimStatus.UNDER_REVIEW, ClaimStatus.INVESTIGATING,
+                ClaimStatus.APPROVED, ClaimStatus.PAYMENT_PROCESSING, ClaimStatus.PAID, ClaimStatus.CLOSED,
+                ClaimStatus.REJECTED, ClaimStatus.CANCELLED);
+    }
+
+    private long count(String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count == null ? 0 : count;
+    }
+}
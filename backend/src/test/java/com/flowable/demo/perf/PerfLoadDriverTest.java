@@ -0,0 +1,37 @@
+package com.flowable.demo.perf;
+
+import com.flowable.demo.perf.PerfLoadDriver.Operation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 负载场景配比解析
+ */
+class PerfLoadDriverTest {
+
+    @Test
+    void parseScenario_readsWeightsCaseInsensitivelyAndDropsZeroWeights() {
+        Map<Operation, Integer> weights = PerfLoadDriver.parseScenario(" Intake=40, review=30,APPROVE=0,pay=10 ,");
+
+        assertThat(weights).containsExactly(Map.entry(Operation.INTAKE, 40), Map.entry(Operation.REVIEW, 30),
+                Map.entry(Operation.PAY, 10));
+    }
+
+    @Test
+    void parseScenario_rejectsMalformedEntries() {
+        assertThatThrownBy(() -> PerfLoadDriver.parseScenario("intake=40,close=10"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("close=10");
+        assertThatThrownBy(() -> PerfLoadDriver.parseScenario("intake"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PerfLoadDriver.parseScenario("intake=-1"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PerfLoadDriver.parseScenario("intake=0"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no operations");
+    }
+}
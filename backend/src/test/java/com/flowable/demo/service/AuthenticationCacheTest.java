@@ -0,0 +1,56 @@
+package com.flowable.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthenticationCacheTest {
+
+    private final AuthenticationCache cache = new AuthenticationCache();
+
+    @Test
+    void get_returnsCachedResultOnlyForMatchingCredentials() {
+        Authentication auth = authenticated("alice");
+        cache.put("alice", "secret", auth, cache.generation());
+
+        assertThat(cache.get("alice", "secret")).containsSame(auth);
+        assertThat(cache.get("alice", "wrong")).isEmpty();
+        assertThat(cache.get("bob", "secret")).isEmpty();
+    }
+
+    @Test
+    void evict_removesUserEntry() {
+        cache.put("alice", "secret", authenticated("alice"), cache.generation());
+
+        cache.evict("alice");
+
+        assertThat(cache.get("alice", "secret")).isEmpty();
+    }
+
+    @Test
+    void put_skipsResultLoadedBeforeInvalidation() {
+        long generation = cache.generation();
+        cache.evict("alice");
+
+        cache.put("alice", "secret", authenticated("alice"), generation);
+
+        assertThat(cache.get("alice", "secret")).isEmpty();
+    }
+
+    @Test
+    void get_ignoresExpiredEntries() {
+        ReflectionTestUtils.setField(cache, "ttlMs", -1L);
+        cache.put("alice", "secret", authenticated("alice"), cache.generation());
+
+        assertThat(cache.get("alice", "secret")).isEmpty();
+    }
+
+    private Authentication authenticated(String username) {
+        return UsernamePasswordAuthenticationToken.authenticated(username, null, List.of());
+    }
+}
@@ -0,0 +1,101 @@
+package com.flowable.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BlockAllocatingClaimNumberGeneratorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 1);
+
+    @Mock
+    private ClaimNumberBlockAllocator allocator;
+
+    @InjectMocks
+    private BlockAllocatingClaimNumberGenerator generator;
+
+    @Test
+    void nextClaimNumber_handsOutBlockWithoutTouchingDatabase() {
+        ReflectionTestUtils.setField(generator, "blockSize", 3);
+        when(allocator.reserve(DAY, 3)).thenReturn(1L, 4L);
+
+        List<String> numbers = List.of(generator.nextClaimNumber(DAY), generator.nextClaimNumber(DAY),
+                generator.nextClaimNumber(DAY), generator.nextClaimNumber(DAY));
+
+        assertThat(numbers).containsExactly("CLM202501010001", "CLM202501010002", "CLM202501010003",
+                "CLM202501010004");
+        verify(allocator, times(2)).reserve(DAY, 3);
+    }
+
+    @Test
+    void nextClaimNumber_reservesNewBlockOnDayRollover() {
+        LocalDate nextDay = DAY.plusDays(1);
+        when(allocator.reserve(DAY, 50)).thenReturn(7L);
+        when(allocator.reserve(nextDay, 50)).thenReturn(1L);
+
+        assertThat(generator.nextClaimNumber(DAY)).isEqualTo("CLM202501010007");
+        assertThat(generator.nextClaimNumber(nextDay)).isEqualTo("CLM202501020001");
+    }
+
+    @Test
+    void nextClaimNumber_retriesWhenAnotherNodeInitializesTheDay() {
+        when(allocator.reserve(DAY, 50))
+                .thenThrow(new DataIntegrityViolationException("duplicate sequence_date"))
+                .thenReturn(51L);
+
+        assertThat(generator.nextClaimNumber(DAY)).isEqualTo("CLM202501010051");
+    }
+
+    @Test
+    void nextClaimNumber_isUniqueUnderConcurrency() throws Exception {
+        ReflectionTestUtils.setField(generator, "blockSize", 10);
+        AtomicLong sequenceRow = new AtomicLong(1);
+        when(allocator.reserve(eq(DAY), anyInt())).thenAnswer(inv -> sequenceRow.getAndAdd(inv.getArgument(1, Integer.class)));
+
+        int threads = 8;
+        int perThread = 500;
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Void>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        numbers.add(generator.nextClaimNumber(DAY));
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(workers)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(numbers).hasSize(threads * perThread);
+        verify(allocator, times(threads * perThread / 10)).reserve(any(LocalDate.class), anyInt());
+    }
+}
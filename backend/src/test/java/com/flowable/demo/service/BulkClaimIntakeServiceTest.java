@@ -0,0 +1,167 @@
+package com.flowable.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.InsurancePolicy;
+import com.flowable.demo.domain.model.User;
+import com.flowable.demo.domain.repository.ClaimCaseRepository;
+import com.flowable.demo.domain.repository.InsurancePolicyRepository;
+import com.flowable.demo.domain.repository.UserRepository;
+import com.flowable.demo.web.rest.dto.BulkClaimResultDTO;
+import com.flowable.demo.web.rest.dto.ClaimCaseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkClaimIntakeServiceTest {
+
+    @Mock
+    private CaseService caseService;
+
+    @Mock
+    private ClaimCaseRepository claimCaseRepository;
+
+    @Mock
+    private InsurancePolicyRepository insurancePolicyRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private BulkClaimIntakeService bulkClaimIntakeService;
+
+    private InsurancePolicy policy;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkClaimIntakeService, "chunkSize", 2);
+
+        policy = new InsurancePolicy();
+        policy.setId(UUID.randomUUID());
+        user = new User();
+        user.setId(UUID.randomUUID());
+
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(insurancePolicyRepository.findAllById(anyCollection())).thenReturn(List.of(policy));
+        lenient().when(userRepository.findAllById(anyCollection())).thenReturn(List.of(user));
+
+        AtomicInteger sequence = new AtomicInteger();
+        lenient().when(caseService.newClaimCase(any(), any(), any())).thenAnswer(inv -> ClaimCase.builder()
+                .id(UUID.randomUUID())
+                .claimNumber("CLM20250101" + String.format("%04d", sequence.incrementAndGet()))
+                .claimantName(inv.<ClaimCaseDTO>getArgument(0).getClaimantName())
+                .build());
+        lenient().doAnswer(inv -> {
+            ClaimCase claimCase = inv.getArgument(0);
+            claimCase.setCaseInstanceId("case-" + claimCase.getClaimNumber());
+            return null;
+        }).when(caseService).startOrEnqueue(any(ClaimCase.class));
+    }
+
+    @Test
+    void createClaimCases_validatesPoliciesOnceAndChunksTransactions() {
+        List<ClaimCaseDTO> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(claim("Claimant " + i, policy.getId().toString()));
+        }
+
+        List<BulkClaimResultDTO> results = bulkClaimIntakeService.createClaimCases(items, 0, user.getId().toString());
+
+        assertThat(results).extracting(BulkClaimResultDTO::getStatus).containsOnly(BulkClaimResultDTO.CREATED);
+        assertThat(results).extracting(BulkClaimResultDTO::getIndex).containsExactly(0, 1, 2, 3, 4);
+        verify(insurancePolicyRepository, times(1)).findAllById(anyCollection());
+        verify(userRepository, times(1)).findAllById(anyCollection());
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(claimCaseRepository, times(3)).flush();
+    }
+
+    @Test
+    void createClaimCases_reportsInvalidItemsWithoutFailingOthers() {
+        ClaimCaseDTO unknownPolicy = claim("Unknown policy", UUID.randomUUID().toString());
+        ClaimCaseDTO badDate = claim("Bad date", policy.getId().toString());
+        badDate.setIncidentDate("not-a-date");
+        List<ClaimCaseDTO> items = List.of(claim("Valid", policy.getId().toString()), unknownPolicy, badDate);
+
+        List<BulkClaimResultDTO> results = bulkClaimIntakeService.createClaimCases(items, 10, user.getId().toString());
+
+        assertThat(results).extracting(BulkClaimResultDTO::getIndex).containsExactly(10, 11, 12);
+        assertThat(results).extracting(BulkClaimResultDTO::getStatus)
+                .containsExactly(BulkClaimResultDTO.CREATED, BulkClaimResultDTO.FAILED, BulkClaimResultDTO.FAILED);
+        assertThat(results.get(1).getError()).isEqualTo("Policy not found");
+        assertThat(results.get(2).getError()).isEqualTo("Invalid incident date");
+    }
+
+    @Test
+    void createClaimCases_retriesFailedChunkItemByItem() {
+        doAnswer(inv -> {
+            ClaimCase claimCase = inv.getArgument(0);
+            if (!"Broken".equals(claimCase.getClaimantName())) {
+                claimCase.setCaseInstanceId("case-" + claimCase.getClaimNumber());
+            }
+            return null;
+        }).when(caseService).startOrEnqueue(any(ClaimCase.class));
+        List<ClaimCaseDTO> items = List.of(claim("Good", policy.getId().toString()),
+                claim("Broken", policy.getId().toString()));
+
+        List<BulkClaimResultDTO> results = bulkClaimIntakeService.createClaimCases(items, 0, user.getId().toString());
+
+        assertThat(results).extracting(BulkClaimResultDTO::getStatus)
+                .containsExactly(BulkClaimResultDTO.CREATED, BulkClaimResultDTO.FAILED);
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    void streamClaimCases_emitsResultPerLineIncludingInvalidJson() throws Exception {
+        String ndjson = objectMapper.writeValueAsString(claim("A", policy.getId().toString())) + "\n"
+                + "{not json\n"
+                + "\n"
+                + objectMapper.writeValueAsString(claim("B", policy.getId().toString())) + "\n";
+        List<BulkClaimResultDTO> results = new ArrayList<>();
+
+        bulkClaimIntakeService.streamClaimCases(new BufferedReader(new StringReader(ndjson)),
+                user.getId().toString(), results::add);
+
+        assertThat(results).extracting(BulkClaimResultDTO::getIndex).containsExactly(0, 1, 2);
+        assertThat(results).extracting(BulkClaimResultDTO::getStatus)
+                .containsExactly(BulkClaimResultDTO.CREATED, BulkClaimResultDTO.FAILED, BulkClaimResultDTO.CREATED);
+    }
+
+    private ClaimCaseDTO claim(String claimantName, String policyId) {
+        ClaimCaseDTO dto = new ClaimCaseDTO();
+        dto.setPolicyId(policyId);
+        dto.setClaimantName(claimantName);
+        dto.setIncidentDate("2025-01-01");
+        dto.setClaimedAmount(1000.0);
+        dto.setClaimType("AUTO");
+        dto.setSeverity("LOW");
+        return dto;
+    }
+}
@@ -0,0 +1,45 @@
+package com.flowable.demo.service;
+
+import org.flowable.cmmn.api.CmmnHistoryService;
+import org.flowable.cmmn.api.history.HistoricPlanItemInstance;
+import org.flowable.cmmn.api.history.HistoricPlanItemInstanceQuery;
+import org.flowable.cmmn.api.runtime.PlanItemDefinitionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CasePaymentProcessLocatorTest {
+
+    @Mock
+    private CmmnHistoryService cmmnHistoryService;
+
+    @InjectMocks
+    private CasePaymentProcessLocator locator;
+
+    @Test
+    void findProcessInstanceIds_returnsStartedProcessesFromPlanItemReferences() {
+        List<HistoricPlanItemInstance> planItems = List.of(planItem("proc-1"), planItem(null), planItem("proc-2"),
+                planItem("proc-1"));
+        HistoricPlanItemInstanceQuery query = mock(HistoricPlanItemInstanceQuery.class);
+        when(cmmnHistoryService.createHistoricPlanItemInstanceQuery()).thenReturn(query);
+        when(query.planItemInstanceCaseInstanceId("case-1")).thenReturn(query);
+        when(query.planItemInstanceDefinitionType(PlanItemDefinitionType.PROCESS_TASK)).thenReturn(query);
+        when(query.list()).thenReturn(planItems);
+
+        assertThat(locator.findProcessInstanceIds("case-1")).containsExactly("proc-1", "proc-2");
+    }
+
+    private HistoricPlanItemInstance planItem(String referenceId) {
+        HistoricPlanItemInstance planItem = mock(HistoricPlanItemInstance.class);
+        when(planItem.getReferenceId()).thenReturn(referenceId);
+        return planItem;
+    }
+}
@@ -17,10 +17,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.Map;
@@ -49,6 +49,21 @@ class CaseServiceTest {
     @Mock
     private CmmnTaskService cmmnTaskService;
 
+    @Mock
+    private ClaimNumberGenerator claimNumberGenerator;
+
+    @Mock
+    private CaseStartOutboxService caseStartOutboxService;
+
+    @Mock
+    private ClaimStatisticsService claimStatisticsService;
+
+    @Mock
+    private ReviewQueueService reviewQueueService;
+
+    @Mock
+    private ClaimMetrics claimMetrics;
+
     @InjectMocks
     private CaseService caseService;
 
@@ -103,7 +118,7 @@ class CaseServiceTest {
         when(insurancePolicyRepository.findById(any(UUID.class))).thenReturn(Optional.of(insurancePolicy));
         when(userRepository.findById(any(UUID.class))).thenReturn(Optional.of(user));
         when(claimCaseRepository.save(any(ClaimCase.class))).thenReturn(claimCase);
-        when(claimCaseRepository.countByCreatedAtAfter(any(LocalDateTime.class))).thenReturn(0L);
+        when(claimNumberGenerator.nextClaimNumber()).thenReturn("CLM202501010001");
 
         CaseInstanceBuilder caseInstanceBuilder = mock(CaseInstanceBuilder.class);
         CaseInstance caseInstance = mock(CaseInstance.class);
@@ -122,6 +137,21 @@ class CaseServiceTest {
         verify(claimCaseRepository, times(2)).save(any(ClaimCase.class));
     }
 
+    @Test
+    void createClaimCase_asyncModeQueuesCaseStart() {
+        ReflectionTestUtils.setField(caseService, "asyncCaseStart", true);
+        when(insurancePolicyRepository.findById(any(UUID.class))).thenReturn(Optional.of(insurancePolicy));
+        when(userRepository.findById(any(UUID.class))).thenReturn(Optional.of(user));
+        when(claimCaseRepository.save(any(ClaimCase.class))).thenReturn(claimCase);
+        when(claimNumberGenerator.nextClaimNumber()).thenReturn("CLM202501010001");
+
+        ClaimCase result = caseService.createClaimCase(claimCaseDTO);
+
+        assertThat(result.getStatus()).isEqualTo(ClaimCase.ClaimStatus.PENDING_START);
+        verify(caseStartOutboxService).enqueue(claimCase);
+        verifyNoInteractions(cmmnRuntimeService);
+    }
+
     @Test
     void updateClaimCase() {
         when(claimCaseRepository.findById(any(UUID.class))).thenReturn(Optional.of(claimCase));
@@ -176,13 +206,10 @@ class CaseServiceTest {
 
     @Test
     void getClaimCaseStatistics() {
-        when(claimCaseRepository.count()).thenReturn(10L);
-        when(claimCaseRepository.countByStatus(ClaimCase.ClaimStatus.SUBMITTED)).thenReturn(2L);
-        when(claimCaseRepository.countByStatus(ClaimCase.ClaimStatus.UNDER_REVIEW)).thenReturn(3L);
-        when(claimCaseRepository.countByStatus(ClaimCase.ClaimStatus.APPROVED)).thenReturn(1L);
-        when(claimCaseRepository.countByStatus(ClaimCase.ClaimStatus.REJECTED)).thenReturn(1L);
-        when(claimCaseRepository.getTotalClaimedAmount()).thenReturn(10000.0);
-        when(claimCaseRepository.getAverageProcessingDays()).thenReturn(3.5);
+        when(claimStatisticsService.getStatistics()).thenReturn(Map.of(
+                "totalClaims", 10L,
+                "totalAmount", 10000.0,
+                "averageProcessingTime", 3.5 * 24));
 
         Map<String, Object> statistics = caseService.getClaimCaseStatistics();
 
@@ -0,0 +1,93 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.CaseStartOutbox;
+import com.flowable.demo.domain.repository.CaseStartOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CaseStartOutboxServiceTest {
+
+    @Mock
+    private CaseStartOutboxRepository outboxRepository;
+
+    @InjectMocks
+    private CaseStartOutboxService outboxService;
+
+    private CaseStartOutbox entry;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+        entry = CaseStartOutbox.builder()
+                .id(UUID.randomUUID())
+                .claimCaseId(UUID.randomUUID())
+                .claimNumber("CLM202501010001")
+                .status(CaseStartOutbox.Status.PROCESSING)
+                .nextAttemptAt(LocalDateTime.now())
+                .lockedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void fail_requeuesWithBackoffUntilMaxAttemptsThenDeadLetters() {
+        when(outboxRepository.findById(entry.getId())).thenReturn(Optional.of(entry));
+
+        outboxService.fail(entry.getId(), new IllegalStateException("engine down"));
+        assertThat(entry.getStatus()).isEqualTo(CaseStartOutbox.Status.PENDING);
+        assertThat(entry.getAttempts()).isEqualTo(1);
+        assertThat(entry.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(entry.getLockedAt()).isNull();
+
+        outboxService.fail(entry.getId(), new IllegalStateException("engine down"));
+        outboxService.fail(entry.getId(), new IllegalStateException("engine down"));
+        assertThat(entry.getStatus()).isEqualTo(CaseStartOutbox.Status.DEAD);
+        assertThat(entry.getLastError()).contains("engine down");
+    }
+
+    @Test
+    void claimDue_onlyReturnsEntriesWonByThisNode() {
+        UUID won = UUID.randomUUID();
+        UUID lost = UUID.randomUUID();
+        when(outboxRepository.findDueIds(eq(CaseStartOutbox.Status.PENDING), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(List.of(won, lost));
+        when(outboxRepository.transition(eq(won), eq(CaseStartOutbox.Status.PENDING),
+                eq(CaseStartOutbox.Status.PROCESSING), any(LocalDateTime.class))).thenReturn(1);
+        when(outboxRepository.transition(eq(lost), eq(CaseStartOutbox.Status.PENDING),
+                eq(CaseStartOutbox.Status.PROCESSING), any(LocalDateTime.class))).thenReturn(0);
+
+        assertThat(outboxService.claimDue(10)).containsExactly(won);
+    }
+
+    @Test
+    void retry_onlyAcceptsDeadLetters() {
+        when(outboxRepository.findById(entry.getId())).thenReturn(Optional.of(entry));
+        assertThatThrownBy(() -> outboxService.retry(entry.getId())).isInstanceOf(IllegalStateException.class);
+
+        entry.setStatus(CaseStartOutbox.Status.DEAD);
+        entry.setAttempts(3);
+        when(outboxRepository.save(entry)).thenReturn(entry);
+
+        CaseStartOutbox result = outboxService.retry(entry.getId());
+
+        assertThat(result.getStatus()).isEqualTo(CaseStartOutbox.Status.PENDING);
+        assertThat(result.getAttempts()).isZero();
+    }
+}
@@ -0,0 +1,160 @@
+package com.flowable.demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.InsurancePolicy;
+import com.flowable.demo.domain.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.export.flush-rows=2"
+})
+class ClaimExportServiceTest {
+
+    /**
+     * 应用主类带有显式 @ComponentScan，这里只加载 JPA 相关的 Bean
+     */
+    @Configuration
+    @EntityScan("com.flowable.demo.domain.model")
+    @EnableJpaRepositories("com.flowable.demo.domain.repository")
+    @ImportAutoConfiguration(JacksonAutoConfiguration.class)
+    @Import({ ClaimStatisticsListener.class, ClaimStatisticsSnapshot.class, SearchIndexListener.class,
+            ClaimExportService.class })
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private ClaimExportService claimExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        User creator = User.builder().username("creator").password("x").firstName("creator").build();
+        entityManager.persist(creator);
+        InsurancePolicy auto = persistPolicy("POL-AUTO", "AUTO");
+        InsurancePolicy health = persistPolicy("POL-HEALTH", "HEALTH");
+        for (int i = 0; i < 7; i++) {
+            entityManager.persist(ClaimCase.builder()
+                    .claimNumber("CLM-" + i)
+                    .policy(i < 5 ? auto : health)
+                    .claimType("AUTO")
+                    .claimedAmount(new BigDecimal("1000.50"))
+                    .incidentDate(LocalDate.of(2024, 1, 1))
+                    .incidentLocation("Location " + i)
+                    // 含逗号和引号的值需要 CSV 转义
+                    .claimantName(i == 0 ? "Doe, \"Jr\"" : i == 1 ? "=HYPERLINK(\"http://x\")" : "Claimant " + i)
+                    .severity(ClaimCase.Severity.LOW)
+                    .status(i % 2 == 0 ? ClaimCase.ClaimStatus.SUBMITTED : ClaimCase.ClaimStatus.APPROVED)
+                    .createdBy(creator)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exportCsv_writesHeaderAndEscapedRowsInOneQuery() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = claimExportService.export(new ClaimExportService.Filter(null, null, null, null),
+                ClaimExportService.Format.CSV, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(rows).isEqualTo(7);
+        assertThat(lines).hasSize(8);
+        assertThat(lines.get(0)).isEqualTo(String.join(",", ClaimExportService.COLUMNS));
+        assertThat(lines).anySatisfy(line -> assertThat(line)
+                .startsWith("CLM-0,SUBMITTED,LOW,AUTO,1000.50,,,,2024-01-01,\"Doe, \"\"Jr\"\"\",")
+                .contains(",POL-AUTO,AUTO,,creator,"));
+        // 以 = 开头的文本加单引号，不会被表格软件当作公式
+        assertThat(lines).anySatisfy(line -> assertThat(line)
+                .startsWith("CLM-1,APPROVED,LOW,AUTO,1000.50,,,,2024-01-01,\"'=HYPERLINK(\"\"http://x\"\")\","));
+        // 关联随主查询一并加载，没有逐行查询
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void csvValue_prefixesFormulaTextButNotNumbers() {
+        assertThat(ClaimExportService.csvValue("+86 138")).isEqualTo("'+86 138");
+        assertThat(ClaimExportService.csvValue("-1")).isEqualTo("'-1");
+        assertThat(ClaimExportService.csvValue("@SUM(A1)")).isEqualTo("'@SUM(A1)");
+        assertThat(ClaimExportService.csvValue("\tx")).isEqualTo("'\tx");
+        assertThat(ClaimExportService.csvValue("a=b")).isEqualTo("a=b");
+        assertThat(ClaimExportService.csvValue("")).isEmpty();
+        assertThat(ClaimExportService.csvValue(new BigDecimal("-12.50"))).isEqualTo("-12.50");
+    }
+
+    @Test
+    void exportNdjson_appliesStatusPolicyTypeAndDateFilters() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = claimExportService.export(new ClaimExportService.Filter(ClaimCase.ClaimStatus.SUBMITTED,
+                        LocalDate.now().minusDays(1), LocalDate.now(), "AUTO"),
+                ClaimExportService.Format.NDJSON, output);
+
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            records.add(objectMapper.readTree(line));
+        }
+        assertThat(rows).isEqualTo(3);
+        assertThat(records).extracting(node -> node.get("claimNumber").asText())
+                .containsExactlyInAnyOrder("CLM-0", "CLM-2", "CLM-4");
+        assertThat(records).allSatisfy(node -> {
+            assertThat(node.get("status").asText()).isEqualTo("SUBMITTED");
+            assertThat(node.get("policyType").asText()).isEqualTo("AUTO");
+        });
+
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        assertThat(claimExportService.export(new ClaimExportService.Filter(null, LocalDate.now().plusDays(1),
+                null, null), ClaimExportService.Format.NDJSON, empty)).isZero();
+        assertThat(empty.size()).isZero();
+    }
+
+    private InsurancePolicy persistPolicy(String policyNumber, String policyType) {
+        InsurancePolicy policy = InsurancePolicy.builder()
+                .policyNumber(policyNumber)
+                .policyHolderName("Holder")
+                .policyType(policyType)
+                .coverageAmount(BigDecimal.valueOf(100000))
+                .premiumAmount(BigDecimal.valueOf(1000))
+                .startDate(LocalDate.now().minusYears(1))
+                .endDate(LocalDate.now().plusYears(1))
+                .build();
+        entityManager.persist(policy);
+        return policy;
+    }
+}
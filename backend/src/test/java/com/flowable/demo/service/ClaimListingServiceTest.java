@@ -0,0 +1,230 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.ClaimHistory;
+import com.flowable.demo.domain.model.InsurancePolicy;
+import com.flowable.demo.domain.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ClaimListingServiceTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+    /**
+     * 应用主类带有显式 @ComponentScan，这里只加载 JPA 相关的 Bean
+     */
+    @Configuration
+    @EntityScan("com.flowable.demo.domain.model")
+    @EnableJpaRepositories("com.flowable.demo.domain.repository")
+    @Import({ ClaimStatisticsListener.class, ClaimStatisticsSnapshot.class, SearchIndexListener.class,
+            ClaimListingService.class })
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private ClaimListingService claimListingService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User alice;
+    private User bob;
+    private InsurancePolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        alice = persistUser("alice");
+        bob = persistUser("bob");
+        policy = InsurancePolicy.builder()
+                .policyNumber("POL-1")
+                .policyHolderName("Holder")
+                .policyType("AUTO")
+                .coverageAmount(BigDecimal.valueOf(100000))
+                .premiumAmount(BigDecimal.valueOf(1000))
+                .startDate(LocalDate.now().minusYears(1))
+                .endDate(LocalDate.now().plusYears(1))
+                .build();
+        entityManager.persist(policy);
+    }
+
+    @Test
+    void findCases_walksAllPagesInKeysetOrderAcrossCreatedAtTies() {
+        for (int i = 0; i < 25; i++) {
+            // 每 4 个案件共享同一创建时间，续页必须靠ID区分
+            persistCase(i, i % 2 == 0 ? ClaimCase.ClaimStatus.SUBMITTED : ClaimCase.ClaimStatus.APPROVED,
+                    alice, i % 3 == 0 ? bob : null, BASE_TIME.plusMinutes(i / 4));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // UUID 的排序规则以数据库为准
+        List<ClaimCase> expected = entityManager.createQuery(
+                "SELECT c FROM ClaimCase c ORDER BY c.createdAt DESC, c.id DESC", ClaimCase.class).getResultList();
+
+        List<ClaimCase> walked = walk(7, (createdAt, id) ->
+                claimListingService.findCases(null, createdAt, id, 7, TaskInboxService.CountMode.NONE));
+
+        assertThat(walked).extracting(ClaimCase::getId).containsExactlyElementsOf(
+                expected.stream().map(ClaimCase::getId).toList());
+    }
+
+    @Test
+    void findMyCases_mergesCreatorAndAssigneeWindowsAcrossCreatedAtTies() {
+        for (int i = 0; i < 25; i++) {
+            // 部分案件由 alice 创建同时分配给她，两路查询都会返回，合并时只能出现一次
+            persistCase(i, ClaimCase.ClaimStatus.SUBMITTED, i % 2 == 0 ? alice : bob,
+                    i % 3 == 0 ? alice : bob, BASE_TIME.plusMinutes(i / 4));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<UUID> expected = entityManager.createQuery("SELECT c.id FROM ClaimCase c "
+                        + "WHERE c.createdBy.id = :userId OR c.assignedTo.id = :userId "
+                        + "ORDER BY c.createdAt DESC, c.id DESC", UUID.class)
+                .setParameter("userId", alice.getId())
+                .getResultList();
+
+        List<ClaimCase> walked = walk(3, (createdAt, id) -> claimListingService.findMyCases(
+                alice.getId(), createdAt, id, 3, TaskInboxService.CountMode.NONE));
+
+        assertThat(walked).extracting(ClaimCase::getId).containsExactlyElementsOf(expected);
+        assertThat(claimListingService.findMyCases(alice.getId(), null, null, 3,
+                TaskInboxService.CountMode.EXACT).getTotal()).isEqualTo(expected.size());
+    }
+
+    @Test
+    void findCases_filtersByStatusAndMyCasesCombinesCreatorAndAssignee() {
+        for (int i = 0; i < 12; i++) {
+            User creator = i < 6 ? alice : bob;
+            User assignee = i % 4 == 0 ? alice : null;
+            persistCase(i, i % 2 == 0 ? ClaimCase.ClaimStatus.SUBMITTED : ClaimCase.ClaimStatus.APPROVED,
+                    creator, assignee, BASE_TIME.plusMinutes(i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ClaimCase> submitted = walk(4, (createdAt, id) -> claimListingService.findCases(
+                ClaimCase.ClaimStatus.SUBMITTED, createdAt, id, 4, TaskInboxService.CountMode.NONE));
+        assertThat(submitted).hasSize(6)
+                .allMatch(claimCase -> claimCase.getStatus() == ClaimCase.ClaimStatus.SUBMITTED);
+
+        // alice 创建了 0-5，另有 8 分配给她
+        List<ClaimCase> mine = walk(3, (createdAt, id) -> claimListingService.findMyCases(
+                alice.getId(), createdAt, id, 3, TaskInboxService.CountMode.NONE));
+        assertThat(mine).extracting(ClaimCase::getClaimNumber)
+                .containsExactly("CLM-8", "CLM-5", "CLM-4", "CLM-3", "CLM-2", "CLM-1", "CLM-0");
+    }
+
+    @Test
+    void countModes_skipCountOnContinuationPages() {
+        ClaimCase claimCase = persistCase(0, ClaimCase.ClaimStatus.SUBMITTED, alice, null, BASE_TIME);
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(ClaimHistory.builder()
+                    .claim(claimCase)
+                    .action(ClaimHistory.ACTION_UPDATED)
+                    .description("update " + i)
+                    .performedBy(bob)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ClaimListingService.ListingSlice<ClaimHistory> first = claimListingService.findHistory(claimCase.getId(),
+                null, null, 2, TaskInboxService.CountMode.ESTIMATED);
+        assertThat(first.getContent()).hasSize(2);
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(first.getTotal()).isEqualTo(5);
+        assertThat(first.getContent().get(0).getPerformedBy().getUsername()).isEqualTo("bob");
+        // 一条游标查询（含操作人）加一条计数
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        statistics.clear();
+        ClaimHistory last = first.getContent().get(1);
+        ClaimListingService.ListingSlice<ClaimHistory> second = claimListingService.findHistory(claimCase.getId(),
+                last.getPerformedAt(), last.getId(), 2, TaskInboxService.CountMode.ESTIMATED);
+        assertThat(second.getContent()).hasSize(2);
+        assertThat(second.getTotal()).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        ClaimListingService.ListingSlice<ClaimHistory> exact = claimListingService.findHistory(claimCase.getId(),
+                last.getPerformedAt(), last.getId(), 2, TaskInboxService.CountMode.EXACT);
+        assertThat(exact.getTotal()).isEqualTo(5);
+        assertThat(exact.isTotalExact()).isTrue();
+    }
+
+    private List<ClaimCase> walk(int size,
+                                 BiFunction<LocalDateTime, UUID, ClaimListingService.ListingSlice<ClaimCase>> fetch) {
+        List<ClaimCase> result = new ArrayList<>();
+        LocalDateTime createdAt = null;
+        UUID id = null;
+        ClaimListingService.ListingSlice<ClaimCase> slice;
+        do {
+            slice = fetch.apply(createdAt, id);
+            assertThat(slice.getContent()).hasSizeLessThanOrEqualTo(size);
+            result.addAll(slice.getContent());
+            if (!slice.getContent().isEmpty()) {
+                ClaimCase last = slice.getContent().get(slice.getContent().size() - 1);
+                createdAt = last.getCreatedAt();
+                id = last.getId();
+            }
+        } while (slice.isHasNext());
+        return result;
+    }
+
+    private ClaimCase persistCase(int index, ClaimCase.ClaimStatus status, User creator, User assignee,
+                                  LocalDateTime createdAt) {
+        ClaimCase claimCase = ClaimCase.builder()
+                .claimNumber("CLM-" + index)
+                .policy(policy)
+                .claimType("AUTO")
+                .claimedAmount(BigDecimal.valueOf(1000))
+                .incidentDate(LocalDate.now())
+                .claimantName("Claimant " + index)
+                .severity(ClaimCase.Severity.LOW)
+                .status(status)
+                .assignedTo(assignee)
+                .createdBy(creator)
+                .build();
+        entityManager.persist(claimCase);
+        entityManager.flush();
+        // created_at 由 @CreationTimestamp 生成且不可更新，直接改库以构造固定的时间和并列值
+        entityManager.createNativeQuery("UPDATE claim_case SET created_at = ?1 WHERE id = ?2")
+                .setParameter(1, createdAt)
+                .setParameter(2, claimCase.getId())
+                .executeUpdate();
+        return claimCase;
+    }
+
+    private User persistUser(String username) {
+        User user = User.builder().username(username).password("x").firstName(username).build();
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -0,0 +1,61 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.ClaimCase.ClaimStatus;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClaimMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ClaimMetrics metrics = new ClaimMetrics(registry);
+
+    @Test
+    void recordTaskCompletion_tagsEngineAndTaskDefinitionKey() {
+        Task cmmnTask = mock(Task.class);
+        when(cmmnTask.getTaskDefinitionKey()).thenReturn("taskReviewClaim");
+        Task bpmnTask = mock(Task.class);
+        when(bpmnTask.getTaskDefinitionKey()).thenReturn("userTask_validatePayment");
+        when(bpmnTask.getProcessInstanceId()).thenReturn("proc-1");
+
+        metrics.recordTaskCompletion(metrics.start(), cmmnTask, ClaimMetrics.OUTCOME_SUCCESS);
+        metrics.recordTaskCompletion(metrics.start(), bpmnTask, ClaimMetrics.OUTCOME_ERROR);
+
+        assertThat(registry.get("claim.task.completion").tag("engine", ClaimMetrics.ENGINE_CMMN)
+                .tag("task", "taskReviewClaim").tag("outcome", ClaimMetrics.OUTCOME_SUCCESS).timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("claim.task.completion").tag("engine", ClaimMetrics.ENGINE_BPMN)
+                .tag("task", "userTask_validatePayment").tag("outcome", ClaimMetrics.OUTCOME_ERROR).timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void recordDecision_tagsModeAndIgnoresMissingSample() {
+        Timer.Sample sample = metrics.start();
+        metrics.recordDecision(sample, DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY, "compiled",
+                ClaimMetrics.OUTCOME_SUCCESS);
+        metrics.recordDecision(null, DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY, "engine",
+                ClaimMetrics.OUTCOME_SUCCESS);
+
+        assertThat(registry.get("claim.decision.evaluation").tag("engine", ClaimMetrics.ENGINE_DMN)
+                .tag("mode", "compiled").timer().count()).isEqualTo(1);
+        assertThat(registry.find("claim.decision.evaluation").tag("mode", "engine").timer()).isNull();
+    }
+
+    @Test
+    void countTransition_countsPerFromAndToStatus() {
+        metrics.countTransition(null, ClaimStatus.DRAFT);
+        metrics.countTransition(ClaimStatus.SUBMITTED, ClaimStatus.UNDER_REVIEW);
+        metrics.countTransition(ClaimStatus.SUBMITTED, ClaimStatus.UNDER_REVIEW);
+
+        assertThat(registry.get("claim.status.transitions").tag("from", "none").tag("to", "DRAFT").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("claim.status.transitions").tag("from", "SUBMITTED").tag("to", "UNDER_REVIEW")
+                .counter().count()).isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,88 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.repository.ClaimCaseRepository;
+import com.flowable.demo.domain.repository.ClaimNumberSequenceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * 号段分配：两个节点同时初始化当天序列行时，在 H2 上实际提交后拿到的号段不能重叠
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClaimNumberBlockAllocatorTest {
+
+    private static final String LATE_NODE = "node-b";
+
+    @Configuration
+    @EntityScan("com.flowable.demo.domain.model")
+    @EnableJpaRepositories("com.flowable.demo.domain.repository")
+    @Import({ ClaimNumberBlockAllocator.class, ClaimStatisticsListener.class, ClaimStatisticsSnapshot.class,
+            SearchIndexListener.class })
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private ClaimNumberBlockAllocator allocator;
+
+    @Autowired
+    private ClaimNumberSequenceRepository sequenceRepository;
+
+    @MockitoSpyBean
+    private ClaimCaseRepository claimCaseRepository;
+
+    @Test
+    void reserve_concurrentFirstOfDay_handsOutDisjointBlocks() throws Exception {
+        LocalDate day = LocalDate.of(2025, 3, 1);
+        CyclicBarrier bothMissedAdvance = new CyclicBarrier(2);
+        // 两个节点都在推进失败（当天行不存在）之后汇合，后到的节点等先到的节点提交了当天的行再插入；
+        // 当天没有升级前的旧编号
+        doAnswer(invocation -> {
+            bothMissedAdvance.await(10, TimeUnit.SECONDS);
+            if (LATE_NODE.equals(Thread.currentThread().getName())) {
+                Thread.sleep(300);
+            }
+            return List.of();
+        }).when(claimCaseRepository).findClaimNumbersByPrefix(anyString(), any());
+
+        List<String> numbers = new ArrayList<>();
+        ExecutorService nodeA = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "node-a"));
+        ExecutorService nodeB = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, LATE_NODE));
+        try {
+            Future<String> first = nodeA.submit(() -> new BlockAllocatingClaimNumberGenerator(allocator).nextClaimNumber(day));
+            Future<String> second = nodeB.submit(() -> new BlockAllocatingClaimNumberGenerator(allocator).nextClaimNumber(day));
+            numbers.add(first.get(30, TimeUnit.SECONDS));
+            numbers.add(second.get(30, TimeUnit.SECONDS));
+        } finally {
+            nodeA.shutdownNow();
+            nodeB.shutdownNow();
+        }
+
+        // 默认号段 50：一个节点拿到 [1, 51)，另一个节点冲突后重试推进，拿到 [51, 101)
+        assertThat(numbers).containsExactly("CLM202503010001", "CLM202503010051");
+        assertThat(sequenceRepository.findById(day)).get()
+                .satisfies(sequence -> assertThat(sequence.getNextValue()).isEqualTo(101L));
+    }
+}
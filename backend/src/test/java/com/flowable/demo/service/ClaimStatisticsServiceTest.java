@@ -0,0 +1,79 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.ClaimCase.ClaimStatus;
+import com.flowable.demo.domain.repository.ClaimCaseRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimStatisticsServiceTest {
+
+    @Mock
+    private ClaimCaseRepository claimCaseRepository;
+
+    @Spy
+    private ClaimStatisticsSnapshot snapshot = new ClaimStatisticsSnapshot();
+
+    @InjectMocks
+    private ClaimStatisticsService claimStatisticsService;
+
+    @Test
+    void getStatistics_buildsSnapshotFromOneAggregateQuery() {
+        when(claimCaseRepository.aggregateByStatus()).thenReturn(List.of(
+                row(ClaimStatus.SUBMITTED, 2, "2000", 0, 0),
+                row(ClaimStatus.UNDER_REVIEW, 3, "3000", 0, 0),
+                row(ClaimStatus.APPROVED, 1, "1000", 1, 3600),
+                row(ClaimStatus.REJECTED, 1, "1000", 1, 3 * 86400),
+                row(ClaimStatus.PAID, 3, "3000", 3, 12 * 86400 - 3600)));
+
+        Map<String, Object> statistics = claimStatisticsService.getStatistics();
+        claimStatisticsService.getStatistics();
+
+        assertThat(statistics.get("totalClaims")).isEqualTo(10L);
+        assertThat(statistics.get("pendingClaims")).isEqualTo(5L);
+        assertThat(statistics.get("approvedClaims")).isEqualTo(1L);
+        assertThat(statistics.get("rejectedClaims")).isEqualTo(1L);
+        assertThat(statistics.get("totalAmount")).isEqualTo(10000.0);
+        // 终态 4 个案件，合计 (3 + 12) 天减 1 小时，平均 (15 * 24 - 1) / 4 小时
+        assertThat(statistics.get("averageProcessingTime")).isEqualTo((15 * 24 - 1) / 4.0);
+        verify(claimCaseRepository, times(1)).aggregateByStatus();
+    }
+
+    @Test
+    void snapshot_appliesStatusTransitionsIncrementally() {
+        when(claimCaseRepository.aggregateByStatus()).thenReturn(List.<Object[]>of(row(ClaimStatus.SUBMITTED, 1, "500", 0, 0)));
+        claimStatisticsService.reconcile();
+
+        ClaimCase.StatisticsState submitted = new ClaimCase.StatisticsState(ClaimStatus.SUBMITTED,
+                new BigDecimal("500"), null);
+        ClaimCase.StatisticsState rejected = new ClaimCase.StatisticsState(ClaimStatus.REJECTED,
+                new BigDecimal("500"), 7200L);
+        snapshot.apply(submitted, rejected);
+        snapshot.apply(null, new ClaimCase.StatisticsState(ClaimStatus.SUBMITTED, new BigDecimal("250"), null));
+
+        Map<String, Object> statistics = claimStatisticsService.getStatistics();
+
+        assertThat(statistics.get("totalClaims")).isEqualTo(2L);
+        assertThat(statistics.get("pendingClaims")).isEqualTo(1L);
+        assertThat(statistics.get("rejectedClaims")).isEqualTo(1L);
+        assertThat(statistics.get("totalAmount")).isEqualTo(750.0);
+        assertThat(statistics.get("averageProcessingTime")).isEqualTo(2.0);
+        verify(claimCaseRepository, times(1)).aggregateByStatus();
+    }
+
+    private Object[] row(ClaimStatus status, long count, String amount, long timedCount, long seconds) {
+        return new Object[] { status, count, new BigDecimal(amount), timedCount, seconds };
+    }
+}
@@ -0,0 +1,160 @@
+package com.flowable.demo.service;
+
+import org.flowable.dmn.api.DmnDecision;
+import org.flowable.dmn.api.DmnDecisionService;
+import org.flowable.dmn.api.DmnRepositoryService;
+import org.flowable.dmn.engine.DmnEngine;
+import org.flowable.dmn.engine.impl.cfg.StandaloneInMemDmnEngineConfiguration;
+import org.flowable.dmn.model.DecisionTable;
+import org.flowable.dmn.xml.converter.DmnXMLConverter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 预编译决策表与 Flowable DMN 引擎的差分测试：同一份 ClaimDecisionTable.dmn，
+ * 在覆盖各规则边界值、未知值和空值的输入网格上，两者输出必须完全一致
+ */
+class CompiledDecisionTableTest {
+
+    private static DmnEngine dmnEngine;
+    private static DmnDecisionService dmnDecisionService;
+    private static CompiledDecisionTable compiledTable;
+
+    @BeforeAll
+    static void deployDecisionTable() {
+        StandaloneInMemDmnEngineConfiguration configuration = new StandaloneInMemDmnEngineConfiguration();
+        configuration.setJdbcUrl("jdbc:h2:mem:compiled-decision-table;DB_CLOSE_DELAY=1000");
+        configuration.setDatabaseSchemaUpdate(StandaloneInMemDmnEngineConfiguration.DB_SCHEMA_UPDATE_CREATE_DROP);
+        dmnEngine = configuration.buildDmnEngine();
+        DmnRepositoryService repositoryService = dmnEngine.getDmnRepositoryService();
+        repositoryService.createDeployment()
+                .addClasspathResource("dmn/ClaimDecisionTable.dmn")
+                .deploy();
+        DmnDecision decision = repositoryService.createDecisionQuery()
+                .decisionKey(DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY)
+                .singleResult();
+        DecisionTable table = (DecisionTable) repositoryService.getDmnDefinition(decision.getId())
+                .getDecisionById(decision.getKey())
+                .getExpression();
+        dmnDecisionService = dmnEngine.getDmnDecisionService();
+        compiledTable = CompiledDecisionTable.compile(table);
+    }
+
+    @AfterAll
+    static void closeEngine() {
+        dmnEngine.close();
+    }
+
+    @Test
+    void evaluate_matchesDmnEngineOnBoundaryGrid() {
+        String[] policyTypes = { "车险", "财产险", "人身险", "意外险", null };
+        String[] amounts = { "0", "9999.99", "10000", "10000.01", "20000", "20000.5", "30000", "50000",
+                "50000.01", "100000", "100001", "200000", "200000.01", "500000" };
+        String[] coverages = { "10000", "50000", "100000", "300000" };
+        String[] claimTypes = { "盗窃", "自然灾害", "交通事故", null };
+        String[] severities = { "LOW", "MEDIUM", "HIGH", "CRITICAL", null };
+
+        int compared = 0;
+        for (String policyType : policyTypes) {
+            for (String amount : amounts) {
+                for (String coverage : coverages) {
+                    for (String claimType : claimTypes) {
+                        for (String severity : severities) {
+                            assertSameResult(variables(policyType, new BigDecimal(amount), new BigDecimal(coverage),
+                                    claimType, severity));
+                            compared++;
+                        }
+                    }
+                }
+            }
+        }
+        assertThat(compared).isEqualTo(5 * 14 * 4 * 4 * 5);
+    }
+
+    @Test
+    void evaluate_matchesDmnEngineOnRandomInputsAndMissingAmounts() {
+        Random random = new Random(20);
+        List<String> policyTypes = Arrays.asList("车险", "财产险", "人身险", "其他");
+        List<String> claimTypes = Arrays.asList("盗窃", "自然灾害", "火灾", null);
+        List<String> severities = Arrays.asList("LOW", "MEDIUM", "HIGH", "CRITICAL");
+        for (int i = 0; i < 2000; i++) {
+            assertSameResult(variables(policyTypes.get(random.nextInt(4)),
+                    BigDecimal.valueOf(random.nextInt(60_000_000), 2),
+                    BigDecimal.valueOf(random.nextInt(500_000)),
+                    claimTypes.get(random.nextInt(4)), severities.get(random.nextInt(4))));
+        }
+
+        assertSameResult(variables("车险", null, BigDecimal.valueOf(100000), "盗窃", "LOW"));
+        assertSameResult(variables("财产险", BigDecimal.valueOf(5000), null, null, "HIGH"));
+        // 整数和浮点类型的金额与 BigDecimal 按相同语义比较
+        Map<String, Object> doubles = variables("人身险", null, null, "自然灾害", "MEDIUM");
+        doubles.put("claimedAmount", 30000.0);
+        doubles.put("coverageAmount", 25000L);
+        assertSameResult(doubles);
+    }
+
+    @Test
+    void evaluate_returnsPrecomputedTypedOutputs() {
+        Map<String, Object> result = compiledTable.evaluate(variables("车险", new BigDecimal("8000"),
+                new BigDecimal("100000"), "交通事故", "LOW"));
+
+        assertThat(result).containsEntry("paymentMethod", "快速赔付")
+                .containsEntry("needInvestigation", false)
+                .containsEntry("claimComplexity", "simple");
+        assertThat(compiledTable.getVariables())
+                .containsExactlyInAnyOrder("policyType", "claimedAmount", "coverageAmount", "claimType", "severity");
+        assertThatThrownBy(() -> result.put("priority", "x")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void compile_rejectsUnsupportedExpressions() {
+        // 单独解析一份模型再修改，不影响引擎缓存的定义
+        DecisionTable table = (DecisionTable) new DmnXMLConverter()
+                .convertToDmnModel(() -> CompiledDecisionTableTest.class.getResourceAsStream(
+                        "/dmn/ClaimDecisionTable.dmn"), false, false)
+                .getDecisionById(DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY)
+                .getExpression();
+        table.getRules().get(0).getInputEntries().get(1).getInputEntry()
+                .setText("${claimedAmount.scale() > 2}");
+
+        assertThatThrownBy(() -> CompiledDecisionTable.compile(table))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unsupported expression");
+    }
+
+    private static void assertSameResult(Map<String, Object> variables) {
+        assertThat(compiledTable.evaluate(variables))
+                .as("inputs %s", variables)
+                .isEqualTo(executeWithEngine(variables));
+    }
+
+    private static Map<String, Object> executeWithEngine(Map<String, Object> variables) {
+        Map<String, Object> result = dmnDecisionService.createExecuteDecisionBuilder()
+                .decisionKey(DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY)
+                .variables(variables)
+                .executeWithSingleResult();
+        return result != null ? result : Map.of();
+    }
+
+    private static Map<String, Object> variables(String policyType, BigDecimal claimedAmount,
+                                                 BigDecimal coverageAmount, String claimType, String severity) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("policyType", policyType);
+        variables.put("claimedAmount", claimedAmount);
+        variables.put("coverageAmount", coverageAmount);
+        variables.put("claimType", claimType);
+        variables.put("severity", severity);
+        return variables;
+    }
+}
@@ -0,0 +1,94 @@
+package com.flowable.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 待办任务数指标：在只含任务和身份关联两张表的内存库上执行分组查询
+ */
+class OpenTaskMetricsTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry registry;
+    private OpenTaskMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE ACT_RU_TASK (ID_ VARCHAR(64) PRIMARY KEY, PROC_INST_ID_ VARCHAR(64), "
+                + "SCOPE_ID_ VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE ACT_RU_IDENTITYLINK (ID_ VARCHAR(64) PRIMARY KEY, TASK_ID_ VARCHAR(64), "
+                + "TYPE_ VARCHAR(255), GROUP_ID_ VARCHAR(255), USER_ID_ VARCHAR(255))");
+        registry = new SimpleMeterRegistry();
+        metrics = new OpenTaskMetrics(jdbcTemplate, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void refresh_countsOpenTasksPerCandidateGroupAndEngine() {
+        cmmnTask("t1", "managers");
+        cmmnTask("t2", "managers");
+        cmmnTask("t3", "managers", "adjusters");
+        cmmnTask("t4");
+        bpmnTask("t5", "finance");
+        // 候选人（非候选组）关联不计入分组
+        jdbcTemplate.update("INSERT INTO ACT_RU_IDENTITYLINK (ID_, TASK_ID_, TYPE_, USER_ID_) VALUES "
+                + "('l-user', 't4', 'candidate', 'alice')");
+
+        metrics.refresh();
+
+        assertThat(metrics.getOpenTasks("managers", ClaimMetrics.ENGINE_CMMN)).isEqualTo(3);
+        assertThat(metrics.getOpenTasks("adjusters", ClaimMetrics.ENGINE_CMMN)).isEqualTo(1);
+        assertThat(metrics.getOpenTasks(OpenTaskMetrics.NO_GROUP, ClaimMetrics.ENGINE_CMMN)).isEqualTo(1);
+        assertThat(metrics.getOpenTasks("finance", ClaimMetrics.ENGINE_BPMN)).isEqualTo(1);
+        assertThat(registry.get("claim.tasks.open").tag("group", "managers").tag("engine", ClaimMetrics.ENGINE_CMMN)
+                .gauge().value()).isEqualTo(3.0);
+    }
+
+    @Test
+    void refresh_resetsGroupsWithoutOpenTasksToZero() {
+        cmmnTask("t1", "managers");
+        metrics.refresh();
+        assertThat(metrics.getOpenTasks("managers", ClaimMetrics.ENGINE_CMMN)).isEqualTo(1);
+
+        jdbcTemplate.update("DELETE FROM ACT_RU_IDENTITYLINK");
+        jdbcTemplate.update("DELETE FROM ACT_RU_TASK");
+        metrics.refresh();
+
+        assertThat(registry.get("claim.tasks.open").tag("group", "managers").gauge().value()).isZero();
+    }
+
+    private void cmmnTask(String taskId, String... groups) {
+        jdbcTemplate.update("INSERT INTO ACT_RU_TASK (ID_, SCOPE_ID_) VALUES (?, 'case-1')", taskId);
+        candidateGroups(taskId, groups);
+    }
+
+    private void bpmnTask(String taskId, String... groups) {
+        jdbcTemplate.update("INSERT INTO ACT_RU_TASK (ID_, PROC_INST_ID_) VALUES (?, 'proc-1')", taskId);
+        candidateGroups(taskId, groups);
+    }
+
+    private void candidateGroups(String taskId, String... groups) {
+        for (String group : groups) {
+            jdbcTemplate.update("INSERT INTO ACT_RU_IDENTITYLINK (ID_, TASK_ID_, TYPE_, GROUP_ID_) "
+                    + "VALUES (?, ?, 'candidate', ?)", taskId + "-" + group, taskId, group);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.InsurancePolicy;
+import com.flowable.demo.domain.model.User;
+import com.flowable.demo.domain.repository.InsurancePolicyRepository;
+import com.flowable.demo.domain.repository.ReviewQueueEntryRepository;
+import com.flowable.demo.domain.repository.UserRepository;
+import com.flowable.demo.web.rest.dto.ClaimCaseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.flowable.cmmn.api.CmmnManagementService;
+import org.flowable.cmmn.api.CmmnRuntimeService;
+import org.flowable.cmmn.api.CmmnTaskService;
+import org.flowable.cmmn.api.runtime.PlanItemDefinitionType;
+import org.flowable.cmmn.api.runtime.PlanItemInstance;
+import org.flowable.common.engine.api.FlowableObjectNotFoundException;
+import org.flowable.job.api.Job;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 审核队列模式的端到端测试：启动完整应用（内存 H2），分别以同步方式和经审核队列完成审核任务，
+ * 决策任务经 FlowableEngineConfig 注册的 PrecomputedDecisionTaskActivityBehavior 使用预先求值的结果，
+ * 两条路径写入的决策输出和激活的后续阶段、任务必须一致
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:review-queue-it;DB_CLOSE_DELAY=-1",
+        "app.review-queue.enabled=true",
+        "app.search.rebuild-on-startup=false",
+        // 异步作业由 awaitNextStage 在测试线程上执行，结果可复现
+        "flowable.async-executor-activate=false",
+        "flowable.cmmn.async-executor-activate=false"
+})
+class ReviewQueueIntegrationTest {
+
+    private static final List<String> DECISION_OUTPUTS = List.of("paymentMethod", "needInvestigation",
+            "needManualReview", "approvalLevel", "priority", "claimComplexity");
+    private static final long TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private ReviewQueueService reviewQueueService;
+
+    @Autowired
+    private ReviewQueueEntryRepository queueRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InsurancePolicyRepository insurancePolicyRepository;
+
+    @Autowired
+    private CmmnRuntimeService cmmnRuntimeService;
+
+    @Autowired
+    private CmmnTaskService cmmnTaskService;
+
+    @Autowired
+    private CmmnManagementService cmmnManagementService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void restoreQueueMode() {
+        ReflectionTestUtils.setField(reviewQueueService, "enabled", true);
+    }
+
+    @Test
+    void queuedReview_matchesSynchronousDecisionAndNextStage() {
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        InsurancePolicy policy = insurancePolicyRepository.findAll().stream()
+                .filter(candidate -> "车险".equals(candidate.getPolicyType()))
+                .findFirst()
+                .orElseThrow();
+
+        // 小额低风险与大额高风险分别走不同的决策规则和后续阶段
+        for (ClaimCaseDTO dto : List.of(claim(policy, admin, 500.0, "LOW"), claim(policy, admin, 80000.0, "HIGH"))) {
+            ReflectionTestUtils.setField(reviewQueueService, "enabled", false);
+            CaseOutcome synchronous = review(dto, admin);
+
+            ReflectionTestUtils.setField(reviewQueueService, "enabled", true);
+            double precomputedBefore = precomputedDecisions();
+            CaseOutcome queued = review(dto, admin);
+
+            assertThat(queued.decision()).as("decision outputs for %s", dto.getClaimedAmount())
+                    .isEqualTo(synchronous.decision())
+                    .containsKeys(DECISION_OUTPUTS.toArray(String[]::new));
+            assertThat(queued.stages()).as("active stages for %s", dto.getClaimedAmount())
+                    .isEqualTo(synchronous.stages());
+            assertThat(queued.tasks()).as("active tasks for %s", dto.getClaimedAmount())
+                    .isEqualTo(synchronous.tasks())
+                    .doesNotContain(ReviewQueueService.REVIEW_TASK_KEY);
+            // 队列路径的决策任务使用了工作器预先求值的结果
+            assertThat(precomputedDecisions()).isGreaterThan(precomputedBefore);
+        }
+        assertThat(queueRepository.count()).isZero();
+    }
+
+    /**
+     * 立案并完成审核，返回决策任务完成、后续阶段激活后的决策输出、活动阶段和活动任务
+     */
+    private CaseOutcome review(ClaimCaseDTO dto, User reviewer) {
+        ClaimCase claimCase = caseService.createClaimCase(dto);
+        String caseInstanceId = claimCase.getCaseInstanceId();
+        await(() -> activeTaskKeys(caseInstanceId).contains(ReviewQueueService.REVIEW_TASK_KEY), caseInstanceId,
+                "review task");
+
+        caseService.completeReviewTask(claimCase.getId(), reviewer.getUsername(), "ok", null);
+
+        await(() -> {
+            List<String> tasks = activeTaskKeys(caseInstanceId);
+            return !tasks.isEmpty() && !tasks.contains(ReviewQueueService.REVIEW_TASK_KEY)
+                    && cmmnManagementService.createJobQuery().caseInstanceId(caseInstanceId).count() == 0;
+        }, caseInstanceId, "next stage");
+
+        Map<String, Object> variables = cmmnRuntimeService.getVariables(caseInstanceId);
+        Map<String, Object> decision = new HashMap<>();
+        DECISION_OUTPUTS.stream()
+                .filter(variables::containsKey)
+                .forEach(name -> decision.put(name, variables.get(name)));
+        List<String> stages = cmmnRuntimeService.createPlanItemInstanceQuery()
+                .caseInstanceId(caseInstanceId)
+                .planItemDefinitionType(PlanItemDefinitionType.STAGE)
+                .planItemInstanceStateActive()
+                .list()
+                .stream()
+                .map(PlanItemInstance::getPlanItemDefinitionId)
+                .sorted()
+                .toList();
+        return new CaseOutcome(decision, stages, activeTaskKeys(caseInstanceId));
+    }
+
+    private List<String> activeTaskKeys(String caseInstanceId) {
+        return cmmnTaskService.createTaskQuery()
+                .caseInstanceId(caseInstanceId)
+                .active()
+                .list()
+                .stream()
+                .map(Task::getTaskDefinitionKey)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * 等待条件成立；期间在当前线程执行该案件的到期作业，审核队列由工作器线程处理
+     */
+    private void await(Supplier<Boolean> condition, String caseInstanceId, String description) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.get()) {
+            for (Job job : cmmnManagementService.createJobQuery().caseInstanceId(caseInstanceId).list()) {
+                try {
+                    cmmnManagementService.executeJob(job.getId());
+                } catch (FlowableObjectNotFoundException e) {
+                    // 作业已被执行
+                }
+            }
+            assertThat(System.currentTimeMillis()).as("waiting for %s of case instance %s", description,
+                    caseInstanceId).isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private double precomputedDecisions() {
+        Timer timer = meterRegistry.find("claim.decision.evaluation")
+                .tag("decision", DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY)
+                .tag("mode", "precomputed")
+                .tag("outcome", ClaimMetrics.OUTCOME_SUCCESS)
+                .timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private static ClaimCaseDTO claim(InsurancePolicy policy, User creator, double amount, String severity) {
+        ClaimCaseDTO dto = new ClaimCaseDTO();
+        dto.setPolicyId(policy.getId().toString());
+        dto.setClaimantName("Queue Claimant");
+        dto.setClaimantPhone("13800000000");
+        dto.setIncidentDate(LocalDate.now().minusDays(1).toString());
+        dto.setIncidentLocation("Queue");
+        dto.setIncidentDescription("Review queue parity");
+        dto.setClaimedAmount(amount);
+        dto.setClaimType("交通事故");
+        dto.setSeverity(severity);
+        dto.setCreatedById(creator.getId().toString());
+        return dto;
+    }
+
+    private record CaseOutcome(Map<String, Object> decision, List<String> stages, List<String> tasks) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.ReviewQueueEntry;
+import com.flowable.demo.domain.repository.ReviewQueueEntryRepository;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 审核完成队列：重复入队、死信替换，以及死信的重新排队和删除
+ */
+@DataJpaTest(properties = "app.review-queue.max-attempts=1")
+class ReviewQueueServiceTest {
+
+    @Configuration
+    @EntityScan("com.flowable.demo.domain.model")
+    @EnableJpaRepositories("com.flowable.demo.domain.repository")
+    @ImportAutoConfiguration(JacksonAutoConfiguration.class)
+    @Import({ ClaimStatisticsListener.class, ClaimStatisticsSnapshot.class, SearchIndexListener.class,
+            ReviewQueueService.class })
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private ReviewQueueService reviewQueueService;
+
+    @Autowired
+    private ReviewQueueEntryRepository queueRepository;
+
+    @Test
+    void enqueue_rejectsPendingEntryButReplacesDeadLetter() {
+        Task task = task("task-1", "case-1");
+        ReviewQueueEntry entry = reviewQueueService.enqueue(task, Map.of("reviewComments", "first"));
+
+        assertThatThrownBy(() -> reviewQueueService.enqueue(task, Map.of("reviewComments", "again")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already queued");
+
+        reviewQueueService.fail(entry.getId(), new IllegalStateException("boom"));
+        assertThat(queueRepository.findById(entry.getId())).get()
+                .extracting(ReviewQueueEntry::getStatus).isEqualTo(ReviewQueueEntry.Status.DEAD);
+
+        ReviewQueueEntry replaced = reviewQueueService.enqueue(task, Map.of("reviewComments", "second"));
+
+        assertThat(replaced.getId()).isEqualTo(entry.getId());
+        assertThat(replaced.getStatus()).isEqualTo(ReviewQueueEntry.Status.PENDING);
+        assertThat(replaced.getAttempts()).isZero();
+        assertThat(replaced.getLastError()).isNull();
+        assertThat(reviewQueueService.readVariables(replaced)).containsEntry("reviewComments", "second");
+        assertThat(queueRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void retryAndDelete_onlyChangeDeadLetters() {
+        ReviewQueueEntry entry = reviewQueueService.enqueue(task("task-2", "case-2"),
+                Map.of("reviewComments", "ok"));
+
+        assertThatThrownBy(() -> reviewQueueService.retry(entry.getId()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> reviewQueueService.delete(entry.getId()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> reviewQueueService.retry(UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        reviewQueueService.fail(entry.getId(), new IllegalStateException("boom"));
+        ReviewQueueEntry retried = reviewQueueService.retry(entry.getId());
+
+        assertThat(retried.getStatus()).isEqualTo(ReviewQueueEntry.Status.PENDING);
+        assertThat(retried.getAttempts()).isZero();
+        assertThat(reviewQueueService.readVariables(retried)).containsEntry("reviewComments", "ok");
+
+        reviewQueueService.fail(entry.getId(), new IllegalStateException("boom"));
+        reviewQueueService.delete(entry.getId());
+
+        assertThat(queueRepository.findByTaskId("task-2")).isEmpty();
+    }
+
+    private static Task task(String taskId, String caseInstanceId) {
+        Task task = mock(Task.class);
+        when(task.getId()).thenReturn(taskId);
+        when(task.getScopeId()).thenReturn(caseInstanceId);
+        return task;
+    }
+}
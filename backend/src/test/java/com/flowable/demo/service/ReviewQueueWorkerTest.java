@@ -0,0 +1,178 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.config.PrecomputedDecisionTaskActivityBehavior;
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.InsurancePolicy;
+import com.flowable.demo.domain.model.ReviewQueueEntry;
+import com.flowable.demo.domain.repository.ClaimCaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flowable.cmmn.api.CmmnTaskService;
+import org.flowable.common.engine.api.FlowableObjectNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewQueueWorkerTest {
+
+    @Mock
+    private ReviewQueueService reviewQueueService;
+
+    @Mock
+    private ClaimCaseRepository claimCaseRepository;
+
+    @Mock
+    private DecisionEvaluationService decisionEvaluationService;
+
+    @Mock
+    private CmmnTaskService cmmnTaskService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ReviewQueueWorker worker;
+
+    private ReviewQueueEntry first;
+    private ReviewQueueEntry second;
+
+    @BeforeEach
+    void setUp() {
+        worker = new ReviewQueueWorker(reviewQueueService, claimCaseRepository, decisionEvaluationService,
+                cmmnTaskService, transactionTemplate, new ClaimMetrics(new SimpleMeterRegistry()));
+        first = entry("task-1", "case-1", LocalDateTime.now().minusSeconds(2));
+        second = entry("task-2", "case-2", LocalDateTime.now().minusSeconds(1));
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(reviewQueueService.readVariables(any())).thenAnswer(invocation -> new HashMap<>());
+    }
+
+    @Test
+    void processBatch_loadsClaimsAndEvaluatesDecisionsOncePerBatch() {
+        List<UUID> claimed = List.of(second.getId(), first.getId());
+        when(reviewQueueService.claimDue(anyInt())).thenReturn(claimed);
+        when(reviewQueueService.findAllById(claimed)).thenReturn(List.of(second, first));
+        when(claimCaseRepository.findByCaseInstanceIdIn(anyList()))
+                .thenReturn(List.of(claimCase("case-1", "500"), claimCase("case-2", "80000")));
+        when(decisionEvaluationService.evaluateBatch(eq(DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY),
+                anyList())).thenAnswer(invocation -> {
+                    List<Map<String, Object>> inputs = invocation.getArgument(1);
+                    return new DecisionEvaluationService.BatchResult(DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY,
+                            1, true, inputs.stream()
+                                    .map(input -> Map.<String, Object>of("complexity",
+                                            "complexity-" + input.get("claimedAmount")))
+                                    .toList());
+                });
+
+        assertThat(worker.processBatch()).isEqualTo(2);
+
+        verify(claimCaseRepository, times(1)).findByCaseInstanceIdIn(anyList());
+        verify(decisionEvaluationService, times(1)).evaluateBatch(any(), anyList());
+        ArgumentCaptor<Map<String, Object>> transientVariables = ArgumentCaptor.forClass(Map.class);
+        // 按入队顺序完成
+        var order = inOrder(cmmnTaskService);
+        order.verify(cmmnTaskService).complete(eq("task-1"), anyMap(), transientVariables.capture());
+        order.verify(cmmnTaskService).complete(eq("task-2"), anyMap(), transientVariables.capture());
+        assertThat(transientVariables.getAllValues().get(0))
+                .containsEntry(PrecomputedDecisionTaskActivityBehavior.PRECOMPUTED_DECISIONS_VARIABLE,
+                        Map.of(DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY, Map.of("complexity", "complexity-500")));
+        assertThat(transientVariables.getAllValues().get(1))
+                .containsEntry(PrecomputedDecisionTaskActivityBehavior.PRECOMPUTED_DECISIONS_VARIABLE,
+                        Map.of(DecisionEvaluationService.CLAIM_TRIAGE_DECISION_KEY, Map.of("complexity", "complexity-80000")));
+        verify(reviewQueueService).complete(first.getId());
+        verify(reviewQueueService).complete(second.getId());
+    }
+
+    @Test
+    void processBatch_passesDecisionInputsAndLetsDecisionTaskEvaluateWhenBatchEvaluationFails() {
+        when(reviewQueueService.claimDue(anyInt())).thenReturn(List.of(first.getId()));
+        when(reviewQueueService.findAllById(any())).thenReturn(List.of(first));
+        when(claimCaseRepository.findByCaseInstanceIdIn(anyList())).thenReturn(List.of(claimCase("case-1", "500")));
+        when(decisionEvaluationService.evaluateBatch(any(), anyList()))
+                .thenThrow(new IllegalArgumentException("Decision not found"));
+
+        worker.processBatch();
+
+        ArgumentCaptor<Map<String, Object>> variables = ArgumentCaptor.forClass(Map.class);
+        verify(cmmnTaskService).complete(eq("task-1"), variables.capture(), eq(Map.of()));
+        assertThat(variables.getValue())
+                .containsEntry("claimedAmount", new BigDecimal("500"))
+                .containsEntry("policyType", "车险")
+                .containsEntry("severity", "LOW");
+        verify(reviewQueueService).complete(first.getId());
+    }
+
+    @Test
+    void processBatch_dropsEntriesForMissingTasksAndRetriesFailures() {
+        when(reviewQueueService.claimDue(anyInt())).thenReturn(List.of(first.getId(), second.getId()));
+        when(reviewQueueService.findAllById(any())).thenReturn(List.of(first, second));
+        when(claimCaseRepository.findByCaseInstanceIdIn(anyList())).thenReturn(List.of());
+        IllegalStateException failure = new IllegalStateException("optimistic lock");
+        doThrow(new FlowableObjectNotFoundException("no task")).when(cmmnTaskService)
+                .complete(eq("task-1"), anyMap(), anyMap());
+        doThrow(failure).when(cmmnTaskService).complete(eq("task-2"), anyMap(), anyMap());
+
+        worker.processBatch();
+
+        verify(decisionEvaluationService, never()).evaluateBatch(any(), anyList());
+        verify(reviewQueueService).complete(first.getId());
+        verify(reviewQueueService).fail(second.getId(), failure);
+        verify(reviewQueueService, never()).complete(second.getId());
+    }
+
+    @Test
+    void processBatch_returnsZeroWhenNothingIsDue() {
+        when(reviewQueueService.claimDue(anyInt())).thenReturn(List.of());
+
+        assertThat(worker.processBatch()).isZero();
+
+        verifyNoInteractions(claimCaseRepository, decisionEvaluationService, cmmnTaskService);
+    }
+
+    private ReviewQueueEntry entry(String taskId, String caseInstanceId, LocalDateTime createdAt) {
+        return ReviewQueueEntry.builder()
+                .id(UUID.randomUUID())
+                .taskId(taskId)
+                .caseInstanceId(caseInstanceId)
+                .status(ReviewQueueEntry.Status.PROCESSING)
+                .nextAttemptAt(createdAt)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private ClaimCase claimCase(String caseInstanceId, String claimedAmount) {
+        InsurancePolicy policy = InsurancePolicy.builder()
+                .policyType("车险")
+                .coverageAmount(new BigDecimal("100000"))
+                .build();
+        return ClaimCase.builder()
+                .caseInstanceId(caseInstanceId)
+                .policy(policy)
+                .claimType("车辆碰撞")
+                .claimedAmount(new BigDecimal(claimedAmount))
+                .severity(ClaimCase.Severity.LOW)
+                .build();
+    }
+}
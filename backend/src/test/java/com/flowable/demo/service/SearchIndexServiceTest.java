@@ -0,0 +1,239 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.ClaimCase;
+import com.flowable.demo.domain.model.InsurancePolicy;
+import com.flowable.demo.domain.model.SearchIndexOutbox;
+import com.flowable.demo.domain.model.SearchToken;
+import com.flowable.demo.domain.model.SearchToken.DocumentType;
+import com.flowable.demo.domain.model.User;
+import com.flowable.demo.domain.repository.SearchIndexOutboxRepository;
+import com.flowable.demo.domain.repository.SearchTokenRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * 全文检索：分词规则，词元查询在 H2 上的实际检索和排序，以及发件箱和对账维护索引
+ */
+@DataJpaTest(properties = "app.search.rebuild-on-startup=false")
+class SearchIndexServiceTest {
+
+    @Configuration
+    @EntityScan("com.flowable.demo.domain.model")
+    @EnableJpaRepositories("com.flowable.demo.domain.repository")
+    @Import({ SearchIndexService.class, SearchIndexListener.class, ClaimStatisticsListener.class,
+            ClaimStatisticsSnapshot.class })
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private SearchTokenRepository searchTokenRepository;
+
+    @Autowired
+    private SearchIndexOutboxRepository outboxRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void tokenize_emitsOneGramPerPositionIncludingShortTail() {
+        List<SearchToken> tokens = SearchIndexService.tokenize(document(UUID.randomUUID(), "AB-12", null, null, null));
+
+        assertThat(tokens).extracting(SearchToken::getToken).containsExactly("ab1", "b12", "12", "2");
+        assertThat(tokens).extracting(SearchToken::getPosition).containsExactly(0, 1, 2, 3);
+    }
+
+    @Test
+    void queryGrams_coverWholeTerm() {
+        assertThat(SearchIndexService.queryGrams("1380013800"))
+                .containsExactly(entry(0, "138"), entry(3, "001"), entry(6, "380"), entry(7, "800"));
+        assertThat(SearchIndexService.queryGrams("abcd")).containsExactly(entry(0, "abc"), entry(1, "bcd"));
+    }
+
+    @Test
+    void search_matchesSubstringsAndRanksByFieldAndPrefix() {
+        UUID byNumber = UUID.randomUUID();
+        UUID byPhone = UUID.randomUUID();
+        UUID byLocation = UUID.randomUUID();
+        searchIndexService.index(document(byNumber, "CLM202501010001", "021-5555", "张三", "上海浦东"));
+        searchIndexService.index(document(byPhone, "CLM202502020002", "138 0013 8000", "李四", "北京朝阳"));
+        searchIndexService.index(document(byLocation, "CLM202503030003", "010-7777", "王五", "北京海淀13800"));
+
+        assertThat(searchIndexService.rank(DocumentType.CLAIM_CASE, "1380013")).containsExactly(byPhone);
+        assertThat(searchIndexService.rank(DocumentType.CLAIM_CASE, "138")).containsExactly(byPhone, byLocation);
+        assertThat(searchIndexService.rank(DocumentType.CLAIM_CASE, "clm2025"))
+                .containsExactlyInAnyOrder(byNumber, byPhone, byLocation);
+        assertThat(searchIndexService.rank(DocumentType.CLAIM_CASE, "北京 李四")).containsExactly(byPhone);
+        assertThat(searchIndexService.rank(DocumentType.CLAIM_CASE, "海淀")).containsExactly(byLocation);
+        assertThat(searchIndexService.rank(DocumentType.CLAIM_CASE, "深圳")).isEmpty();
+        // "800"、"013"、"138" 都出现在电话中，但不构成连续子串
+        assertThat(searchIndexService.rank(DocumentType.CLAIM_CASE, "8000138")).isEmpty();
+        assertThat(searchIndexService.rank(DocumentType.INSURANCE_POLICY, "138")).isEmpty();
+    }
+
+    @Test
+    void search_fallsBackToPositionalPairsWhenAllGramsAreCommon() {
+        // 检索词 "5501234" 的 n-gram 为 550、123、234，每个都出现在 3 个文档中（超过上限 2）
+        UUID target = UUID.randomUUID();
+        searchIndexService.index(document(target, "A", "13955501234", null, null));
+        searchIndexService.index(document(UUID.randomUUID(), "B", "13955509999", null, null));
+        searchIndexService.index(document(UUID.randomUUID(), "C", "13900001234", null, null));
+        searchIndexService.index(document(UUID.randomUUID(), "D", "13955500123", null, null));
+        searchIndexService.index(document(UUID.randomUUID(), "E", "18801200234", null, null));
+        ReflectionTestUtils.setField(searchIndexService, "maxCandidates", 2);
+        try {
+            assertThat(searchIndexService.rank(DocumentType.CLAIM_CASE, "5501234")).containsExactly(target);
+        } finally {
+            ReflectionTestUtils.setField(searchIndexService, "maxCandidates", 1000);
+        }
+    }
+
+    @Test
+    void index_replacesTokensAndRemovedDocumentsDropThem() {
+        UUID id = UUID.randomUUID();
+        searchIndexService.index(document(id, "CLM1", "111", "张三", "上海"));
+        searchIndexService.index(document(id, "CLM1", "222", "张三", "上海"));
+
+        assertThat(searchIndexService.rank(DocumentType.CLAIM_CASE, "111")).isEmpty();
+        assertThat(searchIndexService.rank(DocumentType.CLAIM_CASE, "222")).containsExactly(id);
+
+        searchIndexService.index(SearchIndexService.removed(DocumentType.CLAIM_CASE, id));
+
+        assertThat(searchTokenRepository.findByDocumentTypeAndDocumentId(DocumentType.CLAIM_CASE, id)).isEmpty();
+    }
+
+    @Test
+    void search_pagesRankedIds() {
+        for (int i = 0; i < 5; i++) {
+            searchIndexService.index(document(UUID.randomUUID(), "CLM" + i, null, "测试" + i, null));
+        }
+
+        SearchIndexService.SearchPage<UUID> page = searchIndexService.search(DocumentType.CLAIM_CASE, "测试",
+                PageRequest.of(1, 2));
+
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.isTruncated()).isFalse();
+    }
+
+    @Test
+    void search_keepsHighestWeightedCandidatesAndReportsTruncation() {
+        UUID inLocation = UUID.randomUUID();
+        UUID atNameStart = UUID.randomUUID();
+        UUID inName = UUID.randomUUID();
+        searchIndexService.index(document(inLocation, "A", null, null, "上海测试员"));
+        searchIndexService.index(document(atNameStart, "B", null, "测试员", null));
+        searchIndexService.index(document(inName, "C", null, "王测试员", null));
+        ReflectionTestUtils.setField(searchIndexService, "maxCandidates", 2);
+        try {
+            // 单个词元的倒排按排序值 (权重降序, 位置) 读取，截断时丢弃的是权重最低的地点字段命中
+            SearchIndexService.SearchPage<UUID> page = searchIndexService.search(DocumentType.CLAIM_CASE, "测试员",
+                    PageRequest.of(0, 10));
+
+            assertThat(page.getContent()).containsExactly(atNameStart, inName);
+            assertThat(page.isTruncated()).isTrue();
+            assertThat(page.withContent(List.of("b", "c")).isTruncated()).isTrue();
+
+            // 更短的检索词覆盖多个词元，按索引顺序截取，仍标记为截断
+            SearchIndexService.SearchPage<UUID> prefixPage = searchIndexService.search(DocumentType.CLAIM_CASE,
+                    "测试", PageRequest.of(0, 10));
+
+            assertThat(prefixPage.getContent()).hasSize(2).isSubsetOf(inLocation, atNameStart, inName);
+            assertThat(prefixPage.isTruncated()).isTrue();
+        } finally {
+            ReflectionTestUtils.setField(searchIndexService, "maxCandidates", 1000);
+        }
+    }
+
+    @Test
+    void processOutbox_indexesWritesRecordedInTheEntityTransaction() {
+        ClaimCase claimCase = persistClaimCase("CLM202504040004", "深圳南山");
+
+        // 发件箱条目与实体在同一事务中写入，索引前检索不到
+        assertThat(outboxRepository.findAll()).extracting(SearchIndexOutbox::getDocumentId)
+                .contains(claimCase.getId(), claimCase.getPolicy().getId());
+        assertThat(searchIndexService.rank(DocumentType.CLAIM_CASE, "南山")).isEmpty();
+
+        searchIndexService.processOutbox();
+
+        assertThat(searchIndexService.rank(DocumentType.CLAIM_CASE, "南山")).containsExactly(claimCase.getId());
+        assertThat(searchIndexService.rank(DocumentType.INSURANCE_POLICY, "pol-outbox"))
+                .containsExactly(claimCase.getPolicy().getId());
+        assertThat(outboxRepository.count()).isZero();
+
+        entityManager.remove(claimCase);
+        entityManager.flush();
+        searchIndexService.processOutbox();
+
+        assertThat(searchTokenRepository.findByDocumentTypeAndDocumentId(DocumentType.CLAIM_CASE, claimCase.getId()))
+                .isEmpty();
+    }
+
+    @Test
+    void reconcile_reindexesRecentlyUpdatedDocumentsMissingFromIndex() {
+        ClaimCase claimCase = persistClaimCase("CLM202505050005", "杭州西湖");
+        // 模拟发件箱条目丢失（如绕过实体写库）
+        outboxRepository.deleteAll();
+
+        searchIndexService.reconcile();
+
+        assertThat(searchIndexService.rank(DocumentType.CLAIM_CASE, "西湖")).containsExactly(claimCase.getId());
+    }
+
+    private ClaimCase persistClaimCase(String claimNumber, String location) {
+        User creator = User.builder().username("creator-" + claimNumber).password("x").firstName("creator").build();
+        entityManager.persist(creator);
+        InsurancePolicy policy = InsurancePolicy.builder()
+                .policyNumber("POL-OUTBOX-" + claimNumber)
+                .policyHolderName("Holder")
+                .policyType("AUTO")
+                .coverageAmount(BigDecimal.valueOf(100000))
+                .premiumAmount(BigDecimal.valueOf(1000))
+                .startDate(LocalDate.now().minusYears(1))
+                .endDate(LocalDate.now().plusYears(1))
+                .build();
+        entityManager.persist(policy);
+        ClaimCase claimCase = ClaimCase.builder()
+                .claimNumber(claimNumber)
+                .policy(policy)
+                .claimType("AUTO")
+                .claimedAmount(BigDecimal.TEN)
+                .incidentDate(LocalDate.now())
+                .incidentLocation(location)
+                .claimantName("Claimant")
+                .severity(ClaimCase.Severity.LOW)
+                .status(ClaimCase.ClaimStatus.SUBMITTED)
+                .createdBy(creator)
+                .build();
+        entityManager.persist(claimCase);
+        entityManager.flush();
+        return claimCase;
+    }
+
+    private SearchIndexService.Document document(UUID id, String claimNumber, String phone, String name,
+            String location) {
+        return new SearchIndexService.Document(DocumentType.CLAIM_CASE, id, List.of(
+                new SearchIndexService.Field(4, claimNumber),
+                new SearchIndexService.Field(3, phone),
+                new SearchIndexService.Field(2, name),
+                new SearchIndexService.Field(1, location)));
+    }
+}
@@ -0,0 +1,90 @@
+package com.flowable.demo.service;
+
+import org.flowable.cmmn.api.CmmnTaskService;
+import org.flowable.identitylink.api.IdentityLinkInfo;
+import org.flowable.task.api.Task;
+import org.flowable.task.api.TaskQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskIdentityLinkLoaderTest {
+
+    @Mock
+    private CmmnTaskService cmmnTaskService;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private TaskQuery taskQuery;
+
+    @InjectMocks
+    private TaskIdentityLinkLoader loader;
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 20, 50 })
+    void loadIdentityLinks_usesOneQueryPerPage(int pageSize) {
+        when(cmmnTaskService.createTaskQuery()).thenReturn(taskQuery);
+        List<String> taskIds = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            String taskId = "task-" + i;
+            taskIds.add(taskId);
+            tasks.add(task(taskId, List.of(link("candidate", null, "managers"), link("candidate", "user" + i, null))));
+        }
+        when(taskQuery.list()).thenReturn(tasks);
+
+        Map<String, List<IdentityLinkInfo>> result = loader.loadIdentityLinks(taskIds);
+
+        assertThat(result).hasSize(pageSize);
+        assertThat(result.get("task-0")).extracting(IdentityLinkInfo::getUserId).containsExactly(null, "user0");
+        verify(cmmnTaskService, times(1)).createTaskQuery();
+        verify(taskQuery, times(1)).includeIdentityLinks();
+        verify(taskQuery, times(1)).list();
+        verify(cmmnTaskService, never()).getIdentityLinksForTask(anyString());
+    }
+
+    @Test
+    void loadIdentityLinks_returnsEmptyListForTaskWithoutLinks() {
+        when(cmmnTaskService.createTaskQuery()).thenReturn(taskQuery);
+        when(taskQuery.list()).thenReturn(Collections.emptyList());
+
+        Map<String, List<IdentityLinkInfo>> result = loader.loadIdentityLinks(List.of("task-1"));
+
+        assertThat(result.get("task-1")).isEmpty();
+    }
+
+    @Test
+    void loadIdentityLinks_skipsQueryForEmptyPage() {
+        assertThat(loader.loadIdentityLinks(Collections.emptyList())).isEmpty();
+        verifyNoInteractions(cmmnTaskService);
+    }
+
+    private Task task(String id, List<IdentityLinkInfo> links) {
+        Task task = mock(Task.class);
+        when(task.getId()).thenReturn(id);
+        doReturn(links).when(task).getIdentityLinks();
+        return task;
+    }
+
+    private IdentityLinkInfo link(String type, String userId, String groupId) {
+        IdentityLinkInfo link = mock(IdentityLinkInfo.class);
+        lenient().when(link.getType()).thenReturn(type);
+        lenient().when(link.getUserId()).thenReturn(userId);
+        lenient().when(link.getGroupId()).thenReturn(groupId);
+        return link;
+    }
+}
@@ -0,0 +1,119 @@
+package com.flowable.demo.service;
+
+import org.flowable.cmmn.api.CmmnTaskService;
+import org.flowable.engine.ProcessEngine;
+import org.flowable.engine.ProcessEngineConfiguration;
+import org.flowable.engine.TaskService;
+import org.flowable.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.flowable.task.api.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 游标分页：在内存引擎上创建大量创建时间相同的任务，逐页翻完后与数据库的完整排序结果逐条比对
+ */
+class TaskInboxServiceCursorTest {
+
+    private ProcessEngine processEngine;
+    private TaskService taskService;
+    private TaskInboxService taskInboxService;
+
+    @BeforeEach
+    void setUp() {
+        ProcessEngineConfiguration configuration = new StandaloneInMemProcessEngineConfiguration()
+                .setJdbcUrl("jdbc:h2:mem:task-inbox-cursor;DB_CLOSE_DELAY=1000")
+                .setDatabaseSchemaUpdate(ProcessEngineConfiguration.DB_SCHEMA_UPDATE_CREATE_DROP);
+        processEngine = configuration.buildProcessEngine();
+        taskService = processEngine.getTaskService();
+        CmmnTaskService cmmnTaskService = mock(CmmnTaskService.class);
+        // 两个引擎共用任务表，首页查询同样由内存引擎执行
+        when(cmmnTaskService.createTaskQuery()).thenAnswer(invocation -> taskService.createTaskQuery());
+        taskInboxService = new TaskInboxService(cmmnTaskService, taskService);
+
+        Date newer = new Date(2_000_000L);
+        Date older = new Date(1_000_000L);
+        for (int i = 0; i < 7; i++) {
+            createTask(newer, "managers", null);
+        }
+        for (int i = 0; i < 5; i++) {
+            createTask(older, i % 2 == 0 ? "managers" : null, "alice");
+        }
+        createTask(newer, "managers", null);
+        createTask(newer, "clerks", null);
+        createTask(newer, "managers", "bob");
+    }
+
+    @AfterEach
+    void tearDown() {
+        processEngine.close();
+    }
+
+    @Test
+    void findSlice_claimable_pagesThroughTiesWithoutSkipsOrDuplicates() {
+        List<Task> expected = taskService.createTaskQuery()
+                .or().taskCandidateUser("alice").taskCandidateGroupIn(List.of("managers")).endOr()
+                .active()
+                .orderByTaskCreateTime().desc().orderByTaskId().desc()
+                .list();
+
+        List<String> visited = pageThrough(TaskInboxService.InboxType.CLAIMABLE, List.of("managers"));
+
+        assertThat(expected).hasSize(14);
+        assertThat(visited).containsExactlyElementsOf(expected.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void findSlice_assigned_pagesThroughTiesWithoutSkipsOrDuplicates() {
+        Task first = taskService.createTaskQuery().taskCandidateGroup("managers").listPage(0, 4).get(0);
+        Date createTime = first.getCreateTime();
+        List<String> assigned = new ArrayList<>();
+        for (Task task : taskService.createTaskQuery().taskCandidateGroup("managers").taskCreatedOn(createTime)
+                .listPage(0, 4)) {
+            taskService.setAssignee(task.getId(), "carol");
+            assigned.add(task.getId());
+        }
+
+        List<String> visited = pageThrough(TaskInboxService.InboxType.ASSIGNED, List.of());
+
+        assertThat(visited).containsExactlyInAnyOrderElementsOf(assigned);
+        assertThat(visited).doesNotHaveDuplicates().hasSize(4);
+    }
+
+    private List<String> pageThrough(TaskInboxService.InboxType type, List<String> groups) {
+        String username = type == TaskInboxService.InboxType.ASSIGNED ? "carol" : "alice";
+        List<String> visited = new ArrayList<>();
+        Date cursorCreateTime = null;
+        String cursorTaskId = null;
+        TaskInboxService.InboxSlice slice;
+        do {
+            slice = taskInboxService.findSlice(type, username, groups, cursorCreateTime, cursorTaskId, 2,
+                    TaskInboxService.CountMode.NONE);
+            slice.getTasks().forEach(task -> visited.add(task.getId()));
+            Task last = slice.getTasks().get(slice.getTasks().size() - 1);
+            cursorCreateTime = last.getCreateTime();
+            cursorTaskId = last.getId();
+        } while (slice.isHasNext());
+        return visited;
+    }
+
+    private void createTask(Date createTime, String candidateGroup, String candidateUser) {
+        processEngine.getProcessEngineConfiguration().getClock().setCurrentTime(createTime);
+        Task task = taskService.newTask();
+        taskService.saveTask(task);
+        if (candidateGroup != null) {
+            taskService.addCandidateGroup(task.getId(), candidateGroup);
+        }
+        if (candidateUser != null) {
+            taskService.addCandidateUser(task.getId(), candidateUser);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.flowable.demo.service;
+
+import org.flowable.cmmn.api.CmmnTaskService;
+import org.flowable.task.api.Task;
+import org.flowable.task.api.TaskQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskInboxServiceTest {
+
+    @Mock
+    private CmmnTaskService cmmnTaskService;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private TaskQuery taskQuery;
+
+    @InjectMocks
+    private TaskInboxService taskInboxService;
+
+    @BeforeEach
+    void setUp() {
+        when(cmmnTaskService.createTaskQuery()).thenReturn(taskQuery);
+    }
+
+    @Test
+    void findPage_pushesPagingToDatabase() {
+        List<Task> tasks = List.of(task("t2"), task("t1"));
+        when(taskQuery.listPage(20, 10)).thenReturn(tasks);
+        when(taskQuery.count()).thenReturn(22L);
+
+        Page<Task> page = taskInboxService.findPage(TaskInboxService.InboxType.ASSIGNED, "alice",
+                Collections.emptyList(), PageRequest.of(2, 10));
+
+        assertThat(page.getContent()).containsExactlyElementsOf(tasks);
+        assertThat(page.getTotalElements()).isEqualTo(22L);
+        verify(taskQuery, never()).list();
+    }
+
+    private Task task(String id) {
+        Task task = mock(Task.class);
+        lenient().when(task.getId()).thenReturn(id);
+        return task;
+    }
+}
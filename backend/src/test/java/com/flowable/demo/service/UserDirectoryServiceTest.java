@@ -0,0 +1,86 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.Role;
+import com.flowable.demo.domain.model.User;
+import com.flowable.demo.domain.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDirectoryServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserDirectoryService userDirectoryService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findUsers_pagesInDatabaseThenLoadsRolesForPageInOrder() {
+        User alice = user("alice");
+        User bob = user("bob");
+        User aliceWithRoles = user("alice");
+        aliceWithRoles.setId(alice.getId());
+        aliceWithRoles.setRoles(Set.of(Role.builder().name("ADMIN").build()));
+        User bobWithRoles = user("bob");
+        bobWithRoles.setId(bob.getId());
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        when(userRepository.findAll(any(Specification.class), pageableCaptor.capture()))
+                .thenAnswer(inv -> new PageImpl<>(List.of(alice, bob), inv.getArgument(1), 42));
+        when(userRepository.findAllWithRolesByIdIn(List.of(alice.getId(), bob.getId())))
+                .thenReturn(List.of(bobWithRoles, aliceWithRoles));
+
+        Page<User> page = userDirectoryService.findUsers("claims", "ADMIN", true, PageRequest.of(2, 2));
+
+        assertThat(page.getTotalElements()).isEqualTo(42);
+        assertThat(page.getContent()).containsExactly(aliceWithRoles, bobWithRoles);
+        assertThat(page.getContent().get(0).getRoles()).extracting(Role::getName).containsExactly("ADMIN");
+        Pageable used = pageableCaptor.getValue();
+        assertThat(used.getPageNumber()).isEqualTo(2);
+        assertThat(used.getSort()).containsExactly(Sort.Order.asc("username"), Sort.Order.asc("id"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findUsers_emptyPageSkipsRoleQuery() {
+        when(userRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(Page.empty());
+
+        assertThat(userDirectoryService.findUsers(null, null, null, PageRequest.of(0, 20))).isEmpty();
+
+        verify(userRepository, never()).findAllWithRolesByIdIn(any());
+    }
+
+    @Test
+    void withStableSort_keepsRequestedOrderAndRejectsUnknownProperties() {
+        Pageable pageable = UserDirectoryService.withStableSort(
+                PageRequest.of(0, 10, Sort.by(Sort.Order.desc("createdAt"))));
+
+        assertThat(pageable.getSort()).containsExactly(Sort.Order.desc("createdAt"), Sort.Order.asc("id"));
+        assertThatThrownBy(() -> UserDirectoryService.withStableSort(PageRequest.of(0, 10, Sort.by("password"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private User user(String username) {
+        return User.builder().id(UUID.randomUUID()).username(username).password("x").build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.flowable.demo.service;
+
+import com.flowable.demo.domain.model.Role;
+import com.flowable.demo.domain.model.User;
+import com.flowable.demo.domain.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserGroupResolverTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserGroupResolver resolver;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(resolver, "ttlMs", 60_000L);
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("manager");
+        Role manager = new Role();
+        manager.setName("MANAGER");
+        Role approver = new Role();
+        approver.setName("APPROVER");
+        Role handler = new Role();
+        handler.setName("CLAIM_HANDLER");
+        user.setRoles(Set.of(manager, approver, handler));
+    }
+
+    @Test
+    void resolve_mapsRolesToDistinctGroupsAndCaches() {
+        when(userRepository.findByIdWithRoles(user.getId())).thenReturn(Optional.of(user));
+
+        UserGroupResolver.UserGroups first = resolver.resolve(user.getId().toString());
+        UserGroupResolver.UserGroups second = resolver.resolve(user.getId().toString());
+
+        assertThat(first.getUsername()).isEqualTo("manager");
+        assertThat(first.getGroups()).containsExactly("managers");
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findByIdWithRoles(user.getId());
+    }
+
+    @Test
+    void evict_forcesReloadForIdAndUsernameKeys() {
+        when(userRepository.findByIdWithRoles(user.getId())).thenReturn(Optional.of(user));
+        when(userRepository.findByUsernameWithRoles("manager")).thenReturn(Optional.of(user));
+
+        resolver.resolve(user.getId().toString());
+        resolver.resolve("manager");
+        resolver.evict(user);
+        resolver.resolve(user.getId().toString());
+        resolver.resolve("manager");
+
+        verify(userRepository, times(2)).findByIdWithRoles(user.getId());
+        verify(userRepository, times(2)).findByUsernameWithRoles("manager");
+    }
+
+    @Test
+    void resolve_unknownUserThrows() {
+        when(userRepository.findByUsernameWithRoles(any())).thenReturn(Optional.empty());
+
+        assertThat(resolver.find("nobody")).isEmpty();
+        assertThatThrownBy(() -> resolver.resolve("nobody"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("User not found");
+    }
+}
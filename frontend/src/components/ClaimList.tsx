@@ -109,6 +109,7 @@ const ClaimList: React.FC = () => {
   const getStatusColor = (status: string) => {
     const colors: { [key: string]: string } = {
       'DRAFT': 'default',
+      'PENDING_START': 'processing',
       'SUBMITTED': 'processing',
       'PENDING': 'warning',
       'UNDER_REVIEW': 'processing',
@@ -123,6 +124,7 @@ const ClaimList: React.FC = () => {
   const getStatusText = (status: string) => {
     const texts: { [key: string]: string } = {
       'DRAFT': '草稿',
+      'PENDING_START': '待启动',
       'SUBMITTED': '已提交',
       'PENDING': '待处理',
       'UNDER_REVIEW': '审核中',
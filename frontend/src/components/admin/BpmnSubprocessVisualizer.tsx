@@ -63,6 +63,15 @@ export const BpmnSubprocessVisualizer: React.FC<BpmnSubprocessVisualizerProps> =
     };
   }, [planItemInstanceId]);
 
+  // Release the PNG object URL when the diagram is replaced or the component unmounts
+  useEffect(() => {
+    return () => {
+      if (flowableDiagramContent?.content.startsWith('blob:')) {
+        URL.revokeObjectURL(flowableDiagramContent.content);
+      }
+    };
+  }, [flowableDiagramContent]);
+
   // Load diagram when render mode changes
   useEffect(() => {
     if (!visualization) return;
@@ -181,17 +190,10 @@ export const BpmnSubprocessVisualizer: React.FC<BpmnSubprocessVisualizerProps> =
   const loadFlowableDiagram = async () => {
     console.log('Loading Flowable generated diagram for plan item:', planItemInstanceId);
     try {
-      const response = await caseApi.getSubprocessDiagram(planItemInstanceId);
-      console.log('Flowable diagram loaded, length:', response.data.length);
-      
-      // Check if it's a base64 PNG data URL
-      if (response.data.startsWith('data:image/png;base64,')) {
-        console.log('Flowable diagram is PNG format');
-        setFlowableDiagramContent({ type: 'png', content: response.data });
-      } else {
-        console.log('Flowable diagram is SVG format');
-        setFlowableDiagramContent({ type: 'svg', content: response.data });
-      }
+      // Binary PNG endpoint: the browser revalidates with ETag and reuses the cached image on 304
+      const response = await caseApi.getSubprocessDiagramPng(planItemInstanceId);
+      console.log('Flowable diagram loaded, size:', response.data.size);
+      setFlowableDiagramContent({ type: 'png', content: URL.createObjectURL(response.data) });
     } catch (err: any) {
       console.error('Failed to load Flowable diagram:', err);
       setError(err.response?.data?.message || err.message || 'Failed to load Flowable diagram');
@@ -301,6 +301,14 @@ export const caseApi = {
         adminApi.get<string>(`/cases/plan-items/${planItemInstanceId}/subprocess-diagram`, {
             responseType: 'text'
         }),
+
+    /**
+     * 获取 BPMN 子流程流程图 PNG（二进制，支持 ETag 协商缓存）
+     */
+    getSubprocessDiagramPng: (planItemInstanceId: string) =>
+        adminApi.get<Blob>(`/cases/plan-items/${planItemInstanceId}/subprocess-diagram.png`, {
+            responseType: 'blob'
+        }),
 };
 
 // Process Management API
@@ -31,7 +31,7 @@ export interface ClaimCase {
   policy?: InsurancePolicy;
   claimType: string;
   severity: 'HIGH' | 'MEDIUM' | 'LOW';
-  status: 'DRAFT' | 'SUBMITTED' | 'PENDING' | 'UNDER_REVIEW' | 'APPROVED' | 'REJECTED' | 'PAID' | 'CLOSED';
+  status: 'DRAFT' | 'PENDING_START' | 'SUBMITTED' | 'PENDING' | 'UNDER_REVIEW' | 'APPROVED' | 'REJECTED' | 'PAID' | 'CLOSED';
   claimantName: string;
   claimantPhone: string;
   claimantEmail: string;